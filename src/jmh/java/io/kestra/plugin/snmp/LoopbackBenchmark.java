@@ -0,0 +1,126 @@
+package io.kestra.plugin.snmp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+import org.snmp4j.PDU;
+import org.snmp4j.Target;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.TimeTicks;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.VariableBinding;
+
+/**
+ * End-to-end notifications per second over the loopback interface, from a pooled session to an in-process
+ * {@link TrapReceiver}, so that socket, dispatch and decoding costs are measured without network access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LoopbackBenchmark {
+    private static final int BATCH = 1000;
+
+    @Param({ "1", "64" })
+    public int window;
+
+    private TrapReceiver receiver;
+    private SnmpSessionPool.Lease lease;
+    private Target<?> target;
+    private final List<Trap> drained = new ArrayList<>(BATCH);
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        receiver = new TrapReceiver(
+            TrapReceiver.Settings.builder()
+                .bindAddress("127.0.0.1")
+                .port(0)
+                .receiveBufferSize(4 * 1024 * 1024)
+                .decodeThreads(4)
+                .queueSize(BATCH * 4)
+                .communities(List.of())
+                .users(List.of())
+                .build(),
+            LoggerFactory.getLogger(LoopbackBenchmark.class)
+        );
+        receiver.start();
+
+        lease = SnmpSessionPool.getInstance().borrow(new SnmpSessionPool.Key("udp", null, "loopback"));
+        target = SnmpVersion.V2C.target(new UdpAddress("127.0.0.1/" + receiver.port()), 1000, 1, "public", null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try {
+            lease.close();
+        } finally {
+            receiver.close();
+        }
+    }
+
+    /**
+     * Traps sent and received; traps lost by the socket are waited for until the receiver stays idle.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int trap() throws Exception {
+        AsyncNotifier notifier = new AsyncNotifier(lease.getSnmp(), window, false);
+        for (int i = 0; i < BATCH; i++) {
+            notifier.send(notification(PDU.TRAP, i), target);
+        }
+        return drain(BATCH);
+    }
+
+    /**
+     * INFORMs sent and acknowledged, with at most {@code window} in flight.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int inform() throws Exception {
+        AsyncNotifier notifier = new AsyncNotifier(lease.getSnmp(), window, false);
+        List<CompletableFuture<AsyncNotifier.Result>> futures = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            futures.add(notifier.send(notification(PDU.INFORM, i), target));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        return drain(BATCH);
+    }
+
+    private int drain(int expected) throws InterruptedException {
+        int received = 0;
+        while (received < expected) {
+            Trap trap = receiver.poll(100, TimeUnit.MILLISECONDS);
+            if (trap == null) {
+                break;
+            }
+            received++;
+            drained.clear();
+            received += receiver.drainTo(drained, expected - received);
+        }
+        return received;
+    }
+
+    private static PDU notification(int type, int sequence) {
+        PDU pdu = SnmpVersion.V2C.pdu(type);
+        pdu.add(new VariableBinding(SnmpConstants.sysUpTime, new TimeTicks(sequence)));
+        pdu.add(new VariableBinding(SnmpConstants.snmpTrapOID, new OID("1.3.6.1.6.3.1.1.5.3")));
+        pdu.add(new VariableBinding(new OID("1.3.6.1.2.1.2.2.1.2.3"), new OctetString("eth0")));
+        return pdu;
+    }
+}
@@ -0,0 +1,140 @@
+package io.kestra.plugin.snmp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.snmp4j.PDU;
+import org.snmp4j.asn1.BEROutputStream;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.Variable;
+import org.snmp4j.smi.VariableBinding;
+
+import io.kestra.core.models.property.Property;
+
+/**
+ * Cost of turning rendered notification properties into a PDU and target, per version and security level, and of
+ * BER-encoding the result. {@link #renderStaticTemplate()} against {@link #encodeEveryRun()} measures what the
+ * compiled {@link PduTemplate} of a static {@code bindings} definition saves on each run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PduBuildBenchmark {
+    private static final OID TRAP_OID = new OID("1.3.6.1.4.1.8072.2.3.0.1");
+
+    @Param({ "v1", "v2c", "v3", "v3-auth", "v3-priv" })
+    public String profile;
+
+    @Param({ "10" })
+    public int bindings;
+
+    private SnmpVersion version;
+    private AbstractSnmpTask.V3Security sec;
+    private SnmpSessionPool.Lease lease;
+    private List<VariableBinding> varbinds;
+    private UdpAddress address;
+    private PDU built;
+    private ByteBuffer buffer;
+    private List<String[]> definitionEntries;
+    private Property<List<AbstractSnmpTask.VarBind>> staticDefinition;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        version = profile.startsWith("v3") ? SnmpVersion.V3 : SnmpVersion.fromString(profile);
+        sec = switch (profile) {
+            case "v3" -> new AbstractSnmpTask.V3Security("bench", null, null, null, null);
+            case "v3-auth" -> new AbstractSnmpTask.V3Security("bench", "SHA256", "authpassword", null, null);
+            case "v3-priv" -> new AbstractSnmpTask.V3Security("bench", "SHA256", "authpassword", "AES128", "privpassword");
+            default -> null;
+        };
+        lease = SnmpSessionPool.getInstance().borrow(new SnmpSessionPool.Key("udp", null, profile));
+
+        varbinds = new ArrayList<>(bindings);
+        for (int i = 0; i < bindings; i++) {
+            varbinds.add(new VariableBinding(new OID("1.3.6.1.4.1.8072.2.3.2." + i), SnmpVersion.toVariable(i % 2 == 0 ? String.valueOf(i * 1000) : "value-" + i)));
+        }
+        address = new UdpAddress("127.0.0.1/162");
+
+        definitionEntries = new ArrayList<>(bindings);
+        StringBuilder definition = new StringBuilder("[");
+        for (int i = 0; i < bindings; i++) {
+            String[] entry = { "1.3.6.1.4.1.8072.2.3.2." + i, i % 2 == 0 ? String.valueOf(i * 1000) : "value-" + i };
+            definitionEntries.add(entry);
+            definition.append(i > 0 ? "," : "").append("{\"oid\":\"").append(entry[0]).append("\",\"value\":\"").append(entry[1]).append("\"}");
+        }
+        staticDefinition = Property.ofExpression(definition.append("]").toString());
+
+        built = build();
+        buffer = ByteBuffer.allocate(built.getBERLength());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        lease.close();
+    }
+
+    @Benchmark
+    public Variable toVariableInteger() {
+        return SnmpVersion.toVariable("12345");
+    }
+
+    @Benchmark
+    public Variable toVariableOid() {
+        return SnmpVersion.toVariable("1.3.6.1.2.1.1.5.0");
+    }
+
+    @Benchmark
+    public Variable toVariableString() {
+        return SnmpVersion.toVariable("kestra-agent");
+    }
+
+    @Benchmark
+    public List<VariableBinding> renderStaticTemplate() throws Exception {
+        // a static definition is served from its compiled template without touching the run context
+        return PduTemplate.render(null, MibIndex.getInstance(), staticDefinition);
+    }
+
+    @Benchmark
+    public List<VariableBinding> encodeEveryRun() {
+        // baseline: parsing and encoding every entry again, as done before templates
+        List<VariableBinding> result = new ArrayList<>(definitionEntries.size());
+        for (String[] entry : definitionEntries) {
+            result.add(new VariableBinding(PduTemplate.oid(entry[0]), VarBindEncoder.encode(entry[1], null)));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public PDU addBindings() {
+        PDU pdu = version.pdu(PDU.TRAP);
+        SnmpVersion.addBindings(pdu, varbinds);
+        return pdu;
+    }
+
+    @Benchmark
+    public PDU build() throws Exception {
+        // the run context is only used to warn about weak protocols, which no profile uses
+        return version.build(null, PDU.TRAP, address, 1500, 0, TRAP_OID, varbinds, sec, "public", lease.getSnmp()).getPdu();
+    }
+
+    @Benchmark
+    public ByteBuffer encodeBer() throws IOException {
+        buffer.clear();
+        built.encodeBER(new BEROutputStream(buffer));
+        return buffer;
+    }
+}
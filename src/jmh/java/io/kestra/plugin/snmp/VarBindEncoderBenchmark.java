@@ -0,0 +1,60 @@
+package io.kestra.plugin.snmp;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.snmp4j.smi.Counter64;
+import org.snmp4j.smi.Gauge32;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.Variable;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VarBindEncoderBenchmark {
+    @Param({ "12345", "-42", "1.3.6.1.2.1.1.5.0", "kestra-agent" })
+    public String value;
+
+    @Benchmark
+    public Variable classify() {
+        return VarBindEncoder.classify(value);
+    }
+
+    @Benchmark
+    public Variable legacyRegex() {
+        return legacyToVariable(value);
+    }
+
+    /**
+     * The regex-based implementation {@link VarBindEncoder} replaced, kept as a baseline.
+     */
+    static Variable legacyToVariable(String raw) {
+        if (raw == null)
+            return null;
+
+        if (raw.matches("^-?\\d+$")) {
+            return new Integer32(Integer.parseInt(raw));
+        }
+
+        if (raw.matches("^\\d+$")) {
+            long l = Long.parseLong(raw);
+            if (l <= Integer.MAX_VALUE)
+                return new Gauge32((int) l);
+            return new Counter64(l);
+        }
+
+        if (raw.matches("^(\\d+\\.)+\\d+$")) {
+            return new OID(raw);
+        }
+
+        return new OctetString(raw);
+    }
+}
@@ -0,0 +1,272 @@
+package io.kestra.plugin.snmp;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.snmp4j.CertifiedTarget;
+import org.snmp4j.PDU;
+import org.snmp4j.Snmp;
+import org.snmp4j.UserTarget;
+import org.snmp4j.smi.Address;
+import org.snmp4j.smi.VariableBinding;
+
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@Getter
+@NoArgsConstructor
+@SuperBuilder
+public abstract class AbstractSnmpBatchTask extends AbstractSnmpNotificationTask {
+    @Schema(title = "Notification targets", description = "Managers that receive the notification; each entry may add its own varbinds after the task `bindings`")
+    @PluginProperty(group = "main")
+    protected Property<List<BatchTarget>> targets;
+
+    @Schema(
+        title = "Targets file URI",
+        description = "Internal storage URI of an ION file with one row per target: `host`, optional `port` and optional `bindings` (list of `oid`/`value`/`type`); read in addition to `targets`"
+    )
+    @PluginProperty(internalStorageURI = true, group = "source")
+    protected Property<String> from;
+
+    @Schema(title = "Max notifications in flight", description = "Number of notifications pipelined over the shared socket at once; defaults to 50")
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    protected Property<Integer> concurrency = Property.ofValue(50);
+
+    protected Output sendBatch(RunContext runContext, boolean inform, int retries) throws Exception {
+        MibIndex mibs = loadMibs(runContext);
+
+        var rTransport = SnmpTransport.fromString(runContext.render(this.transport).as(String.class).orElse("udp"));
+        var rLocalAddress = runContext.render(this.localAddress).as(String.class).orElse(null);
+        var rPort = runContext.render(this.port).as(Integer.class).orElse(rTransport.port(defaultPort()));
+        var rVersion = runContext.render(this.snmpVersion).as(String.class).orElse("v2c");
+        var rTrapOid = PduTemplate.oid(mibs, runContext.render(this.trapOid).as(String.class).orElseThrow(() -> new IllegalArgumentException("`trapOid` is required")));
+        var rTimeout = runContext.render(this.timeoutMs).as(Integer.class).orElse(1500);
+        var rBindings = PduTemplate.render(runContext, mibs, this.bindings);
+        var rV3 = runContext.render(this.v3).as(AbstractSnmpTask.V3Security.class).orElse(null);
+        var rCommunity = runContext.render(this.community).as(String.class).orElse("public");
+        var rConcurrency = runContext.render(this.concurrency).as(Integer.class).orElse(50);
+
+        var rLimit = renderLimit(runContext);
+
+        SnmpVersion ver = SnmpVersion.fromString(rVersion);
+        ver.validate(inform ? PDU.INFORM : PDU.TRAP);
+
+        List<BatchTarget> rTargets = readTargets(runContext);
+        if (rTargets.isEmpty()) {
+            throw new IllegalArgumentException("At least one target is required in `targets` or `from`");
+        }
+
+        long start = System.nanoTime();
+        List<CompletableFuture<AsyncNotifier.Result>> futures = new ArrayList<>(rTargets.size());
+        List<String> hosts = new ArrayList<>(rTargets.size());
+        List<Integer> ports = new ArrayList<>(rTargets.size());
+        // USM INFORM targets, whose remote engine is cached or forgotten once answered or not
+        List<Address> engines = new ArrayList<>(rTargets.size());
+        // tagged by version only, the targets being too many to tag each
+        SnmpMetrics metrics = new SnmpMetrics(ver, null);
+
+        try (var session = borrowSession(runContext, rTransport, rLocalAddress, ver, rV3)) {
+            Snmp snmp = session.getSnmp();
+            AsyncNotifier notifier = new AsyncNotifier(snmp, rConcurrency, true, metrics);
+
+            for (BatchTarget t : rTargets) {
+                String host = runContext.render(t.getHost()).as(String.class).filter(h -> !h.isBlank()).orElse(null);
+                int port = runContext.render(t.getPort()).as(Integer.class).orElse(rPort);
+                hosts.add(host);
+                ports.add(port);
+                engines.add(null);
+                if (host == null) {
+                    futures.add(CompletableFuture.completedFuture(new AsyncNotifier.Result(false, 0, "Target without `host`", null)));
+                    continue;
+                }
+                Address address = rTransport.address(host, port);
+
+                // paced in send order, so that a throttled target also holds back the targets listed after it
+                if (rLimit != null && !NotificationPacer.getInstance().acquire(address, rLimit, metrics)) {
+                    futures.add(CompletableFuture.completedFuture(new AsyncNotifier.Result(false, 0, DROPPED, null)));
+                    continue;
+                }
+
+                long encodeStart = System.nanoTime();
+                List<VariableBinding> all = new ArrayList<>(rBindings);
+                all.addAll(PduTemplate.encode(runContext, mibs, runContext.render(t.getBindings()).asList(AbstractSnmpTask.VarBind.class)));
+
+                SnmpVersion.Built built = ver.build(runContext, inform ? PDU.INFORM : PDU.TRAP, address, rTimeout, retries, rTrapOid, all, rV3, rCommunity, snmp);
+                metrics.encoded(System.nanoTime() - encodeStart);
+
+                futures.add(notifier.send(built.getPdu(), built.getTarget()));
+                if (inform && built.getTarget() instanceof UserTarget<?> && !(built.getTarget() instanceof CertifiedTarget<?>)) {
+                    engines.set(engines.size() - 1, address);
+                }
+            }
+
+            // every request has its own deadline, this one only guards against a response that never completes
+            long deadlineMs = (long) rTimeout * (retries + 1) + AsyncNotifier.DEADLINE_MARGIN_MS;
+            try {
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).orTimeout(deadlineMs, TimeUnit.MILLISECONDS).join();
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof TimeoutException)) {
+                    throw e;
+                }
+                AsyncNotifier.Result timedOut = new AsyncNotifier.Result(false, TimeUnit.MILLISECONDS.toNanos(deadlineMs), "No response within " + deadlineMs + " ms", null);
+                for (CompletableFuture<AsyncNotifier.Result> future : futures) {
+                    future.complete(timedOut);
+                }
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                Address engine = engines.get(i);
+                if (engine != null) {
+                    if (futures.get(i).join().response() != null) {
+                        SnmpV3Security.remember(snmp, engine);
+                    } else {
+                        SnmpV3Security.forget(engine);
+                    }
+                }
+            }
+        }
+
+        List<TargetResult> results = new ArrayList<>(rTargets.size());
+        int succeeded = 0;
+        for (int i = 0; i < rTargets.size(); i++) {
+            AsyncNotifier.Result result = futures.get(i).join();
+            if (result.acknowledged()) {
+                succeeded++;
+            }
+            results.add(TargetResult.builder()
+                .host(hosts.get(i))
+                .port(ports.get(i))
+                .acknowledged(result.acknowledged())
+                .latency(Duration.ofNanos(result.latencyNanos()))
+                .error(result.error())
+                .build()
+            );
+        }
+
+        runContext.metric(Counter.of("targets", rTargets.size()));
+        runContext.metric(Counter.of("succeeded", succeeded));
+        runContext.metric(Counter.of("failed", rTargets.size() - succeeded));
+        runContext.metric(Timer.of("duration", Duration.ofNanos(System.nanoTime() - start)));
+        metrics.publish(runContext);
+
+        runContext.logger().info("Sent {} {} notification(s), {} succeeded", rTargets.size(), inform ? "INFORM" : "trap", succeeded);
+
+        return Output.builder()
+            .results(results)
+            .total(rTargets.size())
+            .succeeded(succeeded)
+            .successRate((double) succeeded / rTargets.size())
+            .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<BatchTarget> readTargets(RunContext runContext) throws Exception {
+        List<BatchTarget> result = new ArrayList<>(runContext.render(this.targets).asList(BatchTarget.class));
+
+        var rFrom = runContext.render(this.from).as(String.class);
+        if (rFrom.isPresent()) {
+            try (var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(URI.create(rFrom.get())), StandardCharsets.UTF_8))) {
+                FileSerde.readAll(reader)
+                    .map(row -> toTarget((Map<String, Object>) row))
+                    .toStream()
+                    .forEach(result::add);
+            }
+        }
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BatchTarget toTarget(Map<String, Object> row) {
+        List<AbstractSnmpTask.VarBind> rowBindings = new ArrayList<>();
+        if (row.get("bindings") instanceof List<?> list) {
+            for (Object item : list) {
+                Map<String, Object> b = (Map<String, Object>) item;
+                rowBindings.add(AbstractSnmpTask.VarBind.builder()
+                    .oid(b.get("oid") != null ? Property.ofValue(String.valueOf(b.get("oid"))) : null)
+                    .value(b.get("value") != null ? Property.ofValue(String.valueOf(b.get("value"))) : null)
+                    .type(b.get("type") != null ? Property.ofValue(String.valueOf(b.get("type"))) : null)
+                    .build()
+                );
+            }
+        }
+
+        return BatchTarget.builder()
+            .host(row.get("host") != null ? Property.ofValue(String.valueOf(row.get("host"))) : null)
+            .port(row.get("port") instanceof Number n ? Property.ofValue(n.intValue()) : null)
+            .bindings(Property.ofValue(rowBindings))
+            .build();
+    }
+
+    @Builder
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchTarget {
+        @Schema(title = "Target host", description = "Hostname or IP of the SNMP manager")
+        @PluginProperty(group = "connection")
+        private Property<String> host;
+
+        @Schema(title = "Target port", description = "UDP port of the manager; defaults to the task `port`")
+        @PluginProperty(group = "connection")
+        private Property<Integer> port;
+
+        @Schema(title = "Target varbinds", description = "Extra OID/value pairs sent only to this target")
+        @PluginProperty(group = "advanced")
+        private Property<List<AbstractSnmpTask.VarBind>> bindings;
+    }
+
+    @Builder
+    @Getter
+    public static class TargetResult {
+        @Schema(title = "Target host")
+        private final String host;
+
+        @Schema(title = "Target port")
+        private final Integer port;
+
+        @Schema(title = "Acknowledged", description = "True if the trap was written to the socket, or the INFORM was acknowledged without error")
+        private final boolean acknowledged;
+
+        @Schema(title = "Latency", description = "Time between send and acknowledgment (or failure)")
+        private final Duration latency;
+
+        @Schema(title = "Error text", description = "Failure reason when not acknowledged")
+        private final String error;
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Per-target results", description = "One entry per target, in input order")
+        private final List<TargetResult> results;
+
+        @Schema(title = "Number of targets")
+        private final int total;
+
+        @Schema(title = "Number of successful targets")
+        private final int succeeded;
+
+        @Schema(title = "Success rate", description = "Ratio of successful targets, between 0 and 1")
+        private final double successRate;
+    }
+}
@@ -0,0 +1,63 @@
+package io.kestra.plugin.snmp;
+
+import java.util.List;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@Getter
+@NoArgsConstructor
+@SuperBuilder
+public abstract class AbstractSnmpNotificationTask extends AbstractSnmpTask {
+    static final String DROPPED = "Dropped, over the rate limit of the target";
+
+    @Schema(title = "Trap or notification OID", description = "OID for the trap/inform type, numeric or symbolic (e.g. IF-MIB::linkDown); required, except for raw messages sent by SendTrap")
+    @PluginProperty(group = "main")
+    protected Property<String> trapOid;
+
+    @Schema(title = "Additional varbinds", description = "List of extra OID/value pairs appended to the PDU")
+    @PluginProperty(group = "advanced")
+    protected Property<List<VarBind>> bindings;
+
+    @Schema(
+        title = "Max notifications per second per target",
+        description = "Sustained rate of notifications to one host:port, shared by every task run on the worker; unlimited when not set"
+    )
+    @PluginProperty(group = "execution")
+    protected Property<Double> maxRatePerTarget;
+
+    @Schema(title = "Burst size", description = "Notifications sent back to back to one target before `maxRatePerTarget` paces them; defaults to 10")
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    protected Property<Integer> rateBurst = Property.ofValue(10);
+
+    @Schema(
+        title = "Drop notifications over the rate",
+        description = "Drop a notification over `maxRatePerTarget` instead of waiting for the next free slot; defaults to false"
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    protected Property<Boolean> dropOverRate = Property.ofValue(false);
+
+    /**
+     * Render the per-target rate limit, or return null when notifications are not paced.
+     */
+    protected NotificationPacer.Limit renderLimit(RunContext runContext) throws IllegalVariableEvaluationException {
+        var rRate = runContext.render(this.maxRatePerTarget).as(Double.class).orElse(null);
+        if (rRate == null || rRate <= 0) {
+            return null;
+        }
+
+        return new NotificationPacer.Limit(
+            rRate,
+            runContext.render(this.rateBurst).as(Integer.class).orElse(10),
+            runContext.render(this.dropOverRate).as(Boolean.class).orElse(false)
+        );
+    }
+}
@@ -0,0 +1,577 @@
+package io.kestra.plugin.snmp;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.snmp4j.CommunityTarget;
+import org.snmp4j.PDU;
+import org.snmp4j.Snmp;
+import org.snmp4j.Target;
+import org.snmp4j.UserTarget;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.Address;
+import org.snmp4j.smi.Null;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.VariableBinding;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVValue;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@Getter
+@NoArgsConstructor
+@SuperBuilder
+public abstract class AbstractSnmpRequestTask extends AbstractSnmpTask {
+    // rough size of a value in a response to a GET, whose request only carries a Null
+    static final int RESPONSE_VALUE_ESTIMATE = 24;
+    static final int MAX_PIPELINED_REQUESTS = 8;
+    // sysUpTime without its instance, whose successor is sysUpTime.0
+    static final OID SYS_UP_TIME_OBJECT = new OID("1.3.6.1.2.1.1.3");
+
+    @Schema(title = "Retry attempts before failing", description = "Resend count when the agent does not answer; defaults to 1")
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> retries = Property.ofValue(1);
+
+    @Schema(
+        title = "Agent max message size (bytes)",
+        description = "Largest SNMP message the agent accepts or sends; requests are split so that their estimated response fits, and split again when the agent answers tooBig; defaults to 1472"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> maxMessageSize = Property.ofValue(1472);
+
+    @Schema(title = "Max varbinds per request", description = "Upper bound on the number of OIDs packed in a single PDU; defaults to 60")
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> maxVarBindsPerRequest = Property.ofValue(60);
+
+    @Schema(
+        title = "Compute counter rates",
+        description = "Add the delta and per-second rate since the previous run to every Counter32/Counter64 value; the last sample of each series is kept in the namespace KV store; defaults to false"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Boolean> rates = Property.ofValue(false);
+
+    @Schema(
+        title = "Counter samples KV key",
+        description = "Prefix of the KV keys holding the last samples, spread over 256 keys suffixed `_00` to `_ff` by device hash; defaults to one prefix per flow and task, `snmp_rates_<flowId>_<taskId>`"
+    )
+    @PluginProperty(group = "advanced")
+    protected Property<String> ratesKey;
+
+    @Override
+    protected int defaultPort() {
+        return 161;
+    }
+
+    /**
+     * Prepare the last counter samples, or return null when rates are not computed. The shard of a device is only read
+     * from the KV store when the device is first sampled.
+     */
+    protected CounterRates loadRates(RunContext runContext) throws Exception {
+        if (!runContext.render(this.rates).as(Boolean.class).orElse(false)) {
+            return null;
+        }
+
+        String prefix = ratesKey(runContext);
+        return new CounterRates(shard -> storedRates(runContext, prefix, shard));
+    }
+
+    /**
+     * Save the shards sampled by this run. The KV store has no compare-and-set, so the samples saved by another
+     * execution since this one loaded them are merged first, and only a save racing this one can still be lost.
+     */
+    protected void saveRates(RunContext runContext, CounterRates counterRates) throws Exception {
+        if (counterRates == null) {
+            return;
+        }
+
+        String prefix = ratesKey(runContext);
+        long now = System.currentTimeMillis();
+        for (int shard : counterRates.sampledShards()) {
+            byte[] stored = storedRates(runContext, prefix, shard);
+            if (stored != null) {
+                counterRates.merge(CounterRates.decode(stored));
+            }
+            String encoded = Base64.getEncoder().encodeToString(counterRates.encode(shard, now));
+            runContext.namespaceKv(runContext.flowInfo().namespace()).put(
+                shardKey(prefix, shard),
+                new KVValueAndMetadata(new KVMetadata("Last SNMP counter samples", (Duration) null), encoded)
+            );
+        }
+    }
+
+    private static byte[] storedRates(RunContext runContext, String prefix, int shard) throws Exception {
+        Optional<KVValue> stored = runContext.namespaceKv(runContext.flowInfo().namespace()).getValue(shardKey(prefix, shard));
+        return stored.map(value -> Base64.getDecoder().decode(value.value().toString())).orElse(null);
+    }
+
+    private static String shardKey(String prefix, int shard) {
+        return prefix + "_" + HexFormat.of().toHexDigits((byte) shard);
+    }
+
+    private String ratesKey(RunContext runContext) throws IllegalVariableEvaluationException {
+        return runContext.render(this.ratesKey).as(String.class)
+            .orElseGet(() -> ("snmp_rates_" + runContext.flowInfo().id() + "_" + this.getId()).replaceAll("[^a-zA-Z0-9_.-]", "_"));
+    }
+
+    /**
+     * The requested varbinds, plus sysUpTime.0 when rates are computed so that elapsed time and reboots are measured
+     * on the agent clock.
+     */
+    static List<VariableBinding> withUptime(List<VariableBinding> request, CounterRates counterRates) {
+        return withUptime(request, counterRates, SnmpConstants.sysUpTime);
+    }
+
+    /**
+     * The requested varbinds of a GETNEXT, plus the object preceding sysUpTime.0 when rates are computed, so that
+     * sysUpTime.0 comes back along with the successors of the other OIDs.
+     */
+    static List<VariableBinding> withNextUptime(List<VariableBinding> request, CounterRates counterRates) {
+        return withUptime(request, counterRates, SYS_UP_TIME_OBJECT);
+    }
+
+    private static List<VariableBinding> withUptime(List<VariableBinding> request, CounterRates counterRates, OID oid) {
+        if (counterRates == null || request.stream().anyMatch(vb -> oid.equals(vb.getOid()))) {
+            return request;
+        }
+
+        List<VariableBinding> result = new ArrayList<>(request.size() + 1);
+        result.addAll(request);
+        result.add(new VariableBinding(oid));
+        return result;
+    }
+
+    /**
+     * Render the connection properties and open a request session to the configured agent.
+     */
+    protected RequestSession openRequest(RunContext runContext) throws Exception {
+        var rHost = runContext.render(this.host).as(String.class).orElse("localhost");
+        var rTransport = SnmpTransport.fromString(runContext.render(this.transport).as(String.class).orElse("udp"));
+        var rLocalAddress = runContext.render(this.localAddress).as(String.class).orElse(null);
+        var rPort = runContext.render(this.port).as(Integer.class).orElse(rTransport.port(defaultPort()));
+        var rVersion = SnmpVersion.fromString(runContext.render(this.snmpVersion).as(String.class).orElse("v2c"));
+        var rV3 = runContext.render(this.v3).as(AbstractSnmpTask.V3Security.class).orElse(null);
+        var rCommunity = runContext.render(this.community).as(String.class).orElse("public");
+
+        return openRequest(
+            runContext,
+            borrowSession(runContext, rTransport, rLocalAddress, rVersion, rV3),
+            rVersion,
+            rTransport.address(rHost, rPort),
+            rCommunity,
+            rV3
+        );
+    }
+
+    /**
+     * Open a request session over a borrowed session, which is closed with the request session. Its metrics are
+     * tagged with the agent address and published when it is closed.
+     */
+    protected RequestSession openRequest(
+        RunContext runContext,
+        SnmpSessionPool.Lease lease,
+        SnmpVersion version,
+        Address address,
+        String community,
+        AbstractSnmpTask.V3Security sec
+    ) throws Exception {
+        return openRequest(runContext, lease, version, address, community, sec, null);
+    }
+
+    /**
+     * Open a request session recording into {@code metrics}, shared with other sessions and published by the caller,
+     * or into its own metrics when null.
+     */
+    protected RequestSession openRequest(
+        RunContext runContext,
+        SnmpSessionPool.Lease lease,
+        SnmpVersion version,
+        Address address,
+        String community,
+        AbstractSnmpTask.V3Security sec,
+        SnmpMetrics metrics
+    ) throws Exception {
+        var rTimeout = runContext.render(this.timeoutMs).as(Integer.class).orElse(1500);
+        var rRetries = runContext.render(this.retries).as(Integer.class).orElse(1);
+        var rMaxMessageSize = runContext.render(this.maxMessageSize).as(Integer.class).orElse(1472);
+        var rMaxVarBinds = runContext.render(this.maxVarBindsPerRequest).as(Integer.class).orElse(60);
+
+        try {
+            Target<?> target = version.requestTarget(runContext, lease.getSnmp(), address, rTimeout, rRetries, community, sec);
+            return metrics != null
+                ? new RequestSession(lease, version, target, rMaxMessageSize, rMaxVarBinds, metrics, null)
+                : new RequestSession(lease, version, target, rMaxMessageSize, rMaxVarBinds, new SnmpMetrics(version, address), runContext);
+        } catch (RuntimeException e) {
+            lease.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Resolve the version, community and v3 credentials of an inventory row, falling back to the task settings, and
+     * lease the session shared by every device with the same version and credentials.
+     */
+    protected Device device(
+        RunContext runContext,
+        Map<String, Object> row,
+        SnmpTransport transport,
+        String defaultVersion,
+        String defaultCommunity,
+        AbstractSnmpTask.V3Security defaultV3,
+        Map<String, AbstractSnmpTask.V3Security> credentials,
+        Map<String, SnmpSessionPool.Lease> leases,
+        Map<SnmpVersion, SnmpMetrics> metrics
+    ) {
+        SnmpVersion version = SnmpVersion.fromString(row.get("version") != null ? String.valueOf(row.get("version")) : defaultVersion);
+        String community = row.get("community") != null ? String.valueOf(row.get("community")) : defaultCommunity;
+
+        AbstractSnmpTask.V3Security sec = defaultV3;
+        String credentialsRef = row.get("credentials") != null ? String.valueOf(row.get("credentials")) : null;
+        if (credentialsRef != null) {
+            sec = credentials.get(credentialsRef);
+            if (sec == null) {
+                throw new IllegalArgumentException("Unknown credentials: " + credentialsRef);
+            }
+        }
+        if (version == SnmpVersion.V3 && sec == null) {
+            throw new IllegalArgumentException("v3 settings required");
+        }
+
+        AbstractSnmpTask.V3Security rSec = version == SnmpVersion.V3 ? sec : null;
+        String leaseKey = version.name() + "/" + (credentialsRef != null ? credentialsRef : "");
+        SnmpSessionPool.Lease lease = leases.computeIfAbsent(leaseKey, k -> {
+            try {
+                return borrowSession(runContext, transport, runContext.render(this.localAddress).as(String.class).orElse(null), version, rSec);
+            } catch (Exception e) {
+                throw new IllegalStateException("Unable to open an SNMP session: " + e.getMessage(), e);
+            }
+        });
+
+        return new Device(lease, transport, version, community, rSec, metrics.computeIfAbsent(version, v -> new SnmpMetrics(v, null)));
+    }
+
+    protected record Device(SnmpSessionPool.Lease lease, SnmpTransport transport, SnmpVersion version, String community, AbstractSnmpTask.V3Security sec, SnmpMetrics metrics) {
+    }
+
+    /**
+     * The host of an inventory row, or null when the row has none.
+     */
+    protected static String host(Map<String, Object> row) {
+        Object host = row.get("host");
+        return host == null || host.toString().isBlank() ? null : host.toString();
+    }
+
+    /**
+     * One row of the results file of a task working on an inventory.
+     */
+    protected static Map<String, Object> result(String host, int port, long latencyNanos, String error, List<SnmpValue> values) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("host", host);
+        row.put("port", port);
+        row.put("success", error == null);
+        row.put("error", error);
+        row.put("latency", Duration.ofNanos(latencyNanos));
+        row.put("values", values);
+        return row;
+    }
+
+    /**
+     * Append a result row, from any of the threads working on the devices.
+     */
+    protected static void write(OutputStream output, Map<String, Object> row) throws Exception {
+        synchronized (output) {
+            FileSerde.write(output, row);
+        }
+    }
+
+    /**
+     * A pooled session bound to one agent, able to split large requests into PDUs that fit the agent's message size.
+     */
+    public static class RequestSession implements AutoCloseable {
+        private final SnmpSessionPool.Lease lease;
+        @Getter
+        private final SnmpVersion version;
+        @Getter
+        private final Target<?> target;
+        private final int maxMessageSize;
+        private final int maxVarBinds;
+        @Getter(AccessLevel.PACKAGE)
+        private final SnmpMetrics metrics;
+        // set when the session owns its metrics
+        private final RunContext publishTo;
+
+        RequestSession(
+            SnmpSessionPool.Lease lease,
+            SnmpVersion version,
+            Target<?> target,
+            int maxMessageSize,
+            int maxVarBinds,
+            SnmpMetrics metrics,
+            RunContext publishTo
+        ) {
+            this.lease = lease;
+            this.version = version;
+            this.target = target;
+            this.maxMessageSize = maxMessageSize;
+            this.maxVarBinds = Math.max(1, maxVarBinds);
+            this.metrics = metrics;
+            this.publishTo = publishTo;
+        }
+
+        public Snmp getSnmp() {
+            return lease.getSnmp();
+        }
+
+        /**
+         * Send GET, GETNEXT or SET varbinds, split over as many PDUs as needed, and return the response varbinds in
+         * request order.
+         *
+         * @param splitOnTooBig resend halves of a PDU the agent rejected as tooBig; disable to keep a SET atomic
+         */
+        public List<VariableBinding> request(int type, List<VariableBinding> bindings, boolean splitOnTooBig) throws Exception {
+            long start = System.nanoTime();
+            List<PDU> pdus = split(type, bindings);
+            metrics.encoded(System.nanoTime() - start);
+            List<VariableBinding> result = new ArrayList<>(bindings.size());
+            for (PDU response : send(pdus, splitOnTooBig)) {
+                result.addAll(response.getVariableBindings());
+            }
+            return result;
+        }
+
+        /**
+         * Send GETBULK requests for the given non-repeaters and repeaters, split over as many PDUs as needed so that
+         * each estimated response ({@code maxRepetitions} rows of repeaters) fits the agent max message size.
+         * Returns the responses in request order; non-repeaters are all sent in the first PDU.
+         */
+        public List<PDU> bulk(List<VariableBinding> nonRepeaters, List<VariableBinding> repeaters, int maxRepetitions) throws Exception {
+            if (version == SnmpVersion.V1) {
+                throw new IllegalArgumentException("GETBULK is not supported by SNMPv1.");
+            }
+
+            long start = System.nanoTime();
+            int budget = maxMessageSize - overhead();
+            List<PDU> pdus = new ArrayList<>();
+
+            PDU current = bulkPdu(maxRepetitions);
+            int size = 0;
+            for (VariableBinding binding : nonRepeaters) {
+                current.add(binding);
+                size += estimate(binding);
+            }
+            current.setNonRepeaters(nonRepeaters.size());
+
+            for (VariableBinding binding : repeaters) {
+                // each repetition returns the next OID, one arc longer at most, plus its value
+                int estimate = maxRepetitions * (binding.getBERLength() + 4 + RESPONSE_VALUE_ESTIMATE);
+                if (current.size() > 0 && (current.size() >= maxVarBinds || size + estimate > budget)) {
+                    pdus.add(current);
+                    current = bulkPdu(maxRepetitions);
+                    size = 0;
+                }
+                current.add(binding);
+                size += estimate;
+            }
+
+            if (current.size() > 0) {
+                pdus.add(current);
+            }
+            metrics.encoded(System.nanoTime() - start);
+            return send(pdus, false);
+        }
+
+        /**
+         * Read the varbinds following each of the given OIDs, {@code maxRepetitions} of them per OID in a single
+         * GETBULK, or one each in a GETNEXT for v1, in the order of a GETBULK response. A GETBULK answered tooBig is
+         * asked again for half the rows. SNMPv1 ends the MIB view with a noSuchName error on one varbind, which is
+         * returned as endOfMibView like v2c does and the others asked again.
+         */
+        List<VariableBinding> next(List<OID> oids, int maxRepetitions) throws Exception {
+            if (version != SnmpVersion.V1) {
+                int repetitions = maxRepetitions;
+                while (true) {
+                    PDU pdu = bulkPdu(repetitions);
+                    oids.forEach(oid -> pdu.add(new VariableBinding(oid)));
+                    PDU response = exchange(pdu);
+                    if (response.getErrorStatus() == PDU.tooBig && repetitions > 1) {
+                        repetitions /= 2;
+                        continue;
+                    }
+                    if (response.getErrorStatus() != PDU.noError) {
+                        throw error(response);
+                    }
+                    return new ArrayList<>(response.getVariableBindings());
+                }
+            }
+
+            VariableBinding[] result = new VariableBinding[oids.size()];
+            List<Integer> remaining = new ArrayList<>(IntStream.range(0, oids.size()).boxed().toList());
+            while (!remaining.isEmpty()) {
+                PDU pdu = version.pdu(PDU.GETNEXT);
+                remaining.forEach(i -> pdu.add(new VariableBinding(oids.get(i))));
+                PDU response = exchange(pdu);
+
+                if (response.getErrorStatus() == PDU.noSuchName && response.getErrorIndex() >= 1 && response.getErrorIndex() <= remaining.size()) {
+                    int i = remaining.remove(response.getErrorIndex() - 1);
+                    result[i] = new VariableBinding(oids.get(i), Null.endOfMibView);
+                    continue;
+                }
+                if (response.getErrorStatus() != PDU.noError) {
+                    throw error(response);
+                }
+                for (int k = 0; k < remaining.size() && k < response.size(); k++) {
+                    result[remaining.get(k)] = response.get(k);
+                }
+                break;
+            }
+            return Arrays.asList(result);
+        }
+
+        private PDU bulkPdu(int maxRepetitions) {
+            PDU pdu = version.pdu(PDU.GETBULK);
+            pdu.setNonRepeaters(0);
+            pdu.setMaxRepetitions(maxRepetitions);
+            return pdu;
+        }
+
+        /**
+         * Pack varbinds into PDUs so that the estimated response stays under the agent max message size.
+         */
+        List<PDU> split(int type, List<VariableBinding> bindings) {
+            int budget = maxMessageSize - overhead();
+            List<PDU> pdus = new ArrayList<>();
+            PDU current = version.pdu(type);
+            int size = 0;
+
+            for (VariableBinding binding : bindings) {
+                int estimate = estimate(binding);
+                if (current.size() > 0 && (current.size() >= maxVarBinds || size + estimate > budget)) {
+                    pdus.add(current);
+                    current = version.pdu(type);
+                    size = 0;
+                }
+                current.add(binding);
+                size += estimate;
+            }
+
+            if (current.size() > 0) {
+                pdus.add(current);
+            }
+            return pdus;
+        }
+
+        /**
+         * Fixed size of a message around the varbind list: header, community or USM parameters, PDU fields.
+         */
+        int overhead() {
+            if (version == SnmpVersion.V3) {
+                return 120;
+            }
+            return 40 + (target instanceof CommunityTarget<?> c ? c.getCommunity().length() : 0);
+        }
+
+        static int estimate(VariableBinding binding) {
+            int length = binding.getBERLength();
+            return binding.getVariable() instanceof Null ? length + RESPONSE_VALUE_ESTIMATE : length;
+        }
+
+        private List<PDU> send(List<PDU> pdus, boolean splitOnTooBig) throws Exception {
+            AsyncNotifier pipeline = new AsyncNotifier(getSnmp(), MAX_PIPELINED_REQUESTS, true, metrics);
+            List<CompletableFuture<AsyncNotifier.Result>> futures = new ArrayList<>(pdus.size());
+            for (PDU pdu : pdus) {
+                futures.add(pipeline.send(pdu, target));
+            }
+
+            List<PDU> responses = new ArrayList<>(pdus.size());
+            for (int i = 0; i < pdus.size(); i++) {
+                AsyncNotifier.Result result = futures.get(i).get();
+                PDU response = result.response();
+                if (response == null) {
+                    SnmpV3Security.forget(target.getAddress());
+                    throw new IllegalStateException("No response from " + target.getAddress() + ": " + result.error());
+                }
+
+                if (response.getErrorStatus() == PDU.tooBig && splitOnTooBig && pdus.get(i).size() > 1) {
+                    responses.addAll(send(halves(pdus.get(i)), true));
+                    continue;
+                }
+                if (response.getErrorStatus() != PDU.noError) {
+                    throw error(response);
+                }
+                responses.add(response);
+            }
+
+            if (target instanceof UserTarget<?>) {
+                SnmpV3Security.remember(getSnmp(), target.getAddress());
+            }
+            return responses;
+        }
+
+        /**
+         * Send one PDU and return its response, whatever its error status.
+         */
+        private PDU exchange(PDU pdu) throws Exception {
+            AsyncNotifier.Result result = new AsyncNotifier(getSnmp(), 1, true, metrics).send(pdu, target).get();
+            PDU response = result.response();
+            if (response == null) {
+                SnmpV3Security.forget(target.getAddress());
+                throw new IllegalStateException("No response from " + target.getAddress() + ": " + result.error());
+            }
+
+            if (target instanceof UserTarget<?>) {
+                SnmpV3Security.remember(getSnmp(), target.getAddress());
+            }
+            return response;
+        }
+
+        private IllegalStateException error(PDU response) {
+            return new IllegalStateException(
+                "SNMP error from " + target.getAddress() + ": " + response.getErrorStatusText() + " at index " + response.getErrorIndex()
+            );
+        }
+
+        private List<PDU> halves(PDU pdu) {
+            List<? extends VariableBinding> bindings = pdu.getVariableBindings();
+            int middle = bindings.size() / 2;
+
+            PDU first = version.pdu(pdu.getType());
+            bindings.subList(0, middle).forEach(first::add);
+            PDU second = version.pdu(pdu.getType());
+            bindings.subList(middle, bindings.size()).forEach(second::add);
+            return List.of(first, second);
+        }
+
+        @Override
+        public void close() throws Exception {
+            try {
+                if (publishTo != null) {
+                    metrics.publish(publishTo);
+                }
+            } finally {
+                lease.close();
+            }
+        }
+    }
+}
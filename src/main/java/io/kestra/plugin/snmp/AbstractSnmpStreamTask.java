@@ -0,0 +1,248 @@
+package io.kestra.plugin.snmp;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.snmp4j.UserTarget;
+
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Base of tasks that stream an unbounded number of rows from an agent to internal storage.
+ * <p>
+ * Rows are requested from a thread of the task, one GETBULK at a time, and handed over to the task thread through a
+ * bounded queue to be written to a file as they arrive. When the file cannot keep up, the requesting thread blocks on
+ * the queue and the next GETBULK is not sent until there is room again, so memory stays bounded whatever the size of
+ * the walk. Nothing ever blocks the snmp4j listener, whose dispatcher threads are shared by every task borrowing the
+ * same pooled session.
+ */
+@Getter
+@NoArgsConstructor
+@SuperBuilder
+public abstract class AbstractSnmpStreamTask extends AbstractSnmpRequestTask {
+    @Schema(title = "Max repetitions", description = "Number of rows requested by each GETBULK; defaults to 25 (GETNEXT is used for v1)")
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> maxRepetitions = Property.ofValue(25);
+
+    @Schema(title = "Output format", description = "ION (default) or CSV")
+    @Builder.Default
+    @PluginProperty(group = "destination")
+    protected Property<Format> format = Property.ofValue(Format.ION);
+
+    @Schema(title = "Row buffer size", description = "Rows received but not yet written before the walk is paused; defaults to 1024")
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> bufferSize = Property.ofValue(1024);
+
+    /**
+     * Render what the retrieval needs and return it. It then runs on a thread of its own, handing every row to the
+     * queue, and must stop as soon as the queue refuses a row.
+     */
+    protected abstract Retrieval retrieval(RunContext runContext, MibIndex mibs, RequestSession session, int maxRepetitions) throws Exception;
+
+    /**
+     * Column names of the CSV output, in the order values are read from each row.
+     */
+    protected abstract List<String> header(RunContext runContext) throws Exception;
+
+    protected Output stream(RunContext runContext) throws Exception {
+        MibIndex mibs = loadMibs(runContext);
+
+        var rMaxRepetitions = runContext.render(this.maxRepetitions).as(Integer.class).orElse(25);
+        var rFormat = runContext.render(this.format).as(Format.class).orElse(Format.ION);
+        var rBufferSize = runContext.render(this.bufferSize).as(Integer.class).orElse(1024);
+
+        long start = System.nanoTime();
+        long rows = 0;
+        File tempFile = runContext.workingDir().createTempFile(rFormat == Format.CSV ? ".csv" : ".ion").toFile();
+        List<String> header = rFormat == Format.CSV ? header(runContext) : null;
+
+        try (
+            var session = openRequest(runContext);
+            OutputStream output = new BufferedOutputStream(new FileOutputStream(tempFile), FileSerde.BUFFER_SIZE);
+            Writer csv = header != null ? new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)) : null
+        ) {
+            Retrieval retrieval = retrieval(runContext, mibs, session, rMaxRepetitions);
+            RowQueue queue = new RowQueue(rBufferSize);
+            Thread requester = Thread.ofVirtual().name("snmp-stream-" + session.getTarget().getAddress()).start(() -> {
+                Throwable error = null;
+                try {
+                    retrieval.run(queue);
+                } catch (Throwable e) {
+                    error = e;
+                } finally {
+                    // whatever happened, the task thread must not wait for rows that will never come
+                    queue.finish(error);
+                }
+            });
+
+            try {
+                if (csv != null) {
+                    writeCsv(csv, header);
+                }
+
+                Map<String, Object> row;
+                while ((row = queue.take()) != null) {
+                    if (csv != null) {
+                        writeCsv(csv, header.stream().map(row::get).toList());
+                    } else {
+                        FileSerde.write(output, row);
+                    }
+                    rows++;
+                }
+            } finally {
+                queue.close();
+                // the session must outlive its last request
+                requester.join();
+            }
+
+            if (session.getTarget() instanceof UserTarget<?>) {
+                SnmpV3Security.remember(session.getSnmp(), session.getTarget().getAddress());
+            }
+        }
+
+        URI uri = runContext.storage().putFile(tempFile);
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+
+        runContext.metric(Counter.of("rows", rows));
+        runContext.metric(Timer.of("duration", duration));
+        runContext.logger().info("Stored {} row(s) in {}", rows, duration);
+
+        return Output.builder()
+            .uri(uri)
+            .rowCount(rows)
+            .duration(duration)
+            .build();
+    }
+
+    private static void writeCsv(Writer writer, List<?> values) throws Exception {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                String s = value.toString();
+                if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(s.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(s);
+                }
+            }
+        }
+        writer.write('\n');
+    }
+
+    public enum Format {
+        ION,
+        CSV
+    }
+
+    /**
+     * Retrieval of the rows, run on the requesting thread.
+     */
+    @FunctionalInterface
+    protected interface Retrieval {
+        void run(RowQueue queue) throws Exception;
+    }
+
+    /**
+     * Bounded hand-over of rows from the requesting thread to the task thread.
+     */
+    protected static final class RowQueue {
+        private static final Map<String, Object> END = Map.of();
+
+        private final BlockingQueue<Map<String, Object>> queue;
+        private volatile Throwable error;
+        private volatile boolean closed;
+
+        RowQueue(int capacity) {
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        }
+
+        /**
+         * Hand over a row, blocking the requesting thread while the buffer is full. Returns false once the consumer is
+         * gone, in which case the retrieval must stop.
+         */
+        boolean put(Map<String, Object> row) {
+            try {
+                while (!closed) {
+                    if (queue.offer(row, 100, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        /**
+         * Signal the end of the rows, with the failure of the retrieval if any.
+         */
+        void finish(Throwable error) {
+            this.error = error;
+            put(END);
+        }
+
+        /**
+         * Release a producer that may still be blocked, whether the consumer completed or failed.
+         */
+        void close() {
+            closed = true;
+            queue.clear();
+        }
+
+        Map<String, Object> take() throws InterruptedException {
+            Map<String, Object> row = queue.take();
+            if (row == END) {
+                if (error instanceof Error e) {
+                    throw e;
+                }
+                if (error != null) {
+                    throw new IllegalStateException(error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName(), error);
+                }
+                return null;
+            }
+            return row;
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Rows file URI", description = "Internal storage URI of the ION or CSV file")
+        private final URI uri;
+
+        @Schema(title = "Number of rows")
+        private final long rowCount;
+
+        @Schema(title = "Retrieval duration")
+        private final Duration duration;
+    }
+}
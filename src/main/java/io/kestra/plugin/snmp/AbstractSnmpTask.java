@@ -1,7 +1,14 @@
 package io.kestra.plugin.snmp;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.snmp4j.security.AuthHMAC128SHA224;
 import org.snmp4j.security.AuthHMAC192SHA256;
@@ -16,8 +23,10 @@ import org.snmp4j.security.PrivDES;
 import org.snmp4j.security.SecurityLevel;
 import org.snmp4j.smi.OID;
 
+import io.kestra.core.models.executions.metrics.Counter;
 import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.Task;
+import io.kestra.core.runners.RunContext;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
@@ -35,10 +44,24 @@ public abstract class AbstractSnmpTask extends Task {
     @PluginProperty(group = "connection")
     protected Property<String> host = Property.ofValue("localhost");
 
-    @Schema(title = "Set SNMP manager port", description = "UDP port for traps/informs; defaults to 162")
+    @Schema(title = "Set SNMP port", description = "Port of the manager or agent; defaults to 162 for traps/informs and 161 for requests, 10162 and 10161 over tls/dtls")
+    @PluginProperty(group = "connection")
+    protected Property<Integer> port;
+
+    @Schema(
+        title = "Select transport",
+        description = "One of udp, tcp, tls, dtls; defaults to udp. Connections are pooled on the worker and kept open across runs. tls and dtls require v3, authenticate with the worker JVM key and trust stores, and use the v3 username as security name"
+    )
     @Builder.Default
     @PluginProperty(group = "connection")
-    protected Property<Integer> port = Property.ofValue(162);
+    protected Property<String> transport = Property.ofValue("udp");
+
+    @Schema(
+        title = "Local bind address",
+        description = "Local `ip/port` the session is bound to, e.g. `10.0.0.5/0`; defaults to any address on an ephemeral port. Runs with different bind addresses never share a pooled session"
+    )
+    @PluginProperty(group = "connection")
+    protected Property<String> localAddress;
 
     @Schema(title = "Select SNMP version", description = "One of v1, v2c, v3; defaults to v2c")
     @Builder.Default
@@ -54,20 +77,91 @@ public abstract class AbstractSnmpTask extends Task {
     @PluginProperty(group = "advanced")
     protected Property<V3Security> v3;
 
-    @Schema(title = "Trap or notification OID", description = "OID for the trap/inform type; required")
-    @NotNull
-    @PluginProperty(group = "main")
-    protected Property<String> trapOid;
-
-    @Schema(title = "Additional varbinds", description = "List of extra OID/value pairs appended to the PDU")
-    @PluginProperty(group = "advanced")
-    protected Property<List<VarBind>> bindings;
-
     @Schema(title = "Timeout (ms)", description = "Transport timeout per send; defaults to 1500 ms")
     @Builder.Default
     @PluginProperty(group = "advanced")
     protected Property<Integer> timeoutMs = Property.ofValue(1500);
 
+    @Schema(
+        title = "MIB files",
+        description = "Namespace files of SMIv1/SMIv2 MIB modules, e.g. `mibs/IF-MIB.txt`, used to resolve symbolic OIDs such as IF-MIB::ifOperStatus.3 and to name the OIDs of results. SNMPv2-SMI, SNMPv2-TC, the system and snmp groups of SNMPv2-MIB and the interface tables of IF-MIB are always loaded. Modules are compiled once per worker and only apply to the task configuring them"
+    )
+    @PluginProperty(group = "advanced")
+    protected Property<List<String>> mibs;
+
+    @Schema(title = "MIB directory", description = "Directory of the worker holding MIB modules, all loaded like `mibs`")
+    @PluginProperty(group = "advanced")
+    protected Property<String> mibDirectory;
+
+    /**
+     * Port used when {@code port} is not set.
+     */
+    protected int defaultPort() {
+        return 162;
+    }
+
+    /**
+     * The {@link MibIndex} of the bundled modules plus the configured ones, through which the run resolves and names
+     * OIDs; modules already compiled by a previous run are only hashed.
+     */
+    protected MibIndex loadMibs(RunContext runContext) throws Exception {
+        List<String> rMibs = runContext.render(this.mibs).asList(String.class);
+        String rMibDirectory = runContext.render(this.mibDirectory).as(String.class).orElse(null);
+        if (rMibs.isEmpty() && rMibDirectory == null) {
+            return MibIndex.getInstance();
+        }
+
+        // MIB modules are ASCII, but comments of vendor ones are often Latin-1
+        List<MibIndex.Source> sources = new ArrayList<>();
+        for (String mib : rMibs) {
+            try (InputStream in = runContext.storage().namespace().getFileContent(Path.of(mib))) {
+                sources.add(new MibIndex.Source(mib, new String(in.readAllBytes(), StandardCharsets.ISO_8859_1)));
+            }
+        }
+        if (rMibDirectory != null) {
+            try (Stream<Path> files = Files.list(Path.of(rMibDirectory))) {
+                for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                    sources.add(new MibIndex.Source(file.toString(), new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1)));
+                }
+            }
+        }
+
+        return MibIndex.load(sources);
+    }
+
+    /**
+     * Borrow a pooled session matching the given transport, local bind address and security settings and publish the
+     * pool counters for this run.
+     *
+     * @param localAddress local {@code ip/port} to bind, {@code null} for any address on an ephemeral port
+     */
+    protected static SnmpSessionPool.Lease borrowSession(RunContext runContext, SnmpTransport transport, String localAddress, SnmpVersion version, V3Security sec) throws IOException {
+        transport.validate(version);
+
+        SnmpSessionPool.Lease lease = SnmpSessionPool.getInstance().borrow(sessionKey(transport, localAddress, version, sec));
+
+        runContext.metric(Counter.of("session.pool.hits", lease.isHit() ? 1 : 0));
+        runContext.metric(Counter.of("session.pool.misses", lease.isHit() ? 0 : 1));
+        runContext.metric(Counter.of("session.pool.evictions", lease.getEvicted()));
+
+        return lease;
+    }
+
+    /**
+     * Key of the pooled session for the given transport, local bind address and security settings.
+     */
+    static SnmpSessionPool.Key sessionKey(SnmpTransport transport, String localAddress, SnmpVersion version, V3Security sec) {
+        String security = version == SnmpVersion.V3 && sec != null
+            ? SnmpSessionPool.Key.fingerprint(
+                sec.getUsername(),
+                sec.getAuthProtocol(), sec.getAuthPassword(),
+                sec.getPrivProtocol(), sec.getPrivPassword()
+            )
+            : version.name();
+
+        return new SnmpSessionPool.Key(transport.getScheme(), localAddress, security);
+    }
+
     public static int toSecLevel(AbstractSnmpTask.V3Security sec) {
         boolean auth = sec.getAuthProtocol() != null && !sec.getAuthProtocol().isBlank();
         boolean priv = sec.getPrivProtocol() != null && !sec.getPrivProtocol().isBlank();
@@ -162,13 +256,35 @@ public abstract class AbstractSnmpTask extends Task {
         }
     }
 
+    public enum VariableType {
+        INTEGER32,
+        GAUGE32,
+        COUNTER32,
+        COUNTER64,
+        TIMETICKS,
+        IPADDRESS,
+        OID,
+        OCTETSTRING,
+        OPAQUE;
+
+        public static VariableType fromString(String name) {
+            if (name == null || name.isBlank())
+                return null;
+            return Arrays.stream(values())
+                .filter(t -> t.name().equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported varbind type: " + name));
+        }
+    }
+
     @Builder
     @Getter
+    @ToString
     @NoArgsConstructor
     @AllArgsConstructor
     public static class VarBind {
         @NotBlank
-        @Schema(title = "OID", description = "OID of the variable binding (e.g. 1.3.6.1.2.1.1.3.0)")
+        @Schema(title = "OID", description = "OID of the variable binding, numeric (e.g. 1.3.6.1.2.1.1.5.0) or symbolic (e.g. SNMPv2-MIB::sysName.0)")
         @PluginProperty(group = "advanced")
         private Property<String> oid;
 
@@ -176,10 +292,18 @@ public abstract class AbstractSnmpTask extends Task {
         @Schema(title = "Value", description = "String value to send for this OID")
         @PluginProperty(group = "main")
         private Property<String> value;
+
+        @Schema(
+            title = "SMI type",
+            description = "One of Integer32, Gauge32, Counter32, Counter64, TimeTicks, IpAddress, OID, OctetString, Opaque (colon-separated hex); when unset, symbolic OIDs use the syntax declared by their MIB, and the type is otherwise inferred from the value: integers, then OIDs, then strings"
+        )
+        @PluginProperty(group = "advanced")
+        private Property<String> type;
     }
 
     @Builder
     @Getter
+    @EqualsAndHashCode
     @NoArgsConstructor
     @AllArgsConstructor
     public static class V3Security {
@@ -0,0 +1,135 @@
+package io.kestra.plugin.snmp;
+
+import java.time.Duration;
+import java.util.List;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.triggers.AbstractTrigger;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Listening settings shared by the triggers that receive notifications.
+ */
+@Getter
+@NoArgsConstructor
+@SuperBuilder
+public abstract class AbstractTrapTrigger extends AbstractTrigger {
+    @Schema(title = "Bind address", description = "Local address to listen on; defaults to all interfaces")
+    @Builder.Default
+    @PluginProperty(group = "connection")
+    protected Property<String> bindAddress = Property.ofValue("0.0.0.0");
+
+    @Schema(title = "Listen port", description = "UDP (and TCP) port to listen on; defaults to 162")
+    @Builder.Default
+    @PluginProperty(group = "connection")
+    protected Property<Integer> port = Property.ofValue(162);
+
+    @Schema(title = "Also listen on TCP", description = "Accept notifications over TCP on the same port, in addition to UDP; defaults to false")
+    @Builder.Default
+    @PluginProperty(group = "connection")
+    protected Property<Boolean> tcp = Property.ofValue(false);
+
+    @Schema(title = "Accepted communities", description = "v1/v2c notifications with another community are discarded; all are accepted when empty")
+    @PluginProperty(secret = true, group = "advanced")
+    @ToString.Exclude
+    protected Property<List<String>> communities;
+
+    @Schema(title = "SNMPv3 users", description = "Users whose v3 notifications are accepted, with their auth/privacy settings")
+    @PluginProperty(group = "advanced")
+    protected Property<List<AbstractSnmpTask.V3Security>> users;
+
+    @Schema(
+        title = "Socket receive buffer (bytes)",
+        description = "Absorbs bursts while decode threads catch up; the OS may cap it (net.core.rmem_max on Linux); defaults to 4 MiB"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> receiveBufferSize = Property.ofValue(4 * 1024 * 1024);
+
+    @Schema(title = "Decode threads", description = "Threads decoding, authenticating and acknowledging notifications; defaults to 4")
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    protected Property<Integer> decodeThreads = Property.ofValue(4);
+
+    @Schema(
+        title = "Queue size",
+        description = "Capacity of the queue of messages waiting for a decode thread and of the queue of decoded notifications; beyond it, notifications are dropped and counted; defaults to 10000"
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    protected Property<Integer> queueSize = Property.ofValue(10_000);
+
+    @Schema(
+        title = "Deduplication",
+        description = "Suppress notifications repeated by the same agent with the same notification OID and key varbind values within a window"
+    )
+    @PluginProperty(group = "advanced")
+    protected Property<Deduplication> deduplication;
+
+    protected TrapReceiver.Settings receiverSettings(RunContext runContext) throws IllegalVariableEvaluationException {
+        return TrapReceiver.Settings.builder()
+            .bindAddress(runContext.render(this.bindAddress).as(String.class).orElse("0.0.0.0"))
+            .port(runContext.render(this.port).as(Integer.class).orElse(162))
+            .tcp(runContext.render(this.tcp).as(Boolean.class).orElse(false))
+            .receiveBufferSize(runContext.render(this.receiveBufferSize).as(Integer.class).orElse(4 * 1024 * 1024))
+            .decodeThreads(runContext.render(this.decodeThreads).as(Integer.class).orElse(4))
+            .queueSize(runContext.render(this.queueSize).as(Integer.class).orElse(10_000))
+            .communities(runContext.render(this.communities).asList(String.class))
+            .users(runContext.render(this.users).asList(AbstractSnmpTask.V3Security.class))
+            .build();
+    }
+
+    /**
+     * The configured deduplicator, or null when deduplication is disabled.
+     */
+    protected TrapDeduplicator deduplicator(RunContext runContext) throws IllegalVariableEvaluationException {
+        Deduplication rDeduplication = runContext.render(this.deduplication).as(Deduplication.class).orElse(null);
+        if (rDeduplication == null) {
+            return null;
+        }
+
+        return new TrapDeduplicator(
+            rDeduplication.getKeyOids() != null ? rDeduplication.getKeyOids() : List.of(),
+            rDeduplication.getWindow() != null ? rDeduplication.getWindow() : Duration.ofMinutes(1),
+            rDeduplication.getMaxEntries() != null ? rDeduplication.getMaxEntries() : 10_000,
+            rDeduplication.getMode() != null ? rDeduplication.getMode() : DeduplicationMode.DROP
+        );
+    }
+
+    @Builder
+    @Getter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Deduplication {
+        @Schema(title = "Key varbind OIDs", description = "Varbinds whose values, with the agent address and notification OID, identify duplicates; instances of these OIDs match too")
+        @PluginProperty(group = "main")
+        private List<String> keyOids;
+
+        @Schema(title = "Window", description = "How long duplicates of a first notification are suppressed; defaults to 1 minute")
+        @PluginProperty(group = "main")
+        private Duration window;
+
+        @Schema(title = "Max tracked keys", description = "Oldest keys are forgotten beyond this count; defaults to 10000")
+        @PluginProperty(group = "advanced")
+        private Integer maxEntries;
+
+        @Schema(
+            title = "Mode",
+            description = "DROP (default) discards duplicates; SUMMARY also emits, when the window closes, a copy of the first notification with the number of `duplicates` suppressed"
+        )
+        @PluginProperty(group = "main")
+        private DeduplicationMode mode;
+    }
+
+    public enum DeduplicationMode {
+        DROP,
+        SUMMARY
+    }
+}
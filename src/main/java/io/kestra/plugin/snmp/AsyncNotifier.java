@@ -0,0 +1,177 @@
+package io.kestra.plugin.snmp;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.snmp4j.PDU;
+import org.snmp4j.Snmp;
+import org.snmp4j.Target;
+import org.snmp4j.event.ResponseEvent;
+import org.snmp4j.event.ResponseListener;
+import org.snmp4j.smi.Address;
+import org.snmp4j.smi.Integer32;
+
+/**
+ * Pipelines notifications and requests over one session with a bounded number of requests in flight.
+ * <p>
+ * Confirmed PDUs (INFORM, GET, SET, ...) are sent asynchronously through a {@link ResponseListener}, so the caller only blocks when
+ * the in-flight window is full. Each request is tracked by the record passed as user handle of the send, which snmp4j
+ * hands back with the response whatever request ID it ends up using; the measured round trip feeds the
+ * {@link RttEstimator} so that the per-attempt timeout of the next request to the same target adapts to its actual
+ * latency instead of the configured worst case, which stays the upper bound, and an attempt that times out doubles the
+ * next timeout. The target given by the caller is never modified. A request still unanswered once every attempt should have timed out,
+ * plus {@link #DEADLINE_MARGIN_MS}, completes as timed out, so that no caller waits forever.
+ * Unconfirmed PDUs (TRAP, v1 TRAP) complete as soon as they are written to the socket.
+ */
+final class AsyncNotifier {
+    static final long DEADLINE_MARGIN_MS = 1000;
+
+    private static final AtomicInteger REQUEST_IDS = new AtomicInteger(1);
+
+    private final Snmp snmp;
+    private final Semaphore window;
+    private final boolean adaptiveTimeout;
+    private final SnmpMetrics metrics;
+    private final Set<InFlight> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final ResponseListener listener = new ResponseListener() {
+        @Override
+        public <A extends Address> void onResponse(ResponseEvent<A> event) {
+            // stop retransmissions as soon as we got an answer or gave up
+            ((Snmp) event.getSource()).cancel(event.getRequest(), this);
+
+            if (!(event.getUserObject() instanceof InFlight request) || !inFlight.contains(request)) {
+                return;
+            }
+
+            long latency = System.nanoTime() - request.start();
+            PDU response = event.getResponse();
+            boolean firstAttempt = latency <= request.timeoutMs() * 1_000_000L;
+            if (response != null && firstAttempt) {
+                RttEstimator.getInstance().update(request.target().getAddress(), latency);
+            } else if (response != null || event.getError() == null) {
+                // an attempt timed out; a slower answer may belong to a retransmission, which would skew the estimate
+                RttEstimator.getInstance().backoff(request.target().getAddress());
+            }
+            if (metrics != null) {
+                metrics.answered(request.timeoutMs(), request.target().getRetries(), response, latency);
+            }
+
+            request.future().complete(toResult(event, latency));
+        }
+    };
+
+    AsyncNotifier(Snmp snmp, int window) {
+        this(snmp, window, true);
+    }
+
+    AsyncNotifier(Snmp snmp, int window, boolean adaptiveTimeout) {
+        this(snmp, window, adaptiveTimeout, null);
+    }
+
+    /**
+     * @param metrics recorder of the PDUs sent and of the answers, or null
+     */
+    AsyncNotifier(Snmp snmp, int window, boolean adaptiveTimeout, SnmpMetrics metrics) {
+        this.snmp = snmp;
+        this.window = new Semaphore(Math.max(1, window));
+        this.adaptiveTimeout = adaptiveTimeout;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Send a PDU, blocking while the in-flight window is full.
+     */
+    CompletableFuture<Result> send(PDU pdu, Target<?> target) throws InterruptedException {
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        window.acquire();
+        long start = System.nanoTime();
+        if (metrics != null) {
+            metrics.sent(pdu);
+        }
+
+        if (!pdu.isConfirmedPdu()) {
+            try {
+                snmp.send(pdu, target);
+                future.complete(new Result(true, System.nanoTime() - start, null, null));
+            } catch (IOException e) {
+                future.complete(new Result(false, System.nanoTime() - start, e.getMessage(), null));
+            } finally {
+                window.release();
+            }
+            return future;
+        }
+
+        Target<?> attempt = target;
+        if (adaptiveTimeout) {
+            // callers reuse their target for later requests, its timeout must remain the configured upper bound
+            long timeoutMs = RttEstimator.getInstance().timeoutMs(target.getAddress(), target.getTimeout());
+            if (timeoutMs != target.getTimeout()) {
+                attempt = target.duplicate();
+                attempt.setTimeout(timeoutMs);
+            }
+        }
+
+        pdu.setRequestID(new Integer32(nextRequestId()));
+        InFlight request = new InFlight(attempt, attempt.getTimeout(), start, future);
+        inFlight.add(request);
+
+        long deadlineMs = attempt.getTimeout() * (attempt.getRetries() + 1L) + DEADLINE_MARGIN_MS;
+        Result expired = new Result(false, TimeUnit.MILLISECONDS.toNanos(deadlineMs), "No response within " + deadlineMs + " ms", null);
+        future.completeOnTimeout(expired, deadlineMs, TimeUnit.MILLISECONDS).whenComplete((result, error) -> {
+            if (!inFlight.remove(request)) {
+                return;
+            }
+            window.release();
+            if (result == expired) {
+                snmp.cancel(pdu, listener);
+                RttEstimator.getInstance().backoff(target.getAddress());
+                if (metrics != null) {
+                    metrics.answered(request.timeoutMs(), target.getRetries(), null, deadlineMs);
+                }
+            }
+        });
+
+        try {
+            snmp.send(pdu, attempt, request, listener);
+        } catch (IOException e) {
+            future.complete(new Result(false, System.nanoTime() - start, e.getMessage(), null));
+        }
+
+        return future;
+    }
+
+    /**
+     * Number of confirmed requests still waiting for a response.
+     */
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private static int nextRequestId() {
+        // request IDs are signed 32-bit values on the wire, keep them positive
+        return REQUEST_IDS.getAndUpdate(id -> id == Integer.MAX_VALUE ? 1 : id + 1);
+    }
+
+    private static Result toResult(ResponseEvent<?> event, long latencyNanos) {
+        PDU response = event.getResponse();
+        if (response == null) {
+            return new Result(false, latencyNanos, event.getError() != null ? event.getError().getMessage() : "Request timed out", null);
+        }
+        if (response.getErrorStatus() != PDU.noError) {
+            return new Result(false, latencyNanos, response.getErrorStatusText(), response);
+        }
+        return new Result(true, latencyNanos, null, response);
+    }
+
+    private record InFlight(Target<?> target, long timeoutMs, long start, CompletableFuture<Result> future) {
+    }
+
+    record Result(boolean acknowledged, long latencyNanos, String error, PDU response) {
+    }
+}
@@ -0,0 +1,330 @@
+package io.kestra.plugin.snmp;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.Counter32;
+import org.snmp4j.smi.Counter64;
+import org.snmp4j.smi.TimeTicks;
+import org.snmp4j.smi.VariableBinding;
+
+/**
+ * Last sample of every polled counter series, turning raw Counter32/Counter64 values into deltas and per-second rates.
+ * <p>
+ * Series are identified by a 64-bit hash of the device and OID, and stored in an open-addressing table of parallel
+ * primitive arrays, so a lookup is O(1) without boxing and the whole state serializes to a flat byte array.
+ * Wraparound is handled with modular arithmetic on the counter width. When the agent's sysUpTime.0 is polled along
+ * with the counters, it measures the elapsed time and detects reboots: a sysUpTime lower than at the previous sample
+ * means the counters restarted from zero, so no rate is emitted for that sample.
+ * <p>
+ * The top byte of every series hash is the top byte of its device hash, which spreads the series of a device over one
+ * of {@link #SHARDS} shards. Each shard is persisted on its own, so a run only loads the shards of the devices it
+ * polls, through the {@link Loader}, and only saves the shards it sampled.
+ */
+final class CounterRates {
+    private static final int FORMAT = 1;
+    private static final long EMPTY = 0;
+    private static final long NO_UPTIME = -1;
+    // series not polled for that long are dropped when the state is saved
+    private static final long STALE_AFTER_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    static final int SHARDS = 256;
+    private static final int SHARD_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(SHARDS);
+
+    private final Loader loader;
+    // shards merged from the loader, and shards holding a sample taken by this run
+    private final BitSet loaded = new BitSet(SHARDS);
+    private final BitSet sampled = new BitSet(SHARDS);
+
+    private long[] keys;
+    private long[] counters;
+    private long[] uptimes;
+    private long[] times;
+    private int size;
+
+    CounterRates() {
+        this(null);
+    }
+
+    /**
+     * @param loader source of the persisted shards, loaded the first time one of their devices is sampled; null when
+     *               there is nothing to load
+     */
+    CounterRates(Loader loader) {
+        this(16, loader);
+    }
+
+    private CounterRates(int capacity, Loader loader) {
+        this.loader = loader;
+        int length = Integer.highestOneBit(Math.max(16, capacity * 2 - 1)) << 1;
+        keys = new long[length];
+        counters = new long[length];
+        uptimes = new long[length];
+        times = new long[length];
+    }
+
+    /**
+     * Convert response varbinds into values, adding the delta and rate of every counter seen at a previous poll.
+     */
+    List<SnmpValue> apply(String device, MibIndex mibs, List<? extends VariableBinding> bindings, long nowMillis) {
+        long deviceHash = Fnv.hash(Fnv.OFFSET, device);
+        int shard = shard(deviceHash);
+        load(shard);
+
+        synchronized (this) {
+            sampled.set(shard);
+            return apply(deviceHash, mibs, bindings, nowMillis);
+        }
+    }
+
+    private List<SnmpValue> apply(long deviceHash, MibIndex mibs, List<? extends VariableBinding> bindings, long nowMillis) {
+        long uptime = NO_UPTIME;
+        for (VariableBinding binding : bindings) {
+            if (SnmpConstants.sysUpTime.equals(binding.getOid()) && binding.getVariable() instanceof TimeTicks ticks) {
+                uptime = ticks.getValue();
+            }
+        }
+
+        List<SnmpValue> values = new ArrayList<>(bindings.size());
+        for (VariableBinding binding : bindings) {
+            SnmpValue value = SnmpValue.of(binding, mibs);
+            if (binding.getVariable() instanceof Counter32 counter) {
+                value = sample(value, key(deviceHash, binding), counter.getValue(), 0xFFFF_FFFFL, uptime, nowMillis);
+            } else if (binding.getVariable() instanceof Counter64 counter) {
+                value = sample(value, key(deviceHash, binding), counter.getValue(), -1L, uptime, nowMillis);
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    private SnmpValue sample(SnmpValue value, long key, long counter, long mask, long uptime, long nowMillis) {
+        int slot = slot(key);
+        boolean known = keys[slot] == key;
+
+        SnmpValue result = value;
+        if (known) {
+            long previousUptime = uptimes[slot];
+            boolean restarted = uptime != NO_UPTIME && previousUptime != NO_UPTIME && uptime < previousUptime;
+            long elapsedMillis = uptime != NO_UPTIME && previousUptime != NO_UPTIME
+                ? (uptime - previousUptime) * 10
+                : nowMillis - times[slot];
+
+            if (!restarted && elapsedMillis > 0) {
+                // modular subtraction on the counter width absorbs a single wrap
+                long delta = (counter - counters[slot]) & mask;
+                double rate = mask == -1L
+                    ? unsigned(delta) * 1000 / elapsedMillis
+                    : (double) delta * 1000 / elapsedMillis;
+                result = value.toBuilder()
+                    .delta(delta)
+                    .rate(rate)
+                    .build();
+            }
+        } else {
+            keys[slot] = key;
+            size++;
+        }
+
+        counters[slot] = counter;
+        uptimes[slot] = uptime;
+        times[slot] = nowMillis;
+
+        if (size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        return result;
+    }
+
+    /**
+     * Merge the persisted shard once; the read runs outside the lock so that concurrent devices are not held behind it,
+     * and a shard read twice by racing threads is merged twice harmlessly.
+     */
+    private void load(int shard) {
+        if (loader == null) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded.get(shard)) {
+                return;
+            }
+        }
+
+        byte[] bytes;
+        try {
+            bytes = loader.load(shard);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to load the counter samples: " + e.getMessage(), e);
+        }
+
+        synchronized (this) {
+            if (bytes != null) {
+                merge(decode(bytes));
+            }
+            loaded.set(shard);
+        }
+    }
+
+    /**
+     * Shards holding a sample taken since this state was created, the only ones that need saving.
+     */
+    synchronized int[] sampledShards() {
+        return sampled.stream().toArray();
+    }
+
+    /**
+     * Take the samples of {@code stored} that are newer than ours, so that saving the state does not roll back the
+     * series another execution sampled since this one loaded it.
+     */
+    synchronized void merge(CounterRates stored) {
+        for (int i = 0; i < stored.keys.length; i++) {
+            long key = stored.keys[i];
+            if (key == EMPTY) {
+                continue;
+            }
+
+            int slot = slot(key);
+            if (keys[slot] == key && times[slot] >= stored.times[i]) {
+                continue;
+            }
+            if (keys[slot] != key) {
+                keys[slot] = key;
+                size++;
+            }
+            counters[slot] = stored.counters[i];
+            uptimes[slot] = stored.uptimes[i];
+            times[slot] = stored.times[i];
+
+            if (size * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Serialize the series polled recently enough.
+     */
+    synchronized byte[] encode(long nowMillis) {
+        return encode(-1, nowMillis);
+    }
+
+    /**
+     * Serialize the series of one shard polled recently enough, or of every shard when {@code shard} is negative.
+     */
+    synchronized byte[] encode(int shard, long nowMillis) {
+        int live = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (live(i, shard, nowMillis)) {
+                live++;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(8 + live * 32);
+        buffer.putInt(FORMAT);
+        buffer.putInt(live);
+        for (int i = 0; i < keys.length; i++) {
+            if (live(i, shard, nowMillis)) {
+                buffer.putLong(keys[i]);
+                buffer.putLong(counters[i]);
+                buffer.putLong(uptimes[i]);
+                buffer.putLong(times[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    private boolean live(int slot, int shard, long nowMillis) {
+        return keys[slot] != EMPTY
+            && (shard < 0 || shard(keys[slot]) == shard)
+            && nowMillis - times[slot] <= STALE_AFTER_MILLIS;
+    }
+
+    static CounterRates decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.remaining() < 8 || buffer.getInt() != FORMAT) {
+            return new CounterRates();
+        }
+
+        int count = buffer.getInt();
+        CounterRates rates = new CounterRates(count, null);
+        for (int i = 0; i < count && buffer.remaining() >= 32; i++) {
+            long key = buffer.getLong();
+            int slot = rates.slot(key);
+            rates.keys[slot] = key;
+            rates.counters[slot] = buffer.getLong();
+            rates.uptimes[slot] = buffer.getLong();
+            rates.times[slot] = buffer.getLong();
+            rates.size++;
+        }
+        return rates;
+    }
+
+    private static long key(long deviceHash, VariableBinding binding) {
+        long key = Fnv.hash(deviceHash, binding.getOid().getValue());
+        // the series lives in the shard of its device
+        key = (deviceHash >>> SHARD_SHIFT << SHARD_SHIFT) | (key >>> (Long.SIZE - SHARD_SHIFT));
+        // 0 marks an empty slot
+        return key == EMPTY ? 1 : key;
+    }
+
+    static int shard(long hash) {
+        return (int) (hash >>> SHARD_SHIFT);
+    }
+
+    /**
+     * The slot holding the key, or the empty slot where it belongs.
+     */
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int length) {
+        long[] oldKeys = keys;
+        long[] oldCounters = counters;
+        long[] oldUptimes = uptimes;
+        long[] oldTimes = times;
+
+        keys = new long[length];
+        counters = new long[length];
+        uptimes = new long[length];
+        times = new long[length];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counters[slot] = oldCounters[i];
+                uptimes[slot] = oldUptimes[i];
+                times[slot] = oldTimes[i];
+            }
+        }
+    }
+
+    /**
+     * Source of the persisted shards.
+     */
+    @FunctionalInterface
+    interface Loader {
+        /**
+         * The bytes of the shard as produced by {@link #encode(int, long)}, or null when it was never saved.
+         */
+        byte[] load(int shard) throws Exception;
+    }
+
+    private static double unsigned(long value) {
+        return value >= 0 ? value : (double) (value >>> 1) * 2 + (value & 1);
+    }
+}
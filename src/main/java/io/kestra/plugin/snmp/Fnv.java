@@ -0,0 +1,40 @@
+package io.kestra.plugin.snmp;
+
+/**
+ * 64-bit FNV-1a hashing of strings, used to key caches by OIDs and addresses without allocating composite keys.
+ */
+final class Fnv {
+    static final long OFFSET = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private Fnv() {
+    }
+
+    /**
+     * Fold a string into the hash, followed by a separator so that ("ab", "c") and ("a", "bc") differ.
+     */
+    static long hash(long hash, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= PRIME;
+            }
+        }
+        hash ^= 0xff;
+        hash *= PRIME;
+        return hash;
+    }
+
+    /**
+     * Fold the arcs of an OID into the hash, followed by a separator.
+     */
+    static long hash(long hash, int[] arcs) {
+        for (int arc : arcs) {
+            hash ^= arc;
+            hash *= PRIME;
+        }
+        hash ^= 0xff;
+        hash *= PRIME;
+        return hash;
+    }
+}
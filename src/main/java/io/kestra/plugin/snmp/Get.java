@@ -0,0 +1,108 @@
+package io.kestra.plugin.snmp;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.snmp4j.PDU;
+import org.snmp4j.smi.VariableBinding;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@EqualsAndHashCode
+@ToString
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Read OIDs from an SNMP agent",
+    description = "Sends SNMP v1/v2c/v3 GET (or GETNEXT) requests for a list of OIDs to the agent at host:port, defaulting to port 161. Large OID lists are split automatically over several PDUs sized to the agent's max message size and pipelined, so hundreds of OIDs are fetched in a few round trips."
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Read system description and uptime",
+            full = true,
+            code = """
+                    id: snmp-get
+                    namespace: monitoring
+
+                    tasks:
+                      - id: get
+                        type: io.kestra.plugin.snmp.Get
+                        host: "switch-01.example.com"
+                        snmpVersion: "v2c"
+                        community: "public"
+                        oids:
+                          - "1.3.6.1.2.1.1.1.0"
+                          - "1.3.6.1.2.1.1.3.0"
+                """
+        )
+    }
+)
+public class Get extends AbstractSnmpRequestTask implements RunnableTask<Get.Output> {
+    @Schema(title = "OIDs to read", description = "Numeric or symbolic OIDs (e.g. SNMPv2-MIB::sysUpTime.0), in the order values are returned")
+    @NotNull
+    @PluginProperty(group = "main")
+    protected Property<List<String>> oids;
+
+    @Schema(title = "Use GETNEXT", description = "Return the OID following each requested one instead of the OID itself; defaults to false")
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Boolean> next = Property.ofValue(false);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        MibIndex mibs = loadMibs(runContext);
+
+        var rOids = runContext.render(this.oids).asList(String.class);
+        var rNext = runContext.render(this.next).as(Boolean.class).orElse(false);
+
+        List<VariableBinding> request = rOids.stream()
+            .map(oid -> new VariableBinding(PduTemplate.oid(mibs, oid)))
+            .toList();
+
+        CounterRates counterRates = loadRates(runContext);
+
+        long start = System.nanoTime();
+        try (var session = openRequest(runContext)) {
+            List<VariableBinding> response = session.request(rNext ? PDU.GETNEXT : PDU.GET, rNext ? withNextUptime(request, counterRates) : withUptime(request, counterRates), true);
+            List<SnmpValue> values = counterRates != null
+                ? counterRates.apply(session.getTarget().getAddress().toString(), mibs, response, System.currentTimeMillis())
+                : response.stream().map(binding -> SnmpValue.of(binding, mibs)).toList();
+            // drop the sysUpTime.0 added for rates
+            values = values.subList(0, Math.min(values.size(), request.size()));
+            saveRates(runContext, counterRates);
+
+            runContext.metric(Counter.of("varbinds", values.size()));
+            runContext.metric(Timer.of("duration", Duration.ofNanos(System.nanoTime() - start)));
+            runContext.logger().info("Read {} OID(s) from {}", values.size(), session.getTarget().getAddress());
+
+            return Output.builder()
+                .values(values)
+                .size(values.size())
+                .build();
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Values", description = "One entry per requested OID, in request order")
+        private final List<SnmpValue> values;
+
+        @Schema(title = "Number of values")
+        private final int size;
+    }
+}
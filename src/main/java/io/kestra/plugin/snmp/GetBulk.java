@@ -0,0 +1,127 @@
+package io.kestra.plugin.snmp;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.snmp4j.PDU;
+import org.snmp4j.smi.VariableBinding;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@EqualsAndHashCode
+@ToString
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Read consecutive OIDs with SNMP GETBULK",
+    description = "Sends SNMP v2c/v3 GETBULK requests to the agent at host:port, defaulting to port 161. The first `nonRepeaters` OIDs are read once; each following OID returns up to `maxRepetitions` successors. Repeaters are split over several PDUs when the estimated response would exceed the agent's max message size."
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Read uptime and the first 24 interface input counters",
+            full = true,
+            code = """
+                    id: snmp-getbulk
+                    namespace: monitoring
+
+                    tasks:
+                      - id: bulk
+                        type: io.kestra.plugin.snmp.GetBulk
+                        host: "switch-01.example.com"
+                        snmpVersion: "v2c"
+                        community: "public"
+                        nonRepeaters: 1
+                        maxRepetitions: 24
+                        oids:
+                          - "1.3.6.1.2.1.1.3"
+                          - "1.3.6.1.2.1.31.1.1.1.6"
+                """
+        )
+    }
+)
+public class GetBulk extends AbstractSnmpRequestTask implements RunnableTask<GetBulk.Output> {
+    @Schema(title = "OIDs to read", description = "Numeric or symbolic OIDs (e.g. IF-MIB::ifDescr); the first `nonRepeaters` ones are non-repeating")
+    @NotNull
+    @PluginProperty(group = "main")
+    protected Property<List<String>> oids;
+
+    @Schema(title = "Non-repeaters", description = "Number of leading OIDs read once, like a GETNEXT; defaults to 0")
+    @Builder.Default
+    @PluginProperty(group = "main")
+    protected Property<Integer> nonRepeaters = Property.ofValue(0);
+
+    @Schema(title = "Max repetitions", description = "Number of successors returned for each repeating OID; defaults to 10")
+    @Builder.Default
+    @PluginProperty(group = "main")
+    protected Property<Integer> maxRepetitions = Property.ofValue(10);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        MibIndex mibs = loadMibs(runContext);
+
+        var rOids = runContext.render(this.oids).asList(String.class);
+        var rNonRepeaters = Math.min(runContext.render(this.nonRepeaters).as(Integer.class).orElse(0), rOids.size());
+        var rMaxRepetitions = runContext.render(this.maxRepetitions).as(Integer.class).orElse(10);
+
+        List<VariableBinding> request = rOids.stream()
+            .map(oid -> new VariableBinding(PduTemplate.oid(mibs, oid)))
+            .toList();
+
+        CounterRates counterRates = loadRates(runContext);
+
+        long start = System.nanoTime();
+        try (var session = openRequest(runContext)) {
+            // sysUpTime.0 is read as the last non-repeater, the first response then carries it right after the others
+            List<VariableBinding> nonRepeaters = withNextUptime(request.subList(0, rNonRepeaters), counterRates);
+            boolean uptime = nonRepeaters.size() > rNonRepeaters;
+
+            List<VariableBinding> bindings = new ArrayList<>();
+            for (PDU response : session.bulk(nonRepeaters, request.subList(rNonRepeaters, request.size()), rMaxRepetitions)) {
+                bindings.addAll(response.getVariableBindings());
+            }
+
+            List<SnmpValue> values = counterRates != null
+                ? counterRates.apply(session.getTarget().getAddress().toString(), mibs, bindings, System.currentTimeMillis())
+                : bindings.stream().map(binding -> SnmpValue.of(binding, mibs)).toList();
+            if (uptime && values.size() > rNonRepeaters) {
+                values = new ArrayList<>(values);
+                values.remove(rNonRepeaters);
+            }
+            saveRates(runContext, counterRates);
+
+            runContext.metric(Counter.of("varbinds", values.size()));
+            runContext.metric(Timer.of("duration", Duration.ofNanos(System.nanoTime() - start)));
+            runContext.logger().info("Read {} varbind(s) from {}", values.size(), session.getTarget().getAddress());
+
+            return Output.builder()
+                .values(values)
+                .size(values.size())
+                .build();
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Values", description = "Non-repeater values first, then each repetition row of the repeating OIDs, as returned by the agent")
+        private final List<SnmpValue> values;
+
+        @Schema(title = "Number of values")
+        private final int size;
+    }
+}
@@ -0,0 +1,250 @@
+package io.kestra.plugin.snmp;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.snmp4j.CertifiedTarget;
+import org.snmp4j.PDU;
+import org.snmp4j.Snmp;
+import org.snmp4j.Target;
+import org.snmp4j.UserTarget;
+import org.snmp4j.event.ResponseEvent;
+import org.snmp4j.smi.Address;
+import org.snmp4j.smi.VariableBinding;
+
+/**
+ * Worker-wide store-and-forward of the INFORMs that a manager did not acknowledge.
+ * <p>
+ * Failed INFORMs are appended to an {@link InformJournal} and replayed by a background thread, oldest first for each
+ * destination, so that task threads never wait for a manager that is down. A destination whose replay fails is retried
+ * after an exponential backoff, from {@link #MIN_BACKOFF} up to {@link #MAX_BACKOFF}; destinations are replayed
+ * concurrently, each on its own virtual thread.
+ * <p>
+ * Communities and v3 users are only kept in memory, registered by every task run that may journal an INFORM, and stay
+ * there in clear text for the life of the worker, like the sessions of {@link SnmpSessionPool}. After a worker restart,
+ * the entries recovered from the journal therefore wait until a task using the same credentials runs, and are dropped
+ * once their credentials have been unknown for {@link #UNKNOWN_CREDENTIALS_TIMEOUT}.
+ */
+final class InformForwarder {
+    static final Duration MIN_BACKOFF = Duration.ofSeconds(1);
+    static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+    static final Duration UNKNOWN_CREDENTIALS_TIMEOUT = Duration.ofHours(1);
+
+    private static final long TICK_MS = 500;
+    private static final Logger logger = LoggerFactory.getLogger(InformForwarder.class);
+
+    private static final ConcurrentHashMap<Path, InformForwarder> INSTANCES = new ConcurrentHashMap<>();
+    // credentials by fingerprint, never written to the journal
+    private static final ConcurrentHashMap<String, Credentials> CREDENTIALS = new ConcurrentHashMap<>();
+
+    private final InformJournal journal;
+    private final SnmpSessionPool pool;
+    private final ConcurrentHashMap<String, Backoff> backoffs = new ConcurrentHashMap<>();
+    // since when each destination waits for the credentials of its oldest INFORM
+    private final ConcurrentHashMap<String, Long> unknownSince = new ConcurrentHashMap<>();
+    private final long unknownCredentialsTimeoutNanos;
+
+    InformForwarder(InformJournal journal, SnmpSessionPool pool) {
+        this(journal, pool, UNKNOWN_CREDENTIALS_TIMEOUT);
+    }
+
+    InformForwarder(InformJournal journal, SnmpSessionPool pool, Duration unknownCredentialsTimeout) {
+        this.journal = journal;
+        this.pool = pool;
+        this.unknownCredentialsTimeoutNanos = unknownCredentialsTimeout.toNanos();
+    }
+
+    /**
+     * The forwarder of the journal in the given directory, opened and started on first use.
+     */
+    static InformForwarder of(Path directory) throws IOException {
+        try {
+            return INSTANCES.computeIfAbsent(directory.toAbsolutePath().normalize(), dir -> {
+                try {
+                    InformForwarder forwarder = new InformForwarder(new InformJournal(dir), SnmpSessionPool.getInstance());
+                    forwarder.start();
+                    return forwarder;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Make the credentials available to the replay and return the fingerprint identifying them in the journal.
+     */
+    static String register(SnmpVersion version, String community, AbstractSnmpTask.V3Security sec) {
+        String fingerprint = version == SnmpVersion.V3 && sec != null
+            ? SnmpSessionPool.Key.fingerprint(
+                version.name(), sec.getUsername(),
+                sec.getAuthProtocol(), sec.getAuthPassword(),
+                sec.getPrivProtocol(), sec.getPrivPassword()
+            )
+            : SnmpSessionPool.Key.fingerprint(version.name(), community);
+
+        CREDENTIALS.putIfAbsent(fingerprint, new Credentials(community, sec));
+        return fingerprint;
+    }
+
+    /**
+     * Journal an INFORM for replay.
+     *
+     * @return false when the journal is full
+     */
+    boolean enqueue(InformJournal.Entry entry, long maxBytes) throws IOException {
+        return journal.append(entry, maxBytes) != null;
+    }
+
+    /**
+     * Whether INFORMs to this destination are still waiting, in which case a new one must queue behind them.
+     */
+    boolean hasPending(SnmpTransport transport, String host, int port) {
+        return journal.hasPending(InformJournal.Entry.destination(transport, host, port));
+    }
+
+    int pending() {
+        return journal.size();
+    }
+
+    private void start() {
+        ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "snmp-inform-forwarder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (Exception e) {
+                logger.warn("Unable to replay journaled INFORMs: {}", e.getMessage());
+            }
+        }, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Replay the pending INFORMs of every destination whose backoff has elapsed.
+     *
+     * @return the number of INFORMs delivered
+     */
+    int flush() {
+        long now = System.nanoTime();
+        List<String> due = journal.destinations().stream()
+            .filter(destination -> {
+                Backoff backoff = backoffs.get(destination);
+                return backoff == null || now - backoff.nextAttempt() >= 0;
+            })
+            .toList();
+
+        AtomicInteger delivered = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String destination : due) {
+                executor.submit(() -> delivered.addAndGet(drain(destination)));
+            }
+        }
+        return delivered.get();
+    }
+
+    private int drain(String destination) {
+        int delivered = 0;
+        while (true) {
+            InformJournal.Entry entry = journal.head(destination);
+            if (entry == null) {
+                backoffs.remove(destination);
+                unknownSince.remove(destination);
+                return delivered;
+            }
+
+            Credentials credentials = CREDENTIALS.get(entry.credentials());
+            if (credentials == null) {
+                // recovered after a restart, wait for a task run to register the credentials, for a while
+                long now = System.nanoTime();
+                long since = unknownSince.computeIfAbsent(destination, k -> now);
+                if (now - since < unknownCredentialsTimeoutNanos) {
+                    return delivered;
+                }
+
+                logger.warn("INFORM to {} dropped, no task registered its credentials since the worker started", destination);
+                try {
+                    journal.ack(entry);
+                } catch (IOException e) {
+                    logger.warn("Unable to drop an INFORM to {}: {}", destination, e.getMessage());
+                    return delivered;
+                }
+                continue;
+            }
+            unknownSince.remove(destination);
+
+            try {
+                if (!send(entry, credentials)) {
+                    backoffs.compute(destination, (k, backoff) -> Backoff.after(backoff, System.nanoTime()));
+                    return delivered;
+                }
+                journal.ack(entry);
+                backoffs.remove(destination);
+                delivered++;
+            } catch (Exception e) {
+                logger.warn("Unable to replay an INFORM to {}: {}", destination, e.getMessage());
+                backoffs.compute(destination, (k, backoff) -> Backoff.after(backoff, System.nanoTime()));
+                return delivered;
+            }
+        }
+    }
+
+    /**
+     * Send one journaled INFORM; any answer, even an error status, counts as delivered since the manager received it.
+     */
+    private boolean send(InformJournal.Entry entry, Credentials credentials) throws IOException {
+        // the journal does not record the local bind address of the task, replays leave from an ephemeral port
+        try (var lease = pool.borrow(AbstractSnmpTask.sessionKey(entry.transport(), null, entry.version(), credentials.sec()))) {
+            Snmp snmp = lease.getSnmp();
+            Address address = entry.transport().address(entry.host(), entry.port());
+
+            Target<?> target = entry.version().target(address, entry.timeoutMs(), entry.retries(), credentials.community(), credentials.sec());
+            boolean usm = target instanceof UserTarget<?> && !(target instanceof CertifiedTarget<?>);
+            if (usm) {
+                SnmpV3Security.prepareRemote(snmp, (UserTarget<?>) target, credentials.sec());
+            }
+
+            PDU pdu = entry.version().pdu(PDU.INFORM);
+            for (VariableBinding binding : entry.bindings()) {
+                pdu.add(binding);
+            }
+
+            ResponseEvent<?> event = snmp.send(pdu, target);
+            PDU response = event != null ? event.getResponse() : null;
+            if (usm) {
+                if (response != null) {
+                    SnmpV3Security.remember(snmp, address);
+                } else {
+                    SnmpV3Security.forget(address);
+                }
+            }
+            return response != null;
+        }
+    }
+
+    private record Credentials(String community, AbstractSnmpTask.V3Security sec) {
+    }
+
+    private record Backoff(int failures, long nextAttempt) {
+        static Backoff after(Backoff previous, long now) {
+            int failures = previous != null ? previous.failures() + 1 : 1;
+            long delay = Math.min(MAX_BACKOFF.toNanos(), MIN_BACKOFF.toNanos() << Math.min(failures - 1, 30));
+            return new Backoff(failures, now + delay);
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package io.kestra.plugin.snmp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.snmp4j.asn1.BERInputStream;
+import org.snmp4j.smi.VariableBinding;
+
+/**
+ * Append-only journal of the INFORMs that were not acknowledged, replayed by the {@link InformForwarder}.
+ * <p>
+ * Each record is framed by its length and CRC32, so that a record torn by a crash is detected and cut off when the
+ * journal is reopened. Replayed entries are not rewritten in place: an ack record is appended instead, and the file is
+ * truncated once nothing is pending, or compacted once acks make up most of it. Appends are forced to disk before
+ * returning; acks are not, a lost ack only causing a duplicate delivery.
+ * <p>
+ * Entries are kept on heap too, queued per destination in append order. The journal never holds credentials: an entry
+ * refers to them by fingerprint.
+ */
+final class InformJournal implements AutoCloseable {
+    static final String FILE_NAME = "informs.journal";
+
+    private static final byte ENTRY = 1;
+    private static final byte ACK = 2;
+    // length and CRC32 of a record
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1024 * 1024;
+    // do not bother compacting small journals
+    private static final long COMPACT_THRESHOLD = 1024 * 1024;
+
+    private final Path file;
+    private FileChannel channel;
+
+    private final Map<String, ArrayDeque<Entry>> pending = new LinkedHashMap<>();
+    private final Map<Long, Integer> recordBytes = new HashMap<>();
+    private long liveBytes;
+    private long nextSequence = 1;
+
+    InformJournal(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.file = directory.resolve(FILE_NAME);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+    }
+
+    /**
+     * Append an entry, unless the journal would grow beyond {@code maxBytes}.
+     *
+     * @return the entry with its sequence number, or null when the journal is full
+     */
+    synchronized Entry append(Entry entry, long maxBytes) throws IOException {
+        Entry sequenced = entry.withSequence(nextSequence);
+        byte[] record = record(ENTRY, encode(sequenced));
+
+        if (channel.size() + record.length > maxBytes) {
+            compact();
+            if (channel.size() + record.length > maxBytes) {
+                return null;
+            }
+        }
+
+        write(record);
+        channel.force(false);
+        nextSequence++;
+        add(sequenced, record.length);
+        return sequenced;
+    }
+
+    /**
+     * Mark an entry as delivered.
+     */
+    synchronized void ack(Entry entry) throws IOException {
+        if (!remove(entry)) {
+            return;
+        }
+
+        if (pending.isEmpty()) {
+            channel.truncate(0);
+            channel.position(0);
+        } else {
+            write(record(ACK, ByteBuffer.allocate(Long.BYTES).putLong(entry.sequence()).array()));
+            if (channel.size() > COMPACT_THRESHOLD && channel.size() > 2 * liveBytes) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * The oldest pending entry of the destination, or null.
+     */
+    synchronized Entry head(String destination) {
+        ArrayDeque<Entry> entries = pending.get(destination);
+        return entries != null ? entries.peekFirst() : null;
+    }
+
+    synchronized boolean hasPending(String destination) {
+        return pending.containsKey(destination);
+    }
+
+    synchronized List<String> destinations() {
+        return new ArrayList<>(pending.keySet());
+    }
+
+    synchronized int size() {
+        return recordBytes.size();
+    }
+
+    synchronized long fileSize() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void add(Entry entry, int bytes) {
+        pending.computeIfAbsent(entry.destination(), k -> new ArrayDeque<>()).addLast(entry);
+        recordBytes.put(entry.sequence(), bytes);
+        liveBytes += bytes;
+    }
+
+    private boolean remove(Entry entry) {
+        Integer bytes = recordBytes.remove(entry.sequence());
+        if (bytes == null) {
+            return false;
+        }
+        liveBytes -= bytes;
+
+        ArrayDeque<Entry> entries = pending.get(entry.destination());
+        entries.removeIf(e -> e.sequence() == entry.sequence());
+        if (entries.isEmpty()) {
+            pending.remove(entry.destination());
+        }
+        return true;
+    }
+
+    private void recover() throws IOException {
+        Map<Long, Entry> bySequence = new HashMap<>();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+
+        while (true) {
+            header.clear();
+            if (read(header, position) < HEADER_BYTES) {
+                break;
+            }
+            int length = header.getInt(0);
+            if (length <= 0 || length > MAX_RECORD_BYTES) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length);
+            if (read(body, position + HEADER_BYTES) < length || crc(body.array()) != header.getInt(4)) {
+                break;
+            }
+
+            byte[] payload = new byte[length - 1];
+            System.arraycopy(body.array(), 1, payload, 0, payload.length);
+            if (body.get(0) == ENTRY) {
+                Entry entry = decode(payload);
+                bySequence.put(entry.sequence(), entry);
+                add(entry, HEADER_BYTES + length);
+                nextSequence = Math.max(nextSequence, entry.sequence() + 1);
+            } else if (body.get(0) == ACK) {
+                Entry acked = bySequence.remove(ByteBuffer.wrap(payload).getLong());
+                if (acked != null) {
+                    remove(acked);
+                }
+            }
+            position += HEADER_BYTES + length;
+        }
+
+        // cut off a record torn by a crash, so that the next append is readable
+        channel.truncate(position);
+        channel.position(position);
+    }
+
+    /**
+     * Rewrite the journal with the pending entries only.
+     */
+    private void compact() throws IOException {
+        Path tmp = file.resolveSibling(FILE_NAME + ".tmp");
+        List<Entry> entries = pending.values().stream()
+            .flatMap(ArrayDeque::stream)
+            .sorted((a, b) -> Long.compare(a.sequence(), b.sequence()))
+            .toList();
+
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Entry entry : entries) {
+                ByteBuffer buffer = ByteBuffer.wrap(record(ENTRY, encode(entry)));
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            out.force(true);
+        }
+
+        channel.close();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    private void write(byte[] record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private int read(ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private static byte[] record(byte type, byte[] payload) {
+        byte[] body = new byte[payload.length + 1];
+        body[0] = type;
+        System.arraycopy(payload, 0, body, 1, payload.length);
+
+        return ByteBuffer.allocate(HEADER_BYTES + body.length)
+            .putInt(body.length)
+            .putInt(crc(body))
+            .put(body)
+            .array();
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] encode(Entry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(entry.sequence());
+            out.writeLong(entry.enqueuedAt());
+            out.writeUTF(entry.transport().getScheme());
+            out.writeUTF(entry.host());
+            out.writeInt(entry.port());
+            out.writeUTF(entry.version().name());
+            out.writeUTF(entry.credentials());
+            out.writeInt(entry.timeoutMs());
+            out.writeInt(entry.retries());
+            out.writeInt(entry.bindings().size());
+            for (VariableBinding binding : entry.bindings()) {
+                ByteArrayOutputStream ber = new ByteArrayOutputStream(binding.getBERLength());
+                binding.encodeBER(ber);
+                out.writeInt(ber.size());
+                ber.writeTo(out);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Entry decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            long sequence = in.readLong();
+            long enqueuedAt = in.readLong();
+            SnmpTransport transport = SnmpTransport.fromString(in.readUTF());
+            String host = in.readUTF();
+            int port = in.readInt();
+            SnmpVersion version = SnmpVersion.valueOf(in.readUTF());
+            String credentials = in.readUTF();
+            int timeoutMs = in.readInt();
+            int retries = in.readInt();
+
+            int count = in.readInt();
+            List<VariableBinding> bindings = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] ber = new byte[in.readInt()];
+                in.readFully(ber);
+                VariableBinding binding = new VariableBinding();
+                binding.decodeBER(new BERInputStream(ByteBuffer.wrap(ber)));
+                bindings.add(binding);
+            }
+
+            return new Entry(sequence, enqueuedAt, transport, host, port, version, credentials, timeoutMs, retries, bindings);
+        }
+    }
+
+    /**
+     * An INFORM waiting for delivery.
+     *
+     * @param sequence    position in the journal, assigned on append
+     * @param enqueuedAt  epoch milliseconds of the first failed attempt
+     * @param credentials fingerprint of the community or v3 user, resolved by the {@link InformForwarder}
+     * @param bindings    the varbinds of the INFORM, snmpTrapOID included
+     */
+    record Entry(
+        long sequence,
+        long enqueuedAt,
+        SnmpTransport transport,
+        String host,
+        int port,
+        SnmpVersion version,
+        String credentials,
+        int timeoutMs,
+        int retries,
+        List<VariableBinding> bindings
+    ) {
+        String destination() {
+            return destination(transport, host, port);
+        }
+
+        Entry withSequence(long sequence) {
+            return new Entry(sequence, enqueuedAt, transport, host, port, version, credentials, timeoutMs, retries, bindings);
+        }
+
+        static String destination(SnmpTransport transport, String host, int port) {
+            return transport.getScheme() + ":" + host + "/" + port;
+        }
+    }
+}
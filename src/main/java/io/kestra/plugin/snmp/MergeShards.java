@@ -0,0 +1,223 @@
+package io.kestra.plugin.snmp;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.models.tasks.Task;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@EqualsAndHashCode
+@ToString
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Merge the results of sharded device polls",
+    description = "Concatenates the ION result files of `PollDevices` tasks that each polled one shard of an inventory into a single file, sums their counts, and reports the number of devices and the duration of each shard along with their skew."
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Poll a large inventory as 8 shards spread over the workers, then merge the results",
+            full = true,
+            code = """
+                    id: snmp-sharded-poll
+                    namespace: monitoring
+
+                    inputs:
+                      - id: inventory
+                        type: FILE
+
+                    tasks:
+                      - id: shards
+                        type: io.kestra.plugin.core.flow.ForEach
+                        values: [0, 1, 2, 3, 4, 5, 6, 7]
+                        concurrencyLimit: 0
+                        tasks:
+                          - id: poll
+                            type: io.kestra.plugin.snmp.PollDevices
+                            from: "{{ inputs.inventory }}"
+                            community: "{{ secret('SNMP_COMMUNITY') }}"
+                            shardCount: 8
+                            shard: "{{ taskrun.value }}"
+                            oids:
+                              - "1.3.6.1.2.1.1.3.0"
+
+                      - id: merge
+                        type: io.kestra.plugin.snmp.MergeShards
+                        shards: "{{ outputs.poll | values }}"
+                """
+        )
+    }
+)
+public class MergeShards extends Task implements RunnableTask<MergeShards.Output> {
+    @Schema(
+        title = "Shard outputs",
+        description = "Outputs of the `PollDevices` tasks of every shard, each with at least `uri`, and `shard`, `total`, `succeeded`, `failed` and `duration` for the counts and metrics"
+    )
+    @NotNull
+    @PluginProperty(group = "source")
+    protected Property<List<Shard>> shards;
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        var rShards = runContext.render(this.shards).asList(Shard.class).stream()
+            .sorted(Comparator.comparing(Shard::getShard, Comparator.nullsLast(Comparator.naturalOrder())))
+            .toList();
+
+        File tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+        long total = 0;
+        long succeeded = 0;
+        long failed = 0;
+        long maxDevices = 0;
+        long minDevices = Long.MAX_VALUE;
+        Duration maxDuration = Duration.ZERO;
+        Duration minDuration = null;
+        Duration sumDuration = Duration.ZERO;
+
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(tempFile), FileSerde.BUFFER_SIZE)) {
+            for (int i = 0; i < rShards.size(); i++) {
+                Shard shard = rShards.get(i);
+                String tag = String.valueOf(shard.getShard() != null ? shard.getShard() : i);
+
+                // rows are newline-terminated ION values, so the files are concatenated as they are
+                try (InputStream input = runContext.storage().getFile(URI.create(shard.getUri()))) {
+                    input.transferTo(output);
+                }
+
+                long devices = shard.getTotal() != null ? shard.getTotal() : 0;
+                Duration duration = shard.getDuration() != null ? shard.getDuration() : Duration.ZERO;
+                total += devices;
+                succeeded += shard.getSucceeded() != null ? shard.getSucceeded() : 0;
+                failed += shard.getFailed() != null ? shard.getFailed() : 0;
+                maxDevices = Math.max(maxDevices, devices);
+                minDevices = Math.min(minDevices, devices);
+                if (duration.compareTo(maxDuration) > 0) {
+                    maxDuration = duration;
+                }
+                if (minDuration == null || duration.compareTo(minDuration) < 0) {
+                    minDuration = duration;
+                }
+                sumDuration = sumDuration.plus(duration);
+
+                runContext.metric(Counter.of("shard.devices", devices, "shard", tag));
+                runContext.metric(Timer.of("shard.duration", duration, "shard", tag));
+            }
+        }
+
+        // largest shard over the mean one, 1 when perfectly balanced
+        double skew = total > 0 ? maxDevices * rShards.size() / (double) total : 1;
+        double durationSkew = !sumDuration.isZero() ? maxDuration.toNanos() * rShards.size() / (double) sumDuration.toNanos() : 1;
+
+        runContext.metric(Counter.of("shards", rShards.size()));
+        runContext.metric(Counter.of("devices", total));
+        if (!rShards.isEmpty()) {
+            // skew as the spread between the extreme shards, ratios cannot be summed like timers; the device counts of
+            // these shards are outputs only, as counters would add them up across runs
+            runContext.metric(Timer.of("shard.duration.slowest", maxDuration));
+            runContext.metric(Timer.of("shard.duration.fastest", minDuration));
+        }
+        runContext.logger().info(
+            "Merged {} shard(s) of {} device(s), {} succeeded; skew {} in devices and {} in duration, slowest shard took {}",
+            rShards.size(), total, succeeded, String.format("%.2f", skew), String.format("%.2f", durationSkew), maxDuration
+        );
+
+        return Output.builder()
+            .uri(runContext.storage().putFile(tempFile))
+            .total(total)
+            .succeeded(succeeded)
+            .failed(failed)
+            .shards(rShards.size())
+            .maxDevices(maxDevices)
+            .minDevices(rShards.isEmpty() ? 0 : minDevices)
+            .skew(skew)
+            .durationSkew(durationSkew)
+            .maxDuration(maxDuration)
+            .build();
+    }
+
+    @Builder
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Shard {
+        @NotNull
+        @Schema(title = "Results file URI")
+        @PluginProperty(internalStorageURI = true, group = "source")
+        private String uri;
+
+        @Schema(title = "Shard index")
+        @PluginProperty(group = "source")
+        private Integer shard;
+
+        @Schema(title = "Number of devices")
+        @PluginProperty(group = "source")
+        private Long total;
+
+        @Schema(title = "Number of devices that answered every request")
+        @PluginProperty(group = "source")
+        private Long succeeded;
+
+        @Schema(title = "Number of devices that failed")
+        @PluginProperty(group = "source")
+        private Long failed;
+
+        @Schema(title = "Polling duration")
+        @PluginProperty(group = "source")
+        private Duration duration;
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Results file URI", description = "Internal storage URI of an ION file with the rows of every shard, shard after shard")
+        private final URI uri;
+
+        @Schema(title = "Number of devices")
+        private final long total;
+
+        @Schema(title = "Number of devices that answered every request")
+        private final long succeeded;
+
+        @Schema(title = "Number of devices that failed")
+        private final long failed;
+
+        @Schema(title = "Number of shards")
+        private final int shards;
+
+        @Schema(title = "Devices of the largest shard")
+        private final long maxDevices;
+
+        @Schema(title = "Devices of the smallest shard")
+        private final long minDevices;
+
+        @Schema(title = "Device skew", description = "Devices of the largest shard over the mean number of devices per shard; 1 when perfectly balanced")
+        private final double skew;
+
+        @Schema(title = "Duration skew", description = "Duration of the slowest shard over the mean shard duration; 1 when perfectly balanced")
+        private final double durationSkew;
+
+        @Schema(title = "Duration of the slowest shard")
+        private final Duration maxDuration;
+    }
+}
@@ -0,0 +1,421 @@
+package io.kestra.plugin.snmp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.kestra.plugin.snmp.AbstractSnmpTask.VariableType;
+
+/**
+ * Compiler of SMIv1/SMIv2 modules into a {@link MibIndex}.
+ * <p>
+ * Only what the index needs is parsed: OID assignments, either plain {@code OBJECT IDENTIFIER} values or the
+ * OBJECT-TYPE, NOTIFICATION-TYPE, MODULE-IDENTITY, ... macros, SMIv1 TRAP-TYPEs, and the SYNTAX of objects and textual
+ * conventions, resolved down to a base SMI type. Descriptions, indexes and conformance clauses are skipped. Parents are
+ * resolved once every source has been read, so modules may be given in any order.
+ */
+final class MibCompiler {
+    private static final Set<String> OID_MACROS = Set.of(
+        "OBJECT-TYPE", "OBJECT-IDENTITY", "MODULE-IDENTITY", "NOTIFICATION-TYPE",
+        "OBJECT-GROUP", "NOTIFICATION-GROUP", "MODULE-COMPLIANCE", "AGENT-CAPABILITIES"
+    );
+
+    private static final Map<String, int[]> ROOTS = Map.of(
+        "ccitt", new int[] {0},
+        "iso", new int[] {1},
+        "joint-iso-ccitt", new int[] {2}
+    );
+
+    private static final Map<String, VariableType> BASE_TYPES = Map.ofEntries(
+        Map.entry("INTEGER", VariableType.INTEGER32),
+        Map.entry("Integer32", VariableType.INTEGER32),
+        Map.entry("Unsigned32", VariableType.GAUGE32),
+        Map.entry("Gauge32", VariableType.GAUGE32),
+        Map.entry("Gauge", VariableType.GAUGE32),
+        Map.entry("Counter32", VariableType.COUNTER32),
+        Map.entry("Counter", VariableType.COUNTER32),
+        Map.entry("Counter64", VariableType.COUNTER64),
+        Map.entry("TimeTicks", VariableType.TIMETICKS),
+        Map.entry("IpAddress", VariableType.IPADDRESS),
+        Map.entry("NetworkAddress", VariableType.IPADDRESS),
+        Map.entry("OBJECT IDENTIFIER", VariableType.OID),
+        Map.entry("OCTET STRING", VariableType.OCTETSTRING),
+        Map.entry("BITS", VariableType.OCTETSTRING),
+        Map.entry("Opaque", VariableType.OPAQUE)
+    );
+
+    // base types of the APPLICATION tags of RFC 2578, NsapAddress (5) excluded
+    private static final String[] APPLICATION_TYPES = {"IpAddress", "Counter32", "Gauge32", "TimeTicks", "Opaque", null, "Counter64"};
+
+    // bounds the resolution of parents and type aliases, which may be cyclic in broken modules
+    private static final int MAX_DEPTH = 128;
+
+    private final List<Definition> definitions = new ArrayList<>();
+    // type name to the syntax it refines
+    private final Map<String, String> syntaxes = new HashMap<>();
+    // module to the modules its symbols are imported from
+    private final Map<String, Map<String, String>> imports = new HashMap<>();
+
+    static MibIndex compile(List<MibIndex.Source> sources) {
+        MibCompiler compiler = new MibCompiler();
+        for (MibIndex.Source source : sources) {
+            if (!compiler.parse(tokenize(source.text()))) {
+                throw new IllegalArgumentException("No MIB module found in " + source.name());
+            }
+        }
+        return new MibIndex(compiler.resolve());
+    }
+
+    /**
+     * Split a module into words, numbers and punctuation, dropping comments; strings are kept as an empty {@code ""}.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (isComment(text, i)) {
+                // comments end at the end of the line or at the next "--"
+                i += 2;
+                while (i < n && text.charAt(i) != '\n' && text.charAt(i) != '\r') {
+                    if (isComment(text, i)) {
+                        i += 2;
+                        break;
+                    }
+                    i++;
+                }
+            } else if (c == '"') {
+                int end = text.indexOf('"', i + 1);
+                i = end < 0 ? n : end + 1;
+                tokens.add("\"\"");
+            } else if (text.startsWith("::=", i)) {
+                tokens.add("::=");
+                i += 3;
+            } else if (text.startsWith("..", i)) {
+                tokens.add("..");
+                i += 2;
+            } else if (isWordChar(c)) {
+                int start = i;
+                while (i < n && isWordChar(text.charAt(i)) && !isComment(text, i)) {
+                    i++;
+                }
+                tokens.add(text.substring(start, i));
+            } else {
+                tokens.add(String.valueOf(c));
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * @return whether the tokens contained at least one module
+     */
+    private boolean parse(List<String> t) {
+        boolean found = false;
+        String module = null;
+        int i = 0;
+        while (i < t.size()) {
+            String token = t.get(i);
+            if (at(t, i + 1, "DEFINITIONS")) {
+                module = token;
+                found = true;
+                i = skipPast(t, "BEGIN", i);
+            } else if (at(t, i + 1, "MACRO")) {
+                i = skipPast(t, "END", i);
+            } else if (module == null) {
+                i++;
+            } else if (token.equals("END")) {
+                module = null;
+                i++;
+            } else if (token.equals("IMPORTS")) {
+                i = parseImports(module, t, i + 1);
+            } else if (isValueName(token) && at(t, i + 1, "OBJECT") && at(t, i + 2, "IDENTIFIER") && at(t, i + 3, "::=")) {
+                i = parseValue(module, token, null, t, i + 4);
+            } else if (isValueName(token) && i + 1 < t.size() && OID_MACROS.contains(t.get(i + 1))) {
+                i = parseMacro(module, token, t.get(i + 1), t, i + 2);
+            } else if (isValueName(token) && at(t, i + 1, "TRAP-TYPE")) {
+                i = parseTrapType(module, token, t, i + 2);
+            } else if (isTypeName(token) && at(t, i + 1, "::=")) {
+                i = parseType(token, t, i + 2);
+            } else {
+                i++;
+            }
+        }
+        return found;
+    }
+
+    private int parseImports(String module, List<String> t, int i) {
+        Map<String, String> symbols = imports.computeIfAbsent(module, k -> new HashMap<>());
+        List<String> pending = new ArrayList<>();
+        while (i < t.size() && !t.get(i).equals(";")) {
+            String token = t.get(i);
+            if (token.equals("FROM") && i + 1 < t.size()) {
+                for (String symbol : pending) {
+                    symbols.put(symbol, t.get(i + 1));
+                }
+                pending.clear();
+                i += 2;
+            } else {
+                if (!token.equals(",")) {
+                    pending.add(token);
+                }
+                i++;
+            }
+        }
+        return i + 1;
+    }
+
+    private int parseMacro(String module, String name, String macro, List<String> t, int i) {
+        String syntax = null;
+        int depth = 0;
+        for (; i < t.size(); i++) {
+            String token = t.get(i);
+            if (token.equals("{")) {
+                depth++;
+            } else if (token.equals("}")) {
+                depth--;
+            } else if (depth == 0 && token.equals("::=")) {
+                return parseValue(module, name, syntax, t, i + 1);
+            } else if (depth == 0 && syntax == null && token.equals("SYNTAX") && macro.equals("OBJECT-TYPE")) {
+                syntax = syntaxAt(t, i + 1);
+            }
+        }
+        return i;
+    }
+
+    /**
+     * An SMIv1 trap, whose notification OID is its enterprise, 0 and its specific trap number (RFC 3584).
+     */
+    private int parseTrapType(String module, String name, List<String> t, int i) {
+        String enterprise = null;
+        for (; i < t.size(); i++) {
+            String token = t.get(i);
+            if (token.equals("ENTERPRISE") && i + 1 < t.size()) {
+                enterprise = t.get(i + 1);
+            } else if (token.equals("::=")) {
+                if (enterprise != null && i + 1 < t.size() && isNumber(t.get(i + 1))) {
+                    definitions.add(new Definition(module, name, enterprise, new int[] {0, arc(t.get(i + 1))}, null));
+                }
+                return i + 2;
+            }
+        }
+        return i;
+    }
+
+    private int parseType(String name, List<String> t, int i) {
+        if (at(t, i, "TEXTUAL-CONVENTION")) {
+            // SYNTAX is the last clause of a textual convention
+            for (i++; i < t.size(); i++) {
+                if (t.get(i).equals("SYNTAX")) {
+                    putSyntax(name, syntaxAt(t, i + 1));
+                    return i + 1;
+                }
+            }
+            return i;
+        }
+
+        putSyntax(name, syntaxAt(t, i));
+        return i + 1;
+    }
+
+    private void putSyntax(String name, String syntax) {
+        if (syntax != null) {
+            syntaxes.put(name, syntax);
+        }
+    }
+
+    /**
+     * Parse an OID value such as {@code { ifEntry 8 }} or {@code { iso org(3) dod(6) 1 }}.
+     */
+    private int parseValue(String module, String name, String syntax, List<String> t, int i) {
+        if (!at(t, i, "{")) {
+            return i;
+        }
+
+        String parent = null;
+        List<Integer> arcs = new ArrayList<>();
+        boolean first = true;
+        boolean valid = true;
+        for (i++; i < t.size() && !t.get(i).equals("}"); i++) {
+            String token = t.get(i);
+            if (isNumber(token)) {
+                arcs.add(arc(token));
+            } else if (at(t, i + 1, "(") && i + 2 < t.size() && isNumber(t.get(i + 2))) {
+                arcs.add(arc(t.get(i + 2)));
+                i += 3;
+            } else if (first) {
+                parent = token;
+            } else {
+                valid = false;
+            }
+            first = false;
+        }
+
+        if (valid && (parent != null || !arcs.isEmpty())) {
+            definitions.add(new Definition(module, name, parent, arcs.stream().mapToInt(Integer::intValue).toArray(), syntax));
+        }
+        return i + 1;
+    }
+
+    private List<MibIndex.Entry> resolve() {
+        Map<String, List<Definition>> byName = new HashMap<>();
+        for (Definition definition : definitions) {
+            byName.computeIfAbsent(definition.name(), k -> new ArrayList<>()).add(definition);
+        }
+
+        Map<Definition, int[]> resolved = new IdentityHashMap<>();
+        List<MibIndex.Entry> entries = new ArrayList<>(definitions.size());
+        for (Definition definition : definitions) {
+            int[] oid = oid(definition, byName, resolved, 0);
+            if (oid != null) {
+                entries.add(new MibIndex.Entry(oid, definition.module(), definition.name(), type(definition.syntax())));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @return the absolute OID of the definition, or null when one of its ancestors is not defined by any module
+     */
+    private int[] oid(Definition definition, Map<String, List<Definition>> byName, Map<Definition, int[]> resolved, int depth) {
+        int[] cached = resolved.get(definition);
+        if (cached != null) {
+            return cached;
+        }
+        if (depth > MAX_DEPTH) {
+            return null;
+        }
+
+        int[] base;
+        if (definition.parent() == null) {
+            base = new int[0];
+        } else if (ROOTS.containsKey(definition.parent())) {
+            base = ROOTS.get(definition.parent());
+        } else {
+            Definition parent = lookup(definition.parent(), definition.module(), byName);
+            base = parent != null ? oid(parent, byName, resolved, depth + 1) : null;
+            if (base == null) {
+                return null;
+            }
+        }
+
+        int[] oid = new int[base.length + definition.arcs().length];
+        System.arraycopy(base, 0, oid, 0, base.length);
+        System.arraycopy(definition.arcs(), 0, oid, base.length, definition.arcs().length);
+        resolved.put(definition, oid);
+        return oid;
+    }
+
+    /**
+     * The definition a module refers to by name: its own first, then the one of the module it is imported from.
+     */
+    private Definition lookup(String name, String module, Map<String, List<Definition>> byName) {
+        List<Definition> candidates = byName.get(name);
+        if (candidates == null) {
+            return null;
+        }
+
+        String from = imports.getOrDefault(module, Map.of()).get(name);
+        Definition imported = null;
+        for (Definition candidate : candidates) {
+            if (candidate.module().equals(module)) {
+                return candidate;
+            }
+            if (imported == null && candidate.module().equals(from)) {
+                imported = candidate;
+            }
+        }
+        return imported != null ? imported : candidates.getFirst();
+    }
+
+    private VariableType type(String syntax) {
+        for (int i = 0; syntax != null && i < MAX_DEPTH; i++) {
+            VariableType type = BASE_TYPES.get(syntax);
+            if (type != null) {
+                return type;
+            }
+            syntax = syntaxes.get(syntax);
+        }
+        return null;
+    }
+
+    /**
+     * The type named by a SYNTAX clause or a type assignment, or null for tables and rows.
+     */
+    private static String syntaxAt(List<String> t, int i) {
+        if (i >= t.size()) {
+            return null;
+        }
+
+        String token = t.get(i);
+        if (token.equals("[")) {
+            // [APPLICATION n] IMPLICIT ...
+            if (at(t, i + 1, "APPLICATION") && i + 2 < t.size() && isNumber(t.get(i + 2))) {
+                int tag = Integer.parseInt(t.get(i + 2));
+                return tag < APPLICATION_TYPES.length ? APPLICATION_TYPES[tag] : null;
+            }
+            return null;
+        }
+        if ((token.equals("OCTET") && at(t, i + 1, "STRING")) || (token.equals("OBJECT") && at(t, i + 1, "IDENTIFIER"))) {
+            return token + " " + t.get(i + 1);
+        }
+        if (token.equals("SEQUENCE") || token.equals("CHOICE")) {
+            return null;
+        }
+        return token;
+    }
+
+    private static int skipPast(List<String> t, String token, int i) {
+        while (i < t.size() && !t.get(i).equals(token)) {
+            i++;
+        }
+        return i + 1;
+    }
+
+    private static boolean at(List<String> t, int i, String token) {
+        return i < t.size() && t.get(i).equals(token);
+    }
+
+    private static boolean isComment(String text, int i) {
+        return text.startsWith("--", i);
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == '_';
+    }
+
+    private static boolean isValueName(String token) {
+        return Character.isLowerCase(token.charAt(0));
+    }
+
+    private static boolean isTypeName(String token) {
+        return Character.isUpperCase(token.charAt(0));
+    }
+
+    private static boolean isNumber(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (!Character.isDigit(token.charAt(i))) {
+                return false;
+            }
+        }
+        return !token.isEmpty();
+    }
+
+    // arcs are unsigned 32-bit integers, kept in an int like snmp4j does
+    private static int arc(String token) {
+        return (int) Long.parseLong(token);
+    }
+
+    /**
+     * An OID assignment before resolution: {@code arcs} relative to the {@code parent} name, or absolute without one.
+     */
+    private record Definition(String module, String name, String parent, int[] arcs, String syntax) {
+    }
+}
@@ -0,0 +1,352 @@
+package io.kestra.plugin.snmp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.snmp4j.smi.OID;
+
+import io.kestra.plugin.snmp.AbstractSnmpTask.VariableType;
+
+/**
+ * Compiled MIB definitions: a trie of OID arcs to object names and syntaxes, and the reverse map from names to OIDs.
+ * <p>
+ * Resolving {@code IF-MIB::ifOperStatus.3} is one hash lookup, and naming an OID walks one trie node per arc, so
+ * neither touches MIB text. Indexes are compiled by the {@link MibCompiler} from the bundled base modules plus the
+ * modules configured on a task, then written to a compact binary file under the worker temporary directory, keyed by
+ * a hash of the sources, so that later worker JVMs map it back instead of compiling again. A task resolves and names
+ * OIDs through the index of its own modules only, so that what it returns never depends on the modules other flows
+ * loaded on the same worker; unqualified names resolve to the first module defining them, base modules first. Indexes
+ * are shared by every task loading the same modules through an {@link LruCache} keyed by that hash.
+ */
+final class MibIndex {
+    static final String BASE_MIB = "/mibs/base.mib";
+
+    private static final int MAGIC = 0x534D4958;
+    private static final int FORMAT_VERSION = 1;
+    private static final Path CACHE_DIRECTORY = Path.of(System.getProperty("java.io.tmpdir"), "kestra-snmp-mibs");
+
+    private static final int MAX_INDEXES = 64;
+
+    private static final Source BASE = base();
+    private static final LruCache<String, MibIndex> INDEXES = new LruCache<>(MAX_INDEXES);
+    private static volatile MibIndex base;
+
+    private final List<Entry> entries;
+    private final Node root = new Node();
+    // both MODULE::name and name
+    private final Map<String, Entry> byName = new HashMap<>();
+
+    MibIndex(List<Entry> entries) {
+        // later definitions of the same object replace earlier ones
+        Map<String, Entry> unique = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            unique.put(entry.qualifiedName(), entry);
+        }
+        this.entries = List.copyOf(unique.values());
+
+        for (Entry entry : this.entries) {
+            Node node = root;
+            for (int arc : entry.oid()) {
+                node = node.childOrAdd(arc);
+            }
+            node.entry = entry;
+
+            byName.put(entry.qualifiedName(), entry);
+            byName.putIfAbsent(entry.name(), entry);
+        }
+    }
+
+    /**
+     * The index of the bundled base modules, used by the tasks and triggers that configure no MIB.
+     */
+    static MibIndex getInstance() {
+        MibIndex index = base;
+        if (index == null) {
+            synchronized (MibIndex.class) {
+                if (base == null) {
+                    base = MibCompiler.compile(List.of(BASE));
+                }
+                index = base;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * The index of the base modules plus the given ones, compiled unless this worker or a previous one already did.
+     */
+    static MibIndex load(List<Source> sources) throws IOException {
+        if (sources.isEmpty()) {
+            return getInstance();
+        }
+
+        String hash = hash(sources);
+        MibIndex index = INDEXES.get(hash);
+        if (index != null) {
+            return index;
+        }
+
+        // concurrent first loads of the same modules may both compile them, the last one is kept
+        Path file = CACHE_DIRECTORY.resolve(hash + ".idx");
+        index = read(file);
+        if (index == null) {
+            List<Source> all = new ArrayList<>(sources.size() + 1);
+            all.add(BASE);
+            all.addAll(sources);
+            index = MibCompiler.compile(all);
+            write(index, file);
+        }
+        INDEXES.put(hash, index);
+        return index;
+    }
+
+    /**
+     * The OID of a symbolic name such as {@code IF-MIB::ifOperStatus.3} or {@code ifOperStatus.3}, or null when the
+     * object is unknown.
+     */
+    OID resolve(String name) {
+        int separator = name.indexOf("::");
+        int dot = name.indexOf('.', separator < 0 ? 0 : separator + 2);
+        Entry entry = byName.get(dot < 0 ? name : name.substring(0, dot));
+        if (entry == null) {
+            return null;
+        }
+
+        OID oid = new OID(entry.oid());
+        if (dot >= 0) {
+            oid.append(new OID(name.substring(dot + 1)));
+        }
+        return oid;
+    }
+
+    /**
+     * The name of an OID, e.g. {@code IF-MIB::ifOperStatus.3}: the deepest object of the index that is a prefix of
+     * the OID, followed by the remaining arcs; null when no object is.
+     */
+    String name(OID oid) {
+        int[] depth = new int[1];
+        Entry entry = deepest(oid, depth);
+        if (entry == null) {
+            return null;
+        }
+
+        StringBuilder name = new StringBuilder(entry.qualifiedName());
+        for (int i = depth[0]; i < oid.size(); i++) {
+            name.append('.').append(oid.getUnsigned(i));
+        }
+        return name.toString();
+    }
+
+    /**
+     * The syntax declared for the object an OID is an instance of, or null when its MIB does not declare one.
+     */
+    VariableType type(OID oid) {
+        Entry entry = deepest(oid, new int[1]);
+        return entry != null ? entry.type() : null;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private Entry deepest(OID oid, int[] depth) {
+        Node node = root;
+        Entry deepest = null;
+        for (int i = 0; i < oid.size(); i++) {
+            node = node.child(oid.get(i));
+            if (node == null) {
+                break;
+            }
+            if (node.entry != null) {
+                deepest = node.entry;
+                depth[0] = i + 1;
+            }
+        }
+        return deepest;
+    }
+
+    /**
+     * Write the index in definition order: magic, format version, entry count, then for each entry its module, name,
+     * syntax (-1 when none) and arcs.
+     */
+    static void write(MibIndex index, Path file) {
+        List<Entry> entries = index.entries;
+
+        int size = 3 * Integer.BYTES;
+        for (Entry entry : entries) {
+            size += 2 * Short.BYTES + entry.module().length() * 3 + entry.name().length() * 3 + 1 + Short.BYTES + entry.oid().length * Integer.BYTES;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size)
+            .putInt(MAGIC)
+            .putInt(FORMAT_VERSION)
+            .putInt(entries.size());
+        for (Entry entry : entries) {
+            putString(buffer, entry.module());
+            putString(buffer, entry.name());
+            buffer.put((byte) (entry.type() != null ? entry.type().ordinal() : -1));
+            buffer.putShort((short) entry.oid().length);
+            for (int arc : entry.oid()) {
+                buffer.putInt(arc);
+            }
+        }
+        buffer.flip();
+
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // the file is only a cache, the next worker compiles again
+        }
+    }
+
+    /**
+     * @return the index stored in the file, or null when it is missing or unreadable
+     */
+    static MibIndex read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+
+            VariableType[] types = VariableType.values();
+            int count = buffer.getInt();
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String module = getString(buffer);
+                String name = getString(buffer);
+                byte type = buffer.get();
+                int[] oid = new int[buffer.getShort() & 0xFFFF];
+                for (int j = 0; j < oid.length; j++) {
+                    oid[j] = buffer.getInt();
+                }
+                entries.add(new Entry(oid, module, name, type >= 0 ? types[type] : null));
+            }
+            return new MibIndex(entries);
+        } catch (IOException | RuntimeException e) {
+            // truncated or written by another version, compiled again
+            return null;
+        }
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String hash(List<Source> sources) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(FORMAT_VERSION).array());
+            digest.update(BASE.text().getBytes(StandardCharsets.UTF_8));
+            for (Source source : sources) {
+                digest.update(source.name().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(source.text().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Source base() {
+        try (InputStream in = MibIndex.class.getResourceAsStream(BASE_MIB)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing " + BASE_MIB);
+            }
+            return new Source(BASE_MIB, new String(in.readAllBytes(), StandardCharsets.ISO_8859_1));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The text of one MIB file, named for error messages.
+     */
+    record Source(String name, String text) {
+    }
+
+    /**
+     * A named object of a MIB module.
+     *
+     * @param type the base SMI type of its SYNTAX, null for tables, rows, notifications and plain OIDs
+     */
+    record Entry(int[] oid, String module, String name, VariableType type) {
+        String qualifiedName() {
+            return module + "::" + name;
+        }
+    }
+
+    private static final class Node {
+        private static final int[] NO_ARCS = new int[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        // sorted, searched by binary search
+        private int[] arcs = NO_ARCS;
+        private Node[] children = NO_CHILDREN;
+        private Entry entry;
+
+        Node child(int arc) {
+            int i = Arrays.binarySearch(arcs, arc);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrAdd(int arc) {
+            int i = Arrays.binarySearch(arcs, arc);
+            if (i >= 0) {
+                return children[i];
+            }
+
+            int at = -i - 1;
+            int[] newArcs = new int[arcs.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(arcs, 0, newArcs, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(arcs, at, newArcs, at + 1, arcs.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            newArcs[at] = arc;
+            newChildren[at] = new Node();
+
+            arcs = newArcs;
+            children = newChildren;
+            return newChildren[at];
+        }
+    }
+}
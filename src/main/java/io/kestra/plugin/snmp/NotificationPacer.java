@@ -0,0 +1,87 @@
+package io.kestra.plugin.snmp;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.snmp4j.smi.Address;
+
+/**
+ * Worker-wide token bucket per notification target, shared by every task run sending to it. {@link PollDevices} paces
+ * its requests to each agent through the same buckets, keyed by the agent address.
+ * <p>
+ * Each bucket is a single theoretical arrival time updated by compare-and-set (the generic cell rate algorithm, which
+ * is equivalent to a token bucket of {@code burst} tokens refilled at {@code perSecond}), so that concurrent senders
+ * never block each other on a lock. A caller over the limit either reserves the next free slot and sleeps until then,
+ * or drops the notification without consuming a token.
+ */
+final class NotificationPacer {
+    private static final int MAX_TARGETS = 100_000;
+
+    private static final NotificationPacer INSTANCE = new NotificationPacer();
+
+    private final ConcurrentHashMap<Address, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    static NotificationPacer getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Wait for a token to send one notification to the address.
+     *
+     * @param metrics recorder of the throttled and dropped notifications, or null
+     * @return false when the notification must be dropped
+     */
+    boolean acquire(Address address, Limit limit, SnmpMetrics metrics) throws InterruptedException {
+        long wait = reserve(address, limit, System.nanoTime());
+        if (wait < 0) {
+            if (metrics != null) {
+                metrics.dropped();
+            }
+            return false;
+        }
+
+        if (wait > 0) {
+            if (metrics != null) {
+                metrics.throttled(wait);
+            }
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        return true;
+    }
+
+    /**
+     * Take a token at {@code now}.
+     *
+     * @return nanoseconds to wait before sending, 0 when a token is available, or -1 when the limit drops over-rate
+     * notifications and none is available
+     */
+    long reserve(Address address, Limit limit, long now) {
+        if (buckets.size() >= MAX_TARGETS && !buckets.containsKey(address)) {
+            buckets.clear();
+        }
+        AtomicLong bucket = buckets.computeIfAbsent(address, a -> new AtomicLong(Long.MIN_VALUE));
+
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / limit.perSecond());
+        long tolerance = interval * (Math.max(1, limit.burst()) - 1);
+        while (true) {
+            long tat = bucket.get();
+            long from = tat == Long.MIN_VALUE ? now : Math.max(tat, now);
+            long wait = Math.max(0, from - tolerance - now);
+            if (wait > 0 && limit.drop()) {
+                return -1;
+            }
+            if (bucket.compareAndSet(tat, from + interval)) {
+                return wait;
+            }
+        }
+    }
+
+    /**
+     * @param perSecond sustained notifications per second to one target
+     * @param burst     notifications sent back to back before pacing starts
+     * @param drop      drop notifications over the limit instead of delaying them
+     */
+    record Limit(double perSecond, int burst, boolean drop) {
+    }
+}
@@ -0,0 +1,251 @@
+package io.kestra.plugin.snmp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.Variable;
+import org.snmp4j.smi.VariableBinding;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+
+/**
+ * Compiled varbinds of a task definition, cached across runs.
+ * <p>
+ * Templates are keyed by the JSON serialization of the unrendered {@code bindings} definition. Entries whose OID, value
+ * and type contain no expression are parsed and encoded once, when the template is compiled; later runs get copies of
+ * the resulting {@link VariableBinding}s, and only render and encode the properties that contain an expression. When
+ * the whole definition is static, nothing is rendered at all. Callers get a list of their own, whose OIDs and variables
+ * they may modify, as snmp4j and the tasks do for the PDUs they build. Symbolic OIDs are resolved through the
+ * {@link MibIndex} of the task, which is part of the template key. Templates and parsed numeric OIDs are kept in
+ * {@link LruCache}s.
+ */
+final class PduTemplate {
+    private static final int MAX_TEMPLATES = 1024;
+    private static final int MAX_OIDS = 16_384;
+
+    private static final LruCache<TemplateKey, PduTemplate> TEMPLATES = new LruCache<>(MAX_TEMPLATES);
+    private static final LruCache<String, OID> OIDS = new LruCache<>(MAX_OIDS);
+
+    // one slot per definition entry, null when the whole list is an expression rendered on each run
+    private final Slot[] slots;
+    // every binding, when none depends on the run; copied before being handed out
+    private final List<VariableBinding> statics;
+
+    private PduTemplate(Slot[] slots, List<VariableBinding> statics) {
+        this.slots = slots;
+        this.statics = statics;
+    }
+
+    /**
+     * Render the bindings of a task definition into varbinds, reusing what was compiled by previous runs.
+     */
+    static List<VariableBinding> render(RunContext runContext, MibIndex mibs, Property<List<AbstractSnmpTask.VarBind>> bindings) throws IllegalVariableEvaluationException {
+        if (bindings == null) {
+            return List.of();
+        }
+
+        JsonNode definition = definition(bindings);
+        if (definition == null) {
+            return encode(runContext, mibs, runContext.render(bindings).asList(AbstractSnmpTask.VarBind.class));
+        }
+
+        TemplateKey key = new TemplateKey(mibs, definition.toString());
+        PduTemplate template = TEMPLATES.get(key);
+        if (template == null) {
+            template = compile(mibs, definition.isTextual() ? definition.asText() : key.definition());
+            TEMPLATES.put(key, template);
+        }
+
+        if (template.statics != null) {
+            List<VariableBinding> result = new ArrayList<>(template.statics.size());
+            for (VariableBinding binding : template.statics) {
+                result.add(copy(binding));
+            }
+            return result;
+        }
+        if (template.slots == null) {
+            return encode(runContext, mibs, runContext.render(bindings).asList(AbstractSnmpTask.VarBind.class));
+        }
+
+        List<VariableBinding> result = new ArrayList<>(template.slots.length);
+        for (Slot slot : template.slots) {
+            VariableBinding binding = slot.binding() != null
+                ? copy(slot.binding())
+                : encode(mibs, render(runContext, slot.oid()), render(runContext, slot.value()), render(runContext, slot.type()));
+            if (binding != null) {
+                result.add(binding);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Render and encode bindings that are not part of a task definition, e.g. rows read from a file.
+     */
+    static List<VariableBinding> encode(RunContext runContext, MibIndex mibs, List<AbstractSnmpTask.VarBind> bindings) throws IllegalVariableEvaluationException {
+        if (bindings == null) {
+            return List.of();
+        }
+
+        List<VariableBinding> result = new ArrayList<>(bindings.size());
+        for (AbstractSnmpTask.VarBind b : bindings) {
+            VariableBinding binding = encode(
+                mibs,
+                runContext.render(b.getOid()).as(String.class).orElse(null),
+                runContext.render(b.getValue()).as(String.class).orElse(null),
+                runContext.render(b.getType()).as(String.class).orElse(null)
+            );
+            if (binding != null) {
+                result.add(binding);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parse a numeric OID, reusing what was parsed for the same string before, or resolve a symbolic one such as
+     * {@code IF-MIB::ifOperStatus.3} through the bundled base modules.
+     */
+    static OID oid(String oid) {
+        return oid(MibIndex.getInstance(), oid);
+    }
+
+    /**
+     * Parse a numeric OID, reusing what was parsed for the same string before, or resolve a symbolic one through the
+     * given index.
+     */
+    static OID oid(MibIndex mibs, String oid) {
+        if (isSymbolic(oid)) {
+            return resolve(mibs, oid);
+        }
+
+        OID cached = OIDS.get(oid);
+        if (cached == null) {
+            cached = new OID(oid);
+            OIDS.put(oid, cached);
+        }
+        return (OID) cached.clone();
+    }
+
+    static boolean isSymbolic(String oid) {
+        return !oid.isEmpty() && Character.isLetter(oid.charAt(0));
+    }
+
+    private static OID resolve(MibIndex mibs, String name) {
+        OID oid = mibs.resolve(name);
+        if (oid == null) {
+            throw new IllegalArgumentException("Unknown MIB object '" + name + "', load the module defining it with `mibs` or `mibDirectory`");
+        }
+        return oid;
+    }
+
+    private static VariableBinding encode(MibIndex mibs, String oid, String value, String type) {
+        if (oid == null) {
+            return null;
+        }
+
+        AbstractSnmpTask.VariableType variableType = AbstractSnmpTask.VariableType.fromString(type);
+        if (variableType == null && isSymbolic(oid)) {
+            // numeric OIDs keep inferring the type from the value, symbolic ones get the syntax declared by their MIB
+            variableType = mibs.type(oid(mibs, oid));
+        }
+
+        Variable var = VarBindEncoder.encode(value, variableType);
+        if (var == null) {
+            return null;
+        }
+        return new VariableBinding(oid(mibs, oid), var);
+    }
+
+    private static VariableBinding copy(VariableBinding binding) {
+        return new VariableBinding((OID) binding.getOid().clone(), (Variable) binding.getVariable().clone());
+    }
+
+    private static String render(RunContext runContext, String property) throws IllegalVariableEvaluationException {
+        return hasExpression(property) ? runContext.render(property) : property;
+    }
+
+    private static PduTemplate compile(MibIndex mibs, String definition) {
+        List<Map<String, Object>> raw = parseDefinition(definition);
+        if (raw == null) {
+            return new PduTemplate(null, null);
+        }
+
+        Slot[] slots = new Slot[raw.size()];
+        List<VariableBinding> statics = new ArrayList<>(raw.size());
+        for (int i = 0; i < raw.size(); i++) {
+            Map<String, Object> entry = raw.get(i);
+            String oid = string(entry.get("oid"));
+            String value = string(entry.get("value"));
+            String type = string(entry.get("type"));
+
+            if (hasExpression(oid) || hasExpression(value) || hasExpression(type)) {
+                slots[i] = new Slot(null, oid, value, type);
+                statics = null;
+            } else {
+                VariableBinding binding = encode(mibs, oid, value, type);
+                slots[i] = new Slot(binding, oid, value, type);
+                if (statics != null && binding != null) {
+                    statics.add(binding);
+                }
+            }
+        }
+
+        return new PduTemplate(slots, statics != null ? Collections.unmodifiableList(statics) : null);
+    }
+
+    /**
+     * The serialized unrendered definition of the property: the expression as a string, or the literal list; null when
+     * it cannot be serialized and must be rendered on each run.
+     */
+    private static JsonNode definition(Property<?> bindings) {
+        try {
+            JsonNode definition = JacksonMapper.ofJson().valueToTree(bindings);
+            return definition != null && (definition.isTextual() || definition.isArray()) ? definition : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parse the unrendered definition as a literal list of varbinds, or null when the list itself is an expression.
+     */
+    private static List<Map<String, Object>> parseDefinition(String definition) {
+        if (!definition.trim().startsWith("[")) {
+            return null;
+        }
+        try {
+            return JacksonMapper.ofJson().readValue(definition, new TypeReference<>() {});
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String string(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static boolean hasExpression(String value) {
+        return value != null && (value.contains("{{") || value.contains("{%"));
+    }
+
+    /**
+     * One entry of the definition: its pre-encoded binding when static, otherwise its unrendered properties.
+     */
+    private record Slot(VariableBinding binding, String oid, String value, String type) {
+    }
+
+    /**
+     * The same definition compiles differently against the modules of another task.
+     */
+    private record TemplateKey(MibIndex mibs, String definition) {
+    }
+}
@@ -0,0 +1,303 @@
+package io.kestra.plugin.snmp;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.snmp4j.PDU;
+import org.snmp4j.smi.Address;
+import org.snmp4j.smi.VariableBinding;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@EqualsAndHashCode
+@ToString
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Poll many SNMP devices concurrently",
+    description = "Reads a device inventory from internal storage and GETs the same `oids` from every device, each device on a virtual thread. Devices sharing a version and credentials are multiplexed over one pooled socket. Results are written to an ION file as devices complete, one row per device with `host`, `port`, `success`, `error`, `latency` and `values`."
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Poll uptime and interface count from an inventory file",
+            full = true,
+            code = """
+                    id: snmp-poll-devices
+                    namespace: monitoring
+
+                    inputs:
+                      - id: inventory
+                        type: FILE
+
+                    tasks:
+                      - id: poll
+                        type: io.kestra.plugin.snmp.PollDevices
+                        from: "{{ inputs.inventory }}"
+                        community: "{{ secret('SNMP_COMMUNITY') }}"
+                        concurrency: 1000
+                        requestsPerSecondPerDevice: 5
+                        credentials:
+                          core:
+                            username: "monitor"
+                            authProtocol: "SHA256"
+                            authPassword: "{{ secret('SNMP_AUTH') }}"
+                            privProtocol: "AES128"
+                            privPassword: "{{ secret('SNMP_PRIV') }}"
+                        oids:
+                          - "1.3.6.1.2.1.1.3.0"
+                          - "1.3.6.1.2.1.2.1.0"
+                """
+        )
+    }
+)
+public class PollDevices extends AbstractSnmpRequestTask implements RunnableTask<PollDevices.Output> {
+    @Schema(
+        title = "Inventory file URI",
+        description = "Internal storage URI of an ION file with one row per device: `host`, optional `port`, `version` (defaults to the task `snmpVersion`), `community` (defaults to the task `community`) and `credentials`, the name of an entry of `credentials` for v3 devices (defaults to the task `v3`)"
+    )
+    @NotNull
+    @PluginProperty(internalStorageURI = true, group = "source")
+    protected Property<String> from;
+
+    @Schema(title = "OIDs to read", description = "Numeric or symbolic OIDs read from every device with GET")
+    @NotNull
+    @PluginProperty(group = "main")
+    protected Property<List<String>> oids;
+
+    @Schema(title = "Named SNMPv3 credentials", description = "v3 security settings referenced by the `credentials` column of the inventory")
+    @PluginProperty(group = "advanced")
+    protected Property<Map<String, AbstractSnmpTask.V3Security>> credentials;
+
+    @Schema(title = "Max devices polled at once", description = "Number of devices with requests in flight; defaults to 500")
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    protected Property<Integer> concurrency = Property.ofValue(500);
+
+    @Schema(
+        title = "Max requests per second per device",
+        description = "Paces the PDUs sent to each device address, whether they come from the split requests of one poll or from concurrent runs on the same worker; unlimited when not set"
+    )
+    @PluginProperty(group = "execution")
+    protected Property<Double> requestsPerSecondPerDevice;
+
+    @Schema(
+        title = "Number of shards",
+        description = "Split the inventory over this many shards by consistent hashing of each device's host and port, and only poll the devices of `shard`; run one task per shard, e.g. in a ForEach, and merge their results with `MergeShards`"
+    )
+    @PluginProperty(group = "execution")
+    protected Property<Integer> shardCount;
+
+    @Schema(title = "Shard to poll", description = "Index of the shard polled by this task, from 0 to `shardCount` - 1; required with `shardCount`")
+    @PluginProperty(group = "execution")
+    protected Property<Integer> shard;
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        MibIndex mibs = loadMibs(runContext);
+
+        var rFrom = runContext.render(this.from).as(String.class).orElseThrow();
+        var rTransport = SnmpTransport.fromString(runContext.render(this.transport).as(String.class).orElse("udp"));
+        var rPort = runContext.render(this.port).as(Integer.class).orElse(rTransport.port(defaultPort()));
+        var rVersion = runContext.render(this.snmpVersion).as(String.class).orElse("v2c");
+        var rCommunity = runContext.render(this.community).as(String.class).orElse("public");
+        var rV3 = runContext.render(this.v3).as(AbstractSnmpTask.V3Security.class).orElse(null);
+        var rCredentials = runContext.render(this.credentials).asMap(String.class, AbstractSnmpTask.V3Security.class);
+        var rConcurrency = runContext.render(this.concurrency).as(Integer.class).orElse(500);
+        var rRate = runContext.render(this.requestsPerSecondPerDevice).as(Double.class).orElse(null);
+        NotificationPacer.Limit pacing = rRate != null && rRate > 0 ? new NotificationPacer.Limit(rRate, 1, false) : null;
+        var rShardCount = runContext.render(this.shardCount).as(Integer.class).orElse(null);
+        var rShard = runContext.render(this.shard).as(Integer.class).orElse(null);
+        ShardRing ring = null;
+        if (rShardCount != null) {
+            if (rShard == null || rShard < 0 || rShard >= rShardCount) {
+                throw new IllegalArgumentException("`shard` must be between 0 and " + (rShardCount - 1) + " with `shardCount` " + rShardCount);
+            }
+            ring = ShardRing.of(rShardCount);
+        }
+
+        List<VariableBinding> request = runContext.render(this.oids).asList(String.class).stream()
+            .map(oid -> new VariableBinding(PduTemplate.oid(mibs, oid)))
+            .toList();
+
+        CounterRates counterRates = loadRates(runContext);
+
+        long start = System.nanoTime();
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        File tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+
+        // one lease per version and credentials, shared by every device using them
+        Map<String, SnmpSessionPool.Lease> leases = new HashMap<>();
+        // one metrics recorder per version, not per device, to keep the number of series bounded
+        Map<SnmpVersion, SnmpMetrics> metrics = new EnumMap<>(SnmpVersion.class);
+        Semaphore permits = new Semaphore(Math.max(1, rConcurrency));
+
+        try (
+            OutputStream output = new BufferedOutputStream(new FileOutputStream(tempFile), FileSerde.BUFFER_SIZE);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(URI.create(rFrom)), StandardCharsets.UTF_8));
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()
+        ) {
+            try {
+                for (Object item : FileSerde.readAll(reader).toIterable()) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> row = (Map<String, Object>) item;
+                    String host = host(row);
+                    int port = row.get("port") instanceof Number n ? n.intValue() : rPort;
+                    // a row without host is reported by the first shard only
+                    if (ring != null && (host == null ? rShard != 0 : ring.shard(host, port) != rShard)) {
+                        continue;
+                    }
+
+                    Device device;
+                    try {
+                        if (host == null) {
+                            throw new IllegalArgumentException("Row without `host`");
+                        }
+                        device = device(runContext, row, rTransport, rVersion, rCommunity, rV3, rCredentials, leases, metrics);
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                        write(output, result(host, port, 0, e.getMessage(), null));
+                        continue;
+                    }
+
+                    permits.acquire();
+                    executor.submit(() -> {
+                        try {
+                            Map<String, Object> result = poll(runContext, mibs, device, host, port, request, pacing, counterRates);
+                            (result.get("error") == null ? succeeded : failed).incrementAndGet();
+                            write(output, result);
+                        } catch (Exception e) {
+                            runContext.logger().warn("Unable to store the result of {}:{}", host, port, e);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+
+                // wait for the devices still in flight
+                permits.acquire(Math.max(1, rConcurrency));
+            } finally {
+                for (SnmpSessionPool.Lease lease : leases.values()) {
+                    lease.close();
+                }
+            }
+        }
+
+        saveRates(runContext, counterRates);
+        for (SnmpMetrics versionMetrics : metrics.values()) {
+            versionMetrics.publish(runContext);
+        }
+
+        URI uri = runContext.storage().putFile(tempFile);
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        long total = succeeded.get() + failed.get();
+
+        String[] tags = ring != null ? new String[] {"shard", String.valueOf(rShard)} : new String[0];
+        runContext.metric(Counter.of("devices", total, tags));
+        runContext.metric(Counter.of("succeeded", succeeded.get(), tags));
+        runContext.metric(Counter.of("failed", failed.get(), tags));
+        runContext.metric(Timer.of("duration", duration, tags));
+        if (ring != null) {
+            runContext.logger().info("Polled {} device(s) of shard {}/{} in {}, {} succeeded", total, rShard, rShardCount, duration, succeeded.get());
+        } else {
+            runContext.logger().info("Polled {} device(s) in {}, {} succeeded", total, duration, succeeded.get());
+        }
+
+        return Output.builder()
+            .uri(uri)
+            .shard(ring != null ? rShard : null)
+            .total(total)
+            .succeeded(succeeded.get())
+            .failed(failed.get())
+            .duration(duration)
+            .build();
+    }
+
+    private Map<String, Object> poll(
+        RunContext runContext,
+        MibIndex mibs,
+        Device device,
+        String host,
+        int port,
+        List<VariableBinding> request,
+        NotificationPacer.Limit pacing,
+        CounterRates counterRates
+    ) {
+        long start = System.nanoTime();
+        Address address = device.transport().address(host, port);
+        try (var session = openRequest(runContext, device.lease().share(), device.version(), address, device.community(), device.sec(), device.metrics())) {
+            List<VariableBinding> bindings;
+            if (pacing == null) {
+                bindings = session.request(PDU.GET, withUptime(request, counterRates), true);
+            } else {
+                // one paced request per PDU, so that a large OID list does not burst past the rate
+                bindings = new ArrayList<>(request.size() + 1);
+                for (PDU pdu : session.split(PDU.GET, withUptime(request, counterRates))) {
+                    NotificationPacer.getInstance().acquire(address, pacing, device.metrics());
+                    bindings.addAll(session.request(PDU.GET, new ArrayList<>(pdu.getVariableBindings()), true));
+                }
+            }
+
+            // series keyed by the target address, like in Get and GetBulk
+            List<SnmpValue> values = counterRates != null
+                ? counterRates.apply(address.toString(), mibs, bindings, System.currentTimeMillis()).subList(0, Math.min(bindings.size(), request.size()))
+                : bindings.stream().map(binding -> SnmpValue.of(binding, mibs)).toList();
+            return result(host, port, System.nanoTime() - start, null, values);
+        } catch (Exception e) {
+            return result(host, port, System.nanoTime() - start, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName(), null);
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Results file URI", description = "Internal storage URI of an ION file with one row per device, in completion order")
+        private final URI uri;
+
+        @Schema(title = "Number of devices")
+        private final long total;
+
+        @Schema(title = "Number of devices that answered every request")
+        private final long succeeded;
+
+        @Schema(title = "Number of devices that failed")
+        private final long failed;
+
+        @Schema(title = "Polling duration")
+        private final Duration duration;
+
+        @Schema(title = "Shard polled", description = "Null when the inventory is not sharded")
+        private final Integer shard;
+    }
+}
@@ -0,0 +1,287 @@
+package io.kestra.plugin.snmp;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.snmp4j.smi.Counter64;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.UnsignedInteger32;
+import org.snmp4j.smi.Variable;
+import org.snmp4j.smi.VariableBinding;
+
+/**
+ * Last polled value of every row of {@link SnmpPollTrigger}, telling which rows changed or crossed a threshold.
+ * <p>
+ * Rows are identified by a 64-bit hash of the device and OID, and stored like {@link CounterRates} in an open-addressing
+ * table of parallel primitive arrays: a value is only kept as a 64-bit fingerprint, plus its number when it has one,
+ * so comparing a polled row is a single O(1) lookup and nothing is allocated for rows that did not change. Rows seen
+ * for the first time only set the baseline. Rows not polled for {@link #MAX_MISSED_POLLS} polls are forgotten when the
+ * snapshot is saved.
+ */
+final class PollSnapshot {
+    private static final int FORMAT = 1;
+    private static final long EMPTY = 0;
+    static final int MAX_MISSED_POLLS = 100;
+
+    private long[] keys;
+    private long[] fingerprints;
+    private double[] numbers;
+    private int[] polls;
+    private int size;
+    private int poll;
+    // a row was added or changed since the last encode
+    private boolean dirty;
+
+    PollSnapshot() {
+        this(16);
+    }
+
+    private PollSnapshot(int capacity) {
+        int length = Integer.highestOneBit(Math.max(16, capacity * 2 - 1)) << 1;
+        keys = new long[length];
+        fingerprints = new long[length];
+        numbers = new double[length];
+        polls = new int[length];
+    }
+
+    /**
+     * Start a new poll; rows compared from now on are marked as seen by it.
+     */
+    synchronized void nextPoll() {
+        poll++;
+    }
+
+    /**
+     * Compare the polled rows of a device with their previous values and record them.
+     *
+     * @param onChange report every row whose value changed, not only threshold crossings
+     * @return the rows that changed or crossed a threshold, in polled order
+     */
+    synchronized List<Diff> apply(String device, List<? extends VariableBinding> bindings, List<Threshold> thresholds, boolean onChange) {
+        long deviceHash = Fnv.hash(Fnv.OFFSET, device);
+        List<Diff> diffs = null;
+
+        for (VariableBinding binding : bindings) {
+            Variable variable = binding.getVariable();
+            if (variable.isException()) {
+                continue;
+            }
+
+            long key = key(deviceHash, binding.getOid());
+            long fingerprint = fingerprint(variable);
+            double number = number(variable);
+
+            int slot = slot(key);
+            if (keys[slot] != key) {
+                keys[slot] = key;
+                fingerprints[slot] = fingerprint;
+                numbers[slot] = number;
+                polls[slot] = poll;
+                size++;
+                dirty = true;
+                if (size * 2 > keys.length) {
+                    resize(keys.length * 2);
+                }
+                continue;
+            }
+
+            polls[slot] = poll;
+            if (fingerprints[slot] == fingerprint) {
+                continue;
+            }
+
+            double previous = numbers[slot];
+            fingerprints[slot] = fingerprint;
+            numbers[slot] = number;
+            dirty = true;
+
+            Diff diff = crossing(binding, previous, number, thresholds);
+            if (diff == null && onChange) {
+                diff = new Diff(binding, previous, null, null);
+            }
+            if (diff != null) {
+                if (diffs == null) {
+                    diffs = new ArrayList<>();
+                }
+                diffs.add(diff);
+            }
+        }
+
+        return diffs != null ? diffs : List.of();
+    }
+
+    /**
+     * The first threshold of the row crossed between both values, if any.
+     */
+    private static Diff crossing(VariableBinding binding, double previous, double current, List<Threshold> thresholds) {
+        if (Double.isNaN(previous) || Double.isNaN(current)) {
+            return null;
+        }
+
+        for (Threshold threshold : thresholds) {
+            if (binding.getOid().startsWith(threshold.oid())) {
+                boolean wasAbove = previous > threshold.value();
+                boolean isAbove = current > threshold.value();
+                if (wasAbove != isAbove) {
+                    return new Diff(binding, previous, threshold.value(), isAbove);
+                }
+            }
+        }
+        return null;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Serialize the rows polled recently enough, forgetting the others.
+     */
+    synchronized byte[] encode() {
+        int live = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY && poll - polls[i] <= MAX_MISSED_POLLS) {
+                live++;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(12 + live * 28);
+        buffer.putInt(FORMAT);
+        buffer.putInt(poll);
+        buffer.putInt(live);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY && poll - polls[i] <= MAX_MISSED_POLLS) {
+                buffer.putLong(keys[i]);
+                buffer.putLong(fingerprints[i]);
+                buffer.putDouble(numbers[i]);
+                buffer.putInt(polls[i]);
+            }
+        }
+
+        if (live < size) {
+            PollSnapshot pruned = decode(buffer.array());
+            keys = pruned.keys;
+            fingerprints = pruned.fingerprints;
+            numbers = pruned.numbers;
+            polls = pruned.polls;
+            size = pruned.size;
+        }
+        dirty = false;
+        return buffer.array();
+    }
+
+    static PollSnapshot decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.remaining() < 12 || buffer.getInt() != FORMAT) {
+            return new PollSnapshot();
+        }
+
+        int poll = buffer.getInt();
+        int count = buffer.getInt();
+        PollSnapshot snapshot = new PollSnapshot(count);
+        snapshot.poll = poll;
+        for (int i = 0; i < count && buffer.remaining() >= 28; i++) {
+            long key = buffer.getLong();
+            int slot = snapshot.slot(key);
+            snapshot.keys[slot] = key;
+            snapshot.fingerprints[slot] = buffer.getLong();
+            snapshot.numbers[slot] = buffer.getDouble();
+            snapshot.polls[slot] = buffer.getInt();
+            snapshot.size++;
+        }
+        return snapshot;
+    }
+
+    private static long key(long deviceHash, OID oid) {
+        long key = deviceHash;
+        for (int arc : oid.getValue()) {
+            key ^= arc;
+            key *= 0x100000001b3L;
+        }
+        // 0 marks an empty slot
+        return key == EMPTY ? 1 : key;
+    }
+
+    private static long fingerprint(Variable variable) {
+        if (variable instanceof Integer32 integer) {
+            return integer.getValue();
+        }
+        if (variable instanceof UnsignedInteger32 unsigned) {
+            return unsigned.getValue();
+        }
+        if (variable instanceof Counter64 counter) {
+            return counter.getValue();
+        }
+        return Fnv.hash(Fnv.hash(Fnv.OFFSET, variable.getSyntaxString()), variable.toString());
+    }
+
+    private static double number(Variable variable) {
+        if (variable instanceof Integer32 integer) {
+            return integer.getValue();
+        }
+        if (variable instanceof UnsignedInteger32 unsigned) {
+            return unsigned.getValue();
+        }
+        if (variable instanceof Counter64 counter) {
+            long value = counter.getValue();
+            return value >= 0 ? value : (double) (value >>> 1) * 2 + (value & 1);
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * The slot holding the key, or the empty slot where it belongs.
+     */
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int length) {
+        long[] oldKeys = keys;
+        long[] oldFingerprints = fingerprints;
+        double[] oldNumbers = numbers;
+        int[] oldPolls = polls;
+
+        keys = new long[length];
+        fingerprints = new long[length];
+        numbers = new double[length];
+        polls = new int[length];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                fingerprints[slot] = oldFingerprints[i];
+                numbers[slot] = oldNumbers[i];
+                polls[slot] = oldPolls[i];
+            }
+        }
+    }
+
+    /**
+     * A threshold on the rows under an OID.
+     */
+    record Threshold(OID oid, double value) {
+    }
+
+    /**
+     * A changed row.
+     *
+     * @param previous  the previous number, NaN when the value is not a number
+     * @param threshold the threshold crossed, or null for a plain change
+     * @param rising    whether the value went above the threshold, null for a plain change
+     */
+    record Diff(VariableBinding binding, double previous, Double threshold, Boolean rising) {
+    }
+}
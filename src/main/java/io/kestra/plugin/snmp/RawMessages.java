@@ -0,0 +1,357 @@
+package io.kestra.plugin.snmp;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Framing and in-place editing of BER-encoded SNMP messages, for {@link SendTrap} to send them without decoding.
+ * <p>
+ * Messages are slices of the buffer they were read from, usually a private mapping of the file, so that they reach the
+ * socket without being copied on heap. Only the community and the request-id of v1/v2c messages are edited: a new
+ * request-id is written over the old one with the same number of bytes, as is a community of the same length. A
+ * community of another length changes the length of the message, which is then rebuilt into a scratch buffer. v3
+ * messages, whose community-less header may be authenticated, are never edited.
+ */
+final class RawMessages {
+    // largest UDP payload
+    static final int MAX_MESSAGE = 65_507;
+
+    private static final int SEQUENCE = 0x30;
+    private static final int INTEGER = 0x02;
+    private static final int OCTET_STRING = 0x04;
+    private static final int V1_TRAP = 0xA4;
+
+    private RawMessages() {
+    }
+
+    /**
+     * Read the messages of a whole file.
+     */
+    static Reader reader(ByteBuffer file, SendTrap.RawFormat format) {
+        return format == SendTrap.RawFormat.PCAP ? new PcapReader(file) : new LengthPrefixedReader(file);
+    }
+
+    /**
+     * Rewrite the community and/or request-id of a v1/v2c message.
+     *
+     * @param community the new community, or null to keep it
+     * @param requestId the new request-id, or null to keep it; reduced to the width of the current one
+     * @param scratch   buffer the message is rebuilt into when the community length changes
+     * @return the message to send, either {@code message} edited in place or {@code scratch}, or null, with
+     * {@code message} left untouched, when it is not a v1/v2c message that can be rewritten or does not fit in
+     * {@code scratch}
+     */
+    static ByteBuffer rewrite(ByteBuffer message, byte[] community, Integer requestId, ByteBuffer scratch) {
+        int[] outer = header(message, 0, message.limit());
+        if (outer == null || outer[0] != SEQUENCE) {
+            return null;
+        }
+
+        int end = outer[1] + outer[2];
+        int versionAt = outer[1];
+        int[] version = header(message, versionAt, end);
+        if (version == null || version[0] != INTEGER || version[2] != 1 || message.get(versionAt + version[1]) > 1) {
+            return null;
+        }
+
+        int communityAt = versionAt + version[1] + version[2];
+        int[] oldCommunity = header(message, communityAt, end);
+        if (oldCommunity == null || oldCommunity[0] != OCTET_STRING) {
+            return null;
+        }
+
+        int pduAt = communityAt + oldCommunity[1] + oldCommunity[2];
+        int[] pdu = header(message, pduAt, end);
+        if (pdu == null) {
+            return null;
+        }
+
+        // every check comes before the first edit, so that a message left unchanged is really unchanged
+        boolean rebuild = community != null && community.length != oldCommunity[2];
+        int restLength = end - pduAt;
+        int contentLength = rebuild
+            ? version[1] + version[2] + 1 + lengthBytes(community.length) + community.length + restLength
+            : 0;
+        if (rebuild && 1 + lengthBytes(contentLength) + contentLength > scratch.capacity()) {
+            return null;
+        }
+
+        if (requestId != null && pdu[0] != V1_TRAP) {
+            int requestIdAt = pduAt + pdu[1];
+            int[] oldRequestId = header(message, requestIdAt, end);
+            if (oldRequestId == null || oldRequestId[0] != INTEGER || oldRequestId[2] < 1 || oldRequestId[2] > 4) {
+                return null;
+            }
+            putRequestId(message, requestIdAt + oldRequestId[1], oldRequestId[2], requestId);
+        }
+
+        if (community == null) {
+            return message;
+        }
+        if (!rebuild) {
+            message.put(communityAt + oldCommunity[1], community);
+            return message;
+        }
+
+        scratch.clear();
+        scratch.put((byte) SEQUENCE);
+        putLength(scratch, contentLength);
+        scratch.put(message.slice(versionAt, version[1] + version[2]));
+        scratch.put((byte) OCTET_STRING);
+        putLength(scratch, community.length);
+        scratch.put(community);
+        scratch.put(message.slice(pduAt, restLength));
+        return scratch.flip();
+    }
+
+    /**
+     * Write a positive request-id over the {@code width} content bytes of the current one.
+     */
+    private static void putRequestId(ByteBuffer message, int at, int width, int requestId) {
+        int value = requestId & (width == 4 ? 0x7FFFFFFF : (1 << (8 * width - 1)) - 1);
+        for (int i = width - 1; i >= 0; i--) {
+            message.put(at + i, (byte) value);
+            value >>>= 8;
+        }
+    }
+
+    /**
+     * Decode the identifier and length at {@code at}.
+     *
+     * @return tag, header length and content length, or null when they do not fit before {@code end}
+     */
+    private static int[] header(ByteBuffer buffer, int at, int end) {
+        if (at + 2 > end) {
+            return null;
+        }
+
+        int tag = buffer.get(at) & 0xFF;
+        int first = buffer.get(at + 1) & 0xFF;
+        int headerLength = 2;
+        int length;
+        if (first < 0x80) {
+            length = first;
+        } else {
+            int bytes = first & 0x7F;
+            if (bytes == 0 || bytes > 3 || at + 2 + bytes > end) {
+                return null;
+            }
+            length = 0;
+            for (int i = 0; i < bytes; i++) {
+                length = (length << 8) | (buffer.get(at + 2 + i) & 0xFF);
+            }
+            headerLength += bytes;
+        }
+
+        if (at + headerLength + length > end) {
+            return null;
+        }
+        return new int[] {tag, headerLength, length};
+    }
+
+    private static int lengthBytes(int length) {
+        if (length < 0x80) {
+            return 1;
+        }
+        return length < 0x100 ? 2 : length < 0x10000 ? 3 : 4;
+    }
+
+    private static void putLength(ByteBuffer buffer, int length) {
+        int bytes = lengthBytes(length) - 1;
+        if (bytes == 0) {
+            buffer.put((byte) length);
+            return;
+        }
+        buffer.put((byte) (0x80 | bytes));
+        for (int i = bytes - 1; i >= 0; i--) {
+            buffer.put((byte) (length >>> (8 * i)));
+        }
+    }
+
+    /**
+     * Iterator over the messages of a file.
+     */
+    abstract static class Reader {
+        protected final ByteBuffer file;
+        protected int position;
+        protected long skipped;
+
+        Reader(ByteBuffer file) {
+            this.file = file;
+        }
+
+        /**
+         * @return the next message, or null at the end of the file
+         */
+        abstract ByteBuffer next();
+
+        /**
+         * Frames that held no SNMP message, e.g. non-UDP packets of a capture.
+         */
+        long skipped() {
+            return skipped;
+        }
+    }
+
+    /**
+     * Messages each preceded by its length as a 4-byte big-endian integer.
+     */
+    static final class LengthPrefixedReader extends Reader {
+        LengthPrefixedReader(ByteBuffer file) {
+            super(file);
+        }
+
+        @Override
+        ByteBuffer next() {
+            if (position + Integer.BYTES > file.limit()) {
+                return null;
+            }
+
+            int length = file.getInt(position);
+            if (length <= 0 || length > MAX_MESSAGE || position + Integer.BYTES + length > file.limit()) {
+                throw new IllegalArgumentException("Invalid raw message length " + length + " at byte " + position);
+            }
+
+            ByteBuffer message = file.slice(position + Integer.BYTES, length);
+            position += Integer.BYTES + length;
+            return message;
+        }
+    }
+
+    /**
+     * UDP payloads of a libpcap capture that start like an SNMP message; other packets and IP fragments are skipped.
+     */
+    static final class PcapReader extends Reader {
+        private static final int GLOBAL_HEADER = 24;
+        private static final int RECORD_HEADER = 16;
+
+        private static final int LINKTYPE_NULL = 0;
+        private static final int LINKTYPE_ETHERNET = 1;
+        private static final int LINKTYPE_RAW = 101;
+        private static final int LINKTYPE_LINUX_SLL = 113;
+        private static final int LINKTYPE_LINUX_SLL2 = 276;
+
+        private static final int IPV4 = 0x0800;
+        private static final int IPV6 = 0x86DD;
+        private static final int UDP = 17;
+
+        // record headers are in the byte order of the capturing host
+        private final ByteBuffer records;
+        private final int linkType;
+
+        PcapReader(ByteBuffer file) {
+            super(file);
+            if (file.limit() < GLOBAL_HEADER) {
+                throw new IllegalArgumentException("Not a pcap capture: too short");
+            }
+
+            int magic = file.getInt(0);
+            ByteOrder order = switch (magic) {
+                case 0xA1B2C3D4, 0xA1B23C4D -> ByteOrder.BIG_ENDIAN;
+                case 0xD4C3B2A1, 0x4D3CB2A1 -> ByteOrder.LITTLE_ENDIAN;
+                case 0x0A0D0D0A -> throw new IllegalArgumentException("pcapng captures are not supported, save the capture as pcap");
+                default -> throw new IllegalArgumentException("Not a pcap capture: unknown magic number " + Integer.toHexString(magic));
+            };
+            this.records = file.duplicate().order(order);
+            this.linkType = records.getInt(20) & 0x0FFFFFFF;
+            if (linkType != LINKTYPE_NULL && linkType != LINKTYPE_ETHERNET && linkType != LINKTYPE_RAW
+                && linkType != LINKTYPE_LINUX_SLL && linkType != LINKTYPE_LINUX_SLL2) {
+                throw new IllegalArgumentException("Unsupported pcap link type " + linkType);
+            }
+            this.position = GLOBAL_HEADER;
+        }
+
+        @Override
+        ByteBuffer next() {
+            while (position + RECORD_HEADER <= file.limit()) {
+                int length = records.getInt(position + 8);
+                int data = position + RECORD_HEADER;
+                if (length < 0 || data + length > file.limit()) {
+                    // capture cut while writing
+                    return null;
+                }
+                position = data + length;
+
+                ByteBuffer payload = udpPayload(data, data + length);
+                if (payload != null) {
+                    return payload;
+                }
+                skipped++;
+            }
+            return null;
+        }
+
+        private ByteBuffer udpPayload(int frame, int end) {
+            int ip;
+            int etherType;
+            switch (linkType) {
+                case LINKTYPE_ETHERNET -> {
+                    if (frame + 14 > end) {
+                        return null;
+                    }
+                    etherType = u16(frame + 12);
+                    ip = frame + 14;
+                    // 802.1Q and 802.1ad tags
+                    while ((etherType == 0x8100 || etherType == 0x88A8) && ip + 4 <= end) {
+                        etherType = u16(ip + 2);
+                        ip += 4;
+                    }
+                }
+                case LINKTYPE_LINUX_SLL -> {
+                    if (frame + 16 > end) {
+                        return null;
+                    }
+                    etherType = u16(frame + 14);
+                    ip = frame + 16;
+                }
+                case LINKTYPE_LINUX_SLL2 -> {
+                    if (frame + 20 > end) {
+                        return null;
+                    }
+                    etherType = u16(frame);
+                    ip = frame + 20;
+                }
+                default -> {
+                    // raw IP, or a 4-byte address family before it
+                    ip = linkType == LINKTYPE_NULL ? frame + 4 : frame;
+                    if (ip >= end) {
+                        return null;
+                    }
+                    etherType = (file.get(ip) & 0xF0) == 0x60 ? IPV6 : IPV4;
+                }
+            }
+
+            int udp;
+            if (etherType == IPV4) {
+                if (ip + 20 > end || (file.get(ip) & 0xF0) != 0x40 || (file.get(ip + 9) & 0xFF) != UDP || (u16(ip + 6) & 0x3FFF) != 0) {
+                    return null;
+                }
+                // the IP total length excludes Ethernet padding
+                end = Math.min(end, ip + u16(ip + 2));
+                udp = ip + (file.get(ip) & 0x0F) * 4;
+            } else if (etherType == IPV6) {
+                if (ip + 40 > end || (file.get(ip + 6) & 0xFF) != UDP) {
+                    return null;
+                }
+                end = Math.min(end, ip + 40 + u16(ip + 4));
+                udp = ip + 40;
+            } else {
+                return null;
+            }
+
+            if (udp + 8 > end) {
+                return null;
+            }
+            int payload = udp + 8;
+            end = Math.min(end, udp + u16(udp + 4));
+            if (payload >= end || (file.get(payload) & 0xFF) != SEQUENCE) {
+                return null;
+            }
+            return file.slice(payload, end - payload);
+        }
+
+        private int u16(int at) {
+            return file.getShort(at) & 0xFFFF;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.kestra.plugin.snmp;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.snmp4j.smi.Address;
+
+/**
+ * Worker-wide round-trip time estimate per target, used to derive adaptive request timeouts.
+ * <p>
+ * Uses the classic smoothed RTT / RTT variance estimator (RFC 6298): {@code timeout = srtt + 4 * rttvar}, clamped
+ * between {@link #MIN_TIMEOUT_MS} and the timeout configured on the task, which acts as an upper bound. As in section
+ * 5.5 of the RFC, the timeout doubles every time a request times out, up to {@link #MAX_TIMEOUT_MS}, until a new round
+ * trip is measured, so that the estimate recovers when the latency of a target rises above it.
+ */
+final class RttEstimator {
+    static final long MIN_TIMEOUT_MS = 50;
+    static final long MAX_TIMEOUT_MS = 60_000;
+
+    private static final double ALPHA = 0.125;
+    private static final double BETA = 0.25;
+    private static final int MAX_TARGETS = 100_000;
+
+    private static final RttEstimator INSTANCE = new RttEstimator();
+
+    private final ConcurrentHashMap<Address, Sample> samples = new ConcurrentHashMap<>();
+
+    static RttEstimator getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Timeout to use for the next request to the address, or {@code maxTimeoutMs} until a first RTT was measured.
+     */
+    long timeoutMs(Address address, long maxTimeoutMs) {
+        Sample sample = samples.get(address);
+        if (sample == null) {
+            return maxTimeoutMs;
+        }
+        return Math.min(maxTimeoutMs, Math.max(MIN_TIMEOUT_MS, sample.timeoutMs()));
+    }
+
+    /**
+     * Feed a measured round trip. Callers must not report samples of retransmitted requests (Karn's algorithm).
+     */
+    void update(Address address, long rttNanos) {
+        if (samples.size() >= MAX_TARGETS && !samples.containsKey(address)) {
+            samples.clear();
+        }
+        samples.computeIfAbsent(address, a -> new Sample()).update(rttNanos / 1_000_000d);
+    }
+
+    /**
+     * Report a request to the address that timed out, doubling its next timeout; no-op until a first RTT was measured,
+     * since the configured timeout is used then.
+     */
+    void backoff(Address address) {
+        Sample sample = samples.get(address);
+        if (sample != null) {
+            sample.backoff();
+        }
+    }
+
+    private static final class Sample {
+        private double srtt = -1;
+        private double rttvar;
+        private long rtoMs;
+
+        synchronized void update(double rttMs) {
+            if (srtt < 0) {
+                srtt = rttMs;
+                rttvar = rttMs / 2;
+            } else {
+                rttvar = (1 - BETA) * rttvar + BETA * Math.abs(srtt - rttMs);
+                srtt = (1 - ALPHA) * srtt + ALPHA * rttMs;
+            }
+            rtoMs = Math.max(MIN_TIMEOUT_MS, (long) Math.ceil(srtt + 4 * rttvar));
+        }
+
+        synchronized void backoff() {
+            rtoMs = Math.min(MAX_TIMEOUT_MS, rtoMs * 2);
+        }
+
+        synchronized long timeoutMs() {
+            return rtoMs;
+        }
+    }
+}
@@ -1,15 +1,12 @@
 package io.kestra.plugin.snmp;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
 import org.snmp4j.*;
 import org.snmp4j.event.ResponseEvent;
-import org.snmp4j.mp.MPv3;
-import org.snmp4j.mp.SnmpConstants;
-import org.snmp4j.security.SecurityModels;
-import org.snmp4j.security.SecurityProtocols;
-import org.snmp4j.security.USM;
-import org.snmp4j.security.UsmUser;
 import org.snmp4j.smi.*;
-import org.snmp4j.transport.DefaultUdpTransportMapping;
 
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
@@ -55,7 +52,7 @@ import io.kestra.core.models.annotations.PluginProperty;
         )
     }
 )
-public class SendInform extends AbstractSnmpTask implements RunnableTask<SendInform.Output> {
+public class SendInform extends AbstractSnmpNotificationTask implements RunnableTask<SendInform.Output> {
     @Schema(
         title = "Retry attempts before failing",
         description = "Resend count when no acknowledgment is received; defaults to 1"
@@ -64,91 +61,172 @@ public class SendInform extends AbstractSnmpTask implements RunnableTask<SendInf
     @PluginProperty(group = "advanced")
     protected Property<Integer> retries = Property.ofValue(1);
 
+    @Schema(
+        title = "Send asynchronously with an adaptive timeout",
+        description = "Sends through a response listener instead of a blocking call, and derives the per-attempt timeout from the round-trip time measured for this manager by previous sends on the worker (smoothed RTT + 4 × variance), using `timeoutMs` as upper bound and until a first RTT is known; defaults to false"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Boolean> async = Property.ofValue(false);
+
+    @Schema(
+        title = "Store and forward unacknowledged INFORMs",
+        description = "When the manager does not answer after all retries, journal the INFORM on the worker and replay it in the background, in order and with exponential backoff, until it is acknowledged; while INFORMs to a manager are waiting, new ones queue behind them. The task reports `queued: true` instead of waiting; defaults to false"
+    )
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    protected Property<Boolean> storeAndForward = Property.ofValue(false);
+
+    @Schema(title = "Journal directory", description = "Worker-local directory of the store-and-forward journal, required with `storeAndForward`; pick a persistent directory, the INFORMs waiting there survive worker restarts only if it does")
+    @PluginProperty(group = "execution")
+    protected Property<String> journalDirectory;
+
+    @Schema(title = "Journal max size (MB)", description = "Size of the journal beyond which new INFORMs are no longer queued; defaults to 64")
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    protected Property<Integer> journalMaxSizeMb = Property.ofValue(64);
+
     @Override
     public Output run(RunContext runContext) throws Exception {
+        MibIndex mibs = loadMibs(runContext);
+
         var rHost = runContext.render(this.host).as(String.class).orElse("localhost");
-        var rPort = runContext.render(this.port).as(Integer.class).orElse(162);
+        var rTransport = SnmpTransport.fromString(runContext.render(this.transport).as(String.class).orElse("udp"));
+        var rLocalAddress = runContext.render(this.localAddress).as(String.class).orElse(null);
+        var rPort = runContext.render(this.port).as(Integer.class).orElse(rTransport.port(defaultPort()));
         var rVersion = runContext.render(this.snmpVersion).as(String.class).orElse("v2c");
-        var rTrapOid = runContext.render(this.trapOid).as(String.class).orElseThrow();
-        var rTimeout = runContext.render(this.timeoutMs).as(Integer.class).orElse(2000);
-        var rBindings = runContext.render(this.bindings).asList(AbstractSnmpTask.VarBind.class);
         var rRetries = runContext.render(this.retries).as(Integer.class).orElse(1);
+        var rAsync = runContext.render(this.async).as(Boolean.class).orElse(false);
 
-        Address targetAddress = new UdpAddress(rHost + "/" + rPort);
-        TransportMapping<UdpAddress> transport = new DefaultUdpTransportMapping();
-
-        try (transport; var snmp = new Snmp(transport)) {
-            transport.listen();
-
-            PDU pdu = new PDU();
-            pdu.setType(PDU.INFORM);
-            pdu.add(new VariableBinding(SnmpConstants.snmpTrapOID, new OID(rTrapOid)));
-            if (rBindings != null) {
-                for (AbstractSnmpTask.VarBind b : rBindings) {
-                    String oid = runContext.render(b.getOid()).as(String.class).orElse(null);
-                    String value = runContext.render(b.getValue()).as(String.class).orElse(null);
-                    if (oid != null && value != null) {
-                        pdu.add(new VariableBinding(new OID(oid), new OctetString(value)));
-                    }
-                }
+        SnmpVersion ver = SnmpVersion.fromString(rVersion);
+        ver.validate(PDU.INFORM);
+
+        var rTrapOid = PduTemplate.oid(mibs, runContext.render(this.trapOid).as(String.class).orElseThrow(() -> new IllegalArgumentException("`trapOid` is required")));
+        var rTimeout = runContext.render(this.timeoutMs).as(Integer.class).orElse(1500);
+        var rV3 = ver == SnmpVersion.V3
+            ? runContext.render(this.v3).as(AbstractSnmpTask.V3Security.class).orElse(null)
+            : null;
+        var rLimit = renderLimit(runContext);
+        var rCommunity = runContext.render(this.community).as(String.class).orElse("public");
+
+        InformForwarder forwarder = null;
+        String credentials = null;
+        if (runContext.render(this.storeAndForward).as(Boolean.class).orElse(false)) {
+            forwarder = InformForwarder.of(Path.of(
+                runContext.render(this.journalDirectory).as(String.class)
+                    .orElseThrow(() -> new IllegalArgumentException("`journalDirectory` is required with `storeAndForward`."))
+            ));
+            credentials = InformForwarder.register(ver, rCommunity, rV3);
+        }
+        long rJournalMaxBytes = runContext.render(this.journalMaxSizeMb).as(Integer.class).orElse(64) * 1024L * 1024L;
+
+        Address targetAddress = rTransport.address(rHost, rPort);
+        SnmpMetrics metrics = new SnmpMetrics(ver, targetAddress);
+
+        if (rLimit != null && !NotificationPacer.getInstance().acquire(targetAddress, rLimit, metrics)) {
+            runContext.logger().warn("INFORM to {}:{} dropped, over {} per second", rHost, rPort, rLimit.perSecond());
+            metrics.publish(runContext);
+            return Output.builder()
+                .acknowledged(false)
+                .error(DROPPED)
+                .build();
+        }
+
+        try (var session = borrowSession(runContext, rTransport, rLocalAddress, ver, rV3)) {
+            Snmp snmp = session.getSnmp();
+
+            long encodeStart = System.nanoTime();
+            SnmpVersion.Built built = ver.build(
+                runContext, PDU.INFORM, targetAddress, rTimeout, rRetries,
+                rTrapOid, PduTemplate.render(runContext, mibs, this.bindings),
+                rV3,
+                rCommunity,
+                snmp
+            );
+            metrics.encoded(System.nanoTime() - encodeStart);
+
+            PDU pdu = built.getPdu();
+            Target<?> target = built.getTarget();
+
+            if (forwarder != null && forwarder.hasPending(rTransport, rHost, rPort)) {
+                // keep the order of the INFORMs to this manager
+                return queue(runContext, forwarder, journalEntry(rTransport, rHost, rPort, ver, credentials, rTimeout, rRetries, pdu), rJournalMaxBytes, metrics);
             }
 
-            Target<?> target;
-            if (rVersion.equalsIgnoreCase("v2c")) {
-                CommunityTarget cTarget = new CommunityTarget();
-                cTarget.setAddress(targetAddress);
-                cTarget.setCommunity(new OctetString(runContext.render(this.community).as(String.class).orElse("public")));
-                cTarget.setRetries(rRetries);
-                cTarget.setTimeout(rTimeout);
-                cTarget.setVersion(SnmpConstants.version2c);
-                target = cTarget;
-            } else if (rVersion.equalsIgnoreCase("v3")) {
-                USM usm = new USM(
-                    SecurityProtocols.getInstance(),
-                    new OctetString(MPv3.createLocalEngineID()), 0
-                );
-                SecurityModels.getInstance().addSecurityModel(usm);
-
-                var v3sec = runContext.render(this.v3).as(AbstractSnmpTask.V3Security.class)
-                    .orElseThrow(() -> new IllegalArgumentException("v3 settings required"));
-
-                snmp.getUSM().addUser(
-                    new OctetString(v3sec.getUsername()),
-                    new UsmUser(
-                        new OctetString(v3sec.getUsername()),
-                        AbstractSnmpTask.AuthProtocol.fromString(v3sec.getAuthProtocol()),
-                        v3sec.getAuthPassword() != null ? new OctetString(v3sec.getAuthPassword()) : null,
-                        AbstractSnmpTask.PrivProtocol.fromString(v3sec.getPrivProtocol()),
-                        v3sec.getPrivPassword() != null ? new OctetString(v3sec.getPrivPassword()) : null
-                    )
-                );
-
-                UserTarget uTarget = new UserTarget();
-                uTarget.setAddress(targetAddress);
-                uTarget.setRetries(rRetries);
-                uTarget.setTimeout(rTimeout);
-                uTarget.setVersion(SnmpConstants.version3);
-                uTarget.setSecurityLevel(AbstractSnmpTask.toSecLevel(v3sec));
-                uTarget.setSecurityName(new OctetString(v3sec.getUsername()));
-                target = uTarget;
+            PDU response;
+            String error;
+            if (rAsync) {
+                AsyncNotifier.Result result = new AsyncNotifier(snmp, 1, true, metrics).send(pdu, target).get();
+                response = result.response();
+                error = result.error();
             } else {
-                throw new IllegalArgumentException("INFORM supported only for v2c/v3.");
+                metrics.sent(pdu);
+                long sendStart = System.nanoTime();
+                ResponseEvent<?> ack = snmp.send(pdu, target);
+                response = ack != null ? ack.getResponse() : null;
+                error = response != null ? response.getErrorStatusText() : null;
+                metrics.answered(target.getTimeout(), target.getRetries(), response, System.nanoTime() - sendStart);
             }
 
-            ResponseEvent<?> ack = snmp.send(pdu, target);
+            if (target instanceof UserTarget) {
+                if (response != null) {
+                    SnmpV3Security.remember(snmp, targetAddress);
+                } else {
+                    SnmpV3Security.forget(targetAddress);
+                }
+            }
 
             runContext.logger().info("Sent INFORM to {}:{}", rHost, rPort);
 
-            boolean success = ack != null && ack.getResponse() != null && ack.getResponse().getErrorStatus() == PDU.noError;
+            if (response == null && forwarder != null) {
+                return queue(runContext, forwarder, journalEntry(rTransport, rHost, rPort, ver, credentials, rTimeout, rRetries, pdu), rJournalMaxBytes, metrics);
+            }
+
+            boolean success = response != null && response.getErrorStatus() == PDU.noError;
 
             return Output.builder()
                 .acknowledged(success)
-                .error(success ? null : (ack != null && ack.getResponse() != null ? ack.getResponse().getErrorStatusText() : null))
-                .responseText(ack != null && ack.getResponse() != null ? ack.getResponse().toString() : null)
+                .error(success ? null : error)
+                .responseText(response != null ? response.toString() : null)
                 .build();
+        } finally {
+            metrics.publish(runContext);
         }
     }
 
+    private static Output queue(RunContext runContext, InformForwarder forwarder, InformJournal.Entry entry, long maxBytes, SnmpMetrics metrics) throws IOException {
+        if (!forwarder.enqueue(entry, maxBytes)) {
+            runContext.logger().warn("INFORM to {}:{} lost, the store-and-forward journal is full", entry.host(), entry.port());
+            return Output.builder()
+                .acknowledged(false)
+                .error("Not acknowledged and the store-and-forward journal is full")
+                .build();
+        }
+
+        metrics.queued();
+        runContext.logger().info("INFORM to {}:{} queued for replay, {} waiting on the worker", entry.host(), entry.port(), forwarder.pending());
+        return Output.builder()
+            .acknowledged(false)
+            .queued(true)
+            .build();
+    }
+
+    private static InformJournal.Entry journalEntry(
+        SnmpTransport transport,
+        String host,
+        int port,
+        SnmpVersion version,
+        String credentials,
+        int timeoutMs,
+        int retries,
+        PDU pdu
+    ) {
+        return new InformJournal.Entry(
+            0, System.currentTimeMillis(), transport, host, port, version, credentials, timeoutMs, retries,
+            List.copyOf(pdu.getVariableBindings())
+        );
+    }
+
     @Builder
     @Getter
     public static class Output implements io.kestra.core.models.tasks.Output {
@@ -169,5 +247,11 @@ public class SendInform extends AbstractSnmpTask implements RunnableTask<SendInf
             description = "Raw response payload from the manager, when available"
         )
         private final String responseText;
+
+        @Schema(
+            title = "Queued",
+            description = "True if the INFORM was not acknowledged and was journaled to be replayed in the background"
+        )
+        private final boolean queued;
     }
 }
@@ -0,0 +1,62 @@
+package io.kestra.plugin.snmp;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@EqualsAndHashCode
+@ToString
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Send one SNMP INFORM to many managers",
+    description = "Sends the same SNMP v2c/v3 INFORM to every target listed in `targets` and/or read from an ION file in `from`, pipelining up to `concurrency` unacknowledged requests over a single shared socket. `host` is ignored; `port` is the default for targets without one. Outputs per-target acknowledgment and latency, and the aggregate success rate."
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Send an SNMP v2c inform to collectors listed in a file",
+            full = true,
+            code = """
+                    id: snmp-inform-fanout
+                    namespace: monitoring
+
+                    inputs:
+                      - id: collectors
+                        type: FILE
+
+                    tasks:
+                      - id: send-informs
+                        type: io.kestra.plugin.snmp.SendInformBatch
+                        snmpVersion: "v2c"
+                        community: "public"
+                        trapOid: "1.3.6.1.4.1.8072.2.3.0.1"
+                        from: "{{ inputs.collectors }}"
+                        concurrency: 200
+                        retries: 2
+                """
+        )
+    }
+)
+public class SendInformBatch extends AbstractSnmpBatchTask implements RunnableTask<AbstractSnmpBatchTask.Output> {
+    @Schema(
+        title = "Retry attempts before failing",
+        description = "Resend count per target when no acknowledgment is received; defaults to 1"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> retries = Property.ofValue(1);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        return sendBatch(runContext, true, runContext.render(this.retries).as(Integer.class).orElse(1));
+    }
+}
@@ -1,14 +1,31 @@
 package io.kestra.plugin.snmp;
 
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
 import org.snmp4j.*;
 import org.snmp4j.security.*;
 import org.snmp4j.smi.*;
-import org.snmp4j.transport.DefaultUdpTransportMapping;
 
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.property.Property;
 import io.kestra.core.models.tasks.RunnableTask;
-import io.kestra.core.models.tasks.VoidOutput;
 import io.kestra.core.runners.RunContext;
 
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -53,40 +70,242 @@ import lombok.experimental.SuperBuilder;
                           - oid: "1.3.6.1.4.1.8072.2.3.2.1"
                             value: "FAILED"
                 """
+        ),
+        @Example(
+            title = "Replay a capture of traps against an NMS, with a new request-id for each one",
+            full = true,
+            code = """
+                    id: snmp-trap-replay
+                    namespace: monitoring
+
+                    inputs:
+                      - id: capture
+                        type: FILE
+
+                    tasks:
+                      - id: replay
+                        type: io.kestra.plugin.snmp.SendTrap
+                        host: "nms.lab.local"
+                        rawFrom: "{{ inputs.capture }}"
+                        rawFormat: PCAP
+                        rewriteRequestId: true
+                        maxRatePerTarget: 2000
+                """
         )
     }
 )
-public class SendTrap extends AbstractSnmpTask implements RunnableTask<VoidOutput> {
+public class SendTrap extends AbstractSnmpNotificationTask implements RunnableTask<SendTrap.Output> {
+    @Schema(
+        title = "Raw messages file",
+        description = "Internal storage URI of a file of BER-encoded SNMP messages, sent over udp as they are instead of a trap built from `trapOid` and `bindings`"
+    )
+    @PluginProperty(internalStorageURI = true, group = "source")
+    protected Property<String> rawFrom;
+
+    @Schema(
+        title = "Raw messages file format",
+        description = "LENGTH_PREFIXED (default): each message preceded by its length as a 4-byte big-endian integer. PCAP: a libpcap capture (not pcapng), of which the UDP payloads that start like an SNMP message are sent"
+    )
+    @Builder.Default
+    @PluginProperty(group = "source")
+    protected Property<RawFormat> rawFormat = Property.ofValue(RawFormat.LENGTH_PREFIXED);
+
+    @Schema(title = "Rewrite community", description = "Replace the community of v1/v2c raw messages with `community`; defaults to false")
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Boolean> rewriteCommunity = Property.ofValue(false);
+
+    @Schema(
+        title = "Rewrite request-id",
+        description = "Give every v2c raw message a new request-id of the same size, so that a replayed capture is not taken for duplicates; defaults to false"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Boolean> rewriteRequestId = Property.ofValue(false);
+
     @Override
-    public VoidOutput run(RunContext runContext) throws Exception {
+    public Output run(RunContext runContext) throws Exception {
+        var rRawFrom = runContext.render(this.rawFrom).as(String.class);
+        if (rRawFrom.isPresent()) {
+            return sendRaw(runContext, URI.create(rRawFrom.get()));
+        }
+
+        MibIndex mibs = loadMibs(runContext);
+
         var rHost = runContext.render(this.host).as(String.class).orElse("localhost");
-        var rPort = runContext.render(this.port).as(Integer.class).orElse(162);
+        var rTransport = SnmpTransport.fromString(runContext.render(this.transport).as(String.class).orElse("udp"));
+        var rLocalAddress = runContext.render(this.localAddress).as(String.class).orElse(null);
+        var rPort = runContext.render(this.port).as(Integer.class).orElse(rTransport.port(defaultPort()));
         var rVersion = runContext.render(this.snmpVersion).as(String.class).orElse("v2c");
-        var rTrapOid = runContext.render(this.trapOid).as(String.class).orElseThrow();
+        var rTrapOid = PduTemplate.oid(mibs, runContext.render(this.trapOid).as(String.class).orElseThrow(() -> new IllegalArgumentException("`trapOid` is required unless `rawFrom` is set")));
         var rTimeout = runContext.render(this.timeoutMs).as(Integer.class).orElse(1500);
-        var rBindings = runContext.render(this.bindings).asList(AbstractSnmpTask.VarBind.class);
+        long encodeStart = System.nanoTime();
+        var rBindings = PduTemplate.render(runContext, mibs, this.bindings);
 
-        Address targetAddress = new UdpAddress(rHost + "/" + rPort);
-        TransportMapping<UdpAddress> transport = new DefaultUdpTransportMapping();
+        var rV3 = runContext.render(this.v3).as(AbstractSnmpTask.V3Security.class).orElse(null);
+        var rLimit = renderLimit(runContext);
 
-        try (var snmp = new Snmp(transport)) {
-            transport.listen();
+        Address targetAddress = rTransport.address(rHost, rPort);
+        SnmpVersion ver = SnmpVersion.fromString(rVersion);
+        SnmpMetrics metrics = new SnmpMetrics(ver, targetAddress);
+
+        if (rLimit != null && !NotificationPacer.getInstance().acquire(targetAddress, rLimit, metrics)) {
+            runContext.logger().warn("SNMP trap to {}:{} dropped, over {} per second", rHost, rPort, rLimit.perSecond());
+            metrics.publish(runContext);
+            return Output.builder()
+                .dropped(1)
+                .duration(Duration.ZERO)
+                .build();
+        }
+
+        try (var session = borrowSession(runContext, rTransport, rLocalAddress, ver, rV3)) {
+            Snmp snmp = session.getSnmp();
 
-            SnmpVersion ver = SnmpVersion.fromString(rVersion);
             SnmpVersion.Built built = ver.build(
-                runContext, targetAddress, rTimeout,
+                runContext, PDU.TRAP, targetAddress, rTimeout, 0,
                 rTrapOid, rBindings,
-                runContext.render(this.v3).as(AbstractSnmpTask.V3Security.class).orElse(null),
+                rV3,
                 runContext.render(this.community).as(String.class).orElse("public"),
                 snmp
             );
 
+            metrics.encoded(System.nanoTime() - encodeStart);
+
+            metrics.sent(built.getPdu());
+            long sendStart = System.nanoTime();
             snmp.send(built.getPdu(), built.getTarget());
-            ;
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - sendStart);
 
             runContext.logger().info("SNMP trap sent to {}:{}", rHost, rPort);
 
-            return null;
+            return Output.builder()
+                .packets(1)
+                .duration(elapsed)
+                .packetsPerSecond(elapsed.isZero() ? 1 : 1e9 / elapsed.toNanos())
+                .build();
+        } finally {
+            metrics.publish(runContext);
         }
     }
+
+    /**
+     * Send pre-encoded messages straight from a private mapping of the file, editing them in place when asked to.
+     */
+    private Output sendRaw(RunContext runContext, URI rawFrom) throws Exception {
+        var rHost = runContext.render(this.host).as(String.class).orElse("localhost");
+        var rTransport = SnmpTransport.fromString(runContext.render(this.transport).as(String.class).orElse("udp"));
+        if (rTransport != SnmpTransport.UDP) {
+            throw new IllegalArgumentException("Raw messages are only sent over udp");
+        }
+        var rLocalAddress = runContext.render(this.localAddress).as(String.class).orElse(null);
+        var rPort = runContext.render(this.port).as(Integer.class).orElse(defaultPort());
+        var rFormat = runContext.render(this.rawFormat).as(RawFormat.class).orElse(RawFormat.LENGTH_PREFIXED);
+        var rCommunity = runContext.render(this.rewriteCommunity).as(Boolean.class).orElse(false)
+            ? runContext.render(this.community).as(String.class).orElse("public").getBytes(StandardCharsets.UTF_8)
+            : null;
+        var rRewriteRequestId = runContext.render(this.rewriteRequestId).as(Boolean.class).orElse(false);
+        var rLimit = renderLimit(runContext);
+
+        Path local = runContext.workingDir().createTempFile(".ber");
+        try (InputStream in = runContext.storage().getFile(rawFrom)) {
+            Files.copy(in, local, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        Address targetAddress = rTransport.address(rHost, rPort);
+        InetSocketAddress destination = new InetSocketAddress(rHost, rPort);
+        long sent = 0;
+        long bytes = 0;
+        long dropped = 0;
+        long unchanged = 0;
+        long skipped;
+        long start = System.nanoTime();
+
+        try (
+            FileChannel file = FileChannel.open(local, StandardOpenOption.READ);
+            DatagramChannel channel = DatagramChannel.open()
+        ) {
+            if (rLocalAddress != null) {
+                UdpAddress bind = new UdpAddress(rLocalAddress);
+                channel.bind(new InetSocketAddress(bind.getInetAddress(), bind.getPort()));
+            }
+            if (file.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Raw messages files are limited to 2 GiB");
+            }
+            // private: in-place rewrites never reach the file
+            MappedByteBuffer mapped = file.map(FileChannel.MapMode.PRIVATE, 0, file.size());
+            RawMessages.Reader reader = RawMessages.reader(mapped, rFormat);
+            ByteBuffer scratch = ByteBuffer.allocateDirect(RawMessages.MAX_MESSAGE);
+            int requestId = ThreadLocalRandom.current().nextInt();
+
+            for (ByteBuffer message = reader.next(); message != null; message = reader.next()) {
+                if (rLimit != null && !NotificationPacer.getInstance().acquire(targetAddress, rLimit, null)) {
+                    dropped++;
+                    continue;
+                }
+
+                ByteBuffer out = message;
+                if (rCommunity != null || rRewriteRequestId) {
+                    out = RawMessages.rewrite(message, rCommunity, rRewriteRequestId ? requestId++ : null, scratch);
+                    if (out == null) {
+                        out = message;
+                        unchanged++;
+                    }
+                }
+
+                bytes += out.remaining();
+                channel.send(out, destination);
+                sent++;
+            }
+            skipped = reader.skipped();
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        double rate = elapsed.isZero() ? sent : sent * 1e9 / elapsed.toNanos();
+        String target = targetAddress.toString();
+        runContext.metric(Counter.of("snmp.raw.packets", sent, "target", target));
+        runContext.metric(Counter.of("snmp.raw.bytes", bytes, "target", target));
+        runContext.metric(Counter.of("snmp.raw.dropped", dropped, "target", target));
+        runContext.metric(Counter.of("snmp.raw.unchanged", unchanged, "target", target));
+        runContext.metric(Counter.of("snmp.raw.skipped", skipped, "target", target));
+        runContext.metric(Timer.of("snmp.raw.duration", elapsed, "target", target));
+
+        runContext.logger().info(
+            "Sent {} raw SNMP messages ({} bytes) to {}:{} in {} ms, {} packets/s; {} dropped over the rate limit, {} left unchanged, {} capture frames skipped",
+            sent, bytes, rHost, rPort, elapsed.toMillis(), Math.round(rate), dropped, unchanged, skipped
+        );
+        return Output.builder()
+            .packets(sent)
+            .bytes(bytes)
+            .dropped(dropped)
+            .duration(elapsed)
+            .packetsPerSecond(rate)
+            .build();
+    }
+
+    public enum RawFormat {
+        LENGTH_PREFIXED,
+        PCAP
+    }
+
+    /**
+     * What was sent: the trap built from {@code trapOid}, or the messages of a raw replay.
+     */
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Messages sent", description = "The raw messages written to the socket, rewritten or not, or 1 when a built trap was sent")
+        private final long packets;
+
+        @Schema(title = "Bytes sent", description = "Size of the UDP payloads of raw messages sent; 0 for a built trap")
+        private final long bytes;
+
+        @Schema(title = "Messages dropped", description = "Messages not sent because they were over `maxRatePerTarget` with `dropOverRate`; always 0 otherwise, as they are delayed instead")
+        private final long dropped;
+
+        @Schema(title = "Send duration", description = "Time taken to send every message of the file, or the built trap, pacing included for raw messages")
+        private final Duration duration;
+
+        @Schema(title = "Packets per second", description = "Messages sent over the send duration")
+        private final double packetsPerSecond;
+    }
 }
@@ -0,0 +1,53 @@
+package io.kestra.plugin.snmp;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@EqualsAndHashCode
+@ToString
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Send one SNMP trap to many managers",
+    description = "Fans the same SNMP v1/v2c/v3 trap out to every target listed in `targets` and/or read from an ION file in `from`, over a single shared socket. `host` is ignored; `port` is the default for targets without one. Outputs per-target status and the aggregate success rate."
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Send an SNMP v2c trap to several collectors",
+            full = true,
+            code = """
+                    id: snmp-trap-fanout
+                    namespace: monitoring
+
+                    tasks:
+                      - id: send-traps
+                        type: io.kestra.plugin.snmp.SendTrapBatch
+                        snmpVersion: "v2c"
+                        community: "public"
+                        trapOid: "1.3.6.1.4.1.8072.2.3.0.1"
+                        concurrency: 100
+                        targets:
+                          - host: "nms-eu.example.com"
+                          - host: "nms-us.example.com"
+                            port: 1162
+                        bindings:
+                          - oid: "1.3.6.1.4.1.8072.2.3.2.1"
+                            value: "FAILED"
+                """
+        )
+    }
+)
+public class SendTrapBatch extends AbstractSnmpBatchTask implements RunnableTask<AbstractSnmpBatchTask.Output> {
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        return sendBatch(runContext, false, 0);
+    }
+}
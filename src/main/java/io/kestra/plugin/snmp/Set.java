@@ -0,0 +1,358 @@
+package io.kestra.plugin.snmp;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.snmp4j.PDU;
+import org.snmp4j.smi.VariableBinding;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@EqualsAndHashCode
+@ToString
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Write OIDs on SNMP agents",
+    description = "Sends SNMP v1/v2c/v3 SET requests to the agent at host:port, defaulting to port 161, or to every device of an inventory file. Varbinds are packed into as few PDUs as the agent's max message size allows, or kept in a single PDU applied all-or-nothing when `atomic` is true, and can be read back with GET to verify them."
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Set the contact and location of a switch in one transaction",
+            full = true,
+            code = """
+                    id: snmp-set
+                    namespace: monitoring
+
+                    tasks:
+                      - id: set
+                        type: io.kestra.plugin.snmp.Set
+                        host: "switch-01.example.com"
+                        snmpVersion: "v2c"
+                        community: "{{ secret('SNMP_WRITE_COMMUNITY') }}"
+                        atomic: true
+                        verify: true
+                        bindings:
+                          - oid: "SNMPv2-MIB::sysContact.0"
+                            value: "noc@example.com"
+                          - oid: "SNMPv2-MIB::sysLocation.0"
+                            value: "DC1, rack 12"
+                """
+        ),
+        @Example(
+            title = "Shut down ports on many switches from a change list",
+            full = true,
+            code = """
+                    id: snmp-set-bulk
+                    namespace: monitoring
+
+                    inputs:
+                      - id: changes
+                        type: FILE
+
+                    tasks:
+                      - id: set
+                        type: io.kestra.plugin.snmp.Set
+                        from: "{{ inputs.changes }}"
+                        community: "{{ secret('SNMP_WRITE_COMMUNITY') }}"
+                        concurrency: 200
+                        verify: true
+                """
+        )
+    }
+)
+public class Set extends AbstractSnmpRequestTask implements RunnableTask<Set.Output> {
+    @Schema(
+        title = "Varbinds to set",
+        description = "OIDs and values written on the agent; with `from`, written on every device before the varbinds of its row"
+    )
+    @PluginProperty(group = "main")
+    protected Property<List<AbstractSnmpTask.VarBind>> bindings;
+
+    @Schema(
+        title = "Change list file URI",
+        description = "Internal storage URI of an ION file with one row per device: `host`, optional `port`, `version`, `community`, `credentials` (the name of an entry of `credentials`) and `bindings` (list of `oid`/`value`/`type`); when set, `host` and `port` are ignored"
+    )
+    @PluginProperty(internalStorageURI = true, group = "source")
+    protected Property<String> from;
+
+    @Schema(title = "Named SNMPv3 credentials", description = "v3 security settings referenced by the `credentials` column of the change list")
+    @PluginProperty(group = "advanced")
+    protected Property<Map<String, AbstractSnmpTask.V3Security>> credentials;
+
+    @Schema(title = "Max devices set at once", description = "Number of devices with requests in flight in bulk mode; defaults to 100")
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    protected Property<Integer> concurrency = Property.ofValue(100);
+
+    @Schema(
+        title = "Apply all varbinds in one SET",
+        description = "Send the varbinds of a device in a single PDU, which the agent applies entirely or not at all, and fail when they do not fit `maxMessageSize` or `maxVarBindsPerRequest`; otherwise they are split over several PDUs, each applied on its own; defaults to false"
+    )
+    @Builder.Default
+    @PluginProperty(group = "main")
+    protected Property<Boolean> atomic = Property.ofValue(false);
+
+    @Schema(title = "Verify by reading back", description = "GET the varbinds after setting them and fail when a value differs from the one written; defaults to false")
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Boolean> verify = Property.ofValue(false);
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        MibIndex mibs = loadMibs(runContext);
+
+        var rBindings = PduTemplate.render(runContext, mibs, this.bindings);
+        var rAtomic = runContext.render(this.atomic).as(Boolean.class).orElse(false);
+        var rVerify = runContext.render(this.verify).as(Boolean.class).orElse(false);
+
+        var rFrom = runContext.render(this.from).as(String.class);
+        if (rFrom.isPresent()) {
+            return bulk(runContext, mibs, URI.create(rFrom.get()), rBindings, rAtomic, rVerify);
+        }
+        if (rBindings.isEmpty()) {
+            throw new IllegalArgumentException("`bindings` or `from` is required");
+        }
+
+        long start = System.nanoTime();
+        try (var session = openRequest(runContext)) {
+            List<SnmpValue> values = set(session, mibs, rBindings, rAtomic, rVerify);
+
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            runContext.metric(Counter.of("varbinds", values.size()));
+            runContext.metric(Timer.of("duration", duration));
+            runContext.logger().info("Set {} OID(s) on {}", values.size(), session.getTarget().getAddress());
+
+            return Output.builder()
+                .values(values)
+                .size(values.size())
+                .total(1L)
+                .succeeded(1L)
+                .failed(0L)
+                .duration(duration)
+                .build();
+        }
+    }
+
+    private Output bulk(RunContext runContext, MibIndex mibs, URI from, List<VariableBinding> common, boolean atomic, boolean verify) throws Exception {
+        var rTransport = SnmpTransport.fromString(runContext.render(this.transport).as(String.class).orElse("udp"));
+        var rPort = runContext.render(this.port).as(Integer.class).orElse(rTransport.port(defaultPort()));
+        var rVersion = runContext.render(this.snmpVersion).as(String.class).orElse("v2c");
+        var rCommunity = runContext.render(this.community).as(String.class).orElse("public");
+        var rV3 = runContext.render(this.v3).as(AbstractSnmpTask.V3Security.class).orElse(null);
+        var rCredentials = runContext.render(this.credentials).asMap(String.class, AbstractSnmpTask.V3Security.class);
+        var rConcurrency = runContext.render(this.concurrency).as(Integer.class).orElse(100);
+
+        long start = System.nanoTime();
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong varbinds = new AtomicLong();
+        File tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+
+        Map<String, SnmpSessionPool.Lease> leases = new HashMap<>();
+        Map<SnmpVersion, SnmpMetrics> metrics = new EnumMap<>(SnmpVersion.class);
+        Semaphore permits = new Semaphore(Math.max(1, rConcurrency));
+
+        try (
+            OutputStream output = new BufferedOutputStream(new FileOutputStream(tempFile), FileSerde.BUFFER_SIZE);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(from), StandardCharsets.UTF_8));
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()
+        ) {
+            try {
+                for (Object item : FileSerde.readAll(reader).toIterable()) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> row = (Map<String, Object>) item;
+                    String host = host(row);
+                    int port = row.get("port") instanceof Number n ? n.intValue() : rPort;
+
+                    Device device;
+                    List<VariableBinding> request;
+                    try {
+                        if (host == null) {
+                            throw new IllegalArgumentException("Row without `host`");
+                        }
+                        device = device(runContext, row, rTransport, rVersion, rCommunity, rV3, rCredentials, leases, metrics);
+                        request = new ArrayList<>(common);
+                        request.addAll(PduTemplate.encode(runContext, mibs, rowBindings(row)));
+                        if (request.isEmpty()) {
+                            throw new IllegalArgumentException("No varbinds to set");
+                        }
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                        write(output, result(host, port, 0, e.getMessage(), null));
+                        continue;
+                    }
+
+                    permits.acquire();
+                    executor.submit(() -> {
+                        long deviceStart = System.nanoTime();
+                        Map<String, Object> result;
+                        try (var session = openRequest(runContext, device.lease().share(), device.version(), device.transport().address(host, port), device.community(), device.sec(), device.metrics())) {
+                            List<SnmpValue> values = set(session, mibs, request, atomic, verify);
+                            varbinds.addAndGet(values.size());
+                            succeeded.incrementAndGet();
+                            result = result(host, port, System.nanoTime() - deviceStart, null, values);
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                            result = result(host, port, System.nanoTime() - deviceStart, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName(), null);
+                        }
+
+                        try {
+                            write(output, result);
+                        } catch (Exception e) {
+                            runContext.logger().warn("Unable to store the result of {}:{}", host, port, e);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+
+                // wait for the devices still in flight
+                permits.acquire(Math.max(1, rConcurrency));
+            } finally {
+                for (SnmpSessionPool.Lease lease : leases.values()) {
+                    lease.close();
+                }
+            }
+        }
+
+        for (SnmpMetrics versionMetrics : metrics.values()) {
+            versionMetrics.publish(runContext);
+        }
+
+        URI uri = runContext.storage().putFile(tempFile);
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        long total = succeeded.get() + failed.get();
+
+        runContext.metric(Counter.of("devices", total));
+        runContext.metric(Counter.of("succeeded", succeeded.get()));
+        runContext.metric(Counter.of("failed", failed.get()));
+        runContext.metric(Counter.of("varbinds", varbinds.get()));
+        runContext.metric(Timer.of("duration", duration));
+        runContext.logger().info("Set {} OID(s) on {} device(s) in {}, {} succeeded", varbinds.get(), total, duration, succeeded.get());
+
+        return Output.builder()
+            .uri(uri)
+            .size((int) Math.min(Integer.MAX_VALUE, varbinds.get()))
+            .total(total)
+            .succeeded(succeeded.get())
+            .failed(failed.get())
+            .duration(duration)
+            .build();
+    }
+
+    /**
+     * Write the varbinds on one agent, then read them back when asked to.
+     */
+    static List<SnmpValue> set(RequestSession session, MibIndex mibs, List<VariableBinding> bindings, boolean atomic, boolean verify) throws Exception {
+        if (atomic && session.split(PDU.SET, bindings).size() > 1) {
+            throw new IllegalArgumentException(
+                bindings.size() + " varbinds do not fit in a single SET, raise `maxMessageSize` or `maxVarBindsPerRequest`, or disable `atomic`"
+            );
+        }
+
+        // a tooBig answer means nothing was written, so halves can be resent unless the SET has to stay in one piece
+        List<VariableBinding> response = session.request(PDU.SET, bindings, !atomic);
+
+        if (verify) {
+            List<VariableBinding> read = session.request(
+                PDU.GET,
+                bindings.stream().map(binding -> new VariableBinding(binding.getOid())).toList(),
+                true
+            );
+
+            List<String> mismatches = new ArrayList<>();
+            for (int i = 0; i < bindings.size(); i++) {
+                VariableBinding written = bindings.get(i);
+                VariableBinding current = i < read.size() ? read.get(i) : null;
+                if (current == null || !written.getVariable().equals(current.getVariable())) {
+                    mismatches.add(written.getOid() + " is " + (current != null ? current.toValueString() : "missing") + " instead of " + written.toValueString());
+                }
+            }
+            if (!mismatches.isEmpty()) {
+                throw new IllegalStateException("Verification failed on " + session.getTarget().getAddress() + ": " + String.join(", ", mismatches));
+            }
+        }
+
+        return response.stream().map(binding -> SnmpValue.of(binding, mibs)).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<AbstractSnmpTask.VarBind> rowBindings(Map<String, Object> row) {
+        List<AbstractSnmpTask.VarBind> result = new ArrayList<>();
+        if (row.get("bindings") instanceof List<?> list) {
+            for (Object item : list) {
+                Map<String, Object> b = (Map<String, Object>) item;
+                // a missing value must fail the device, never be written as the text "null"
+                if (b.get("oid") == null) {
+                    throw new IllegalArgumentException("Binding without `oid`");
+                }
+                if (b.get("value") == null) {
+                    throw new IllegalArgumentException("Binding of " + b.get("oid") + " without `value`");
+                }
+                result.add(AbstractSnmpTask.VarBind.builder()
+                    .oid(Property.ofValue(String.valueOf(b.get("oid"))))
+                    .value(Property.ofValue(String.valueOf(b.get("value"))))
+                    .type(b.get("type") != null ? Property.ofValue(String.valueOf(b.get("type"))) : null)
+                    .build()
+                );
+            }
+        }
+        return result;
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Values", description = "Values acknowledged by the agent, in request order; not set in bulk mode")
+        private final List<SnmpValue> values;
+
+        @Schema(title = "Number of varbinds set")
+        private final int size;
+
+        @Schema(title = "Results file URI", description = "In bulk mode, internal storage URI of an ION file with one row per device, in completion order: `host`, `port`, `success`, `error`, `latency` and `values`")
+        private final URI uri;
+
+        @Schema(title = "Number of devices")
+        private final long total;
+
+        @Schema(title = "Number of devices on which every varbind was set")
+        private final long succeeded;
+
+        @Schema(title = "Number of devices that failed")
+        private final long failed;
+
+        @Schema(title = "Duration")
+        private final Duration duration;
+    }
+}
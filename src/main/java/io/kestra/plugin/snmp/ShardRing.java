@@ -0,0 +1,71 @@
+package io.kestra.plugin.snmp;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Consistent hash ring assigning devices to the shards of {@link PollDevices}.
+ * <p>
+ * Each shard owns {@link #VIRTUAL_NODES} points of a 64-bit ring, and a device belongs to the shard of the first point
+ * at or after the hash of its address. Going from N to N+1 shards only moves the devices taken over by the new
+ * shard's points, about 1/(N+1) of them, so most devices keep being polled by the same shard and the v3 engine and
+ * round-trip caches of its worker stay warm. Rings are immutable and shared by every run with the same shard count.
+ */
+final class ShardRing {
+    static final int VIRTUAL_NODES = 160;
+
+    private static final ConcurrentHashMap<Integer, ShardRing> RINGS = new ConcurrentHashMap<>();
+
+    // sorted points of the ring and the shard owning each of them
+    private final long[] points;
+    private final int[] shards;
+
+    private ShardRing(int shardCount) {
+        long[][] nodes = new long[shardCount * VIRTUAL_NODES][];
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < VIRTUAL_NODES; node++) {
+                nodes[shard * VIRTUAL_NODES + node] = new long[] {mix(Fnv.hash(Fnv.hash(Fnv.OFFSET, "shard-" + shard), String.valueOf(node))), shard};
+            }
+        }
+        Arrays.sort(nodes, (a, b) -> Long.compare(a[0], b[0]));
+
+        points = new long[nodes.length];
+        shards = new int[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            points[i] = nodes[i][0];
+            shards[i] = (int) nodes[i][1];
+        }
+    }
+
+    static ShardRing of(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("`shardCount` must be at least 1");
+        }
+        return RINGS.computeIfAbsent(shardCount, ShardRing::new);
+    }
+
+    /**
+     * The shard polling the device at this address.
+     */
+    int shard(String host, int port) {
+        long hash = mix(Fnv.hash(Fnv.hash(Fnv.OFFSET, host), String.valueOf(port)));
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        // past the last point, wrap around to the first one
+        return shards[index == points.length ? 0 : index];
+    }
+
+    /**
+     * Spread the bits of an FNV hash, whose high bits barely change between strings differing by their last characters.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,150 @@
+package io.kestra.plugin.snmp;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.snmp4j.PDU;
+import org.snmp4j.smi.Address;
+
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.runners.RunContext;
+
+/**
+ * Wire-level counters and timers of one task run, published as Kestra metrics tagged by SNMP version and target.
+ * <p>
+ * Recording only updates {@link LongAdder}s, so the send and response paths can share one instance across threads
+ * without contention; {@link #publish(RunContext)} emits the totals once. Tasks talking to many targets record without
+ * a target, so that the number of metric series does not grow with the inventory.
+ * <p>
+ * snmp4j does not expose the retransmissions of a request; they are derived from the time to the answer and the
+ * per-attempt timeout of the target.
+ */
+final class SnmpMetrics {
+    private final String[] tags;
+
+    private final LongAdder pdusSent = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder varbindsSent = new LongAdder();
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder varbindsReceived = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder encodeNanos = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder throttleNanos = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    // report PDUs by report OID, e.g. usmStatsNotInTimeWindows
+    private final ConcurrentHashMap<String, LongAdder> reports = new ConcurrentHashMap<>();
+
+    SnmpMetrics(SnmpVersion version, Address target) {
+        this.tags = target != null
+            ? new String[]{"version", version.name().toLowerCase(), "target", target.toString()}
+            : new String[]{"version", version.name().toLowerCase()};
+    }
+
+    /**
+     * Time spent rendering and assembling PDUs before they are handed to snmp4j.
+     */
+    void encoded(long nanos) {
+        encodeNanos.add(nanos);
+    }
+
+    void sent(PDU pdu) {
+        pdusSent.increment();
+        bytesSent.add(pdu.getBERLength());
+        varbindsSent.add(pdu.size());
+    }
+
+    /**
+     * Record the outcome of a confirmed request: its response, or a timeout when {@code response} is null.
+     */
+    void answered(long timeoutMs, int maxRetries, PDU response, long latency) {
+        if (response == null) {
+            timeouts.increment();
+            retries.add(maxRetries);
+            return;
+        }
+
+        responses.increment();
+        latencyNanos.add(latency);
+        bytesReceived.add(response.getBERLength());
+        if (timeoutMs > 0) {
+            retries.add(Math.min(maxRetries, latency / (timeoutMs * 1_000_000L)));
+        }
+
+        if (response.getType() == PDU.REPORT) {
+            String oid = response.size() > 0 ? response.get(0).getOid().toDottedString() : "unknown";
+            reports.computeIfAbsent(oid, k -> new LongAdder()).increment();
+        } else {
+            varbindsReceived.add(response.size());
+        }
+    }
+
+    /**
+     * Count varbinds received outside of {@link #answered}, e.g. rows of a walk.
+     */
+    void received(int varbinds) {
+        varbindsReceived.add(varbinds);
+    }
+
+    void timedOut() {
+        timeouts.increment();
+    }
+
+    /**
+     * A notification delayed by the {@link NotificationPacer}.
+     */
+    void throttled(long waitNanos) {
+        throttled.increment();
+        throttleNanos.add(waitNanos);
+    }
+
+    /**
+     * A notification dropped by the {@link NotificationPacer}.
+     */
+    void dropped() {
+        dropped.increment();
+    }
+
+    /**
+     * An unacknowledged INFORM journaled for replay by the {@link InformForwarder}.
+     */
+    void queued() {
+        queued.increment();
+    }
+
+    void publish(RunContext runContext) {
+        runContext.metric(Counter.of("snmp.pdus.sent", pdusSent.sum(), tags));
+        runContext.metric(Counter.of("snmp.bytes.sent", bytesSent.sum(), tags));
+        runContext.metric(Counter.of("snmp.varbinds.sent", varbindsSent.sum(), tags));
+        runContext.metric(Counter.of("snmp.responses", responses.sum(), tags));
+        runContext.metric(Counter.of("snmp.bytes.received", bytesReceived.sum(), tags));
+        runContext.metric(Counter.of("snmp.varbinds.received", varbindsReceived.sum(), tags));
+        runContext.metric(Counter.of("snmp.timeouts", timeouts.sum(), tags));
+        runContext.metric(Counter.of("snmp.retries", retries.sum(), tags));
+        runContext.metric(Timer.of("snmp.encode", Duration.ofNanos(encodeNanos.sum()), tags));
+        runContext.metric(Counter.of("snmp.throttled", throttled.sum(), tags));
+        runContext.metric(Counter.of("snmp.dropped", dropped.sum(), tags));
+        runContext.metric(Counter.of("snmp.queued", queued.sum(), tags));
+        if (throttled.sum() > 0) {
+            runContext.metric(Timer.of("snmp.throttle.delay", Duration.ofNanos(throttleNanos.sum()), tags));
+        }
+        if (responses.sum() > 0) {
+            // mean time to the answer, retransmissions included
+            runContext.metric(Timer.of("snmp.ack.latency", Duration.ofNanos(latencyNanos.sum() / responses.sum()), tags));
+        }
+
+        reports.forEach((oid, count) -> {
+            String[] reportTags = Arrays.copyOf(tags, tags.length + 2);
+            reportTags[tags.length] = "report";
+            reportTags[tags.length + 1] = oid;
+            runContext.metric(Counter.of("snmp.reports", count.sum(), reportTags));
+        });
+    }
+}
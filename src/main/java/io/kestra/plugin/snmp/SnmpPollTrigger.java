@@ -0,0 +1,474 @@
+package io.kestra.plugin.snmp;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.snmp4j.PDU;
+import org.snmp4j.Target;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.VariableBinding;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.triggers.AbstractTrigger;
+import io.kestra.core.models.triggers.PollingTriggerInterface;
+import io.kestra.core.models.triggers.TriggerContext;
+import io.kestra.core.models.triggers.TriggerOutput;
+import io.kestra.core.models.triggers.TriggerService;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.storages.kv.KVMetadata;
+import io.kestra.core.storages.kv.KVValueAndMetadata;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Poll SNMP devices and start a flow when values change",
+    description = "On every `interval`, GETs `oids` and walks `walk` subtrees (GETBULK, or GETNEXT for v1) on each device, and compares the values with the previous poll. An execution is created only when rows changed or crossed one of the `thresholds`, with those rows only. The last value of every row is kept in a compact snapshot, persisted to the namespace KV store."
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Start a flow when an interface goes up or down",
+            full = true,
+            code = """
+                    id: snmp-link-state
+                    namespace: monitoring
+
+                    tasks:
+                      - id: log
+                        type: io.kestra.plugin.core.log.Log
+                        message: "{{ trigger.count }} interface(s) changed state: {{ trigger.changes }}"
+
+                    triggers:
+                      - id: poll
+                        type: io.kestra.plugin.snmp.SnmpPollTrigger
+                        interval: PT30S
+                        community: "{{ secret('SNMP_COMMUNITY') }}"
+                        devices:
+                          - host: "switch-01.example.com"
+                          - host: "switch-02.example.com"
+                        walk:
+                          - "IF-MIB::ifOperStatus"
+                """
+        ),
+        @Example(
+            title = "Start a flow when a temperature sensor goes over 70 or back under it",
+            full = true,
+            code = """
+                    id: snmp-temperature
+                    namespace: monitoring
+
+                    tasks:
+                      - id: log
+                        type: io.kestra.plugin.core.log.Log
+                        message: "{{ trigger.changes }}"
+
+                    triggers:
+                      - id: poll
+                        type: io.kestra.plugin.snmp.SnmpPollTrigger
+                        interval: PT1M
+                        devices:
+                          - host: "ups-01.example.com"
+                        oids:
+                          - "1.3.6.1.4.1.318.1.1.1.2.2.2.0"
+                        onChange: false
+                        thresholds:
+                          - oid: "1.3.6.1.4.1.318.1.1.1.2.2.2"
+                            value: 70
+                """
+        )
+    }
+)
+public class SnmpPollTrigger extends AbstractTrigger implements PollingTriggerInterface, TriggerOutput<SnmpPollTrigger.Output> {
+    private static final ConcurrentHashMap<String, CachedSnapshot> SNAPSHOTS = new ConcurrentHashMap<>();
+
+    @Schema(title = "Poll interval", description = "How often the devices are polled; defaults to 1 minute")
+    @Builder.Default
+    private final Duration interval = Duration.ofMinutes(1);
+
+    @Schema(title = "Devices", description = "Agents to poll, each with a `host` and an optional `port`")
+    @NotNull
+    @PluginProperty(group = "main")
+    protected Property<List<Device>> devices;
+
+    @Schema(title = "OIDs to read", description = "Numeric or symbolic OIDs read from every device with GET")
+    @PluginProperty(group = "main")
+    protected Property<List<String>> oids;
+
+    @Schema(title = "Subtrees to walk", description = "Numeric or symbolic OIDs of subtrees, e.g. `IF-MIB::ifOperStatus`, walked on every device; new rows only set their baseline")
+    @PluginProperty(group = "main")
+    protected Property<List<String>> walk;
+
+    @Schema(title = "Thresholds", description = "Numeric values whose crossing, upwards or downwards, by a row under `oid` is reported")
+    @PluginProperty(group = "main")
+    protected Property<List<Threshold>> thresholds;
+
+    @Schema(title = "Report every change", description = "Report rows whose value changed; when false, only threshold crossings are reported; defaults to true")
+    @Builder.Default
+    @PluginProperty(group = "main")
+    protected Property<Boolean> onChange = Property.ofValue(true);
+
+    @Schema(title = "Agent port", description = "Port of devices that do not set one; defaults to 161, 10161 over tls/dtls")
+    @PluginProperty(group = "connection")
+    protected Property<Integer> port;
+
+    @Schema(title = "Select transport", description = "One of udp, tcp, tls, dtls; defaults to udp")
+    @Builder.Default
+    @PluginProperty(group = "connection")
+    protected Property<String> transport = Property.ofValue("udp");
+
+    @Schema(title = "Local bind address", description = "Local `ip/port` polls are sent from, e.g. `10.0.0.5/0`; defaults to any address on an ephemeral port")
+    @PluginProperty(group = "connection")
+    protected Property<String> localAddress;
+
+    @Schema(title = "Select SNMP version", description = "One of v1, v2c, v3; defaults to v2c")
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<String> snmpVersion = Property.ofValue("v2c");
+
+    @Schema(title = "Community string (v1/v2c)", description = "Plaintext community for v1/v2c; defaults to public, ignored for v3")
+    @PluginProperty(secret = true, group = "advanced")
+    @ToString.Exclude
+    protected Property<String> community;
+
+    @Schema(title = "SNMPv3 security settings", description = "Username and optional auth/privacy protocols required for v3")
+    @PluginProperty(group = "advanced")
+    protected Property<AbstractSnmpTask.V3Security> v3;
+
+    @Schema(title = "Timeout (ms)", description = "Time to wait for each response; defaults to 1500 ms")
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> timeoutMs = Property.ofValue(1500);
+
+    @Schema(title = "Retry attempts before failing", description = "Resend count when a device does not answer; defaults to 1")
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> retries = Property.ofValue(1);
+
+    @Schema(title = "Max repetitions", description = "Number of rows requested by each GETBULK of a walk; defaults to 25")
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> maxRepetitions = Property.ofValue(25);
+
+    @Schema(
+        title = "Agent max message size (bytes)",
+        description = "Largest SNMP message the devices accept or send; GETs are split so that their estimated response fits, and split again when a device answers tooBig; defaults to 1472"
+    )
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> maxMessageSize = Property.ofValue(1472);
+
+    @Schema(title = "Max varbinds per request", description = "Upper bound on the number of OIDs packed in a single PDU; defaults to 60")
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> maxVarBindsPerRequest = Property.ofValue(60);
+
+    @Schema(title = "Max devices polled at once", description = "Number of devices with requests in flight; defaults to 100")
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    protected Property<Integer> concurrency = Property.ofValue(100);
+
+    @Schema(title = "Snapshot KV key", description = "KV key holding the last polled values; defaults to one key per flow and trigger, `snmp_poll_<flowId>_<triggerId>`")
+    @PluginProperty(group = "advanced")
+    protected Property<String> snapshotKey;
+
+    @Override
+    public Optional<Execution> evaluate(ConditionContext conditionContext, TriggerContext context) throws Exception {
+        RunContext runContext = conditionContext.getRunContext();
+        var rDevices = runContext.render(this.devices).asList(Device.class);
+        var rTransport = SnmpTransport.fromString(runContext.render(this.transport).as(String.class).orElse("udp"));
+        var rLocalAddress = runContext.render(this.localAddress).as(String.class).orElse(null);
+        var rPort = runContext.render(this.port).as(Integer.class).orElse(rTransport.port(161));
+        var rVersion = SnmpVersion.fromString(runContext.render(this.snmpVersion).as(String.class).orElse("v2c"));
+        var rCommunity = runContext.render(this.community).as(String.class).orElse("public");
+        var rV3 = runContext.render(this.v3).as(AbstractSnmpTask.V3Security.class).orElse(null);
+        var rTimeout = runContext.render(this.timeoutMs).as(Integer.class).orElse(1500);
+        var rRetries = runContext.render(this.retries).as(Integer.class).orElse(1);
+        var rMaxRepetitions = runContext.render(this.maxRepetitions).as(Integer.class).orElse(25);
+        var rConcurrency = runContext.render(this.concurrency).as(Integer.class).orElse(100);
+        var rOnChange = runContext.render(this.onChange).as(Boolean.class).orElse(true);
+        var rMaxMessageSize = runContext.render(this.maxMessageSize).as(Integer.class).orElse(1472);
+        var rMaxVarBinds = runContext.render(this.maxVarBindsPerRequest).as(Integer.class).orElse(60);
+
+        List<VariableBinding> get = runContext.render(this.oids).asList(String.class).stream()
+            .map(oid -> new VariableBinding(PduTemplate.oid(oid)))
+            .toList();
+        OID[] roots = runContext.render(this.walk).asList(String.class).stream()
+            .map(PduTemplate::oid)
+            .toArray(OID[]::new);
+        List<PollSnapshot.Threshold> rThresholds = runContext.render(this.thresholds).asList(Threshold.class).stream()
+            .map(t -> new PollSnapshot.Threshold(PduTemplate.oid(t.getOid()), t.getValue()))
+            .toList();
+        if (get.isEmpty() && roots.length == 0) {
+            throw new IllegalArgumentException("`oids` or `walk` is required");
+        }
+
+        String snapshotKey = snapshotKey(runContext, context);
+        CachedSnapshot cached = snapshot(runContext, context, snapshotKey);
+        PollSnapshot snapshot = cached.snapshot;
+        snapshot.nextPoll();
+
+        SnmpMetrics metrics = new SnmpMetrics(rVersion, null);
+        List<List<PollSnapshot.Diff>> diffs = new ArrayList<>(Collections.nCopies(rDevices.size(), List.of()));
+        List<Future<List<PollSnapshot.Diff>>> futures = new ArrayList<>(rDevices.size());
+        Semaphore permits = new Semaphore(Math.max(1, rConcurrency));
+        int failed = 0;
+        long start = System.nanoTime();
+
+        try (
+            var lease = AbstractSnmpTask.borrowSession(runContext, rTransport, rLocalAddress, rVersion, rV3);
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()
+        ) {
+            for (Device device : rDevices) {
+                int port = device.getPort() != null ? device.getPort() : rPort;
+                permits.acquire();
+                futures.add(executor.submit(() -> {
+                    try {
+                        Target<?> target = rVersion.requestTarget(runContext, lease.getSnmp(), rTransport.address(device.getHost(), port), rTimeout, rRetries, rCommunity, rV3);
+                        try (var session = new AbstractSnmpRequestTask.RequestSession(lease.share(), rVersion, target, rMaxMessageSize, rMaxVarBinds, metrics, null)) {
+                            List<VariableBinding> bindings = poll(session, get, roots, rMaxRepetitions);
+                            return snapshot.apply(device.getHost() + "/" + port, bindings, rThresholds, rOnChange);
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    diffs.set(i, futures.get(i).get());
+                } catch (Exception e) {
+                    failed++;
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    runContext.logger().warn("Unable to poll {}: {}", rDevices.get(i).getHost(), cause.getMessage());
+                }
+            }
+        } finally {
+            metrics.publish(runContext);
+        }
+
+        if (snapshot.isDirty()) {
+            String encoded = Base64.getEncoder().encodeToString(snapshot.encode());
+            runContext.namespaceKv(context.getNamespace()).put(
+                snapshotKey,
+                new KVValueAndMetadata(new KVMetadata("Last SNMP polled values", (Duration) null), encoded)
+            );
+            cached.encoded = encoded;
+        }
+
+        List<Change> changes = new ArrayList<>();
+        for (int i = 0; i < rDevices.size(); i++) {
+            Device device = rDevices.get(i);
+            int port = device.getPort() != null ? device.getPort() : rPort;
+            for (PollSnapshot.Diff diff : diffs.get(i)) {
+                changes.add(Change.of(device.getHost(), port, diff));
+            }
+        }
+
+        runContext.logger().debug(
+            "Polled {} device(s) in {}, {} change(s), {} failed",
+            rDevices.size(), Duration.ofNanos(System.nanoTime() - start), changes.size(), failed
+        );
+        if (changes.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Output output = Output.builder()
+            .changes(changes)
+            .count(changes.size())
+            .failed(failed)
+            .date(Instant.now())
+            .build();
+
+        return Optional.of(TriggerService.generateExecution(this, conditionContext, context, output));
+    }
+
+    private static List<VariableBinding> poll(AbstractSnmpRequestTask.RequestSession session, List<VariableBinding> get, OID[] roots, int maxRepetitions) throws Exception {
+        List<VariableBinding> bindings = new ArrayList<>();
+        if (!get.isEmpty()) {
+            bindings.addAll(session.request(PDU.GET, get, true));
+        }
+
+        // walked like Walk does, so that the requests are measured, shrunk when tooBig and end on a v1 noSuchName
+        for (OID root : roots) {
+            OID cursor = root;
+            while (cursor != null) {
+                OID last = cursor;
+                cursor = null;
+                for (VariableBinding binding : session.next(List.of(last), maxRepetitions)) {
+                    if (binding.getVariable().isException() || !binding.getOid().startsWith(root) || binding.getOid().compareTo(last) <= 0) {
+                        cursor = null;
+                        break;
+                    }
+                    bindings.add(binding);
+                    last = binding.getOid();
+                    cursor = last;
+                }
+            }
+        }
+        return bindings;
+    }
+
+    /**
+     * The snapshot of this trigger kept on the worker, as long as the KV store still holds what it last saved or
+     * loaded; otherwise the one in the KV store, or an empty one when the key was deleted to reset the baseline.
+     * Snapshots of triggers no longer evaluated for 10 intervals are dropped from the worker.
+     */
+    private CachedSnapshot snapshot(RunContext runContext, TriggerContext context, String snapshotKey) throws Exception {
+        long now = System.nanoTime();
+        SNAPSHOTS.values().removeIf(cached -> now - cached.lastUsed > cached.abandonAfter);
+
+        String key = context.getNamespace() + "/" + context.getFlowId() + "/" + context.getTriggerId() + "/" + snapshotKey;
+        String stored = runContext.namespaceKv(context.getNamespace()).getValue(snapshotKey)
+            .map(value -> value.value().toString())
+            .orElse(null);
+
+        CachedSnapshot cached = SNAPSHOTS.get(key);
+        if (cached == null || !Objects.equals(cached.encoded, stored)) {
+            PollSnapshot snapshot = stored != null ? PollSnapshot.decode(Base64.getDecoder().decode(stored)) : new PollSnapshot();
+            cached = new CachedSnapshot(snapshot, stored, this.interval.multipliedBy(10).toNanos());
+            SNAPSHOTS.put(key, cached);
+        }
+        cached.lastUsed = now;
+        return cached;
+    }
+
+    private String snapshotKey(RunContext runContext, TriggerContext context) throws IllegalVariableEvaluationException {
+        return runContext.render(this.snapshotKey).as(String.class)
+            .orElseGet(() -> ("snmp_poll_" + context.getFlowId() + "_" + context.getTriggerId()).replaceAll("[^a-zA-Z0-9_.-]", "_"));
+    }
+
+    private static final class CachedSnapshot {
+        private final PollSnapshot snapshot;
+        private final long abandonAfter;
+        // the KV value the snapshot was last loaded from or saved to
+        private volatile String encoded;
+        private volatile long lastUsed;
+
+        private CachedSnapshot(PollSnapshot snapshot, String encoded, long abandonAfter) {
+            this.snapshot = snapshot;
+            this.encoded = encoded;
+            this.abandonAfter = abandonAfter;
+        }
+    }
+
+    @Builder
+    @Getter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Device {
+        @NotNull
+        @Schema(title = "Host", description = "Hostname or IP of the agent")
+        @PluginProperty(group = "connection")
+        private String host;
+
+        @Schema(title = "Port", description = "Agent port; defaults to the trigger `port`")
+        @PluginProperty(group = "connection")
+        private Integer port;
+    }
+
+    @Builder
+    @Getter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Threshold {
+        @NotNull
+        @Schema(title = "OID", description = "Numeric or symbolic OID of the rows the threshold applies to, e.g. a column or a single instance")
+        @PluginProperty(group = "main")
+        private String oid;
+
+        @NotNull
+        @Schema(title = "Value", description = "A crossing is reported when a row goes from at most this value to above it, or back")
+        @PluginProperty(group = "main")
+        private Double value;
+    }
+
+    @Builder
+    @Getter
+    public static class Change {
+        @Schema(title = "Device host")
+        private final String host;
+
+        @Schema(title = "Device port")
+        private final int port;
+
+        @Schema(title = "OID", description = "Numeric OID of the row")
+        private final String oid;
+
+        @Schema(title = "Name", description = "OID translated by the bundled MIBs; null when none defines it")
+        private final String name;
+
+        @Schema(title = "SMI type")
+        private final String type;
+
+        @Schema(title = "Value", description = "Numbers for integer types, text for everything else")
+        private final Object value;
+
+        @Schema(title = "Previous value", description = "Value at the previous poll, only kept for numbers")
+        private final Double previous;
+
+        @Schema(title = "Threshold crossed", description = "Null for a change that crossed no threshold")
+        private final Double threshold;
+
+        @Schema(title = "Direction", description = "RISING when the value went above `threshold`, FALLING when it went back to it or below; null for a change that crossed no threshold")
+        private final String direction;
+
+        static Change of(String host, int port, PollSnapshot.Diff diff) {
+            SnmpValue value = SnmpValue.of(diff.binding());
+            return Change.builder()
+                .host(host)
+                .port(port)
+                .oid(value.getOid())
+                .name(value.getName())
+                .type(value.getType())
+                .value(value.getValue())
+                .previous(Double.isNaN(diff.previous()) ? null : diff.previous())
+                .threshold(diff.threshold())
+                .direction(diff.rising() == null ? null : diff.rising() ? "RISING" : "FALLING")
+                .build();
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Changed rows", description = "Rows that changed or crossed a threshold since the previous poll, by device in `devices` order")
+        private final List<Change> changes;
+
+        @Schema(title = "Number of changed rows")
+        private final int count;
+
+        @Schema(title = "Number of devices that could not be polled")
+        private final int failed;
+
+        @Schema(title = "Poll date")
+        private final Instant date;
+    }
+}
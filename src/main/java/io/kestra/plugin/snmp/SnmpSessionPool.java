@@ -0,0 +1,309 @@
+package io.kestra.plugin.snmp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.snmp4j.Snmp;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Worker-wide pool of listening {@link Snmp} sessions.
+ * <p>
+ * Opening a session binds a socket and starts a listener thread, which is more expensive than sending a single PDU.
+ * Sessions are therefore kept alive across task runs, keyed by transport, local bind address and security
+ * configuration; over TCP, TLS and DTLS, this also keeps their connections open. A {@link Snmp} instance is
+ * thread-safe, so one pooled session is shared by every concurrent borrower with the same key; it is only closed once
+ * it has been idle longer than the idle timeout, or when the pool has to make room for a new key. Closing the pool stops
+ * its sweeper thread and closes its sessions, the borrowed ones once given back; the worker-wide pool is never closed.
+ */
+public final class SnmpSessionPool implements Closeable {
+    static final int DEFAULT_MAX_SIZE = 64;
+    static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final SnmpSessionPool INSTANCE = new SnmpSessionPool(DEFAULT_MAX_SIZE, DEFAULT_IDLE_TIMEOUT);
+
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+
+    // access-ordered so that iteration yields the least recently used session first
+    private final LinkedHashMap<Key, Entry> sessions = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final ScheduledExecutorService sweeper;
+
+    SnmpSessionPool(int maxSize, Duration idleTimeout) {
+        this.maxSize = maxSize;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "snmp-session-pool-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, idleTimeout.toSeconds() / 2);
+        sweeper.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.SECONDS);
+    }
+
+    public static SnmpSessionPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Borrow a listening session for the given key, opening one if none is pooled yet.
+     * The returned lease must be closed to give the session back.
+     */
+    public Lease borrow(Key key) throws IOException {
+        List<Snmp> evicted;
+        synchronized (this) {
+            Entry entry = sessions.get(key);
+            if (entry != null) {
+                entry.borrowers++;
+                hits.incrementAndGet();
+                return new Lease(this, key, entry, true, 0);
+            }
+            evicted = evictIdle(System.nanoTime(), maxSize - 1);
+        }
+        // closing joins the listener thread of the session, which must not stall other borrowers
+        evicted.forEach(SnmpSessionPool::closeQuietly);
+
+        misses.incrementAndGet();
+        Snmp snmp = open(key);
+
+        Entry existing;
+        synchronized (this) {
+            existing = sessions.get(key);
+            if (existing == null) {
+                Entry entry = new Entry(snmp, sessions.size() < maxSize);
+                entry.borrowers++;
+                if (entry.pooled) {
+                    sessions.put(key, entry);
+                }
+                return new Lease(this, key, entry, false, evicted.size());
+            }
+            existing.borrowers++;
+        }
+
+        // lost the race against a concurrent borrower, keep the session that is already pooled
+        closeQuietly(snmp);
+        return new Lease(this, key, existing, false, evicted.size());
+    }
+
+    public Stats stats() {
+        synchronized (this) {
+            return Stats.builder()
+                .size(sessions.size())
+                .hits(hits.get())
+                .misses(misses.get())
+                .evictions(evictions.get())
+                .build();
+        }
+    }
+
+    /**
+     * Stop sweeping and close every idle session; borrowed sessions are closed when their last lease is.
+     */
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+
+        List<Snmp> closed = new ArrayList<>();
+        synchronized (this) {
+            for (Entry entry : sessions.values()) {
+                entry.pooled = false;
+                if (entry.borrowers == 0) {
+                    closed.add(entry.snmp);
+                }
+            }
+            sessions.clear();
+        }
+        closed.forEach(SnmpSessionPool::closeQuietly);
+    }
+
+    private Snmp open(Key key) throws IOException {
+        SnmpTransport transport = SnmpTransport.fromString(key.transport());
+
+        // connections of the session stay open as long as the session itself would when idle
+        Snmp snmp = SnmpV3Security.newSession(
+            transport.mapping(key.localAddress(), TimeUnit.NANOSECONDS.toMillis(idleTimeoutNanos)),
+            transport.isSecure()
+        );
+        try {
+            snmp.listen();
+        } catch (IOException e) {
+            snmp.close();
+            throw e;
+        }
+        return snmp;
+    }
+
+    private void release(Key key, Entry entry) throws IOException {
+        boolean close;
+        synchronized (this) {
+            entry.borrowers--;
+            entry.lastReleased = System.nanoTime();
+            close = !entry.pooled && entry.borrowers == 0;
+        }
+
+        if (close) {
+            entry.snmp.close();
+        }
+    }
+
+    private void evictIdle() {
+        List<Snmp> evicted;
+        synchronized (this) {
+            evicted = evictIdle(System.nanoTime(), maxSize);
+        }
+        evicted.forEach(SnmpSessionPool::closeQuietly);
+    }
+
+    /**
+     * Remove every session idle for longer than the idle timeout, then the least recently used idle sessions until at
+     * most {@code targetSize} remain. Must be called while holding the pool monitor; the returned sessions are no
+     * longer reachable from the pool and must be closed by the caller once it has released the monitor.
+     */
+    private List<Snmp> evictIdle(long now, int targetSize) {
+        List<Snmp> evicted = new ArrayList<>();
+        Iterator<Map.Entry<Key, Entry>> it = sessions.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next().getValue();
+            if (entry.borrowers > 0) {
+                continue;
+            }
+
+            if (now - entry.lastReleased > idleTimeoutNanos || sessions.size() > targetSize) {
+                it.remove();
+                entry.pooled = false;
+                evicted.add(entry.snmp);
+            }
+        }
+
+        evictions.addAndGet(evicted.size());
+        return evicted;
+    }
+
+    private static void closeQuietly(Snmp snmp) {
+        try {
+            snmp.close();
+        } catch (IOException ignored) {
+            // the socket is being discarded anyway
+        }
+    }
+
+    /**
+     * Identity of a pooled session.
+     *
+     * @param transport transport scheme, see {@link SnmpTransport#getScheme()}
+     * @param localAddress local bind address, {@code null} to bind any address on an ephemeral port
+     * @param security fingerprint of the session-level security configuration, see {@link #fingerprint(String...)}
+     */
+    public record Key(String transport, String localAddress, String security) {
+        /**
+         * One-way digest of security material so that credentials never end up in a map key or a log line.
+         */
+        public static String fingerprint(String... parts) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (String part : parts) {
+                    if (part != null) {
+                        digest.update(part.getBytes(StandardCharsets.UTF_8));
+                    }
+                    digest.update((byte) 0);
+                }
+                return HexFormat.of().formatHex(digest.digest());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Snmp snmp;
+        private boolean pooled;
+        private int borrowers;
+        private long lastReleased = System.nanoTime();
+
+        private Entry(Snmp snmp, boolean pooled) {
+            this.snmp = snmp;
+            this.pooled = pooled;
+        }
+    }
+
+    /**
+     * A borrowed session; closing it returns the session to the pool.
+     */
+    public static final class Lease implements AutoCloseable {
+        private final SnmpSessionPool pool;
+        @Getter
+        private final Key key;
+        private final Entry entry;
+        @Getter
+        private final boolean hit;
+        @Getter
+        private final long evicted;
+        private boolean released;
+
+        private Lease(SnmpSessionPool pool, Key key, Entry entry, boolean hit, long evicted) {
+            this.pool = pool;
+            this.key = key;
+            this.entry = entry;
+            this.hit = hit;
+            this.evicted = evicted;
+        }
+
+        public Snmp getSnmp() {
+            return entry.snmp;
+        }
+
+        /**
+         * Borrow the same session once more, e.g. to hand it over to a component that closes its own lease.
+         */
+        public Lease share() {
+            synchronized (pool) {
+                if (released) {
+                    throw new IllegalStateException("Lease already released");
+                }
+                entry.borrowers++;
+            }
+            return new Lease(pool, key, entry, true, 0);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!released) {
+                released = true;
+                pool.release(key, entry);
+            }
+        }
+    }
+
+    @Builder
+    @Getter
+    @AllArgsConstructor
+    public static class Stats {
+        private final int size;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+    }
+}
@@ -0,0 +1,112 @@
+package io.kestra.plugin.snmp;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.snmp4j.TransportMapping;
+import org.snmp4j.smi.Address;
+import org.snmp4j.smi.DtlsAddress;
+import org.snmp4j.smi.TcpAddress;
+import org.snmp4j.smi.TlsAddress;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.transport.DTLSTM;
+import org.snmp4j.transport.DefaultTcpTransportMapping;
+import org.snmp4j.transport.DefaultUdpTransportMapping;
+import org.snmp4j.transport.TLSTM;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Transport of the SNMP messages sent by the tasks.
+ * <p>
+ * Connection-oriented transports keep their connections open for as long as the pooled session that owns them, so
+ * that consecutive task runs to the same agent or manager reuse an established (and, for TLS/DTLS, already
+ * handshaken) connection. TLS and DTLS carry SNMPv3 with the transport security model (RFC 6353), which takes its
+ * certificates from the worker JVM key and trust stores ({@code javax.net.ssl.*} system properties).
+ */
+@Getter
+@AllArgsConstructor
+public enum SnmpTransport {
+    UDP("udp", false),
+    TCP("tcp", false),
+    TLS("tls", true),
+    DTLS("dtls", true);
+
+    // offset of the RFC 6353 ports (10161, 10162) from the standard ones (161, 162)
+    private static final int SECURE_PORT_OFFSET = 10_000;
+
+    private final String scheme;
+    private final boolean secure;
+
+    public Address address(String host, int port) {
+        String address = host + "/" + port;
+        return switch (this) {
+            case UDP -> new UdpAddress(address);
+            case TCP -> new TcpAddress(address);
+            case TLS -> new TlsAddress(address);
+            case DTLS -> new DtlsAddress(address);
+        };
+    }
+
+    /**
+     * The port to use when none is set, given the standard UDP port of the operation (161 or 162).
+     */
+    public int port(int standardPort) {
+        return secure ? standardPort + SECURE_PORT_OFFSET : standardPort;
+    }
+
+    /**
+     * Fail when this transport cannot carry the given SNMP version, before anything is sent.
+     */
+    public void validate(SnmpVersion version) {
+        if (secure && version != SnmpVersion.V3) {
+            throw new IllegalArgumentException(scheme + " transport supported only for v3.");
+        }
+    }
+
+    /**
+     * Create a transport mapping bound to the given local address, or to any address on an ephemeral port when null.
+     *
+     * @param connectionTimeoutMs idle time after which a connection is closed, 0 to keep it until the mapping is
+     *                            closed; ignored by connectionless transports
+     */
+    TransportMapping<?> mapping(String localAddress, long connectionTimeoutMs) throws IOException {
+        return switch (this) {
+            case UDP -> localAddress == null
+                ? new DefaultUdpTransportMapping()
+                : new DefaultUdpTransportMapping(new UdpAddress(localAddress));
+            case TCP -> {
+                DefaultTcpTransportMapping tcp = localAddress == null
+                    ? new DefaultTcpTransportMapping()
+                    : new DefaultTcpTransportMapping(new TcpAddress(localAddress));
+                tcp.setConnectionTimeout(connectionTimeoutMs);
+                yield tcp;
+            }
+            case TLS -> {
+                TLSTM tls = localAddress == null
+                    ? new TLSTM()
+                    : new TLSTM(new TlsAddress(localAddress));
+                tls.setConnectionTimeout(connectionTimeoutMs);
+                yield tls;
+            }
+            case DTLS -> localAddress == null
+                ? new DTLSTM()
+                : new DTLSTM(new DtlsAddress(localAddress));
+        };
+    }
+
+    /**
+     * Whether messages to this address are secured by the transport (TLS or DTLS) rather than by USM.
+     */
+    public static boolean isSecure(Address address) {
+        return address instanceof TlsAddress || address instanceof DtlsAddress;
+    }
+
+    public static SnmpTransport fromString(String s) {
+        return Arrays.stream(values())
+            .filter(t -> t.scheme.equalsIgnoreCase(s))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unsupported transport: " + s));
+    }
+}
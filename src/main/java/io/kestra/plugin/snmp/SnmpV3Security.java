@@ -0,0 +1,201 @@
+package io.kestra.plugin.snmp;
+
+import org.snmp4j.MessageDispatcher;
+import org.snmp4j.MessageDispatcherImpl;
+import org.snmp4j.Snmp;
+import org.snmp4j.TransportMapping;
+import org.snmp4j.UserTarget;
+import org.snmp4j.mp.CounterSupport;
+import org.snmp4j.mp.MPv1;
+import org.snmp4j.mp.MPv2c;
+import org.snmp4j.mp.MPv3;
+import org.snmp4j.security.SecurityModel;
+import org.snmp4j.security.SecurityModels;
+import org.snmp4j.security.SecurityProtocols;
+import org.snmp4j.security.TSM;
+import org.snmp4j.security.USM;
+import org.snmp4j.security.UsmTimeEntry;
+import org.snmp4j.security.UsmUser;
+import org.snmp4j.smi.Address;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+
+/**
+ * SNMPv3 user-based security shared by every session of a worker.
+ * <p>
+ * Sessions never touch the JVM-wide {@link org.snmp4j.security.SecurityModels} singleton: each one gets its own
+ * {@link USM} bound to a single local engine ID that is generated once per worker. Localized auth/privacy keys
+ * (an expensive password-to-key derivation) are cached per user, engine and protocols, and the authoritative engine
+ * ID, boots and time of every remote engine discovered while sending an INFORM are cached per address so that later
+ * sends, even from a freshly opened session, skip the discovery round trip. Both caches are bounded {@link LruCache}s,
+ * so a worker talking to more engines than they hold only drops the coldest entries.
+ */
+public final class SnmpV3Security {
+    private static final int MAX_CACHE_SIZE = 10_000;
+
+    private static final OctetString LOCAL_ENGINE_ID = new OctetString(MPv3.createLocalEngineID());
+
+    private static final LruCache<LocalizedKeyId, byte[]> LOCALIZED_KEYS = new LruCache<>(MAX_CACHE_SIZE);
+    private static final LruCache<Address, RemoteEngine> REMOTE_ENGINES = new LruCache<>(MAX_CACHE_SIZE);
+
+    private SnmpV3Security() {
+    }
+
+    public static OctetString localEngineId() {
+        return LOCAL_ENGINE_ID;
+    }
+
+    /**
+     * Create a session whose v3 message processing uses a private {@link USM} instead of the global security models.
+     */
+    public static Snmp newSession(TransportMapping<?> transport) {
+        return newSession(transport, false);
+    }
+
+    /**
+     * Create a session as {@link #newSession(TransportMapping)}, with the transport security model as well when the
+     * transport is TLS or DTLS.
+     */
+    public static Snmp newSession(TransportMapping<?> transport, boolean tsm) {
+        return new Snmp(newDispatcher(tsm), transport);
+    }
+
+    /**
+     * Create a message dispatcher for v1, v2c and v3, the latter with a private {@link USM} (and {@link TSM}).
+     */
+    public static MessageDispatcher newDispatcher() {
+        return newDispatcher(false);
+    }
+
+    /**
+     * Create a message dispatcher as {@link #newDispatcher()}, with the {@link TSM} as well when {@code tsm} is set.
+     */
+    static MessageDispatcher newDispatcher(boolean tsm) {
+        USM usm = new USM(SecurityProtocols.getInstance(), LOCAL_ENGINE_ID, 0);
+        SecurityModels models = tsm
+            ? SecurityModels.getCollection(new SecurityModel[] { usm, new TSM(LOCAL_ENGINE_ID, false) })
+            : SecurityModels.getCollection(new SecurityModel[] { usm });
+
+        MessageDispatcher dispatcher = new MessageDispatcherImpl();
+        dispatcher.addMessageProcessingModel(new MPv1());
+        dispatcher.addMessageProcessingModel(new MPv2c());
+        dispatcher.addMessageProcessingModel(new MPv3(LOCAL_ENGINE_ID.getValue(), 0, SecurityProtocols.getInstance(), models, CounterSupport.getInstance()));
+        return dispatcher;
+    }
+
+    /**
+     * An unlocalized user; snmp4j localizes its keys for each engine it talks to.
+     */
+    public static UsmUser usmUser(AbstractSnmpTask.V3Security sec) {
+        return new UsmUser(
+            new OctetString(sec.getUsername()),
+            AbstractSnmpTask.AuthProtocol.fromString(sec.getAuthProtocol()),
+            sec.getAuthPassword() != null ? new OctetString(sec.getAuthPassword()) : null,
+            AbstractSnmpTask.PrivProtocol.fromString(sec.getPrivProtocol()),
+            sec.getPrivPassword() != null ? new OctetString(sec.getPrivPassword()) : null
+        );
+    }
+
+    /**
+     * Register the user on the session with keys localized for the given authoritative engine.
+     */
+    public static void addLocalizedUser(Snmp snmp, AbstractSnmpTask.V3Security sec, OctetString engineId) {
+        OctetString userName = new OctetString(sec.getUsername());
+        OID authProtocol = AbstractSnmpTask.AuthProtocol.fromString(sec.getAuthProtocol());
+        OID privProtocol = AbstractSnmpTask.PrivProtocol.fromString(sec.getPrivProtocol());
+
+        byte[] authKey = null;
+        if (authProtocol != null && sec.getAuthPassword() != null) {
+            authKey = localizedKey(engineId, sec.getUsername(), authProtocol, null, sec.getAuthPassword());
+        }
+
+        byte[] privKey = null;
+        if (authProtocol != null && privProtocol != null && sec.getPrivPassword() != null) {
+            privKey = localizedKey(engineId, sec.getUsername(), authProtocol, privProtocol, sec.getPrivPassword());
+        }
+
+        snmp.getUSM().addLocalizedUser(engineId.getValue(), userName, authProtocol, authKey, privProtocol, privKey);
+    }
+
+    /**
+     * Prepare a session and target for sending to a remote authoritative engine (INFORM, GET, ...).
+     * <p>
+     * When the remote engine is already known, the localized user, engine ID and engine time are seeded so that the
+     * first request is accepted without discovery. Otherwise the user is registered unlocalized and snmp4j
+     * discovers the engine on first send; call {@link #remember(Snmp, Address)} afterward to cache it.
+     */
+    public static void prepareRemote(Snmp snmp, UserTarget<?> target, AbstractSnmpTask.V3Security sec) {
+        RemoteEngine remote = REMOTE_ENGINES.get(target.getAddress());
+        if (remote == null) {
+            snmp.getUSM().addUser(new OctetString(sec.getUsername()), usmUser(sec));
+            return;
+        }
+
+        addLocalizedUser(snmp, sec, remote.engineId());
+
+        MPv3 mpv3 = (MPv3) snmp.getMessageProcessingModel(MPv3.ID);
+        mpv3.addEngineID(target.getAddress(), remote.engineId());
+
+        USM usm = snmp.getUSM();
+        if (usm.getTimeTable().getEntry(remote.engineId()) == null) {
+            UsmTimeEntry entry = new UsmTimeEntry(remote.engineId(), remote.engineBoots(), 0);
+            entry.setTimeDiff(remote.timeDiff());
+            usm.getTimeTable().addEntry(entry);
+        }
+
+        target.setAuthoritativeEngineID(remote.engineId().getValue());
+    }
+
+    /**
+     * Cache the authoritative engine ID, boots and time the session learned about the given address.
+     */
+    public static void remember(Snmp snmp, Address address) {
+        MPv3 mpv3 = (MPv3) snmp.getMessageProcessingModel(MPv3.ID);
+        OctetString engineId = mpv3.getEngineID(address);
+        if (engineId == null || engineId.length() == 0) {
+            return;
+        }
+
+        UsmTimeEntry entry = snmp.getUSM().getTimeTable().getEntry(engineId);
+        if (entry == null) {
+            return;
+        }
+
+        REMOTE_ENGINES.put(address, new RemoteEngine(engineId, entry.getEngineBoots(), entry.getTimeDiff()));
+    }
+
+    /**
+     * Drop the cached engine of an address, e.g. after the remote engine rebooted and rejected our cached time.
+     */
+    public static void forget(Address address) {
+        REMOTE_ENGINES.remove(address);
+    }
+
+    static byte[] localizedKey(OctetString engineId, String username, OID authProtocol, OID privProtocol, String password) {
+        LocalizedKeyId id = new LocalizedKeyId(
+            engineId.toHexString(),
+            username,
+            authProtocol,
+            privProtocol,
+            SnmpSessionPool.Key.fingerprint(password)
+        );
+
+        byte[] key = LOCALIZED_KEYS.get(id);
+        if (key == null) {
+            // derived outside the cache lock; concurrent callers may both derive the same key, which is harmless
+            SecurityProtocols protocols = SecurityProtocols.getInstance();
+            OctetString secret = new OctetString(password);
+            key = privProtocol == null
+                ? protocols.passwordToKey(authProtocol, secret, engineId.getValue())
+                : protocols.passwordToKey(privProtocol, authProtocol, secret, engineId.getValue());
+            LOCALIZED_KEYS.put(id, key);
+        }
+        return key;
+    }
+
+    private record LocalizedKeyId(String engineId, String username, OID authProtocol, OID privProtocol, String secret) {
+    }
+
+    private record RemoteEngine(OctetString engineId, int engineBoots, int timeDiff) {
+    }
+}
@@ -0,0 +1,78 @@
+package io.kestra.plugin.snmp;
+
+import org.snmp4j.smi.Counter64;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.UnsignedInteger32;
+import org.snmp4j.smi.Variable;
+import org.snmp4j.smi.VariableBinding;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A varbind received from an agent, as exposed in task outputs and stored files.
+ */
+@Builder(toBuilder = true)
+@Getter
+@ToString
+@AllArgsConstructor
+public class SnmpValue {
+    @Schema(title = "OID", description = "Numeric OID of the varbind")
+    private final String oid;
+
+    @Schema(title = "Name", description = "OID translated by the bundled MIBs and those of the task, e.g. IF-MIB::ifOperStatus.3; null when none defines it")
+    private final String name;
+
+    @Schema(title = "SMI type", description = "Syntax of the value, e.g. Integer32, Counter64, OCTET STRING, or noSuchObject/noSuchInstance/endOfMibView when the agent has no value")
+    private final String type;
+
+    @Schema(title = "Value", description = "Numbers for integer types, text for everything else; null for exceptions")
+    private final Object value;
+
+    @Schema(title = "Counter delta", description = "Increase of a Counter32/Counter64 since the previous poll, wraparound included; only set when rates are computed")
+    private final Long delta;
+
+    @Schema(title = "Counter rate", description = "Per-second increase of a Counter32/Counter64 since the previous poll; only set when rates are computed")
+    private final Double rate;
+
+    public SnmpValue(String oid, String type, Object value) {
+        this(oid, null, type, value, null, null);
+    }
+
+    public static SnmpValue of(VariableBinding binding) {
+        return of(binding, MibIndex.getInstance());
+    }
+
+    /**
+     * The value of a varbind, named through the given MIB index.
+     */
+    static SnmpValue of(VariableBinding binding, MibIndex mibs) {
+        Variable variable = binding.getVariable();
+        return SnmpValue.builder()
+            .oid(binding.getOid().toDottedString())
+            .name(mibs.name(binding.getOid()))
+            .type(variable.getSyntaxString())
+            .value(toJava(variable))
+            .build();
+    }
+
+    static Object toJava(Variable variable) {
+        if (variable.isException()) {
+            return null;
+        }
+        if (variable instanceof Integer32 integer) {
+            return integer.getValue();
+        }
+        if (variable instanceof UnsignedInteger32 unsigned) {
+            return unsigned.getValue();
+        }
+        if (variable instanceof Counter64 counter) {
+            long value = counter.getValue();
+            return value >= 0 ? (Object) value : Long.toUnsignedString(value);
+        }
+        return variable.toString();
+    }
+}
@@ -1,26 +1,22 @@
 package io.kestra.plugin.snmp;
 
+import java.lang.management.ManagementFactory;
 import java.util.Arrays;
 import java.util.List;
 
+import org.snmp4j.CertifiedTarget;
 import org.snmp4j.CommunityTarget;
 import org.snmp4j.PDU;
 import org.snmp4j.ScopedPDU;
 import org.snmp4j.Snmp;
 import org.snmp4j.Target;
 import org.snmp4j.UserTarget;
-import org.snmp4j.mp.MPv3;
 import org.snmp4j.mp.SnmpConstants;
-import org.snmp4j.security.SecurityModels;
-import org.snmp4j.security.SecurityProtocols;
-import org.snmp4j.security.USM;
-import org.snmp4j.security.UsmUser;
+import org.snmp4j.security.SecurityLevel;
 import org.snmp4j.smi.Address;
-import org.snmp4j.smi.Counter64;
-import org.snmp4j.smi.Gauge32;
-import org.snmp4j.smi.Integer32;
 import org.snmp4j.smi.OID;
 import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.TimeTicks;
 import org.snmp4j.smi.Variable;
 import org.snmp4j.smi.VariableBinding;
 
@@ -35,95 +31,140 @@ import lombok.Getter;
 public enum SnmpVersion {
     V1(SnmpConstants.version1) {
         @Override
-        public Built build(RunContext runContext, Address addr, int timeout, String trapOid, List<AbstractSnmpTask.VarBind> bindings, AbstractSnmpTask.V3Security sec, String community,
-            Snmp snmp) throws IllegalVariableEvaluationException {
-            PDU pdu = new PDU();
-            pdu.setType(PDU.TRAP);
-            addBindings(runContext, pdu, bindings);
+        public Built build(RunContext runContext, int type, Address addr, int timeout, int retries, OID trapOid, List<VariableBinding> bindings,
+            AbstractSnmpTask.V3Security sec, String community, Snmp snmp) throws IllegalVariableEvaluationException {
+            validate(type);
 
-            CommunityTarget target = new CommunityTarget();
-            target.setAddress(addr);
-            target.setCommunity(new OctetString(community));
-            target.setRetries(0);
-            target.setTimeout(timeout);
-            target.setVersion(SnmpConstants.version1);
+            PDU pdu = pdu(PDU.TRAP);
+            addBindings(pdu, bindings);
 
-            return new Built(target, pdu);
+            return new Built(target(addr, timeout, 0, community, sec), pdu);
         }
     },
     V2C(SnmpConstants.version2c) {
         @Override
-        public Built build(RunContext runContext, Address addr, int timeout, String trapOid, List<AbstractSnmpTask.VarBind> bindings, AbstractSnmpTask.V3Security sec, String community,
-            Snmp snmp) throws IllegalVariableEvaluationException {
-            PDU pdu = new PDU();
-            pdu.setType(PDU.TRAP);
-            addBindings(runContext, pdu, bindings);
-            pdu.add(new VariableBinding(SnmpConstants.snmpTrapOID, new OID(trapOid)));
-
-            CommunityTarget target = new CommunityTarget();
-            target.setAddress(addr);
-            target.setCommunity(new OctetString(community));
-            target.setRetries(0);
-            target.setTimeout(timeout);
-            target.setVersion(SnmpConstants.version2c);
+        public Built build(RunContext runContext, int type, Address addr, int timeout, int retries, OID trapOid, List<VariableBinding> bindings,
+            AbstractSnmpTask.V3Security sec, String community, Snmp snmp) throws IllegalVariableEvaluationException {
+            validate(type);
+
+            PDU pdu = pdu(type);
+            addNotificationBindings(pdu, trapOid, bindings);
 
-            return new Built(target, pdu);
+            return new Built(target(addr, timeout, type == PDU.INFORM ? retries : 0, community, sec), pdu);
         }
     },
     V3(SnmpConstants.version3) {
         @Override
-        public Built build(RunContext runContext, Address addr, int timeout, String trapOid, List<AbstractSnmpTask.VarBind> bindings, AbstractSnmpTask.V3Security sec, String community,
-            Snmp snmp) throws IllegalVariableEvaluationException {
+        public Built build(RunContext runContext, int type, Address addr, int timeout, int retries, OID trapOid, List<VariableBinding> bindings,
+            AbstractSnmpTask.V3Security sec, String community, Snmp snmp) throws IllegalVariableEvaluationException {
+            validate(type);
             if (sec == null)
                 throw new IllegalArgumentException("v3 settings required");
 
-            USM usm = new USM(SecurityProtocols.getInstance(), new OctetString(MPv3.createLocalEngineID()), 0);
-            SecurityModels.getInstance().addSecurityModel(usm);
+            warnWeakProtocols(runContext, sec);
 
-            OID authProt = AbstractSnmpTask.AuthProtocol.fromString(sec.getAuthProtocol());
-            OID privProt = AbstractSnmpTask.PrivProtocol.fromString(sec.getPrivProtocol());
+            PDU pdu = pdu(type == PDU.INFORM ? PDU.INFORM : PDU.NOTIFICATION);
+            addNotificationBindings(pdu, trapOid, bindings);
 
-            if (sec.getAuthProtocol() != null && !sec.getAuthProtocol().isBlank()
-                && AbstractSnmpTask.AuthProtocol.fromStringEnum(sec.getAuthProtocol()).isWeak()) {
-                runContext.logger().warn("SNMPv3 auth protocol '{}' is cryptographically weak and deprecated; prefer SHA256 or higher.", sec.getAuthProtocol());
+            if (SnmpTransport.isSecure(addr)) {
+                // TLS/DTLS authenticate and encrypt the message, no USM user nor engine discovery is involved
+                return new Built(target(addr, timeout, type == PDU.INFORM ? retries : 0, community, sec), pdu);
             }
-            if (sec.getPrivProtocol() != null && !sec.getPrivProtocol().isBlank()
-                && AbstractSnmpTask.PrivProtocol.fromStringEnum(sec.getPrivProtocol()).isWeak()) {
-                runContext.logger().warn("SNMPv3 privacy protocol '{}' is cryptographically weak and deprecated; prefer AES128 or higher.", sec.getPrivProtocol());
+
+            if (type == PDU.INFORM) {
+                // the receiver of an INFORM is the authoritative engine
+                Target<?> target = target(addr, timeout, retries, community, sec);
+                SnmpV3Security.prepareRemote(snmp, (UserTarget<?>) target, sec);
+                return new Built(target, pdu);
             }
 
-            snmp.getUSM().addUser(
-                new OctetString(sec.getUsername()),
-                new UsmUser(
-                    new OctetString(sec.getUsername()),
-                    authProt,
-                    sec.getAuthPassword() != null ? new OctetString(sec.getAuthPassword()) : null,
-                    privProt,
-                    sec.getPrivPassword() != null ? new OctetString(sec.getPrivPassword()) : null
-                )
-            );
-
-            ScopedPDU pdu = new ScopedPDU();
-            pdu.setType(PDU.NOTIFICATION);
-            pdu.add(new VariableBinding(SnmpConstants.snmpTrapOID, new OID(trapOid)));
-            addBindings(runContext, pdu, bindings);
+            // a trap is sent by the local engine, which is therefore authoritative
+            SnmpV3Security.addLocalizedUser(snmp, sec, SnmpV3Security.localEngineId());
+            return new Built(target(addr, timeout, 0, community, sec), pdu);
+        }
+    };
+
+    private final int code;
+
+    /**
+     * Build a notification and its target.
+     *
+     * @param type    {@link PDU#TRAP} for a fire-and-forget notification or {@link PDU#INFORM} for an acknowledged one
+     * @param retries resend count of an INFORM; traps are never resent
+     */
+    public abstract Built build(RunContext runContext, int type, Address addr, int timeout, int retries, OID trapOid, List<VariableBinding> bindings,
+        AbstractSnmpTask.V3Security sec, String community, Snmp snmp) throws IllegalVariableEvaluationException;
+
+    /**
+     * Fail when this version cannot carry the given notification type, before anything is rendered or sent.
+     */
+    public void validate(int type) {
+        if (type != PDU.TRAP && type != PDU.INFORM) {
+            throw new IllegalArgumentException("Unsupported notification type: " + PDU.getTypeString(type));
+        }
+        if (type == PDU.INFORM && this == V1) {
+            throw new IllegalArgumentException("INFORM supported only for v2c/v3.");
+        }
+    }
+
+    /**
+     * Build a target for this version: a community target for v1/v2c, a user target for v3, or a certified target
+     * using the transport security model when v3 runs over TLS or DTLS.
+     */
+    public Target<?> target(Address addr, long timeout, int retries, String community, AbstractSnmpTask.V3Security sec) {
+        if (this == V3) {
+            if (sec == null)
+                throw new IllegalArgumentException("v3 settings required");
+
+            if (SnmpTransport.isSecure(addr)) {
+                CertifiedTarget target = new CertifiedTarget(new OctetString(sec.getUsername()));
+                target.setAddress(addr);
+                target.setRetries(retries);
+                target.setTimeout(timeout);
+                target.setVersion(code);
+                target.setSecurityLevel(SecurityLevel.AUTH_PRIV);
+                return target;
+            }
 
             UserTarget target = new UserTarget();
             target.setAddress(addr);
-            target.setRetries(0);
+            target.setRetries(retries);
             target.setTimeout(timeout);
-            target.setVersion(SnmpConstants.version3);
+            target.setVersion(code);
             target.setSecurityLevel(AbstractSnmpTask.toSecLevel(sec));
             target.setSecurityName(new OctetString(sec.getUsername()));
-
-            return new Built(target, pdu);
+            return target;
         }
-    };
 
-    private final int code;
+        CommunityTarget target = new CommunityTarget();
+        target.setAddress(addr);
+        target.setCommunity(new OctetString(community));
+        target.setRetries(retries);
+        target.setTimeout(timeout);
+        target.setVersion(code);
+        return target;
+    }
+
+    /**
+     * Build the target of a request to a remote agent (GET, SET, ...), which is the authoritative engine for v3.
+     */
+    public Target<?> requestTarget(RunContext runContext, Snmp snmp, Address addr, long timeout, int retries, String community, AbstractSnmpTask.V3Security sec) {
+        Target<?> target = target(addr, timeout, retries, community, sec);
+        if (target instanceof UserTarget<?> userTarget && !(target instanceof CertifiedTarget<?>)) {
+            warnWeakProtocols(runContext, sec);
+            SnmpV3Security.prepareRemote(snmp, userTarget, sec);
+        }
+        return target;
+    }
 
-    public abstract Built build(RunContext runContext, Address addr, int timeout, String trapOid, List<AbstractSnmpTask.VarBind> bindings, AbstractSnmpTask.V3Security sec, String community,
-        Snmp snmp) throws IllegalVariableEvaluationException;
+    /**
+     * Create an empty PDU of the given type, scoped for v3.
+     */
+    public PDU pdu(int type) {
+        PDU pdu = this == V3 ? new ScopedPDU() : new PDU();
+        pdu.setType(type);
+        return pdu;
+    }
 
     public static SnmpVersion fromString(String s) {
         return Arrays.stream(values())
@@ -132,40 +173,51 @@ public enum SnmpVersion {
             .orElseThrow(() -> new IllegalArgumentException("Unsupported SNMP snmpVersion: " + s));
     }
 
-    protected static void addBindings(RunContext runContext, PDU pdu, List<AbstractSnmpTask.VarBind> bindings) throws IllegalVariableEvaluationException {
-        if (bindings == null)
-            return;
-        for (AbstractSnmpTask.VarBind b : bindings) {
-            String oid = runContext.render(b.getOid()).as(String.class).orElse(null);
-            String value = runContext.render(b.getValue()).as(String.class).orElse(null);
-
-            Variable var = toVariable(value);
-            if (var != null) {
-                pdu.add(new VariableBinding(new OID(oid), var));
-            }
+    protected static void warnWeakProtocols(RunContext runContext, AbstractSnmpTask.V3Security sec) {
+        if (sec.getAuthProtocol() != null && !sec.getAuthProtocol().isBlank()
+            && AbstractSnmpTask.AuthProtocol.fromStringEnum(sec.getAuthProtocol()).isWeak()) {
+            runContext.logger().warn("SNMPv3 auth protocol '{}' is cryptographically weak and deprecated; prefer SHA256 or higher.", sec.getAuthProtocol());
+        }
+        if (sec.getPrivProtocol() != null && !sec.getPrivProtocol().isBlank()
+            && AbstractSnmpTask.PrivProtocol.fromStringEnum(sec.getPrivProtocol()).isWeak()) {
+            runContext.logger().warn("SNMPv3 privacy protocol '{}' is cryptographically weak and deprecated; prefer AES128 or higher.", sec.getPrivProtocol());
         }
     }
 
-    public static Variable toVariable(String raw) {
-        if (raw == null)
-            return null;
-
-        if (raw.matches("^-?\\d+$")) {
-            return new Integer32(Integer.parseInt(raw));
+    protected static void addBindings(PDU pdu, List<VariableBinding> bindings) {
+        for (VariableBinding binding : bindings) {
+            pdu.add(binding);
         }
+    }
 
-        if (raw.matches("^\\d+$")) {
-            long l = Long.parseLong(raw);
-            if (l <= Integer.MAX_VALUE)
-                return new Gauge32((int) l);
-            return new Counter64(l);
+    /**
+     * Add the varbinds of a v2c/v3 notification in the order of RFC 3416 4.2.6 and 4.2.7: sysUpTime.0, snmpTrapOID.0,
+     * then the other bindings. A sysUpTime.0 among the bindings is moved first, otherwise the uptime of this JVM is used.
+     */
+    protected static void addNotificationBindings(PDU pdu, OID trapOid, List<VariableBinding> bindings) {
+        VariableBinding upTime = null;
+        for (VariableBinding binding : bindings) {
+            if (SnmpConstants.sysUpTime.equals(binding.getOid())) {
+                upTime = binding;
+                break;
+            }
         }
+        pdu.add(upTime != null ? upTime : new VariableBinding(SnmpConstants.sysUpTime, new TimeTicks(ManagementFactory.getRuntimeMXBean().getUptime() / 10)));
+        pdu.add(new VariableBinding(SnmpConstants.snmpTrapOID, trapOid));
 
-        if (raw.matches("^(\\d+\\.)+\\d+$")) {
-            return new OID(raw);
+        for (VariableBinding binding : bindings) {
+            if (binding != upTime && !SnmpConstants.snmpTrapOID.equals(binding.getOid())) {
+                pdu.add(binding);
+            }
         }
+    }
+
+    public static Variable toVariable(String raw) {
+        return VarBindEncoder.encode(raw, null);
+    }
 
-        return new OctetString(raw);
+    public static Variable toVariable(String raw, AbstractSnmpTask.VariableType type) {
+        return VarBindEncoder.encode(raw, type);
     }
 
     @Getter
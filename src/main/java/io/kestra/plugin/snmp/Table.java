@@ -0,0 +1,152 @@
+package io.kestra.plugin.snmp;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.VariableBinding;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@EqualsAndHashCode
+@ToString
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Retrieve an SNMP table into internal storage",
+    description = "Retrieves the given columns of a conceptual table with GETBULK (GETNEXT for v1) and writes one row per table index to an ION or CSV file as rows complete. Each row holds the `index` and one field per column OID; columns the agent does not populate for a row are null."
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Export interface names and counters as CSV",
+            full = true,
+            code = """
+                    id: snmp-table
+                    namespace: monitoring
+
+                    tasks:
+                      - id: interfaces
+                        type: io.kestra.plugin.snmp.Table
+                        host: "switch-01.example.com"
+                        snmpVersion: "v2c"
+                        community: "public"
+                        format: CSV
+                        columns:
+                          - "1.3.6.1.2.1.31.1.1.1.1"
+                          - "1.3.6.1.2.1.31.1.1.1.6"
+                          - "1.3.6.1.2.1.31.1.1.1.10"
+                """
+        )
+    }
+)
+public class Table extends AbstractSnmpStreamTask implements RunnableTask<AbstractSnmpStreamTask.Output> {
+    @Schema(title = "Column OIDs", description = "Numeric or symbolic OIDs of the table columns, e.g. `1.3.6.1.2.1.2.2.1.2` or `IF-MIB::ifDescr`")
+    @NotNull
+    @PluginProperty(group = "main")
+    protected Property<List<String>> columns;
+
+    @Schema(title = "Lower bound index", description = "Only rows whose index is greater than this one are retrieved")
+    @PluginProperty(group = "advanced")
+    protected Property<String> lowerBoundIndex;
+
+    @Schema(title = "Upper bound index", description = "Only rows whose index is lower than or equal to this one are retrieved")
+    @PluginProperty(group = "advanced")
+    protected Property<String> upperBoundIndex;
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        return stream(runContext);
+    }
+
+    @Override
+    protected List<String> header(RunContext runContext) throws Exception {
+        List<String> header = new ArrayList<>();
+        header.add("index");
+        header.addAll(runContext.render(this.columns).asList(String.class));
+        return header;
+    }
+
+    @Override
+    protected Retrieval retrieval(RunContext runContext, MibIndex mibs, RequestSession session, int maxRepetitions) throws Exception {
+        List<String> rColumns = runContext.render(this.columns).asList(String.class);
+        OID lowerBound = runContext.render(this.lowerBoundIndex).as(String.class).map(OID::new).orElse(null);
+        OID upperBound = runContext.render(this.upperBoundIndex).as(String.class).map(OID::new).orElse(null);
+
+        OID[] columnOids = rColumns.stream()
+            .map(oid -> PduTemplate.oid(mibs, oid))
+            .toArray(OID[]::new);
+
+        return queue -> {
+            OID[] cursors = new OID[columnOids.length];
+            List<Integer> active = new ArrayList<>();
+            for (int c = 0; c < columnOids.length; c++) {
+                cursors[c] = lowerBound != null ? new OID(columnOids[c]).append(lowerBound) : columnOids[c];
+                active.add(c);
+            }
+            // rows by index, until every column went past them
+            TreeMap<OID, Object[]> pending = new TreeMap<>();
+
+            while (!active.isEmpty()) {
+                List<VariableBinding> bindings = session.next(active.stream().map(c -> cursors[c]).toList(), maxRepetitions);
+                if (bindings.isEmpty()) {
+                    active.clear();
+                }
+
+                // a GETBULK response holds the columns of the first row, then of the second one, and so on
+                List<Integer> finished = new ArrayList<>();
+                for (int i = 0; i < bindings.size(); i++) {
+                    int c = active.get(i % active.size());
+                    if (finished.contains(c)) {
+                        continue;
+                    }
+                    VariableBinding binding = bindings.get(i);
+                    OID oid = binding.getOid();
+                    OID index = oid.size() > columnOids[c].size() ? new OID(oid.getValue(), columnOids[c].size(), oid.size() - columnOids[c].size()) : null;
+                    if (binding.getVariable().isException() || index == null || !oid.startsWith(columnOids[c]) || oid.compareTo(cursors[c]) <= 0
+                        || (upperBound != null && index.compareTo(upperBound) > 0)) {
+                        finished.add(c);
+                        continue;
+                    }
+                    pending.computeIfAbsent(index, k -> new Object[columnOids.length])[c] = SnmpValue.toJava(binding.getVariable());
+                    cursors[c] = oid;
+                }
+                active.removeAll(finished);
+
+                // a row is complete once no column still walked can return an index lower than or equal to it
+                OID complete = null;
+                for (int c : active) {
+                    OID index = new OID(cursors[c].getValue(), columnOids[c].size(), cursors[c].size() - columnOids[c].size());
+                    if (complete == null || index.compareTo(complete) < 0) {
+                        complete = index;
+                    }
+                }
+                while (!pending.isEmpty() && (complete == null || pending.firstKey().compareTo(complete) <= 0)) {
+                    Map.Entry<OID, Object[]> entry = pending.pollFirstEntry();
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("index", entry.getKey().toDottedString());
+                    for (int c = 0; c < rColumns.size(); c++) {
+                        row.put(rColumns.get(c), entry.getValue()[c]);
+                    }
+                    if (!queue.put(row)) {
+                        return;
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,134 @@
+package io.kestra.plugin.snmp;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.snmp4j.PDU;
+import org.snmp4j.PDUv1;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.Address;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.TimeTicks;
+import org.snmp4j.smi.TransportIpAddress;
+import org.snmp4j.smi.VariableBinding;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A notification received from an agent, normalized to the SNMPv2 form whatever the version it was sent with.
+ */
+@Builder(toBuilder = true)
+@Getter
+@ToString
+public class Trap implements io.kestra.core.models.tasks.Output {
+    // snmpTraps, the parent of the generic traps of SNMPv1 (RFC 3584 section 3.1)
+    private static final OID SNMP_TRAPS = new OID("1.3.6.1.6.3.1.1.5");
+
+    @Schema(title = "Reception time")
+    private final Instant receivedAt;
+
+    @Schema(title = "Sender address", description = "IP address the notification was received from")
+    private final String agentAddress;
+
+    @Schema(title = "Sender port")
+    private final Integer agentPort;
+
+    @Schema(title = "SNMP version", description = "v1, v2c or v3")
+    private final String version;
+
+    @Schema(title = "PDU type", description = "TRAP, INFORM or V1TRAP")
+    private final String pduType;
+
+    @Schema(title = "SNMPv3 user", description = "Security name of a v3 notification; null for v1/v2c")
+    private final String securityName;
+
+    @Schema(title = "Notification OID", description = "snmpTrapOID.0, translated from the enterprise and generic/specific trap numbers for v1")
+    private final String trapOid;
+
+    @Schema(title = "Notification name", description = "trapOid translated by the bundled MIBs, e.g. IF-MIB::linkDown; null when none defines it")
+    private final String trapName;
+
+    @Schema(title = "Agent uptime", description = "sysUpTime.0 of the agent, in hundredths of a second")
+    private final Long uptime;
+
+    @Schema(title = "Enterprise OID", description = "Enterprise of a v1 trap; null otherwise")
+    private final String enterprise;
+
+    @Schema(title = "Variable bindings", description = "Varbinds of the notification, without sysUpTime.0 and snmpTrapOID.0")
+    private final List<SnmpValue> variables;
+
+    @Schema(
+        title = "Suppressed duplicates",
+        description = "Set on the summary emitted when a deduplication window closes: number of duplicates of this notification that were suppressed"
+    )
+    private final Long duplicates;
+
+    @Schema(title = "Last duplicate reception time", description = "Set on deduplication summaries only")
+    private final Instant lastReceivedAt;
+
+    /**
+     * Decode a received PDU; the caller has already checked it is a notification.
+     */
+    static Trap of(PDU pdu, Address peer, int messageProcessingModel, String securityName, Instant receivedAt) {
+        TrapBuilder builder = Trap.builder()
+            .receivedAt(receivedAt)
+            .version(switch (messageProcessingModel) {
+                case 0 -> "v1";
+                case 1 -> "v2c";
+                default -> "v3";
+            })
+            .pduType(PDU.getTypeString(pdu.getType()))
+            .securityName(messageProcessingModel == 3 ? securityName : null);
+
+        if (peer instanceof TransportIpAddress ip) {
+            builder.agentAddress(ip.getInetAddress().getHostAddress()).agentPort(ip.getPort());
+        } else if (peer != null) {
+            builder.agentAddress(peer.toString());
+        }
+
+        List<SnmpValue> variables = new ArrayList<>(pdu.size());
+        if (pdu instanceof PDUv1 v1) {
+            OID enterprise = v1.getEnterprise();
+            OID trapOid = v1TrapOid(enterprise, v1.getGenericTrap(), v1.getSpecificTrap());
+            builder.enterprise(enterprise.toDottedString())
+                .uptime(v1.getTimestamp())
+                .trapOid(trapOid.toDottedString())
+                .trapName(MibIndex.getInstance().name(trapOid));
+            if (v1.getAgentAddress() != null && !v1.getAgentAddress().getInetAddress().isAnyLocalAddress()) {
+                builder.agentAddress(v1.getAgentAddress().getInetAddress().getHostAddress());
+            }
+            for (VariableBinding binding : pdu.getVariableBindings()) {
+                variables.add(SnmpValue.of(binding));
+            }
+        } else {
+            for (VariableBinding binding : pdu.getVariableBindings()) {
+                if (SnmpConstants.sysUpTime.equals(binding.getOid()) && binding.getVariable() instanceof TimeTicks ticks) {
+                    builder.uptime(ticks.getValue());
+                } else if (SnmpConstants.snmpTrapOID.equals(binding.getOid()) && binding.getVariable() instanceof OID oid) {
+                    builder.trapOid(oid.toDottedString()).trapName(MibIndex.getInstance().name(oid));
+                } else {
+                    variables.add(SnmpValue.of(binding));
+                }
+            }
+        }
+
+        return builder.variables(variables).build();
+    }
+
+    static OID v1TrapOid(OID enterprise, int genericTrap, int specificTrap) {
+        if (genericTrap != PDUv1.ENTERPRISE_SPECIFIC) {
+            OID oid = new OID(SNMP_TRAPS);
+            oid.append(genericTrap + 1);
+            return oid;
+        }
+
+        OID oid = new OID(enterprise);
+        oid.append(0);
+        oid.append(specificTrap);
+        return oid;
+    }
+}
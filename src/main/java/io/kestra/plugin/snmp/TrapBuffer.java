@@ -0,0 +1,204 @@
+package io.kestra.plugin.snmp;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+
+import io.kestra.core.serializers.FileSerde;
+
+/**
+ * Accumulates the notifications of a {@link TrapReceiver} between two flushes of a collecting trigger.
+ * <p>
+ * A background thread moves notifications from the receiver queue into the current batch. A batch keeps at most
+ * {@code memoryThreshold} notifications on heap; once exceeded, they are appended to a local spill file together
+ * with every notification that follows, so a storm only costs disk space. Spill files are named after the process
+ * writing them, so that those left behind by a worker that died are deleted by the next one using the directory.
+ */
+final class TrapBuffer implements AutoCloseable {
+    private static final String SPILL_PREFIX = "snmp-traps-";
+    private static final Set<Path> CLEANED = ConcurrentHashMap.newKeySet();
+
+    private final TrapReceiver receiver;
+    private final int memoryThreshold;
+    private final Logger logger;
+    private final Thread collector;
+    private final Path spillDirectory;
+
+    private volatile boolean running = true;
+    private Batch current = new Batch();
+
+    TrapBuffer(TrapReceiver receiver, int memoryThreshold, Path spillDirectory, Logger logger) throws IOException {
+        this.receiver = receiver;
+        this.memoryThreshold = Math.max(1, memoryThreshold);
+        this.spillDirectory = spillDirectory;
+        this.logger = logger;
+        deleteOrphans(spillDirectory, logger);
+
+        this.collector = new Thread(this::collect, "snmp-trap-collector");
+        this.collector.setDaemon(true);
+        this.collector.start();
+    }
+
+    TrapReceiver receiver() {
+        return receiver;
+    }
+
+    private void collect() {
+        while (running) {
+            try {
+                Trap trap = receiver.poll(200, TimeUnit.MILLISECONDS);
+                if (trap != null) {
+                    add(trap);
+                }
+                receiver.sweep();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.warn("Unable to buffer an SNMP notification: {}", e.getMessage());
+            }
+        }
+    }
+
+    synchronized void add(Trap trap) throws IOException {
+        current.add(trap, memoryThreshold, spillDirectory);
+    }
+
+    synchronized long size() {
+        return current.count;
+    }
+
+    /**
+     * Reception time of the first notification of the current batch, or null while it is empty.
+     */
+    synchronized Instant startedAt() {
+        return current.startedAt;
+    }
+
+    /**
+     * Hand over the current batch and start a new one.
+     */
+    synchronized Batch take() throws IOException {
+        Batch batch = current;
+        batch.closeSpill();
+        current = new Batch();
+        return batch;
+    }
+
+    /**
+     * Delete the spill files of processes that are no longer running, once per directory and process.
+     */
+    private static void deleteOrphans(Path directory, Logger logger) throws IOException {
+        if (!CLEANED.add(directory.toAbsolutePath())) {
+            return;
+        }
+
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SPILL_PREFIX + "*.ion")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                int end = name.indexOf('-', SPILL_PREFIX.length());
+                try {
+                    long pid = Long.parseLong(name.substring(SPILL_PREFIX.length(), end));
+                    if (ProcessHandle.of(pid).isEmpty()) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (RuntimeException e) {
+                    logger.debug("Ignoring unexpected spill file {}", file);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        collector.interrupt();
+        try {
+            receiver.close();
+        } finally {
+            synchronized (this) {
+                current.delete();
+            }
+        }
+    }
+
+    static final class Batch {
+        // the window opens with the first notification, not when the previous batch was handed over
+        private Instant startedAt;
+        private final List<Trap> traps = new ArrayList<>();
+        private long count;
+        private Path spill;
+        private OutputStream spillOutput;
+
+        private void add(Trap trap, int memoryThreshold, Path spillDirectory) throws IOException {
+            if (startedAt == null) {
+                startedAt = Instant.now();
+            }
+
+            if (spillOutput == null && traps.size() >= memoryThreshold) {
+                spill = Files.createTempFile(spillDirectory, SPILL_PREFIX + ProcessHandle.current().pid() + "-", ".ion");
+                spillOutput = new BufferedOutputStream(Files.newOutputStream(spill), FileSerde.BUFFER_SIZE);
+                for (Trap buffered : traps) {
+                    FileSerde.write(spillOutput, buffered);
+                }
+                traps.clear();
+            }
+
+            if (spillOutput != null) {
+                FileSerde.write(spillOutput, trap);
+            } else {
+                traps.add(trap);
+            }
+            count++;
+        }
+
+        private void closeSpill() throws IOException {
+            if (spillOutput != null) {
+                spillOutput.close();
+                spillOutput = null;
+            }
+        }
+
+        /**
+         * Reception time of the first notification of the batch, or null while it is empty.
+         */
+        Instant startedAt() {
+            return startedAt;
+        }
+
+        long count() {
+            return count;
+        }
+
+        /**
+         * Write every notification of the batch, in reception order, as ION.
+         */
+        void writeTo(OutputStream output) throws IOException {
+            if (spill != null) {
+                Files.copy(spill, output);
+            }
+            for (Trap trap : traps) {
+                FileSerde.write(output, trap);
+            }
+        }
+
+        void delete() throws IOException {
+            closeSpill();
+            if (spill != null) {
+                Files.deleteIfExists(spill);
+            }
+        }
+    }
+}
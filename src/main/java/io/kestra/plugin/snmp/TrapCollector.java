@@ -0,0 +1,258 @@
+package io.kestra.plugin.snmp;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.triggers.PollingTriggerInterface;
+import io.kestra.core.models.triggers.TriggerContext;
+import io.kestra.core.models.triggers.TriggerOutput;
+import io.kestra.core.models.triggers.TriggerService;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Collect SNMP traps and start a flow per batch",
+    description = "Listens for SNMP v1/v2c/v3 traps and informs like `TrapTrigger`, but buffers them and creates a single execution with an ION file of every notification received once `window` has elapsed or `maxTraps` notifications are waiting. At most `maxTrapsInMemory` notifications are kept on heap; beyond that, the batch spills to a local file."
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Process link flaps in 10 second batches",
+            full = true,
+            code = """
+                    id: snmp-trap-batches
+                    namespace: monitoring
+
+                    tasks:
+                      - id: log
+                        type: io.kestra.plugin.core.log.Log
+                        message: "{{ trigger.count }} notification(s) in {{ trigger.uri }}"
+
+                    triggers:
+                      - id: traps
+                        type: io.kestra.plugin.snmp.TrapCollector
+                        port: 1162
+                        window: PT10S
+                        maxTraps: 5000
+                """
+        )
+    }
+)
+public class TrapCollector extends AbstractTrapTrigger implements PollingTriggerInterface, TriggerOutput<TrapCollector.Output> {
+    // listeners whose trigger has not been evaluated for this many windows or intervals are considered removed and closed
+    private static final int ABANDONED_WINDOWS = 10;
+    private static final Duration REAP_INTERVAL = Duration.ofSeconds(1);
+
+    private static final ConcurrentHashMap<String, Listener> LISTENERS = new ConcurrentHashMap<>();
+    // closes the listeners of deleted or disabled triggers, which are never evaluated again
+    private static ScheduledExecutorService reaper;
+
+    @Schema(title = "Check interval", description = "How often the batch is checked against `window` and `maxTraps`; defaults to 1 second")
+    @Builder.Default
+    private final Duration interval = Duration.ofSeconds(1);
+
+    @Schema(title = "Batch window", description = "Longest time notifications are buffered before an execution is created; defaults to 10 seconds")
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    protected Property<Duration> window = Property.ofValue(Duration.ofSeconds(10));
+
+    @Schema(title = "Max notifications per batch", description = "An execution is created as soon as this many notifications are buffered; defaults to 5000")
+    @Builder.Default
+    @PluginProperty(group = "execution")
+    protected Property<Integer> maxTraps = Property.ofValue(5000);
+
+    @Schema(title = "Max notifications kept in memory", description = "Beyond this count, the batch is written to a local spill file; defaults to 1000")
+    @Builder.Default
+    @PluginProperty(group = "advanced")
+    protected Property<Integer> maxTrapsInMemory = Property.ofValue(1000);
+
+    @Override
+    public Optional<Execution> evaluate(ConditionContext conditionContext, TriggerContext context) throws Exception {
+        RunContext runContext = conditionContext.getRunContext();
+        var rWindow = runContext.render(this.window).as(Duration.class).orElse(Duration.ofSeconds(10));
+        var rMaxTraps = runContext.render(this.maxTraps).as(Integer.class).orElse(5000);
+        var rMaxTrapsInMemory = runContext.render(this.maxTrapsInMemory).as(Integer.class).orElse(1000);
+
+        String key = context.getNamespace() + "/" + context.getFlowId() + "/" + context.getTriggerId();
+        TrapReceiver.Settings settings = receiverSettings(runContext);
+        Listener listener = listener(runContext, key, settings, rMaxTrapsInMemory, rWindow);
+
+        TrapBuffer buffer = listener.buffer();
+        if (buffer.size() == 0
+            || (buffer.size() < rMaxTraps && Duration.between(buffer.startedAt(), Instant.now()).compareTo(rWindow) < 0)) {
+            return Optional.empty();
+        }
+
+        TrapBuffer.Batch batch = buffer.take();
+        try {
+            File tempFile = runContext.workingDir().createTempFile(".ion").toFile();
+            try (OutputStream output = new BufferedOutputStream(new FileOutputStream(tempFile), FileSerde.BUFFER_SIZE)) {
+                batch.writeTo(output);
+            }
+
+            TrapReceiver.Stats stats = buffer.receiver().stats();
+            long dropped = stats.dropped() - listener.reportedDrops;
+            long suppressed = stats.getSuppressed() - listener.reportedSuppressed;
+            listener.reportedDrops = stats.dropped();
+            listener.reportedSuppressed = stats.getSuppressed();
+            if (dropped > 0) {
+                runContext.logger().warn("Dropped {} SNMP notification(s) since the previous batch", dropped);
+            }
+
+            Output output = Output.builder()
+                .uri(runContext.storage().putFile(tempFile))
+                .count(batch.count())
+                .dropped(dropped)
+                .suppressed(suppressed)
+                .startDate(batch.startedAt())
+                .endDate(Instant.now())
+                .build();
+
+            return Optional.of(TriggerService.generateExecution(this, conditionContext, context, output));
+        } finally {
+            batch.delete();
+        }
+    }
+
+    private Listener listener(RunContext runContext, String key, TrapReceiver.Settings settings, int maxTrapsInMemory, Duration window)
+        throws IllegalVariableEvaluationException, IOException {
+        Binding binding = new Binding(
+            settings,
+            maxTrapsInMemory,
+            runContext.render(this.deduplication).as(Deduplication.class).map(Deduplication::toString).orElse(null)
+        );
+
+        Listener listener = LISTENERS.get(key);
+        if (listener != null && !listener.binding.equals(binding)) {
+            // the trigger was changed, e.g. to listen elsewhere, accept other communities or deduplicate differently:
+            // what the old listener buffered is lost
+            LISTENERS.remove(key, listener);
+            listener.buffer().close();
+            listener = null;
+        }
+
+        if (listener == null) {
+            TrapReceiver receiver = new TrapReceiver(settings, deduplicator(runContext), runContext.logger());
+            receiver.start();
+            runContext.logger().info("Listening for SNMP notifications on {}:{}", settings.bindAddress(), settings.port());
+
+            // next to the working directories of the worker rather than in the system temporary directory
+            Path spillDirectory = runContext.workingDir().path().toAbsolutePath().getParent().resolve("snmp-traps");
+            try {
+                listener = new Listener(binding, new TrapBuffer(receiver, maxTrapsInMemory, spillDirectory, runContext.logger()));
+            } catch (IOException | RuntimeException e) {
+                receiver.close();
+                throw e;
+            }
+            LISTENERS.put(key, listener);
+            startReaper();
+        }
+
+        listener.lastEvaluated = System.nanoTime();
+        listener.abandonAfterNanos = (window.compareTo(this.interval) > 0 ? window : this.interval).multipliedBy(ABANDONED_WINDOWS).toNanos();
+        return listener;
+    }
+
+    private static synchronized void startReaper() {
+        if (reaper == null) {
+            reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "snmp-trap-collector-reaper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reaper.scheduleWithFixedDelay(TrapCollector::closeAbandoned, REAP_INTERVAL.toMillis(), REAP_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void closeAbandoned() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<String, Listener>> it = LISTENERS.entrySet().iterator();
+        while (it.hasNext()) {
+            Listener listener = it.next().getValue();
+            if (now - listener.lastEvaluated > listener.abandonAfterNanos) {
+                it.remove();
+                try {
+                    listener.buffer().close();
+                } catch (IOException | RuntimeException ignored) {
+                    // the listener is being discarded anyway, and the reaper must keep running
+                }
+            }
+        }
+    }
+
+    /**
+     * Everything a listener is built from; any change rebuilds it.
+     */
+    private record Binding(TrapReceiver.Settings settings, int maxTrapsInMemory, String deduplication) {
+    }
+
+    private static final class Listener {
+        private final Binding binding;
+        private final TrapBuffer buffer;
+        private volatile long lastEvaluated = System.nanoTime();
+        private volatile long abandonAfterNanos = Long.MAX_VALUE;
+        private long reportedDrops;
+        private long reportedSuppressed;
+
+        private Listener(Binding binding, TrapBuffer buffer) {
+            this.binding = binding;
+            this.buffer = buffer;
+        }
+
+        private TrapBuffer buffer() {
+            return buffer;
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(title = "Notifications file URI", description = "Internal storage URI of an ION file with one row per notification, in reception order")
+        private final URI uri;
+
+        @Schema(title = "Number of notifications")
+        private final long count;
+
+        @Schema(title = "Notifications dropped", description = "Notifications dropped since the previous batch because the queues were full")
+        private final long dropped;
+
+        @Schema(title = "Duplicates suppressed", description = "Notifications suppressed by `deduplication` since the previous batch")
+        private final long suppressed;
+
+        @Schema(title = "Batch start")
+        private final Instant startDate;
+
+        @Schema(title = "Batch end")
+        private final Instant endDate;
+    }
+}
@@ -0,0 +1,172 @@
+package io.kestra.plugin.snmp;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Suppresses repeated notifications within a time window.
+ * <p>
+ * Two notifications are duplicates when they come from the same agent with the same notification OID and the same
+ * values for the chosen key varbinds. The key is folded into a 64-bit FNV-1a hash computed straight from the OID and
+ * value strings, so a lookup allocates nothing but the boxed key. Entries are kept in first-seen order, which makes
+ * expiring them a scan of the head of the map only, and the least recently first-seen entry is evicted once the
+ * cache is full. In {@link AbstractTrapTrigger.DeduplicationMode#SUMMARY} mode, the first notification goes through immediately and, when its window
+ * closes, a copy carrying the number of duplicates that were suppressed is emitted.
+ */
+final class TrapDeduplicator {
+    private final String[] keyOids;
+    private final long windowNanos;
+    private final int maxEntries;
+    private final AbstractTrapTrigger.DeduplicationMode mode;
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>();
+    private final List<Trap> summaries = new ArrayList<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long summarized;
+
+    TrapDeduplicator(List<String> keyOids, Duration window, int maxEntries, AbstractTrapTrigger.DeduplicationMode mode) {
+        this.keyOids = keyOids.toArray(String[]::new);
+        this.windowNanos = window.toNanos();
+        this.maxEntries = Math.max(1, maxEntries);
+        this.mode = mode;
+    }
+
+    /**
+     * Whether the notification is the first of its key within the window and must be delivered.
+     */
+    synchronized boolean accept(Trap trap, long now) {
+        expire(now, false);
+
+        long key = key(trap);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.duplicates++;
+            entry.lastReceivedAt = trap.getReceivedAt();
+            hits++;
+            return false;
+        }
+
+        misses++;
+        if (entries.size() >= maxEntries) {
+            Iterator<Entry> it = entries.values().iterator();
+            close(it.next());
+            it.remove();
+            evictions++;
+        }
+        entries.put(key, new Entry(trap, now));
+        return true;
+    }
+
+    /**
+     * Close the windows that have elapsed and return the summaries to deliver, if any.
+     */
+    synchronized List<Trap> expired(long now) {
+        expire(now, false);
+        if (summaries.isEmpty()) {
+            return List.of();
+        }
+
+        List<Trap> result = new ArrayList<>(summaries);
+        summaries.clear();
+        return result;
+    }
+
+    /**
+     * Close every window regardless of time, e.g. before shutting down.
+     */
+    synchronized List<Trap> flush() {
+        expire(0, true);
+        return expired(0);
+    }
+
+    synchronized Stats stats() {
+        return Stats.builder()
+            .size(entries.size())
+            .hits(hits)
+            .misses(misses)
+            .evictions(evictions)
+            .summaries(summarized)
+            .build();
+    }
+
+    private void expire(long now, boolean all) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (!all && now - entry.firstSeen < windowNanos) {
+                // entries are in first-seen order, the following ones are younger
+                return;
+            }
+            close(entry);
+            it.remove();
+        }
+    }
+
+    private void close(Entry entry) {
+        if (mode == AbstractTrapTrigger.DeduplicationMode.SUMMARY && entry.duplicates > 0) {
+            summaries.add(entry.first.toBuilder()
+                .duplicates(entry.duplicates)
+                .lastReceivedAt(entry.lastReceivedAt)
+                .build()
+            );
+            summarized++;
+        }
+    }
+
+    long key(Trap trap) {
+        long hash = Fnv.hash(Fnv.OFFSET, trap.getAgentAddress());
+        hash = Fnv.hash(hash, trap.getTrapOid());
+
+        if (keyOids.length > 0 && trap.getVariables() != null) {
+            for (String keyOid : keyOids) {
+                for (SnmpValue value : trap.getVariables()) {
+                    if (matches(value.getOid(), keyOid)) {
+                        hash = Fnv.hash(hash, value.getOid());
+                        hash = Fnv.hash(hash, value.getValue() != null ? value.getValue().toString() : null);
+                    }
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * The varbind OID is the key OID itself or one of its instances.
+     */
+    private static boolean matches(String oid, String keyOid) {
+        return oid.startsWith(keyOid) && (oid.length() == keyOid.length() || oid.charAt(keyOid.length()) == '.');
+    }
+
+    private static final class Entry {
+        private final Trap first;
+        private final long firstSeen;
+        private long duplicates;
+        private Instant lastReceivedAt;
+
+        private Entry(Trap first, long firstSeen) {
+            this.first = first;
+            this.firstSeen = firstSeen;
+            this.lastReceivedAt = first.getReceivedAt();
+        }
+    }
+
+    @Builder
+    @Getter
+    static class Stats {
+        private final int size;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long summaries;
+    }
+}
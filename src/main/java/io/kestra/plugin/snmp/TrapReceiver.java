@@ -0,0 +1,320 @@
+package io.kestra.plugin.snmp;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.snmp4j.CommandResponder;
+import org.snmp4j.CommandResponderEvent;
+import org.snmp4j.MessageException;
+import org.snmp4j.PDU;
+import org.snmp4j.Snmp;
+import org.snmp4j.mp.MPv1;
+import org.snmp4j.mp.MPv2c;
+import org.snmp4j.mp.StateReference;
+import org.snmp4j.mp.StatusInformation;
+import org.snmp4j.smi.Address;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.TcpAddress;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.transport.DefaultTcpTransportMapping;
+import org.snmp4j.transport.DefaultUdpTransportMapping;
+import org.snmp4j.util.MultiThreadedMessageDispatcher;
+import org.snmp4j.util.WorkerPool;
+import org.snmp4j.util.WorkerTask;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Listens for notifications and queues them, decoded, for a trigger to consume.
+ * <p>
+ * The transport thread only reads datagrams from the socket, whose receive buffer absorbs bursts. Decoding, security
+ * processing and acknowledgement run on a fixed decode pool fed by a bounded queue, and decoded traps wait in a
+ * second bounded queue until consumed. When either queue is full the message is dropped and counted rather than
+ * blocking the socket; a dropped INFORM is not acknowledged, so its sender retries it.
+ */
+final class TrapReceiver implements CommandResponder, AutoCloseable {
+    private final Settings settings;
+    private final TrapDeduplicator deduplicator;
+    private final Logger logger;
+    private final BlockingQueue<Trap> queue;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong decodeDropped = new AtomicLong();
+    private final AtomicLong queueDropped = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private DecodePool pool;
+    private DefaultUdpTransportMapping udp;
+    private Snmp snmp;
+
+    TrapReceiver(Settings settings, Logger logger) {
+        this(settings, null, logger);
+    }
+
+    /**
+     * @param deduplicator suppresses repeated notifications before they are queued, may be null
+     */
+    TrapReceiver(Settings settings, TrapDeduplicator deduplicator, Logger logger) {
+        this.settings = settings;
+        this.deduplicator = deduplicator;
+        this.logger = logger;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, settings.queueSize()));
+    }
+
+    void start() throws IOException {
+        pool = new DecodePool(settings.decodeThreads(), settings.queueSize(), decodeDropped);
+        snmp = new Snmp(new MultiThreadedMessageDispatcher(pool, SnmpV3Security.newDispatcher()));
+
+        for (AbstractSnmpTask.V3Security user : settings.users()) {
+            snmp.getUSM().addUser(new OctetString(user.getUsername()), SnmpV3Security.usmUser(user));
+        }
+
+        udp = new DefaultUdpTransportMapping(new UdpAddress(settings.bindAddress() + "/" + settings.port()), true);
+        udp.setReceiveBufferSize(settings.receiveBufferSize());
+        snmp.addTransportMapping(udp);
+
+        if (settings.tcp()) {
+            snmp.addTransportMapping(new DefaultTcpTransportMapping(new TcpAddress(settings.bindAddress() + "/" + settings.port())));
+        }
+
+        snmp.addCommandResponder(this);
+        try {
+            snmp.listen();
+        } catch (IOException e) {
+            snmp.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The UDP port actually bound, useful when listening on port 0.
+     */
+    int port() {
+        return udp.getListenAddress().getPort();
+    }
+
+    Trap poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.poll(timeout, unit);
+    }
+
+    int drainTo(Collection<Trap> traps, int max) {
+        return queue.drainTo(traps, max);
+    }
+
+    /**
+     * Queue the summaries of the deduplication windows that have closed; to be called regularly by the consumer.
+     */
+    void sweep() {
+        if (deduplicator == null) {
+            return;
+        }
+        for (Trap summary : deduplicator.expired(System.nanoTime())) {
+            if (!queue.offer(summary)) {
+                queueDropped.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Stop listening and queue the summaries of the deduplication windows still open, so that the consumer can drain
+     * them, along with the notifications not consumed yet, before closing the receiver.
+     */
+    void shutdown() throws IOException {
+        closeSession();
+        if (deduplicator == null) {
+            return;
+        }
+        for (Trap summary : deduplicator.flush()) {
+            if (!queue.offer(summary)) {
+                queueDropped.incrementAndGet();
+            }
+        }
+    }
+
+    Stats stats() {
+        TrapDeduplicator.Stats deduplication = deduplicator != null ? deduplicator.stats() : null;
+        return Stats.builder()
+            .received(received.get())
+            .decodeDropped(decodeDropped.get())
+            .queueDropped(queueDropped.get())
+            .rejected(rejected.get())
+            .suppressed(deduplication != null ? deduplication.getHits() : 0)
+            .summaries(deduplication != null ? deduplication.getSummaries() : 0)
+            .build();
+    }
+
+    @Override
+    public <A extends Address> void processPdu(CommandResponderEvent<A> event) {
+        PDU pdu = event.getPDU();
+        if (pdu == null || (pdu.getType() != PDU.TRAP && pdu.getType() != PDU.V1TRAP && pdu.getType() != PDU.INFORM)) {
+            return;
+        }
+        event.setProcessed(true);
+        received.incrementAndGet();
+
+        int model = event.getMessageProcessingModel();
+        String securityName = new String(event.getSecurityName(), StandardCharsets.UTF_8);
+        if ((model == MPv1.ID || model == MPv2c.ID) && !settings.communities().isEmpty() && !settings.communities().contains(securityName)) {
+            rejected.incrementAndGet();
+            return;
+        }
+
+        Trap trap = Trap.of(pdu, event.getPeerAddress(), model, securityName, Instant.now());
+        if (deduplicator != null && !deduplicator.accept(trap, System.nanoTime())) {
+            // a duplicate was delivered already, the sender must not retry it
+            if (pdu.getType() == PDU.INFORM) {
+                acknowledge(event);
+            }
+            return;
+        }
+
+        if (!queue.offer(trap)) {
+            queueDropped.incrementAndGet();
+            return;
+        }
+
+        if (pdu.getType() == PDU.INFORM) {
+            acknowledge(event);
+        }
+    }
+
+    private <A extends Address> void acknowledge(CommandResponderEvent<A> event) {
+        PDU response = (PDU) event.getPDU().clone();
+        response.setType(PDU.RESPONSE);
+        response.setErrorStatus(PDU.noError);
+        response.setErrorIndex(0);
+
+        StateReference<A> reference = event.getStateReference();
+        reference.setTransportMapping(event.getTransportMapping());
+        try {
+            event.getMessageDispatcher().returnResponsePdu(
+                event.getMessageProcessingModel(),
+                event.getSecurityModel(),
+                event.getSecurityName(),
+                event.getSecurityLevel(),
+                response,
+                event.getMaxSizeResponsePDU(),
+                reference,
+                new StatusInformation()
+            );
+        } catch (MessageException e) {
+            logger.warn("Unable to acknowledge INFORM from {}: {}", event.getPeerAddress(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            closeSession();
+        } finally {
+            if (pool != null) {
+                pool.cancel();
+            }
+        }
+    }
+
+    private synchronized void closeSession() throws IOException {
+        if (snmp != null) {
+            Snmp session = snmp;
+            snmp = null;
+            session.close();
+        }
+    }
+
+    @Builder
+    record Settings(
+        String bindAddress,
+        int port,
+        boolean tcp,
+        int receiveBufferSize,
+        int decodeThreads,
+        int queueSize,
+        List<String> communities,
+        List<AbstractSnmpTask.V3Security> users
+    ) {
+    }
+
+    @Builder
+    @Getter
+    static class Stats {
+        private final long received;
+        private final long decodeDropped;
+        private final long queueDropped;
+        private final long rejected;
+        private final long suppressed;
+        private final long summaries;
+
+        long dropped() {
+            return decodeDropped + queueDropped;
+        }
+    }
+
+    /**
+     * Fixed decode threads behind a bounded queue; a message that finds the queue full is dropped and counted.
+     */
+    private static final class DecodePool implements WorkerPool {
+        private final ThreadPoolExecutor executor;
+        private final AtomicLong dropped;
+
+        private DecodePool(int threads, int queueSize, AtomicLong dropped) {
+            AtomicInteger count = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(
+                Math.max(1, threads),
+                Math.max(1, threads),
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+                r -> {
+                    Thread thread = new Thread(r, "snmp-trap-decode-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+            );
+            this.dropped = dropped;
+        }
+
+        @Override
+        public void execute(WorkerTask task) {
+            tryToExecute(task);
+        }
+
+        @Override
+        public boolean tryToExecute(WorkerTask task) {
+            try {
+                executor.execute(task);
+                return true;
+            } catch (RejectedExecutionException e) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        }
+
+        @Override
+        public void stop() {
+            executor.shutdown();
+        }
+
+        @Override
+        public void cancel() {
+            executor.shutdownNow();
+        }
+
+        @Override
+        public boolean isIdle() {
+            return executor.getActiveCount() == 0 && executor.getQueue().isEmpty();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package io.kestra.plugin.snmp;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.reactivestreams.Publisher;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.triggers.RealtimeTriggerInterface;
+import io.kestra.core.models.triggers.TriggerContext;
+import io.kestra.core.models.triggers.TriggerOutput;
+import io.kestra.core.models.triggers.TriggerService;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Start a flow for each received SNMP trap",
+    description = "Listens for SNMP v1/v2c/v3 traps and informs on UDP (and optionally TCP) and creates one execution per notification. INFORMs are acknowledged once queued. Messages are decoded on a dedicated thread pool behind bounded queues; when a storm exceeds `queueSize`, notifications are dropped and the drop counters are logged. Repeated notifications can be suppressed with `deduplication`."
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Handle link down traps",
+            full = true,
+            code = """
+                    id: snmp-link-down
+                    namespace: monitoring
+
+                    tasks:
+                      - id: log
+                        type: io.kestra.plugin.core.log.Log
+                        message: "{{ trigger.trapOid }} from {{ trigger.agentAddress }}: {{ trigger.variables }}"
+
+                    triggers:
+                      - id: traps
+                        type: io.kestra.plugin.snmp.TrapTrigger
+                        port: 1162
+                        communities:
+                          - "{{ secret('SNMP_COMMUNITY') }}"
+                """
+        )
+    }
+)
+public class TrapTrigger extends AbstractTrapTrigger implements RealtimeTriggerInterface, TriggerOutput<Trap> {
+    private static final Duration STATS_INTERVAL = Duration.ofSeconds(30);
+
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean isActive = new AtomicBoolean(true);
+
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    private final CountDownLatch waitForTermination = new CountDownLatch(1);
+
+    @Override
+    public Publisher<Execution> evaluate(ConditionContext conditionContext, TriggerContext context) throws Exception {
+        RunContext runContext = conditionContext.getRunContext();
+        TrapReceiver.Settings settings = receiverSettings(runContext);
+        TrapDeduplicator deduplicator = deduplicator(runContext);
+
+        return Flux.<Trap>create(sink -> {
+                try (TrapReceiver receiver = new TrapReceiver(settings, deduplicator, runContext.logger())) {
+                    receiver.start();
+                    runContext.logger().info("Listening for SNMP notifications on {}:{}", settings.bindAddress(), settings.port());
+
+                    long nextStats = System.nanoTime() + STATS_INTERVAL.toNanos();
+                    long reportedDrops = 0;
+                    while (isActive.get()) {
+                        Trap trap = receiver.poll(500, TimeUnit.MILLISECONDS);
+                        if (trap != null) {
+                            sink.next(trap);
+                        }
+                        receiver.sweep();
+
+                        if (System.nanoTime() - nextStats > 0) {
+                            TrapReceiver.Stats stats = receiver.stats();
+                            if (stats.dropped() > reportedDrops) {
+                                runContext.logger().warn(
+                                    "Dropped {} SNMP notification(s) out of {} received ({} waiting for decoding, {} waiting for an execution)",
+                                    stats.dropped(), stats.getReceived(), stats.getDecodeDropped(), stats.getQueueDropped()
+                                );
+                                reportedDrops = stats.dropped();
+                            }
+                            if (deduplicator != null) {
+                                runContext.logger().info("Suppressed {} duplicate SNMP notification(s) so far, {} summarized", stats.getSuppressed(), stats.getSummaries());
+                            }
+                            nextStats = System.nanoTime() + STATS_INTERVAL.toNanos();
+                        }
+                    }
+
+                    // deliver what was accepted before stopping, including the summaries of the open windows
+                    receiver.shutdown();
+                    Trap trap;
+                    while ((trap = receiver.poll(0, TimeUnit.MILLISECONDS)) != null) {
+                        sink.next(trap);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Throwable e) {
+                    sink.error(e);
+                    return;
+                } finally {
+                    waitForTermination.countDown();
+                }
+                sink.complete();
+            }, FluxSink.OverflowStrategy.BUFFER)
+            .map(trap -> TriggerService.generateRealtimeExecution(this, conditionContext, context, trap));
+    }
+
+    @Override
+    public void kill() {
+        stop(true);
+    }
+
+    @Override
+    public void stop() {
+        stop(false);
+    }
+
+    private void stop(boolean wait) {
+        if (!isActive.compareAndSet(true, false)) {
+            return;
+        }
+
+        if (wait) {
+            try {
+                this.waitForTermination.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.kestra.plugin.snmp;
+
+import org.snmp4j.smi.Counter32;
+import org.snmp4j.smi.Counter64;
+import org.snmp4j.smi.Gauge32;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.IpAddress;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.Opaque;
+import org.snmp4j.smi.TimeTicks;
+import org.snmp4j.smi.Variable;
+
+/**
+ * Turns rendered varbind values into SMI {@link Variable}s.
+ * <p>
+ * Untyped values are classified by a single hand-written scan instead of regular expressions: an optionally negative
+ * decimal becomes {@link Integer32} when it fits, then {@link Gauge32} up to 2^32-1, then {@link Counter64} up to
+ * 2^64-1; dot-separated decimals become an {@link OID}; anything else, including out-of-range numbers, is sent as an
+ * {@link OctetString}.
+ */
+public final class VarBindEncoder {
+    private static final long UNSIGNED_32_MAX = 0xFFFF_FFFFL;
+
+    private VarBindEncoder() {
+    }
+
+    public static Variable encode(String raw, AbstractSnmpTask.VariableType type) {
+        if (raw == null) {
+            return null;
+        }
+        if (type == null) {
+            return classify(raw);
+        }
+
+        try {
+            return switch (type) {
+                case INTEGER32 -> new Integer32(Integer.parseInt(raw));
+                case GAUGE32 -> new Gauge32(parseUnsigned32(raw));
+                case COUNTER32 -> new Counter32(parseUnsigned32(raw));
+                case COUNTER64 -> new Counter64(Long.parseUnsignedLong(raw));
+                case TIMETICKS -> new TimeTicks(parseUnsigned32(raw));
+                case IPADDRESS -> new IpAddress(raw);
+                case OID -> new OID(raw);
+                case OCTETSTRING -> new OctetString(raw);
+                case OPAQUE -> new Opaque(OctetString.fromHexString(raw).getValue());
+            };
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid " + type + " value: '" + raw + "'", e);
+        }
+    }
+
+    public static Variable classify(String raw) {
+        int length = raw.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && raw.charAt(0) == '-') {
+            negative = true;
+            i = 1;
+        }
+
+        long value = 0;
+        boolean overflow = false;
+        boolean digits = false;
+        int dots = 0;
+
+        for (; i < length; i++) {
+            char c = raw.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+                if (dots == 0 && !overflow) {
+                    int digit = c - '0';
+                    // unsigned 64-bit accumulation: value * 10 + digit must not exceed 2^64-1
+                    if (Long.compareUnsigned(value, Long.divideUnsigned(-1L - digit, 10)) > 0) {
+                        overflow = true;
+                    } else {
+                        value = value * 10 + digit;
+                    }
+                }
+            } else if (c == '.' && !negative && digits) {
+                dots++;
+                digits = false;
+            } else {
+                return new OctetString(raw);
+            }
+        }
+
+        if (!digits) {
+            // empty, lone '-' or trailing '.'
+            return new OctetString(raw);
+        }
+        if (dots > 0) {
+            return new OID(raw);
+        }
+        if (overflow) {
+            return new OctetString(raw);
+        }
+
+        if (negative) {
+            if (Long.compareUnsigned(value, -(long) Integer.MIN_VALUE) > 0) {
+                return new OctetString(raw);
+            }
+            return new Integer32((int) -value);
+        }
+        if (Long.compareUnsigned(value, Integer.MAX_VALUE) <= 0) {
+            return new Integer32((int) value);
+        }
+        if (Long.compareUnsigned(value, UNSIGNED_32_MAX) <= 0) {
+            return new Gauge32(value);
+        }
+        return new Counter64(value);
+    }
+
+    private static long parseUnsigned32(String raw) {
+        long value = Long.parseLong(raw);
+        if (value < 0 || value > UNSIGNED_32_MAX) {
+            throw new NumberFormatException("Out of unsigned 32-bit range");
+        }
+        return value;
+    }
+}
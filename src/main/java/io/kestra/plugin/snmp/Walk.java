@@ -0,0 +1,107 @@
+package io.kestra.plugin.snmp;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.VariableBinding;
+
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@EqualsAndHashCode
+@ToString
+@Getter
+@NoArgsConstructor
+@Schema(
+    title = "Walk SNMP subtrees into internal storage",
+    description = "Walks every OID under the given roots with GETBULK (GETNEXT for v1) and writes one row per varbind (`oid`, `type`, `value`) to an ION or CSV file as responses arrive, so arbitrarily large subtrees are retrieved with bounded memory."
+)
+@Plugin(
+    examples = {
+        @Example(
+            title = "Walk the interfaces table of a switch",
+            full = true,
+            code = """
+                    id: snmp-walk
+                    namespace: monitoring
+
+                    tasks:
+                      - id: walk
+                        type: io.kestra.plugin.snmp.Walk
+                        host: "switch-01.example.com"
+                        snmpVersion: "v2c"
+                        community: "public"
+                        maxRepetitions: 50
+                        oids:
+                          - "1.3.6.1.2.1.2.2"
+                """
+        )
+    }
+)
+public class Walk extends AbstractSnmpStreamTask implements RunnableTask<AbstractSnmpStreamTask.Output> {
+    @Schema(title = "Root OIDs", description = "Numeric or symbolic OIDs of the subtrees to walk, e.g. `IF-MIB::ifTable`")
+    @NotNull
+    @PluginProperty(group = "main")
+    protected Property<List<String>> oids;
+
+    @Override
+    public Output run(RunContext runContext) throws Exception {
+        return stream(runContext);
+    }
+
+    @Override
+    protected List<String> header(RunContext runContext) {
+        return List.of("oid", "name", "type", "value");
+    }
+
+    @Override
+    protected Retrieval retrieval(RunContext runContext, MibIndex mibs, RequestSession session, int maxRepetitions) throws Exception {
+        List<OID> roots = runContext.render(this.oids).asList(String.class).stream()
+            .map(oid -> PduTemplate.oid(mibs, oid))
+            .toList();
+
+        return queue -> {
+            for (OID root : roots) {
+                OID cursor = root;
+                while (cursor != null) {
+                    OID last = cursor;
+                    cursor = null;
+                    for (VariableBinding binding : session.next(List.of(last), maxRepetitions)) {
+                        // the subtree ends at the end of the MIB view or at the first OID out of it
+                        if (binding.getVariable().isException() || !binding.getOid().startsWith(root) || binding.getOid().compareTo(last) <= 0) {
+                            cursor = null;
+                            break;
+                        }
+                        if (!queue.put(row(binding, mibs))) {
+                            return;
+                        }
+                        last = binding.getOid();
+                        cursor = last;
+                    }
+                }
+            }
+        };
+    }
+
+    private static Map<String, Object> row(VariableBinding binding, MibIndex mibs) {
+        SnmpValue value = SnmpValue.of(binding, mibs);
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("oid", value.getOid());
+        row.put("name", value.getName());
+        row.put("type", value.getType());
+        row.put("value", value.getValue());
+        return row;
+    }
+}
@@ -0,0 +1,112 @@
+package io.kestra.plugin.snmp;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.snmp4j.PDU;
+import org.snmp4j.Snmp;
+import org.snmp4j.Target;
+import org.snmp4j.event.ResponseEvent;
+import org.snmp4j.event.ResponseListener;
+import org.snmp4j.smi.Address;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.UdpAddress;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class AsyncNotifierTest {
+    @Test
+    void correlateOnUserHandle() throws Exception {
+        Snmp snmp = new Snmp() {
+            @Override
+            public <A extends Address> void send(PDU pdu, Target<A> target, Object userHandle, ResponseListener listener) {
+                // as if snmp4j had given the request another ID
+                pdu.setRequestID(new Integer32(pdu.getRequestID().getValue() + 1000));
+                PDU response = (PDU) pdu.clone();
+                response.setType(PDU.RESPONSE);
+                listener.onResponse(new ResponseEvent<>(this, target.getAddress(), pdu, response, userHandle));
+            }
+        };
+
+        AsyncNotifier notifier = new AsyncNotifier(snmp, 1, false);
+        AsyncNotifier.Result result = notifier.send(SnmpVersion.V2C.pdu(PDU.INFORM), target(100, 0)).get(5, TimeUnit.SECONDS);
+
+        assertThat(result.acknowledged(), is(true));
+        assertThat(notifier.inFlight(), is(0));
+    }
+
+    @Test
+    void expireRequestNeverAnswered() throws Exception {
+        Snmp snmp = new Snmp() {
+            @Override
+            public <A extends Address> void send(PDU pdu, Target<A> target, Object userHandle, ResponseListener listener) {
+                // neither a response nor a timeout is ever reported
+            }
+        };
+
+        AsyncNotifier notifier = new AsyncNotifier(snmp, 1, false);
+        long start = System.nanoTime();
+        AsyncNotifier.Result result = notifier.send(SnmpVersion.V2C.pdu(PDU.INFORM), target(100, 1)).get(10, TimeUnit.SECONDS);
+
+        assertThat(result.acknowledged(), is(false));
+        assertThat(result.error(), startsWith("No response within 1200 ms"));
+        assertThat(System.nanoTime() - start, greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(1200)));
+
+        // the window of one request was released
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> notifier.send(SnmpVersion.V2C.pdu(PDU.INFORM), target(100, 0)));
+    }
+
+    @Test
+    void recoverWhenRoundTripRises() throws Exception {
+        ScheduledExecutorService network = Executors.newSingleThreadScheduledExecutor();
+        AtomicLong rttMs = new AtomicLong(5);
+        Snmp snmp = new Snmp() {
+            @Override
+            public <A extends Address> void send(PDU pdu, Target<A> target, Object userHandle, ResponseListener listener) {
+                // an agent answering after rttMs, or a timeout once the attempt timeout of the target elapsed
+                long rtt = rttMs.get();
+                if (rtt <= target.getTimeout()) {
+                    PDU response = (PDU) pdu.clone();
+                    response.setType(PDU.RESPONSE);
+                    network.schedule(() -> listener.onResponse(new ResponseEvent<>(this, target.getAddress(), pdu, response, userHandle)), rtt, TimeUnit.MILLISECONDS);
+                } else {
+                    network.schedule(() -> listener.onResponse(new ResponseEvent<>(this, target.getAddress(), pdu, null, userHandle)), target.getTimeout(), TimeUnit.MILLISECONDS);
+                }
+            }
+        };
+
+        try {
+            AsyncNotifier notifier = new AsyncNotifier(snmp, 1, true);
+            Target<?> target = SnmpVersion.V2C.target(new UdpAddress("127.0.0.2/162"), 1000, 0, "public", null);
+
+            for (int i = 0; i < 20; i++) {
+                assertThat(notifier.send(SnmpVersion.V2C.pdu(PDU.INFORM), target).get(5, TimeUnit.SECONDS).acknowledged(), is(true));
+            }
+            assertThat(RttEstimator.getInstance().timeoutMs(target.getAddress(), 1000), lessThan(300L));
+
+            // the round trip rises above the adapted timeout, which backs off up to the configured one
+            rttMs.set(300);
+            int failures = 0;
+            while (!notifier.send(SnmpVersion.V2C.pdu(PDU.INFORM), target).get(5, TimeUnit.SECONDS).acknowledged()) {
+                failures++;
+                assertThat(failures, lessThan(10));
+            }
+            assertThat(notifier.send(SnmpVersion.V2C.pdu(PDU.INFORM), target).get(5, TimeUnit.SECONDS).acknowledged(), is(true));
+
+            // the target of the caller keeps its configured timeout
+            assertThat(target.getTimeout(), is(1000L));
+        } finally {
+            network.shutdownNow();
+        }
+    }
+
+    private static Target<?> target(long timeout, int retries) {
+        return SnmpVersion.V2C.target(new UdpAddress("127.0.0.1/162"), timeout, retries, "public", null);
+    }
+}
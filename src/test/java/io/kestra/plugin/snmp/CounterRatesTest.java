@@ -0,0 +1,177 @@
+package io.kestra.plugin.snmp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.Counter32;
+import org.snmp4j.smi.Counter64;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.TimeTicks;
+import org.snmp4j.smi.Variable;
+import org.snmp4j.smi.VariableBinding;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class CounterRatesTest {
+    private static final OID IF_IN_OCTETS = new OID("1.3.6.1.2.1.2.2.1.10.1");
+    private static final OID IF_HC_IN_OCTETS = new OID("1.3.6.1.2.1.31.1.1.1.6.1");
+
+    @Test
+    void firstSampleHasNoRate() {
+        var rates = new CounterRates();
+
+        List<SnmpValue> values = rates.apply("10.0.0.1/161", MibIndex.getInstance(), List.of(new VariableBinding(IF_IN_OCTETS, new Counter32(100))), 0);
+
+        assertThat(values.getFirst().getDelta(), nullValue());
+        assertThat(values.getFirst().getRate(), nullValue());
+        assertThat(rates.size(), is(1));
+    }
+
+    @Test
+    void rateFromUptime() {
+        var rates = new CounterRates();
+
+        rates.apply("10.0.0.1/161", MibIndex.getInstance(), sample(1_000, new Counter32(100)), 0);
+        // 10 seconds of agent uptime, whatever the wall clock says
+        List<SnmpValue> values = rates.apply("10.0.0.1/161", MibIndex.getInstance(), sample(2_000, new Counter32(1_100)), 60_000);
+
+        assertThat(values.getFirst().getDelta(), is(1_000L));
+        assertThat(values.getFirst().getRate(), is(100.0));
+    }
+
+    @Test
+    void counter32Wraps() {
+        var rates = new CounterRates();
+
+        rates.apply("10.0.0.1/161", MibIndex.getInstance(), sample(1_000, new Counter32(0xFFFF_FFF0L)), 0);
+        List<SnmpValue> values = rates.apply("10.0.0.1/161", MibIndex.getInstance(), sample(1_100, new Counter32(0x10)), 1_000);
+
+        assertThat(values.getFirst().getDelta(), is(0x20L));
+    }
+
+    @Test
+    void counter64Wraps() {
+        var rates = new CounterRates();
+
+        rates.apply("10.0.0.1/161", MibIndex.getInstance(), sample(1_000, new Counter64(-16L)), 0);
+        List<SnmpValue> values = rates.apply("10.0.0.1/161", MibIndex.getInstance(), sample(1_100, new Counter64(16L)), 1_000);
+
+        assertThat(values.getFirst().getDelta(), is(32L));
+        assertThat(values.getFirst().getRate(), is(32.0));
+    }
+
+    @Test
+    void noRateAfterReboot() {
+        var rates = new CounterRates();
+
+        rates.apply("10.0.0.1/161", MibIndex.getInstance(), sample(100_000, new Counter32(5_000)), 0);
+        List<SnmpValue> rebooted = rates.apply("10.0.0.1/161", MibIndex.getInstance(), sample(500, new Counter32(10)), 1_000);
+        List<SnmpValue> next = rates.apply("10.0.0.1/161", MibIndex.getInstance(), sample(1_500, new Counter32(110)), 11_000);
+
+        assertThat(rebooted.getFirst().getRate(), nullValue());
+        assertThat(next.getFirst().getDelta(), is(100L));
+        assertThat(next.getFirst().getRate(), is(10.0));
+    }
+
+    @Test
+    void seriesAreKeyedByDevice() {
+        var rates = new CounterRates();
+
+        rates.apply("10.0.0.1/161", MibIndex.getInstance(), sample(1_000, new Counter32(100)), 0);
+        List<SnmpValue> values = rates.apply("10.0.0.2/161", MibIndex.getInstance(), sample(2_000, new Counter32(200)), 10_000);
+
+        assertThat(values.getFirst().getRate(), nullValue());
+        assertThat(rates.size(), is(2));
+    }
+
+    @Test
+    void encodeDecode() {
+        var rates = new CounterRates();
+        for (int i = 0; i < 100; i++) {
+            rates.apply("10.0.0." + i + "/161", MibIndex.getInstance(), List.of(
+                new VariableBinding(IF_IN_OCTETS, new Counter32(i)),
+                new VariableBinding(IF_HC_IN_OCTETS, new Counter64(i))
+            ), 0);
+        }
+
+        var decoded = CounterRates.decode(rates.encode(0));
+        List<SnmpValue> values = decoded.apply("10.0.0.42/161", List.of(new VariableBinding(IF_HC_IN_OCTETS, new Counter64(142))), 1_000);
+
+        assertThat(decoded.size(), is(200));
+        assertThat(values.getFirst().getDelta(), is(100L));
+        assertThat(values.getFirst().getRate(), is(100.0));
+    }
+
+    @Test
+    void mergeKeepsNewestSample() {
+        var loaded = new CounterRates();
+        loaded.apply("10.0.0.1/161", sample(1_000, new Counter32(100)), 0);
+
+        // another execution sampled the same device, and another one, since this one loaded the state
+        var stored = CounterRates.decode(loaded.encode(0));
+        stored.apply("10.0.0.1/161", sample(2_000, new Counter32(1_100)), 10_000);
+        stored.apply("10.0.0.2/161", sample(2_000, new Counter32(7)), 10_000);
+
+        loaded.merge(stored);
+        List<SnmpValue> values = loaded.apply("10.0.0.1/161", sample(3_000, new Counter32(1_600)), 20_000);
+
+        assertThat(loaded.size(), is(2));
+        assertThat(values.getFirst().getDelta(), is(500L));
+        assertThat(values.getFirst().getRate(), is(50.0));
+    }
+
+    @Test
+    void loadAndSaveOnlySampledShards() {
+        var previous = new CounterRates();
+        previous.apply("10.0.0.1/161", sample(1_000, new Counter32(100)), 0);
+        previous.apply("10.0.0.2/161", sample(1_000, new Counter32(100)), 0);
+        int[] shards = previous.sampledShards();
+
+        Map<Integer, byte[]> store = new HashMap<>();
+        for (int shard : shards) {
+            store.put(shard, previous.encode(shard, 0));
+        }
+        List<Integer> loads = new ArrayList<>();
+        var rates = new CounterRates(shard -> {
+            loads.add(shard);
+            return store.get(shard);
+        });
+
+        List<SnmpValue> values = rates.apply("10.0.0.1/161", MibIndex.getInstance(), sample(2_000, new Counter32(1_100)), 10_000);
+        rates.apply("10.0.0.1/161", MibIndex.getInstance(), sample(3_000, new Counter32(2_100)), 20_000);
+
+        int shard = CounterRates.shard(Fnv.hash(Fnv.OFFSET, "10.0.0.1/161"));
+        assertThat(values.getFirst().getDelta(), is(1_000L));
+        assertThat(loads, contains(shard));
+        assertThat(rates.sampledShards(), is(new int[]{ shard }));
+        // each shard only holds the series of its own devices
+        assertThat(CounterRates.decode(rates.encode(shard, 20_000)).size(), is(store.size() == 1 ? 2 : 1));
+    }
+
+    @Test
+    void dropStaleSeries() {
+        var rates = new CounterRates();
+        rates.apply("10.0.0.1/161", MibIndex.getInstance(), List.of(new VariableBinding(IF_IN_OCTETS, new Counter32(1))), 0);
+
+        assertThat(CounterRates.decode(rates.encode(TimeUnit.DAYS.toMillis(8))).size(), is(0));
+    }
+
+    @Test
+    void ignoreUnknownFormat() {
+        assertThat(CounterRates.decode(new byte[]{0, 0, 0, 9, 0, 0, 0, 1}).size(), is(0));
+        assertThat(CounterRates.decode(new byte[0]).size(), is(0));
+    }
+
+    private static List<VariableBinding> sample(long uptime, Variable counter) {
+        return List.of(
+            new VariableBinding(counter instanceof Counter64 ? IF_HC_IN_OCTETS : IF_IN_OCTETS, counter),
+            new VariableBinding(SnmpConstants.sysUpTime, new TimeTicks(uptime))
+        );
+    }
+}
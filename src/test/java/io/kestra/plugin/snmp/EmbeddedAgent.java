@@ -0,0 +1,355 @@
+package io.kestra.plugin.snmp;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.snmp4j.CommandResponder;
+import org.snmp4j.CommandResponderEvent;
+import org.snmp4j.MessageException;
+import org.snmp4j.PDU;
+import org.snmp4j.Snmp;
+import org.snmp4j.TransportMapping;
+import org.snmp4j.mp.StateReference;
+import org.snmp4j.mp.StatusInformation;
+import org.snmp4j.smi.Address;
+import org.snmp4j.smi.Counter32;
+import org.snmp4j.smi.DtlsAddress;
+import org.snmp4j.smi.Null;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.TcpAddress;
+import org.snmp4j.smi.TlsAddress;
+import org.snmp4j.smi.TransportIpAddress;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.Variable;
+import org.snmp4j.smi.VariableBinding;
+import org.snmp4j.transport.DTLSTM;
+import org.snmp4j.transport.DefaultTcpTransportMapping;
+import org.snmp4j.transport.DefaultUdpTransportMapping;
+import org.snmp4j.transport.TLSTM;
+import org.snmp4j.transport.tls.TlsTmSecurityCallback;
+import org.snmp4j.util.MultiThreadedMessageDispatcher;
+import org.snmp4j.util.ThreadPool;
+
+/**
+ * An in-process SNMP agent and manager on an ephemeral loopback port, over UDP, TCP, TLS or DTLS, for tests that must
+ * not depend on an external snmptrapd or a fixed port.
+ * <p>
+ * It collects every TRAP and INFORM it receives, acknowledges INFORMs after an optional delay, and can drop or fail
+ * a share of them to exercise retries and errors. It also answers GET, GETNEXT and GETBULK from a synthetic MIB, filled
+ * with {@link #put(OID, Variable)} or {@link #table(OID, int, int)}, and applies SETs to it unless an error status is
+ * configured.
+ */
+final class EmbeddedAgent implements CommandResponder, AutoCloseable {
+    static final String KEY_STORE = "/tls/embedded-agent.p12";
+    static final String KEY_STORE_PASSWORD = "changeit";
+    static final String SECURITY_NAME = "kestra";
+
+    // the certificates are checked against the trust store already, any peer holding one gets the same security name
+    private static final TlsTmSecurityCallback<X509Certificate> ANY_PEER = new TlsTmSecurityCallback<>() {
+        @Override
+        public OctetString getSecurityName(X509Certificate[] peerCertificateChain) {
+            return new OctetString(SECURITY_NAME);
+        }
+
+        @Override
+        public boolean isClientCertificateAccepted(X509Certificate peerEndCertificate) {
+            return true;
+        }
+
+        @Override
+        public boolean isServerCertificateAccepted(X509Certificate[] peerCertificateChain) {
+            return true;
+        }
+
+        @Override
+        public boolean isAcceptedIssuer(X509Certificate issuerCertificate) {
+            return true;
+        }
+
+        @Override
+        public String getLocalCertificateAlias(Address targetAddress) {
+            return "kestra";
+        }
+    };
+
+    private final Snmp snmp;
+    private final int port;
+    private final ThreadPool workers = ThreadPool.create("embedded-agent", 4);
+    private final ScheduledExecutorService delays = Executors.newSingleThreadScheduledExecutor();
+    private final NavigableMap<OID, Variable> mib = new ConcurrentSkipListMap<>();
+    private final BlockingQueue<PDU> notifications = new LinkedBlockingQueue<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong sets = new AtomicLong();
+
+    private volatile Duration delay = Duration.ZERO;
+    // drop every n-th INFORM or request, 0 to answer all
+    private volatile int dropEvery;
+    private volatile int errorStatus = PDU.noError;
+
+    EmbeddedAgent() throws IOException {
+        this(SnmpTransport.UDP);
+    }
+
+    /**
+     * An agent listening over the given transport. Over TLS and DTLS, it authenticates with the self-signed
+     * certificate of {@link #KEY_STORE}, which managers must trust, and maps every peer to the
+     * {@link #SECURITY_NAME} security name.
+     */
+    EmbeddedAgent(SnmpTransport transport) throws IOException {
+        TransportMapping<?> mapping = switch (transport) {
+            case UDP -> {
+                DefaultUdpTransportMapping udp = new DefaultUdpTransportMapping(new UdpAddress("127.0.0.1/0"), true);
+                udp.setReceiveBufferSize(4 * 1024 * 1024);
+                yield udp;
+            }
+            case TCP -> new DefaultTcpTransportMapping(new TcpAddress("127.0.0.1/" + freePort()));
+            case TLS -> {
+                TLSTM tls = new TLSTM(new TlsAddress("127.0.0.1/" + freePort()));
+                tls.setKeyStore(keyStore());
+                tls.setKeyStorePassword(KEY_STORE_PASSWORD);
+                tls.setTrustStore(keyStore());
+                tls.setTrustStorePassword(KEY_STORE_PASSWORD);
+                tls.setSecurityCallback(ANY_PEER);
+                yield tls;
+            }
+            case DTLS -> {
+                DTLSTM dtls = new DTLSTM(new DtlsAddress("127.0.0.1/" + freePort()));
+                dtls.setKeyStore(keyStore());
+                dtls.setKeyStorePassword(KEY_STORE_PASSWORD);
+                dtls.setTrustStore(keyStore());
+                dtls.setTrustStorePassword(KEY_STORE_PASSWORD);
+                dtls.setSecurityCallback(ANY_PEER);
+                yield dtls;
+            }
+        };
+        snmp = new Snmp(new MultiThreadedMessageDispatcher(workers, SnmpV3Security.newDispatcher(transport.isSecure())), mapping);
+        snmp.addCommandResponder(this);
+        snmp.listen();
+        port = ((TransportIpAddress) mapping.getListenAddress()).getPort();
+    }
+
+    /**
+     * Path of the PKCS#12 store holding the agent key and certificate, trusted by itself.
+     */
+    static String keyStore() {
+        try {
+            return Path.of(EmbeddedAgent.class.getResource(KEY_STORE).toURI()).toString();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    int port() {
+        return port;
+    }
+
+    /**
+     * Answer INFORMs and requests after this delay.
+     */
+    EmbeddedAgent delay(Duration delay) {
+        this.delay = delay;
+        return this;
+    }
+
+    /**
+     * Leave every n-th INFORM or request unanswered, as if the datagram was lost.
+     */
+    EmbeddedAgent dropEvery(int n) {
+        this.dropEvery = n;
+        return this;
+    }
+
+    /**
+     * Answer INFORMs and requests with this error status.
+     */
+    EmbeddedAgent errorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+        return this;
+    }
+
+    EmbeddedAgent put(OID oid, Variable value) {
+        mib.put(oid, value);
+        return this;
+    }
+
+    Variable get(OID oid) {
+        return mib.get(oid);
+    }
+
+    /**
+     * Fill a conceptual table under {@code entry}: columns 1..columns, rows indexed 1..rows, odd columns holding
+     * counters and even ones strings.
+     */
+    EmbeddedAgent table(OID entry, int columns, int rows) {
+        for (int column = 1; column <= columns; column++) {
+            for (int row = 1; row <= rows; row++) {
+                OID oid = new OID(entry).append(column).append(row);
+                mib.put(oid, column % 2 == 1 ? new Counter32(row * 1000L + column) : new OctetString("row-" + row));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * The next notification received, or null after the timeout.
+     */
+    PDU notification(long timeout, TimeUnit unit) throws InterruptedException {
+        return notifications.poll(timeout, unit);
+    }
+
+    int notificationCount() {
+        return notifications.size();
+    }
+
+    /**
+     * Number of INFORMs and requests received, retransmissions included.
+     */
+    long requests() {
+        return requests.get();
+    }
+
+    /**
+     * Number of SET PDUs received.
+     */
+    long sets() {
+        return sets.get();
+    }
+
+    @Override
+    public <A extends Address> void processPdu(CommandResponderEvent<A> event) {
+        PDU pdu = event.getPDU();
+        if (pdu == null) {
+            return;
+        }
+        event.setProcessed(true);
+
+        switch (pdu.getType()) {
+            case PDU.TRAP, PDU.V1TRAP -> notifications.add(pdu);
+            case PDU.INFORM -> {
+                notifications.add(pdu);
+                answer(event, (PDU) pdu.clone());
+            }
+            case PDU.GET, PDU.GETNEXT, PDU.GETBULK -> answer(event, lookup(pdu));
+            case PDU.SET -> {
+                sets.incrementAndGet();
+                if (errorStatus == PDU.noError) {
+                    // all or nothing, like an agent applying the SET as one transaction
+                    for (VariableBinding binding : pdu.getVariableBindings()) {
+                        mib.put(binding.getOid(), binding.getVariable());
+                    }
+                }
+                answer(event, (PDU) pdu.clone());
+            }
+            default -> {
+                // responses are not served
+            }
+        }
+    }
+
+    private PDU lookup(PDU request) {
+        PDU response = (PDU) request.clone();
+        response.clear();
+
+        if (request.getType() == PDU.GETBULK) {
+            int nonRepeaters = Math.min(request.getNonRepeaters(), request.size());
+            for (int i = 0; i < nonRepeaters; i++) {
+                response.add(next(request.get(i).getOid()));
+            }
+            for (int i = nonRepeaters; i < request.size(); i++) {
+                OID oid = request.get(i).getOid();
+                for (int r = 0; r < Math.max(1, request.getMaxRepetitions()); r++) {
+                    VariableBinding binding = next(oid);
+                    response.add(binding);
+                    if (binding.getVariable().isException()) {
+                        break;
+                    }
+                    oid = binding.getOid();
+                }
+            }
+            return response;
+        }
+
+        for (VariableBinding binding : request.getVariableBindings()) {
+            if (request.getType() == PDU.GETNEXT) {
+                response.add(next(binding.getOid()));
+            } else {
+                Variable value = mib.get(binding.getOid());
+                response.add(new VariableBinding(binding.getOid(), value != null ? value : Null.noSuchObject));
+            }
+        }
+        return response;
+    }
+
+    private VariableBinding next(OID oid) {
+        Map.Entry<OID, Variable> entry = mib.higherEntry(oid);
+        return entry != null ? new VariableBinding(entry.getKey(), entry.getValue()) : new VariableBinding(oid, Null.endOfMibView);
+    }
+
+    private <A extends Address> void answer(CommandResponderEvent<A> event, PDU response) {
+        long count = requests.incrementAndGet();
+        if (dropEvery > 0 && count % dropEvery == 0) {
+            return;
+        }
+
+        response.setType(PDU.RESPONSE);
+        response.setErrorStatus(errorStatus);
+        response.setErrorIndex(errorStatus == PDU.noError ? 0 : 1);
+
+        Duration rDelay = delay;
+        if (rDelay.isZero()) {
+            send(event, response);
+        } else {
+            delays.schedule(() -> send(event, response), rDelay.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <A extends Address> void send(CommandResponderEvent<A> event, PDU response) {
+        StateReference<A> reference = event.getStateReference();
+        reference.setTransportMapping(event.getTransportMapping());
+        try {
+            event.getMessageDispatcher().returnResponsePdu(
+                event.getMessageProcessingModel(),
+                event.getSecurityModel(),
+                event.getSecurityName(),
+                event.getSecurityLevel(),
+                response,
+                event.getMaxSizeResponsePDU(),
+                reference,
+                new StatusInformation()
+            );
+        } catch (MessageException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            snmp.close();
+        } finally {
+            delays.shutdownNow();
+            workers.cancel();
+        }
+    }
+}
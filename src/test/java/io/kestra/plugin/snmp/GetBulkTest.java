@@ -0,0 +1,99 @@
+package io.kestra.plugin.snmp;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.Counter32;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.TimeTicks;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.TestsUtils;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class GetBulkTest {
+    private static final OID SYS_DESCR = new OID("1.3.6.1.2.1.1.1");
+    private static final OID IF_IN_OCTETS = new OID("1.3.6.1.2.1.2.2.1.10");
+
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void readMaxRepetitionsAfterNonRepeaters() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            agent.put(new OID(SYS_DESCR).append(0), new OctetString("switch-01"));
+            for (int i = 1; i <= 5; i++) {
+                agent.put(new OID(IF_IN_OCTETS).append(i), new Counter32(i * 100L));
+            }
+
+            GetBulk task = task(agent, "bulk")
+                .oids(Property.ofValue(List.of(SYS_DESCR.toDottedString(), IF_IN_OCTETS.toDottedString())))
+                .nonRepeaters(Property.ofValue(1))
+                .maxRepetitions(Property.ofValue(3))
+                .build();
+
+            GetBulk.Output output = task.run(runContextFactory.of());
+
+            assertThat(output.getSize(), is(4));
+            assertThat(
+                output.getValues().stream().map(SnmpValue::getOid).toList(),
+                contains("1.3.6.1.2.1.1.1.0", "1.3.6.1.2.1.2.2.1.10.1", "1.3.6.1.2.1.2.2.1.10.2", "1.3.6.1.2.1.2.2.1.10.3")
+            );
+            assertThat(output.getValues().getFirst().getValue(), is("switch-01"));
+        }
+    }
+
+    @Test
+    void ratesOnAgentUptime() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            agent.put(SnmpConstants.sysUpTime, new TimeTicks(1_000));
+            agent.put(new OID(IF_IN_OCTETS).append(1), new Counter32(1_000));
+            agent.put(new OID(IF_IN_OCTETS).append(2), new Counter32(2_000));
+
+            GetBulk task = task(agent, "rates")
+                .oids(Property.ofValue(List.of(IF_IN_OCTETS.toDottedString())))
+                .maxRepetitions(Property.ofValue(2))
+                .rates(Property.ofValue(true))
+                .build();
+            RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, Map.of());
+
+            GetBulk.Output first = task.run(runContext);
+
+            // sysUpTime.0 is read as the successor of sysUpTime, then left out of the values
+            assertThat(first.getSize(), is(2));
+            assertThat(first.getValues().stream().map(SnmpValue::getOid).toList(), not(hasItem(SnmpConstants.sysUpTime.toDottedString())));
+            assertThat(first.getValues().getFirst().getDelta(), nullValue());
+
+            // one minute later on the agent clock
+            agent.put(SnmpConstants.sysUpTime, new TimeTicks(7_000));
+            agent.put(new OID(IF_IN_OCTETS).append(1), new Counter32(1_600));
+            agent.put(new OID(IF_IN_OCTETS).append(2), new Counter32(2_000));
+
+            GetBulk.Output second = task.run(runContext);
+
+            assertThat(second.getSize(), is(2));
+            assertThat(second.getValues().get(0).getDelta(), is(600L));
+            assertThat(second.getValues().get(0).getRate(), is(10.0));
+            assertThat(second.getValues().get(1).getDelta(), is(0L));
+        }
+    }
+
+    private static GetBulk.GetBulkBuilder<?, ?> task(EmbeddedAgent agent, String id) {
+        return GetBulk.builder()
+            .id(id)
+            .type(GetBulk.class.getName())
+            .host(Property.ofValue("127.0.0.1"))
+            .port(Property.ofValue(agent.port()));
+    }
+}
@@ -0,0 +1,58 @@
+package io.kestra.plugin.snmp;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.snmp4j.PDU;
+import org.snmp4j.Target;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.VariableBinding;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GetTest {
+    private static final List<VariableBinding> IF_IN_OCTETS = IntStream.rangeClosed(1, 200)
+        .mapToObj(i -> new VariableBinding(new OID("1.3.6.1.2.1.2.2.1.10." + i)))
+        .toList();
+
+    @Test
+    void splitToFitMaxMessageSize() throws Exception {
+        try (var session = session(SnmpVersion.V2C, 484, 1000)) {
+            List<PDU> pdus = session.split(PDU.GET, IF_IN_OCTETS);
+
+            assertThat(pdus.size(), greaterThan(1));
+            assertThat(pdus.stream().mapToInt(PDU::size).sum(), is(IF_IN_OCTETS.size()));
+            for (PDU pdu : pdus) {
+                int estimate = pdu.getVariableBindings().stream().mapToInt(AbstractSnmpRequestTask.RequestSession::estimate).sum();
+                assertThat(estimate + session.overhead(), lessThanOrEqualTo(484));
+            }
+        }
+    }
+
+    @Test
+    void splitOnMaxVarBinds() throws Exception {
+        try (var session = session(SnmpVersion.V2C, 65535, 50)) {
+            List<PDU> pdus = session.split(PDU.GET, IF_IN_OCTETS);
+
+            assertThat(pdus, hasSize(4));
+            assertThat(pdus.getFirst().getVariableBindings().getFirst().getOid(), is(new OID("1.3.6.1.2.1.2.2.1.10.1")));
+        }
+    }
+
+    @Test
+    void rejectBulkOnV1() throws Exception {
+        try (var session = session(SnmpVersion.V1, 1472, 60)) {
+            assertThrows(IllegalArgumentException.class, () -> session.bulk(List.of(), IF_IN_OCTETS, 10));
+        }
+    }
+
+    private static AbstractSnmpRequestTask.RequestSession session(SnmpVersion version, int maxMessageSize, int maxVarBinds) throws Exception {
+        var lease = SnmpSessionPool.getInstance().borrow(new SnmpSessionPool.Key("udp", null, version.name()));
+        Target<?> target = version.target(new UdpAddress("127.0.0.1/161"), 1000, 0, "public", null);
+        return new AbstractSnmpRequestTask.RequestSession(lease, version, target, maxMessageSize, maxVarBinds, new SnmpMetrics(version, null), null);
+    }
+}
@@ -0,0 +1,133 @@
+package io.kestra.plugin.snmp;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.TimeTicks;
+import org.snmp4j.smi.VariableBinding;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class InformJournalTest {
+    private static final long MAX_BYTES = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replayInOrderPerDestination() throws Exception {
+        try (InformJournal journal = new InformJournal(directory)) {
+            InformJournal.Entry first = journal.append(entry("10.0.0.1", "first"), MAX_BYTES);
+            journal.append(entry("10.0.0.2", "other"), MAX_BYTES);
+            journal.append(entry("10.0.0.1", "second"), MAX_BYTES);
+
+            assertThat(journal.destinations(), contains("udp:10.0.0.1/162", "udp:10.0.0.2/162"));
+            assertThat(journal.head("udp:10.0.0.1/162"), is(first));
+
+            journal.ack(first);
+            assertThat(journal.head("udp:10.0.0.1/162").bindings().get(2).getVariable().toString(), is("second"));
+            assertThat(journal.size(), is(2));
+        }
+    }
+
+    @Test
+    void recoverPendingEntries() throws Exception {
+        try (InformJournal journal = new InformJournal(directory)) {
+            InformJournal.Entry first = journal.append(entry("10.0.0.1", "first"), MAX_BYTES);
+            journal.append(entry("10.0.0.1", "second"), MAX_BYTES);
+            journal.ack(first);
+        }
+
+        try (InformJournal journal = new InformJournal(directory)) {
+            InformJournal.Entry head = journal.head("udp:10.0.0.1/162");
+            assertThat(journal.size(), is(1));
+            assertThat(head.sequence(), is(2L));
+            assertThat(head.version(), is(SnmpVersion.V2C));
+            assertThat(head.bindings().get(0).getVariable(), is(new TimeTicks(42)));
+            assertThat(head.bindings().get(2).getVariable().toString(), is("second"));
+
+            // new entries keep counting after the recovered ones
+            assertThat(journal.append(entry("10.0.0.1", "third"), MAX_BYTES).sequence(), is(3L));
+        }
+    }
+
+    @Test
+    void cutTornRecord() throws Exception {
+        long intact;
+        try (InformJournal journal = new InformJournal(directory)) {
+            journal.append(entry("10.0.0.1", "first"), MAX_BYTES);
+            intact = journal.fileSize();
+            journal.append(entry("10.0.0.1", "second"), MAX_BYTES);
+        }
+
+        try (FileChannel channel = FileChannel.open(directory.resolve(InformJournal.FILE_NAME), StandardOpenOption.WRITE)) {
+            channel.truncate(intact + 10);
+        }
+
+        try (InformJournal journal = new InformJournal(directory)) {
+            assertThat(journal.size(), is(1));
+            assertThat(journal.fileSize(), is(intact));
+        }
+    }
+
+    @Test
+    void truncateOnceDelivered() throws Exception {
+        try (InformJournal journal = new InformJournal(directory)) {
+            InformJournal.Entry entry = journal.append(entry("10.0.0.1", "first"), MAX_BYTES);
+            journal.ack(entry);
+
+            assertThat(journal.size(), is(0));
+            assertThat(journal.fileSize(), is(0L));
+            assertThat(journal.hasPending("udp:10.0.0.1/162"), is(false));
+        }
+    }
+
+    @Test
+    void refuseBeyondMaxSize() throws Exception {
+        try (InformJournal journal = new InformJournal(directory)) {
+            InformJournal.Entry first = journal.append(entry("10.0.0.1", "first"), MAX_BYTES);
+            long max = journal.fileSize() + 10;
+
+            assertThat(journal.append(entry("10.0.0.1", "second"), max), nullValue());
+            assertThat(journal.size(), is(1));
+
+            journal.ack(first);
+            assertThat(journal.append(entry("10.0.0.1", "third"), max), notNullValue());
+        }
+    }
+
+    @Test
+    void dropEntriesWhoseCredentialsStayUnknown() throws Exception {
+        try (InformJournal journal = new InformJournal(directory)) {
+            journal.append(entry("10.0.0.1", "first"), MAX_BYTES);
+            journal.append(entry("10.0.0.1", "second"), MAX_BYTES);
+
+            // no task registered "fingerprint", as after a worker restart
+            new InformForwarder(journal, SnmpSessionPool.getInstance()).flush();
+            assertThat(journal.size(), is(2));
+
+            new InformForwarder(journal, SnmpSessionPool.getInstance(), Duration.ZERO).flush();
+            assertThat(journal.size(), is(0));
+        }
+    }
+
+    private static InformJournal.Entry entry(String host, String value) {
+        return new InformJournal.Entry(
+            0, System.currentTimeMillis(), SnmpTransport.UDP, host, 162, SnmpVersion.V2C, "fingerprint", 1500, 1,
+            List.of(
+                new VariableBinding(SnmpConstants.sysUpTime, new TimeTicks(42)),
+                new VariableBinding(SnmpConstants.snmpTrapOID, new OID("1.3.6.1.4.1.8072.2.3.0.1")),
+                new VariableBinding(new OID("1.3.6.1.2.1.1.5.0"), new OctetString(value))
+            )
+        );
+    }
+}
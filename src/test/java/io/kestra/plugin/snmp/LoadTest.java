@@ -0,0 +1,239 @@
+package io.kestra.plugin.snmp;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.TimeTicks;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Throughput and latency of the tasks against an {@link EmbeddedAgent} on the loopback interface. Thresholds are
+ * set an order of magnitude below what a laptop achieves, so that only real regressions fail. Tagged {@code load}, they
+ * are left out of {@code test} and run with {@code ./gradlew loadTest}.
+ */
+@KestraTest
+@Tag("load")
+class LoadTest {
+    private static final OID IF_ENTRY = new OID("1.3.6.1.2.1.2.2.1");
+    private static final String TRAP_OID = "1.3.6.1.4.1.8072.2.3.0.1";
+
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void sendTrapLatency() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            SendTrap task = SendTrap.builder()
+                .host(Property.ofValue("127.0.0.1"))
+                .port(Property.ofValue(agent.port()))
+                .trapOid(Property.ofValue(TRAP_OID))
+                .build();
+
+            List<Long> latencies = repeat(200, () -> task.run(runContextFactory.of()));
+
+            assertThat(percentile(latencies, 0.99), lessThan(TimeUnit.MILLISECONDS.toNanos(100)));
+            for (int i = 0; i < 200; i++) {
+                assertThat(agent.notification(5, TimeUnit.SECONDS), notNullValue());
+            }
+        }
+    }
+
+    @Test
+    void sendInformLatency() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            SendInform task = SendInform.builder()
+                .host(Property.ofValue("127.0.0.1"))
+                .port(Property.ofValue(agent.port()))
+                .trapOid(Property.ofValue(TRAP_OID))
+                .build();
+
+            List<Long> latencies = repeat(200, () -> assertThat(task.run(runContextFactory.of()).isAcknowledged(), is(true)));
+
+            assertThat(percentile(latencies, 0.99), lessThan(TimeUnit.MILLISECONDS.toNanos(200)));
+            assertThat(agent.requests(), is(200L));
+        }
+    }
+
+    @Test
+    void informBatchThroughput() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            SendInformBatch task = SendInformBatch.builder()
+                .trapOid(Property.ofValue(TRAP_OID))
+                .concurrency(Property.ofValue(100))
+                .targets(Property.ofValue(targets(agent, 2000)))
+                .build();
+
+            long start = System.nanoTime();
+            AbstractSnmpBatchTask.Output output = task.run(runContextFactory.of());
+            double perSecond = 2000 / (double) (System.nanoTime() - start) * TimeUnit.SECONDS.toNanos(1);
+
+            List<Long> latencies = output.getResults().stream().map(r -> r.getLatency().toNanos()).toList();
+            assertThat(output.getSucceeded(), is(2000));
+            assertThat(perSecond, greaterThan(200.0));
+            assertThat(percentile(latencies, 0.99), lessThan(TimeUnit.MILLISECONDS.toNanos(500)));
+        }
+    }
+
+    @Test
+    void informBatchUnderLoss() throws Exception {
+        // every 10th datagram is lost, the retransmission is answered
+        try (var agent = new EmbeddedAgent().dropEvery(10)) {
+            SendInformBatch task = SendInformBatch.builder()
+                .trapOid(Property.ofValue(TRAP_OID))
+                .timeoutMs(Property.ofValue(200))
+                .retries(Property.ofValue(2))
+                .targets(Property.ofValue(targets(agent, 500)))
+                .build();
+
+            AbstractSnmpBatchTask.Output output = task.run(runContextFactory.of());
+
+            // a retransmission may itself be dropped, so a few targets can exhaust their retries
+            assertThat(output.getSucceeded(), greaterThanOrEqualTo(495));
+            assertThat(agent.requests(), greaterThan(500L));
+        }
+    }
+
+    @Test
+    void trapBatchThroughput() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            SendTrapBatch task = SendTrapBatch.builder()
+                .trapOid(Property.ofValue(TRAP_OID))
+                .targets(Property.ofValue(targets(agent, 2000)))
+                .build();
+
+            long start = System.nanoTime();
+            task.run(runContextFactory.of());
+            for (int i = 0; i < 2000; i++) {
+                assertThat(agent.notification(5, TimeUnit.SECONDS), notNullValue());
+            }
+            double perSecond = 2000 / (double) (System.nanoTime() - start) * TimeUnit.SECONDS.toNanos(1);
+
+            assertThat(perSecond, greaterThan(500.0));
+        }
+    }
+
+    @Test
+    void getLatency() throws Exception {
+        try (var agent = new EmbeddedAgent().table(IF_ENTRY, 10, 50)) {
+            Get task = Get.builder()
+                .host(Property.ofValue("127.0.0.1"))
+                .port(Property.ofValue(agent.port()))
+                .oids(Property.ofValue(IntStream.rangeClosed(1, 50).mapToObj(i -> IF_ENTRY + ".10." + i).toList()))
+                .build();
+
+            List<Long> latencies = repeat(200, () -> assertThat(task.run(runContextFactory.of()).getSize(), is(50)));
+
+            assertThat(percentile(latencies, 0.99), lessThan(TimeUnit.MILLISECONDS.toNanos(200)));
+        }
+    }
+
+    @Test
+    void walkLargeTable() throws Exception {
+        try (var agent = new EmbeddedAgent().table(IF_ENTRY, 6, 2000)) {
+            Walk walk = Walk.builder()
+                .host(Property.ofValue("127.0.0.1"))
+                .port(Property.ofValue(agent.port()))
+                .oids(Property.ofValue(List.of(IF_ENTRY.toDottedString())))
+                .build();
+
+            AbstractSnmpStreamTask.Output output = walk.run(runContextFactory.of());
+
+            assertThat(output.getRowCount(), is(12000L));
+            assertThat(output.getDuration(), lessThan(Duration.ofSeconds(10)));
+        }
+    }
+
+    @Test
+    void tableRows() throws Exception {
+        try (var agent = new EmbeddedAgent().table(IF_ENTRY, 6, 2000)) {
+            Table table = Table.builder()
+                .host(Property.ofValue("127.0.0.1"))
+                .port(Property.ofValue(agent.port()))
+                .columns(Property.ofValue(List.of(IF_ENTRY + ".1", IF_ENTRY + ".2", IF_ENTRY + ".3")))
+                .build();
+
+            AbstractSnmpStreamTask.Output output = table.run(runContextFactory.of());
+
+            assertThat(output.getRowCount(), is(2000L));
+            assertThat(output.getDuration(), lessThan(Duration.ofSeconds(10)));
+        }
+    }
+
+    @Test
+    void pollDevicesThroughput() throws Exception {
+        try (var agent = new EmbeddedAgent().put(SnmpConstants.sysUpTime, new TimeTicks(4200)).table(IF_ENTRY, 10, 4)) {
+            RunContext runContext = runContextFactory.of();
+
+            File inventory = runContext.workingDir().createTempFile(".ion").toFile();
+            try (OutputStream output = new FileOutputStream(inventory)) {
+                for (int i = 0; i < 500; i++) {
+                    FileSerde.write(output, Map.of("host", "127.0.0.1", "port", agent.port()));
+                }
+            }
+
+            PollDevices task = PollDevices.builder()
+                .from(Property.ofValue(runContext.storage().putFile(inventory).toString()))
+                .oids(Property.ofValue(List.of(SnmpConstants.sysUpTime.toDottedString(), IF_ENTRY + ".10.1", IF_ENTRY + ".10.2")))
+                .concurrency(Property.ofValue(100))
+                .build();
+
+            PollDevices.Output output = task.run(runContext);
+
+            assertThat(output.getSucceeded(), is(500L));
+            assertThat(output.getDuration(), lessThan(Duration.ofSeconds(10)));
+        }
+    }
+
+    private static List<AbstractSnmpBatchTask.BatchTarget> targets(EmbeddedAgent agent, int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> AbstractSnmpBatchTask.BatchTarget.builder()
+                .host(Property.ofValue("127.0.0.1"))
+                .port(Property.ofValue(agent.port()))
+                .build()
+            )
+            .toList();
+    }
+
+    private static List<Long> repeat(int times, ThrowingRunnable runnable) throws Exception {
+        List<Long> latencies = new ArrayList<>(times);
+        for (int i = 0; i < times; i++) {
+            long start = System.nanoTime();
+            runnable.run();
+            latencies.add(System.nanoTime() - start);
+        }
+        return latencies;
+    }
+
+    private static long percentile(List<Long> values, double quantile) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get((int) Math.ceil(quantile * sorted.size()) - 1);
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
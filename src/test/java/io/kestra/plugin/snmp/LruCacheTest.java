@@ -0,0 +1,39 @@
+package io.kestra.plugin.snmp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class LruCacheTest {
+    @Test
+    void evictLeastRecentlyUsedOnly() {
+        // one entry per stripe
+        LruCache<Integer, String> cache = new LruCache<>(1);
+
+        cache.put(1, "one");
+        cache.put(17, "seventeen");
+        assertThat(cache.get(1), nullValue());
+        assertThat(cache.get(17), is("seventeen"));
+
+        // keys of the other stripes stay warm
+        cache.put(2, "two");
+        assertThat(cache.get(17), is("seventeen"));
+        assertThat(cache.size(), is(2));
+    }
+
+    @Test
+    void keepRecentlyReadEntries() {
+        LruCache<Integer, String> cache = new LruCache<>(32);
+
+        // 1, 17 and 33 share a stripe of two entries
+        cache.put(1, "one");
+        cache.put(17, "seventeen");
+        cache.get(1);
+        cache.put(33, "thirty-three");
+
+        assertThat(cache.get(1), is("one"));
+        assertThat(cache.get(17), nullValue());
+        assertThat(cache.get(33), is("thirty-three"));
+    }
+}
@@ -0,0 +1,144 @@
+package io.kestra.plugin.snmp;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.TimeTicks;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.executions.AbstractMetricEntry;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+class MergeShardsTest {
+    private static final int AGENTS = 6;
+
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void pollShardsAndMerge() throws Exception {
+        List<EmbeddedAgent> agents = new ArrayList<>();
+        try {
+            for (int i = 0; i < AGENTS; i++) {
+                agents.add(new EmbeddedAgent().put(SnmpConstants.sysUpTime, new TimeTicks(4200)));
+            }
+            RunContext runContext = runContextFactory.of();
+
+            File inventory = runContext.workingDir().createTempFile(".ion").toFile();
+            try (OutputStream output = new FileOutputStream(inventory)) {
+                for (EmbeddedAgent agent : agents) {
+                    FileSerde.write(output, Map.of("host", "127.0.0.1", "port", agent.port()));
+                }
+            }
+            String from = runContext.storage().putFile(inventory).toString();
+
+            List<MergeShards.Shard> shards = new ArrayList<>();
+            Set<Object> ports = new HashSet<>();
+            for (int shard = 0; shard < 2; shard++) {
+                PollDevices.Output output = PollDevices.builder()
+                    .from(Property.ofValue(from))
+                    .oids(Property.ofValue(List.of(SnmpConstants.sysUpTime.toDottedString())))
+                    .shardCount(Property.ofValue(2))
+                    .shard(Property.ofValue(shard))
+                    .build()
+                    .run(runContext);
+
+                assertThat(output.getShard(), is(shard));
+                assertThat(output.getFailed(), is(0L));
+                for (Map<String, Object> row : rows(runContext, output.getUri())) {
+                    assertThat("polled by a single shard", ports.add(row.get("port")), is(true));
+                    assertThat(ShardRing.of(2).shard("127.0.0.1", ((Number) row.get("port")).intValue()), is(shard));
+                }
+
+                shards.add(new MergeShards.Shard(output.getUri().toString(), output.getShard(), output.getTotal(), output.getSucceeded(), output.getFailed(), output.getDuration()));
+            }
+            assertThat(ports, hasSize(AGENTS));
+
+            MergeShards.Output merged = MergeShards.builder()
+                .shards(Property.ofValue(shards))
+                .build()
+                .run(runContext);
+
+            assertThat(merged.getShards(), is(2));
+            assertThat(merged.getTotal(), is((long) AGENTS));
+            assertThat(merged.getSucceeded(), is((long) AGENTS));
+            assertThat(merged.getSkew(), greaterThanOrEqualTo(1.0));
+            assertThat(merged.getMaxDevices() + merged.getMinDevices(), is((long) AGENTS));
+            assertThat(merged.getMaxDevices(), greaterThanOrEqualTo(merged.getMinDevices()));
+            List<String> metrics = runContext.metrics().stream().map(AbstractMetricEntry::getName).toList();
+            assertThat(metrics, hasItems("shard.duration.slowest", "shard.duration.fastest"));
+            assertThat(metrics, not(hasItem("shard.devices.largest")));
+            assertThat(rows(runContext, merged.getUri()), hasSize(AGENTS));
+        } finally {
+            for (EmbeddedAgent agent : agents) {
+                agent.close();
+            }
+        }
+    }
+
+    @Test
+    void rejectShardOutOfRange() {
+        PollDevices task = PollDevices.builder()
+            .from(Property.ofValue("kestra:///unused.ion"))
+            .oids(Property.ofValue(List.of(SnmpConstants.sysUpTime.toDottedString())))
+            .shardCount(Property.ofValue(4))
+            .shard(Property.ofValue(4))
+            .build();
+
+        assertThrows(IllegalArgumentException.class, () -> task.run(runContextFactory.of()));
+    }
+
+    @Test
+    void addingShardOnlyMovesDevicesToIt() {
+        ShardRing four = ShardRing.of(4);
+        ShardRing five = ShardRing.of(5);
+        int[] counts = new int[4];
+        int moved = 0;
+
+        for (int i = 0; i < 10_000; i++) {
+            String host = "10.0." + (i >> 8) + "." + (i & 0xFF);
+            int before = four.shard(host, 161);
+            int after = five.shard(host, 161);
+            counts[before]++;
+            if (after != before) {
+                assertThat(after, is(4));
+                moved++;
+            }
+        }
+
+        // a fifth of the devices, give or take the unevenness of the ring
+        assertThat(moved, allOf(greaterThan(1_200), lessThan(2_800)));
+        for (int count : counts) {
+            assertThat(count, allOf(greaterThan(2_000), lessThan(3_000)));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> rows(RunContext runContext, URI uri) throws Exception {
+        try (var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(uri), StandardCharsets.UTF_8))) {
+            return FileSerde.readAll(reader).map(row -> (Map<String, Object>) row).collectList().block();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package io.kestra.plugin.snmp;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.snmp4j.smi.OID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class MibIndexTest {
+    private static final String ACME_MIB = """
+        ACME-MIB DEFINITIONS ::= BEGIN
+        IMPORTS
+            Counter FROM RFC1155-SMI
+            OBJECT-TYPE FROM RFC-1212
+            TRAP-TYPE FROM RFC-1215;
+
+        -- an absolute value, so that the module compiles without SNMPv2-SMI
+        acme OBJECT IDENTIFIER ::= { iso org(3) dod(6) internet(1) private(4) enterprises(1) 99999 }
+
+        AcmeLevel ::= INTEGER { low(1), high(2) }
+
+        acmeLevel OBJECT-TYPE
+            SYNTAX      AcmeLevel
+            ACCESS      read-only
+            STATUS      mandatory
+            DESCRIPTION "level -- of the alarm"
+            DEFVAL      { low }
+            ::= { acme 1 }
+
+        acmeHits OBJECT-TYPE
+            SYNTAX      Counter
+            ACCESS      read-only
+            STATUS      mandatory
+            ::= { acme 2 }
+
+        acmeAlarm TRAP-TYPE
+            ENTERPRISE  acme
+            VARIABLES   { acmeLevel }
+            ::= 7
+        END
+        """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void resolveBaseModules() {
+        MibIndex index = MibIndex.getInstance();
+
+        assertThat(index.resolve("IF-MIB::ifOperStatus.3"), is(new OID("1.3.6.1.2.1.2.2.1.8.3")));
+        assertThat(index.resolve("sysUpTime.0"), is(new OID("1.3.6.1.2.1.1.3.0")));
+        assertThat(index.resolve("IF-MIB::linkDown"), is(new OID("1.3.6.1.6.3.1.1.5.3")));
+        assertThat(index.resolve("IF-MIB::unknown.3"), nullValue());
+
+        assertThat(index.type(new OID("1.3.6.1.2.1.2.2.1.8.3")), is(AbstractSnmpTask.VariableType.INTEGER32));
+        assertThat(index.type(new OID("1.3.6.1.2.1.31.1.1.1.6.1")), is(AbstractSnmpTask.VariableType.COUNTER64));
+        assertThat(index.type(new OID("1.3.6.1.2.1.2.2.1")), nullValue());
+    }
+
+    @Test
+    void nameNumericOids() {
+        MibIndex index = MibIndex.getInstance();
+
+        assertThat(index.name(new OID("1.3.6.1.2.1.2.2.1.10.7")), is("IF-MIB::ifInOctets.7"));
+        assertThat(index.name(new OID("1.3.6.1.6.3.1.1.5.4")), is("IF-MIB::linkUp"));
+        assertThat(index.name(new OID("1.3.6.1.4.1.8072.3.2.10")), is("SNMPv2-SMI::enterprises.8072.3.2.10"));
+        assertThat(index.name(new OID("1.2.3")), nullValue());
+    }
+
+    @Test
+    void compileSmiV1Module() {
+        MibIndex index = MibCompiler.compile(List.of(new MibIndex.Source("ACME-MIB", ACME_MIB)));
+
+        assertThat(index.resolve("ACME-MIB::acmeLevel.0"), is(new OID("1.3.6.1.4.1.99999.1.0")));
+        assertThat(index.type(new OID("1.3.6.1.4.1.99999.1.0")), is(AbstractSnmpTask.VariableType.INTEGER32));
+        assertThat(index.type(new OID("1.3.6.1.4.1.99999.2.0")), is(AbstractSnmpTask.VariableType.COUNTER32));
+        // enterprise, 0, specific trap number
+        assertThat(index.resolve("acmeAlarm"), is(new OID("1.3.6.1.4.1.99999.0.7")));
+    }
+
+    @Test
+    void mapBackWrittenIndex() throws Exception {
+        MibIndex index = MibCompiler.compile(List.of(new MibIndex.Source("ACME-MIB", ACME_MIB)));
+        Path file = directory.resolve("acme.idx");
+
+        MibIndex.write(index, file);
+        MibIndex read = MibIndex.read(file);
+
+        assertThat(read.size(), is(index.size()));
+        assertThat(read.name(new OID("1.3.6.1.4.1.99999.2.0")), is("ACME-MIB::acmeHits.0"));
+        assertThat(read.type(new OID("1.3.6.1.4.1.99999.2.0")), is(AbstractSnmpTask.VariableType.COUNTER32));
+
+        Files.write(file, new byte[] {1, 2, 3});
+        assertThat(MibIndex.read(file), nullValue());
+    }
+
+    @Test
+    void loadModulesIntoTheirOwnIndex() throws Exception {
+        List<MibIndex.Source> sources = List.of(new MibIndex.Source("ACME-MIB", ACME_MIB));
+        MibIndex index = MibIndex.load(sources);
+
+        assertThat(index.resolve("ACME-MIB::acmeHits.0"), is(new OID("1.3.6.1.4.1.99999.2.0")));
+        assertThat(index.resolve("IF-MIB::ifDescr.1"), is(new OID("1.3.6.1.2.1.2.2.1.2.1")));
+        assertThat(MibIndex.load(sources), sameInstance(index));
+
+        // other tasks keep resolving through the bundled modules only
+        assertThat(MibIndex.getInstance().resolve("ACME-MIB::acmeHits.0"), nullValue());
+        assertThat(MibIndex.load(List.of()), sameInstance(MibIndex.getInstance()));
+    }
+}
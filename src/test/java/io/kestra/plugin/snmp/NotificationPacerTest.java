@@ -0,0 +1,65 @@
+package io.kestra.plugin.snmp;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.snmp4j.smi.UdpAddress;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class NotificationPacerTest {
+    private static final long NOW = 1_000_000_000L;
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void sendBurstThenPace() {
+        NotificationPacer pacer = new NotificationPacer();
+        UdpAddress address = new UdpAddress("10.0.0.1/162");
+        NotificationPacer.Limit limit = new NotificationPacer.Limit(10, 3, false);
+
+        assertThat(pacer.reserve(address, limit, NOW), is(0L));
+        assertThat(pacer.reserve(address, limit, NOW), is(0L));
+        assertThat(pacer.reserve(address, limit, NOW), is(0L));
+        // queued behind the burst, one interval apart
+        assertThat(pacer.reserve(address, limit, NOW), is(INTERVAL));
+        assertThat(pacer.reserve(address, limit, NOW), is(2 * INTERVAL));
+    }
+
+    @Test
+    void refillOverTime() {
+        NotificationPacer pacer = new NotificationPacer();
+        UdpAddress address = new UdpAddress("10.0.0.2/162");
+        NotificationPacer.Limit limit = new NotificationPacer.Limit(10, 2, false);
+
+        pacer.reserve(address, limit, NOW);
+        pacer.reserve(address, limit, NOW);
+
+        assertThat(pacer.reserve(address, limit, NOW + INTERVAL), is(0L));
+        assertThat(pacer.reserve(address, limit, NOW + 10 * INTERVAL), is(0L));
+        assertThat(pacer.reserve(address, limit, NOW + 10 * INTERVAL), is(0L));
+        assertThat(pacer.reserve(address, limit, NOW + 10 * INTERVAL), is(INTERVAL));
+    }
+
+    @Test
+    void dropWithoutConsumingToken() {
+        NotificationPacer pacer = new NotificationPacer();
+        UdpAddress address = new UdpAddress("10.0.0.3/162");
+        NotificationPacer.Limit limit = new NotificationPacer.Limit(10, 1, true);
+
+        assertThat(pacer.reserve(address, limit, NOW), is(0L));
+        assertThat(pacer.reserve(address, limit, NOW), is(-1L));
+        assertThat(pacer.reserve(address, limit, NOW + INTERVAL / 2), is(-1L));
+        assertThat(pacer.reserve(address, limit, NOW + INTERVAL), is(0L));
+    }
+
+    @Test
+    void pacePerTarget() {
+        NotificationPacer pacer = new NotificationPacer();
+        NotificationPacer.Limit limit = new NotificationPacer.Limit(10, 1, true);
+
+        assertThat(pacer.reserve(new UdpAddress("10.0.0.4/162"), limit, NOW), is(0L));
+        assertThat(pacer.reserve(new UdpAddress("10.0.0.5/162"), limit, NOW), is(0L));
+        assertThat(pacer.reserve(new UdpAddress("10.0.0.4/162"), limit, NOW), is(-1L));
+    }
+}
@@ -0,0 +1,130 @@
+package io.kestra.plugin.snmp;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.TimeTicks;
+import org.snmp4j.smi.VariableBinding;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+class PduTemplateTest {
+    private static final String DEFINITION = """
+        [{"oid": "1.3.6.1.2.1.1.3.0", "value": "100"}, {"oid": "1.3.6.1.2.1.1.5.0", "value": "{{ name }}"}]""";
+
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void renderOnlyDynamicBindings() throws Exception {
+        List<VariableBinding> first = PduTemplate.render(runContextFactory.of(Map.of("name", "first")), MibIndex.getInstance(), Property.ofExpression(DEFINITION));
+        List<VariableBinding> second = PduTemplate.render(runContextFactory.of(Map.of("name", "second")), MibIndex.getInstance(), Property.ofExpression(DEFINITION));
+
+        assertThat(first, hasSize(2));
+        assertThat(first.get(0).getOid(), is(new OID("1.3.6.1.2.1.1.3.0")));
+        assertThat(first.get(0).getVariable(), is(new Integer32(100)));
+        assertThat(first.get(1).getVariable(), is(new OctetString("first")));
+
+        // the static entry was encoded once, when the definition was compiled, and each run gets a copy of it
+        assertThat(second.get(0), is(first.get(0)));
+        assertThat(second.get(0), not(sameInstance(first.get(0))));
+        assertThat(second.get(1).getVariable(), is(new OctetString("second")));
+    }
+
+    @Test
+    void skipRenderingOfStaticDefinition() throws Exception {
+        String definition = """
+            [{"oid": "1.3.6.1.2.1.1.5.0", "value": "router-1"}, {"oid": "1.3.6.1.2.1.1.6.0", "value": "rack 4"}]""";
+
+        List<VariableBinding> first = PduTemplate.render(runContextFactory.of(), MibIndex.getInstance(), Property.ofExpression(definition));
+        List<VariableBinding> second = PduTemplate.render(runContextFactory.of(), MibIndex.getInstance(), Property.ofExpression(definition));
+
+        assertThat(first, hasSize(2));
+        assertThat(first.get(1).getVariable(), is(new OctetString("rack 4")));
+        assertThat(second, is(first));
+        assertThat(second, not(sameInstance(first)));
+    }
+
+    @Test
+    void handOutBindingsCallersMayModify() throws Exception {
+        String definition = """
+            [{"oid": "1.3.6.1.2.1.1.5.0", "value": "router-2"}]""";
+
+        List<VariableBinding> first = PduTemplate.render(runContextFactory.of(), MibIndex.getInstance(), Property.ofExpression(definition));
+        first.getFirst().getOid().append(7);
+        ((OctetString) first.getFirst().getVariable()).append("-changed");
+        first.add(new VariableBinding(new OID("1.3.6.1.2.1.1.6.0")));
+
+        List<VariableBinding> second = PduTemplate.render(runContextFactory.of(), MibIndex.getInstance(), Property.ofExpression(definition));
+        assertThat(second, hasSize(1));
+        assertThat(second.getFirst().getOid(), is(new OID("1.3.6.1.2.1.1.5.0")));
+        assertThat(second.getFirst().getVariable(), is(new OctetString("router-2")));
+    }
+
+    @Test
+    void renderListExpressionOnEveryRun() throws Exception {
+        String definition = "{{ bindings }}";
+        String bindings = """
+            [{"oid": "1.3.6.1.2.1.1.5.0", "value": "%s"}]""";
+
+        VariableBinding first = PduTemplate.render(runContextFactory.of(Map.of("bindings", bindings.formatted("first"))), MibIndex.getInstance(), Property.ofExpression(definition)).getFirst();
+        VariableBinding second = PduTemplate.render(runContextFactory.of(Map.of("bindings", bindings.formatted("second"))), MibIndex.getInstance(), Property.ofExpression(definition)).getFirst();
+
+        assertThat(first.getVariable(), is(new OctetString("first")));
+        assertThat(second.getVariable(), is(new OctetString("second")));
+    }
+
+    @Test
+    void encodeRenderedValues() throws Exception {
+        String definition = """
+            [{"oid": "1.3.6.1.2.1.1.5.0", "value": "{{ name }}", "type": "OctetString"}]""";
+
+        // the same expression rendering to another value, and another expression rendering to the same value
+        VariableBinding first = PduTemplate.render(runContextFactory.of(Map.of("name", "42")), MibIndex.getInstance(), Property.ofExpression(definition)).getFirst();
+        VariableBinding second = PduTemplate.render(runContextFactory.of(Map.of("name", "43")), MibIndex.getInstance(), Property.ofExpression(definition)).getFirst();
+        VariableBinding literal = PduTemplate.render(runContextFactory.of(), MibIndex.getInstance(), Property.ofExpression("""
+            [{"oid": "1.3.6.1.2.1.1.5.0", "value": "42", "type": "OctetString"}]""")).getFirst();
+
+        assertThat(first.getVariable(), is(new OctetString("42")));
+        assertThat(second.getVariable(), is(new OctetString("43")));
+        assertThat(literal, is(first));
+    }
+
+    @Test
+    void neverShareParsedOids() {
+        OID first = PduTemplate.oid("1.3.6.1.4.1.8072.2.3.0.1");
+        first.append(7);
+
+        assertThat(PduTemplate.oid("1.3.6.1.4.1.8072.2.3.0.1"), is(new OID("1.3.6.1.4.1.8072.2.3.0.1")));
+    }
+
+    @Test
+    void typeSymbolicOidsFromTheirMib() throws Exception {
+        List<VariableBinding> bindings = PduTemplate.render(runContextFactory.of(), MibIndex.getInstance(), Property.ofExpression("""
+            [{"oid": "SNMPv2-MIB::sysUpTime.0", "value": "100"}, {"oid": "sysName.0", "value": "42"}, {"oid": "1.3.6.1.2.1.1.3.0", "value": "100"}]"""));
+
+        assertThat(bindings.get(0).getOid(), is(new OID("1.3.6.1.2.1.1.3.0")));
+        assertThat(bindings.get(0).getVariable(), is(new TimeTicks(100)));
+        assertThat(bindings.get(1).getVariable(), is(new OctetString("42")));
+        // numeric OIDs keep inferring their type
+        assertThat(bindings.get(2).getVariable(), is(new Integer32(100)));
+    }
+
+    @Test
+    void rejectUnknownMibObject() {
+        assertThrows(IllegalArgumentException.class, () -> PduTemplate.oid("ACME-MIB::unknown.0"));
+    }
+}
@@ -0,0 +1,136 @@
+package io.kestra.plugin.snmp;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.snmp4j.smi.Gauge32;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.Null;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.VariableBinding;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class PollSnapshotTest {
+    private static final OID IF_OPER_STATUS = new OID("1.3.6.1.2.1.2.2.1.8");
+    private static final OID TEMPERATURE = new OID("1.3.6.1.4.1.318.1.1.1.2.2.2.0");
+    private static final List<PollSnapshot.Threshold> THRESHOLDS = List.of(new PollSnapshot.Threshold(new OID("1.3.6.1.4.1.318.1.1.1.2.2.2"), 70));
+
+    @Test
+    void firstPollSetsBaseline() {
+        var snapshot = new PollSnapshot();
+        snapshot.nextPoll();
+
+        assertThat(snapshot.apply("10.0.0.1/161", ports(1, 1, 2), List.of(), true), empty());
+        assertThat(snapshot.size(), is(3));
+        assertThat(snapshot.isDirty(), is(true));
+    }
+
+    @Test
+    void reportOnlyChangedRows() {
+        var snapshot = new PollSnapshot();
+        snapshot.nextPoll();
+        snapshot.apply("10.0.0.1/161", ports(1, 1, 2), List.of(), true);
+        snapshot.encode();
+
+        snapshot.nextPoll();
+        List<PollSnapshot.Diff> diffs = snapshot.apply("10.0.0.1/161", ports(1, 2, 2), List.of(), true);
+
+        assertThat(diffs, hasSize(1));
+        assertThat(diffs.getFirst().binding().getOid(), is(new OID(IF_OPER_STATUS).append(2)));
+        assertThat(diffs.getFirst().previous(), is(1.0));
+        assertThat(diffs.getFirst().threshold(), nullValue());
+
+        snapshot.encode();
+        snapshot.nextPoll();
+        assertThat(snapshot.apply("10.0.0.1/161", ports(1, 2, 2), List.of(), true), empty());
+        assertThat(snapshot.isDirty(), is(false));
+    }
+
+    @Test
+    void keepDevicesApart() {
+        var snapshot = new PollSnapshot();
+        snapshot.nextPoll();
+        snapshot.apply("10.0.0.1/161", ports(1), List.of(), true);
+        snapshot.apply("10.0.0.2/161", ports(2), List.of(), true);
+
+        snapshot.nextPoll();
+        assertThat(snapshot.apply("10.0.0.1/161", ports(1), List.of(), true), empty());
+        assertThat(snapshot.apply("10.0.0.2/161", ports(1), List.of(), true), hasSize(1));
+    }
+
+    @Test
+    void reportThresholdCrossings() {
+        var snapshot = new PollSnapshot();
+        snapshot.nextPoll();
+        snapshot.apply("ups/161", temperature(65), THRESHOLDS, false);
+
+        snapshot.nextPoll();
+        // changed, but still under the threshold
+        assertThat(snapshot.apply("ups/161", temperature(68), THRESHOLDS, false), empty());
+
+        snapshot.nextPoll();
+        List<PollSnapshot.Diff> diffs = snapshot.apply("ups/161", temperature(72), THRESHOLDS, false);
+        assertThat(diffs, hasSize(1));
+        assertThat(diffs.getFirst().threshold(), is(70.0));
+        assertThat(diffs.getFirst().rising(), is(true));
+
+        snapshot.nextPoll();
+        assertThat(snapshot.apply("ups/161", temperature(75), THRESHOLDS, false), empty());
+
+        snapshot.nextPoll();
+        diffs = snapshot.apply("ups/161", temperature(70), THRESHOLDS, false);
+        assertThat(diffs, hasSize(1));
+        assertThat(diffs.getFirst().rising(), is(false));
+    }
+
+    @Test
+    void compareTextAndSkipExceptions() {
+        var snapshot = new PollSnapshot();
+        OID sysLocation = new OID("1.3.6.1.2.1.1.6.0");
+        snapshot.nextPoll();
+        snapshot.apply("10.0.0.1/161", List.of(new VariableBinding(sysLocation, new OctetString("DC1")), new VariableBinding(TEMPERATURE, Null.noSuchObject)), List.of(), true);
+
+        snapshot.nextPoll();
+        List<PollSnapshot.Diff> diffs = snapshot.apply("10.0.0.1/161", List.of(new VariableBinding(sysLocation, new OctetString("DC2"))), List.of(), true);
+
+        assertThat(snapshot.size(), is(1));
+        assertThat(diffs, hasSize(1));
+        assertThat(Double.isNaN(diffs.getFirst().previous()), is(true));
+    }
+
+    @Test
+    void roundTripAndForgetUnpolledRows() {
+        var snapshot = new PollSnapshot();
+        snapshot.nextPoll();
+        snapshot.apply("10.0.0.1/161", ports(1, 1), List.of(), true);
+        snapshot.apply("10.0.0.2/161", ports(1), List.of(), true);
+
+        for (int i = 0; i < PollSnapshot.MAX_MISSED_POLLS + 1; i++) {
+            snapshot.nextPoll();
+            snapshot.apply("10.0.0.1/161", ports(1, 1), List.of(), true);
+        }
+
+        var decoded = PollSnapshot.decode(snapshot.encode());
+        assertThat(snapshot.size(), is(2));
+        assertThat(decoded.size(), is(2));
+
+        decoded.nextPoll();
+        assertThat(decoded.apply("10.0.0.1/161", ports(1, 2), List.of(), true), hasSize(1));
+        // forgotten, so back to a baseline
+        assertThat(decoded.apply("10.0.0.2/161", ports(2), List.of(), true), empty());
+    }
+
+    private static List<VariableBinding> ports(int... statuses) {
+        return IntStream.range(0, statuses.length)
+            .mapToObj(i -> new VariableBinding(new OID(IF_OPER_STATUS).append(i + 1), new Integer32(statuses[i])))
+            .toList();
+    }
+
+    private static List<VariableBinding> temperature(long value) {
+        return List.of(new VariableBinding(TEMPERATURE, new Gauge32(value)));
+    }
+}
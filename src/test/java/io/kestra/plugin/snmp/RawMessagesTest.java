@@ -0,0 +1,168 @@
+package io.kestra.plugin.snmp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.jupiter.api.Test;
+import org.snmp4j.PDU;
+import org.snmp4j.asn1.BER;
+import org.snmp4j.asn1.BERInputStream;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.VariableBinding;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RawMessagesTest {
+    private final ByteBuffer scratch = ByteBuffer.allocateDirect(RawMessages.MAX_MESSAGE);
+
+    @Test
+    void rewriteInPlace() throws Exception {
+        ByteBuffer message = ByteBuffer.wrap(message(SnmpConstants.version2c, "public", 1000));
+
+        ByteBuffer rewritten = RawMessages.rewrite(message, "secret".getBytes(), 0x12345, scratch);
+
+        assertThat(rewritten, sameInstance(message));
+        Decoded decoded = decode(rewritten);
+        assertThat(decoded.community(), is("secret"));
+        // 1000 is encoded on two bytes, the new request-id is cut to fit them
+        assertThat(decoded.pdu().getRequestID().getValue(), is(0x2345));
+        assertThat(decoded.pdu().get(1).getVariable().toString(), is("kestra"));
+    }
+
+    @Test
+    void rebuildForAnotherCommunityLength() throws Exception {
+        ByteBuffer message = ByteBuffer.wrap(message(SnmpConstants.version1, "public", 1000));
+
+        ByteBuffer rewritten = RawMessages.rewrite(message, "a-much-longer-community".getBytes(), null, scratch);
+
+        assertThat(rewritten, sameInstance(scratch));
+        Decoded decoded = decode(rewritten);
+        assertThat(decoded.version(), is(SnmpConstants.version1));
+        assertThat(decoded.community(), is("a-much-longer-community"));
+        assertThat(decoded.pdu().getRequestID().getValue(), is(1000));
+        assertThat(decoded.pdu().get(1).getVariable().toString(), is("kestra"));
+    }
+
+    @Test
+    void leaveMessageTooLargeForScratchUntouched() throws Exception {
+        byte[] original = message(SnmpConstants.version2c, "public", 1000);
+        ByteBuffer message = ByteBuffer.wrap(original.clone());
+
+        ByteBuffer scratch = ByteBuffer.allocate(10);
+
+        ByteBuffer rewritten = RawMessages.rewrite(message, "a-much-longer-community".getBytes(), 0x12345, scratch);
+
+        assertThat(rewritten, nullValue());
+        // the request-id was not rewritten before the overflow was found
+        assertThat(message.array(), is(original));
+    }
+
+    @Test
+    void leaveV3Unchanged() {
+        ByteBuffer message = ByteBuffer.wrap(new byte[] {0x30, 0x03, 0x02, 0x01, 0x03});
+
+        assertThat(RawMessages.rewrite(message, "public".getBytes(), 1, scratch), nullValue());
+    }
+
+    @Test
+    void readLengthPrefixed() throws Exception {
+        byte[] message = message(SnmpConstants.version2c, "public", 1);
+        ByteBuffer file = ByteBuffer.allocate(2 * (4 + message.length))
+            .putInt(message.length).put(message)
+            .putInt(message.length).put(message)
+            .flip();
+
+        RawMessages.Reader reader = RawMessages.reader(file, SendTrap.RawFormat.LENGTH_PREFIXED);
+        assertThat(reader.next(), is(ByteBuffer.wrap(message)));
+        assertThat(reader.next(), is(ByteBuffer.wrap(message)));
+        assertThat(reader.next(), nullValue());
+
+        ByteBuffer truncated = ByteBuffer.allocate(4 + 3).putInt(message.length).put(new byte[3]).flip();
+        assertThrows(IllegalArgumentException.class, () -> RawMessages.reader(truncated, SendTrap.RawFormat.LENGTH_PREFIXED).next());
+    }
+
+    @Test
+    void readUdpPayloadsOfPcap() throws Exception {
+        byte[] message = message(SnmpConstants.version2c, "public", 1);
+        ByteBuffer file = ByteBuffer.wrap(pcap(message));
+
+        RawMessages.Reader reader = RawMessages.reader(file, SendTrap.RawFormat.PCAP);
+        assertThat(reader.next(), is(ByteBuffer.wrap(message)));
+        assertThat(reader.next(), nullValue());
+        // the TCP segment
+        assertThat(reader.skipped(), is(1L));
+    }
+
+    @Test
+    void rejectPcapng() {
+        ByteBuffer file = ByteBuffer.allocate(32).putInt(0x0A0D0D0A).clear();
+
+        assertThrows(IllegalArgumentException.class, () -> RawMessages.reader(file, SendTrap.RawFormat.PCAP));
+    }
+
+    static byte[] message(int version, String community, int requestId) throws IOException {
+        PDU pdu = new PDU();
+        pdu.setType(PDU.TRAP);
+        pdu.setRequestID(new Integer32(requestId));
+        pdu.add(new VariableBinding(SnmpConstants.snmpTrapOID, new OID("1.3.6.1.4.1.8072.2.3.0.1")));
+        pdu.add(new VariableBinding(new OID("1.3.6.1.2.1.1.5.0"), new OctetString("kestra")));
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        new Integer32(version).encodeBER(body);
+        new OctetString(community).encodeBER(body);
+        pdu.encodeBER(body);
+
+        ByteArrayOutputStream message = new ByteArrayOutputStream();
+        BER.encodeHeader(message, BER.SEQUENCE, body.size());
+        body.writeTo(message);
+        return message.toByteArray();
+    }
+
+    /**
+     * A little-endian Ethernet capture of the message in an IPv4 UDP datagram, followed by a TCP segment.
+     */
+    static byte[] pcap(byte[] message) {
+        ByteBuffer file = ByteBuffer.allocate(24 + 2 * (16 + 14 + 20 + 8 + message.length + 6)).order(ByteOrder.LITTLE_ENDIAN);
+        file.putInt(0xA1B2C3D4).putShort((short) 2).putShort((short) 4).putInt(0).putInt(0).putInt(65535).putInt(1);
+
+        for (int protocol : new int[] {17, 6}) {
+            int ipLength = 20 + 8 + message.length;
+            // 6 bytes of Ethernet padding after the datagram
+            int frameLength = 14 + ipLength + 6;
+            file.order(ByteOrder.LITTLE_ENDIAN).putInt(0).putInt(0).putInt(frameLength).putInt(frameLength);
+
+            file.order(ByteOrder.BIG_ENDIAN).put(new byte[12]).putShort((short) 0x0800);
+            file.put((byte) 0x45).put((byte) 0).putShort((short) ipLength).putInt(0)
+                .put((byte) 64).put((byte) protocol).putShort((short) 0)
+                .putInt(0x7F000001).putInt(0x7F000001);
+            file.putShort((short) 40000).putShort((short) 162).putShort((short) (8 + message.length)).putShort((short) 0);
+            file.put(message).put(new byte[6]);
+        }
+        return file.array();
+    }
+
+    private static Decoded decode(ByteBuffer message) throws IOException {
+        byte[] bytes = new byte[message.remaining()];
+        message.duplicate().get(bytes);
+
+        BERInputStream in = new BERInputStream(ByteBuffer.wrap(bytes));
+        BER.decodeHeader(in, new BER.MutableByte());
+        Integer32 version = new Integer32();
+        version.decodeBER(in);
+        OctetString community = new OctetString();
+        community.decodeBER(in);
+        PDU pdu = new PDU();
+        pdu.decodeBER(in);
+        return new Decoded(version.getValue(), community.toString(), pdu);
+    }
+
+    private record Decoded(int version, String community, PDU pdu) {
+    }
+}
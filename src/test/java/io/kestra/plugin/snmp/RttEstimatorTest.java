@@ -0,0 +1,64 @@
+package io.kestra.plugin.snmp;
+
+import org.junit.jupiter.api.Test;
+import org.snmp4j.smi.UdpAddress;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class RttEstimatorTest {
+    @Test
+    void fallBackToConfiguredTimeoutUntilMeasured() {
+        RttEstimator estimator = new RttEstimator();
+
+        assertThat(estimator.timeoutMs(new UdpAddress("10.0.0.1/162"), 1500), is(1500L));
+    }
+
+    @Test
+    void adaptToMeasuredRoundTrip() {
+        RttEstimator estimator = new RttEstimator();
+        UdpAddress address = new UdpAddress("10.0.0.2/162");
+
+        for (int i = 0; i < 50; i++) {
+            estimator.update(address, 20_000_000L);
+        }
+
+        long timeout = estimator.timeoutMs(address, 1500);
+        assertThat(timeout, greaterThanOrEqualTo(RttEstimator.MIN_TIMEOUT_MS));
+        assertThat(timeout, lessThan(100L));
+    }
+
+    @Test
+    void neverExceedConfiguredTimeout() {
+        RttEstimator estimator = new RttEstimator();
+        UdpAddress address = new UdpAddress("10.0.0.3/162");
+
+        estimator.update(address, 3_000_000_000L);
+
+        assertThat(estimator.timeoutMs(address, 1500), is(1500L));
+    }
+
+    @Test
+    void doubleOnTimeoutUntilMeasuredAgain() {
+        RttEstimator estimator = new RttEstimator();
+        UdpAddress address = new UdpAddress("10.0.0.4/162");
+
+        estimator.update(address, 20_000_000L);
+        long timeout = estimator.timeoutMs(address, 1500);
+
+        estimator.backoff(address);
+        assertThat(estimator.timeoutMs(address, 1500), is(2 * timeout));
+        estimator.backoff(address);
+        assertThat(estimator.timeoutMs(address, 1500), is(4 * timeout));
+
+        // the configured timeout still bounds the backoff
+        for (int i = 0; i < 10; i++) {
+            estimator.backoff(address);
+        }
+        assertThat(estimator.timeoutMs(address, 1500), is(1500L));
+
+        // a new measure restarts from the estimate
+        estimator.update(address, 20_000_000L);
+        assertThat(estimator.timeoutMs(address, 1500), lessThan(1500L));
+    }
+}
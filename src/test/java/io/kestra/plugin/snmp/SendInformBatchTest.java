@@ -0,0 +1,43 @@
+package io.kestra.plugin.snmp;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class SendInformBatchTest {
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void testInformToManyTargets() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            SendInformBatch task = SendInformBatch.builder()
+                .snmpVersion(Property.ofValue("v2c"))
+                .community(Property.ofValue("public"))
+                .trapOid(Property.ofValue("1.3.6.1.4.1.8072.2.3.0.1"))
+                .targets(
+                    Property.ofValue(
+                        List.of(
+                            AbstractSnmpBatchTask.BatchTarget.builder().host(Property.ofValue("localhost")).port(Property.ofValue(agent.port())).build(),
+                            AbstractSnmpBatchTask.BatchTarget.builder().host(Property.ofValue("127.0.0.1")).port(Property.ofValue(agent.port())).build()
+                        )
+                    )
+                )
+                .build();
+
+            AbstractSnmpBatchTask.Output output = task.run(runContextFactory.of());
+            assertThat(output.getSuccessRate(), is(1.0));
+            assertThat(output.getResults().getFirst().isAcknowledged(), is(true));
+        }
+    }
+}
@@ -1,8 +1,19 @@
 package io.kestra.plugin.snmp;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.snmp4j.PDU;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.TimeTicks;
 
 import io.kestra.core.junit.annotations.KestraTest;
 import io.kestra.core.models.property.Property;
@@ -12,6 +23,7 @@ import jakarta.inject.Inject;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @KestraTest
 class SendInformTest {
@@ -20,12 +32,252 @@ class SendInformTest {
 
     @Test
     void testInform() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            SendInform.Output output = inform(agent, 1).run(runContextFactory.of());
+            assertThat(output.isAcknowledged(), is(true));
+            assertThat(agent.requests(), is(1L));
+        }
+    }
+
+    @Test
+    void typeBindingsLikeTraps() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            inform(agent, 1).run(runContextFactory.of());
+
+            PDU received = agent.notification(5, TimeUnit.SECONDS);
+            // the given sysUpTime.0 is kept, with its type, ahead of snmpTrapOID.0
+            assertThat(received.size(), is(2));
+            assertThat(received.get(0).getOid(), is(SnmpConstants.sysUpTime));
+            assertThat(received.get(0).getVariable(), instanceOf(Integer32.class));
+            assertThat(received.get(1).getOid(), is(SnmpConstants.snmpTrapOID));
+        }
+    }
+
+    @Test
+    void startWithUptimeAndTrapOid() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            SendInform.builder()
+                .host(Property.ofValue("127.0.0.1"))
+                .port(Property.ofValue(agent.port()))
+                .trapOid(Property.ofValue("1.3.6.1.4.1.8072.2.3.0.1"))
+                .bindings(
+                    Property.ofValue(
+                        List.of(
+                            AbstractSnmpTask.VarBind.builder().oid(Property.ofValue("1.3.6.1.2.1.1.5.0")).value(Property.ofValue("router-1")).build()
+                        )
+                    )
+                )
+                .build()
+                .run(runContextFactory.of());
+
+            PDU received = agent.notification(5, TimeUnit.SECONDS);
+            assertThat(received.size(), is(3));
+            assertThat(received.get(0).getOid(), is(SnmpConstants.sysUpTime));
+            assertThat(received.get(0).getVariable(), instanceOf(TimeTicks.class));
+            assertThat(received.get(1).getOid(), is(SnmpConstants.snmpTrapOID));
+            assertThat(received.get(1).getVariable(), is(new OID("1.3.6.1.4.1.8072.2.3.0.1")));
+            assertThat(received.get(2).getOid(), is(new OID("1.3.6.1.2.1.1.5.0")));
+        }
+    }
+
+    @Test
+    void rejectV1() {
+        SendInform task = SendInform.builder()
+            .snmpVersion(Property.ofValue("v1"))
+            .trapOid(Property.ofValue("1.3.6.1.4.1.8072.2.3.0.1"))
+            .build();
+
+        assertThrows(IllegalArgumentException.class, () -> task.run(runContextFactory.of()));
+    }
+
+    @Test
+    void informOverTcp() throws Exception {
+        try (var agent = new EmbeddedAgent(SnmpTransport.TCP)) {
+            SendInform task = SendInform.builder()
+                .transport(Property.ofValue("tcp"))
+                .host(Property.ofValue("127.0.0.1"))
+                .port(Property.ofValue(agent.port()))
+                .trapOid(Property.ofValue("1.3.6.1.4.1.8072.2.3.0.1"))
+                .retries(Property.ofValue(0))
+                .build();
+
+            // the second inform goes over the connection pooled by the first one
+            assertThat(task.run(runContextFactory.of()).isAcknowledged(), is(true));
+            assertThat(task.run(runContextFactory.of()).isAcknowledged(), is(true));
+            assertThat(agent.requests(), is(2L));
+        }
+    }
+
+    @Test
+    void informOverTls() throws Exception {
+        informOverSecureTransport(SnmpTransport.TLS);
+    }
+
+    @Test
+    void informOverDtls() throws Exception {
+        informOverSecureTransport(SnmpTransport.DTLS);
+    }
+
+    private void informOverSecureTransport(SnmpTransport transport) throws Exception {
+        // the worker authenticates with its JVM key and trust stores, here the self-signed certificate of the agent
+        Map<String, String> stores = Map.of(
+            "javax.net.ssl.keyStore", EmbeddedAgent.keyStore(),
+            "javax.net.ssl.keyStorePassword", EmbeddedAgent.KEY_STORE_PASSWORD,
+            "javax.net.ssl.trustStore", EmbeddedAgent.keyStore(),
+            "javax.net.ssl.trustStorePassword", EmbeddedAgent.KEY_STORE_PASSWORD
+        );
+        Map<String, String> previous = new HashMap<>();
+        stores.forEach((key, value) -> previous.put(key, System.setProperty(key, value)));
+
+        try (var agent = new EmbeddedAgent(transport)) {
+            SendInform task = SendInform.builder()
+                .transport(Property.ofValue(transport.getScheme()))
+                .snmpVersion(Property.ofValue("v3"))
+                .v3(Property.ofValue(AbstractSnmpTask.V3Security.builder().username(EmbeddedAgent.SECURITY_NAME).build()))
+                .host(Property.ofValue("127.0.0.1"))
+                .port(Property.ofValue(agent.port()))
+                .trapOid(Property.ofValue("1.3.6.1.4.1.8072.2.3.0.1"))
+                .timeoutMs(Property.ofValue(5000))
+                .retries(Property.ofValue(0))
+                .build();
+
+            // the second inform reuses the pooled session, and its already handshaken connection over tls
+            assertThat(task.run(runContextFactory.of()).isAcknowledged(), is(true));
+            assertThat(task.run(runContextFactory.of()).isAcknowledged(), is(true));
+            assertThat(agent.requests(), is(2L));
+
+            PDU received = agent.notification(5, TimeUnit.SECONDS);
+            assertThat(received.get(1).getVariable(), is(new OID("1.3.6.1.4.1.8072.2.3.0.1")));
+        } finally {
+            previous.forEach((key, value) -> {
+                if (value == null) {
+                    System.clearProperty(key);
+                } else {
+                    System.setProperty(key, value);
+                }
+            });
+        }
+    }
+
+    @Test
+    void rejectTlsWithoutV3() {
         SendInform task = SendInform.builder()
-            .host(Property.ofValue("localhost"))
-            .port(Property.ofValue(162))
+            .transport(Property.ofValue("tls"))
+            .trapOid(Property.ofValue("1.3.6.1.4.1.8072.2.3.0.1"))
+            .build();
+
+        assertThrows(IllegalArgumentException.class, () -> task.run(runContextFactory.of()));
+    }
+
+    @Test
+    void dropOverRate() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            SendInform task = SendInform.builder()
+                .host(Property.ofValue("127.0.0.1"))
+                .port(Property.ofValue(agent.port()))
+                .trapOid(Property.ofValue("1.3.6.1.4.1.8072.2.3.0.1"))
+                .maxRatePerTarget(Property.ofValue(0.1))
+                .rateBurst(Property.ofValue(1))
+                .dropOverRate(Property.ofValue(true))
+                .build();
+
+            assertThat(task.run(runContextFactory.of()).isAcknowledged(), is(true));
+
+            SendInform.Output dropped = task.run(runContextFactory.of());
+            assertThat(dropped.isAcknowledged(), is(false));
+            assertThat(dropped.getError(), is(AbstractSnmpNotificationTask.DROPPED));
+            assertThat(agent.requests(), is(1L));
+        }
+    }
+
+    @Test
+    void storeAndForwardWhileManagerIsDown(@TempDir Path journal) throws Exception {
+        try (var agent = new EmbeddedAgent().dropEvery(1)) {
+            SendInform task = SendInform.builder()
+                .host(Property.ofValue("127.0.0.1"))
+                .port(Property.ofValue(agent.port()))
+                .trapOid(Property.ofValue("1.3.6.1.4.1.8072.2.3.0.1"))
+                .timeoutMs(Property.ofValue(200))
+                .retries(Property.ofValue(0))
+                .storeAndForward(Property.ofValue(true))
+                .journalDirectory(Property.ofValue(journal.toString()))
+                .build();
+
+            SendInform.Output first = task.run(runContextFactory.of());
+            assertThat(first.isAcknowledged(), is(false));
+            assertThat(first.isQueued(), is(true));
+
+            // queued behind the first one without being sent
+            assertThat(task.run(runContextFactory.of()).isQueued(), is(true));
+
+            agent.dropEvery(0);
+            InformForwarder forwarder = InformForwarder.of(journal);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (forwarder.pending() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+
+            assertThat(forwarder.pending(), is(0));
+            assertThat(agent.notification(5, TimeUnit.SECONDS), notNullValue());
+            assertThat(agent.notification(5, TimeUnit.SECONDS), notNullValue());
+            assertThat(agent.notification(5, TimeUnit.SECONDS), notNullValue());
+        }
+    }
+
+    @Test
+    void requireJournalDirectory() {
+        SendInform task = SendInform.builder()
+            .host(Property.ofValue("127.0.0.1"))
+            .trapOid(Property.ofValue("1.3.6.1.4.1.8072.2.3.0.1"))
+            .storeAndForward(Property.ofValue(true))
+            .build();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> task.run(runContextFactory.of()));
+        assertThat(e.getMessage(), containsString("journalDirectory"));
+    }
+
+    @Test
+    void retryLostInform() throws Exception {
+        try (var agent = new EmbeddedAgent().dropEvery(1)) {
+            SendInform.Output output = inform(agent, 2).run(runContextFactory.of());
+            assertThat(output.isAcknowledged(), is(false));
+            assertThat(agent.requests(), is(3L));
+        }
+    }
+
+    @Test
+    void reportErrorStatus() throws Exception {
+        try (var agent = new EmbeddedAgent().errorStatus(PDU.genErr)) {
+            SendInform.Output output = inform(agent, 0).run(runContextFactory.of());
+            assertThat(output.isAcknowledged(), is(false));
+            assertThat(output.getError(), notNullValue());
+        }
+    }
+
+    @Test
+    void timeoutOnSlowManager() throws Exception {
+        try (var agent = new EmbeddedAgent().delay(Duration.ofSeconds(2))) {
+            SendInform.Output output = SendInform.builder()
+                .host(Property.ofValue("127.0.0.1"))
+                .port(Property.ofValue(agent.port()))
+                .trapOid(Property.ofValue("1.3.6.1.4.1.8072.2.3.0.1"))
+                .timeoutMs(Property.ofValue(300))
+                .retries(Property.ofValue(0))
+                .build()
+                .run(runContextFactory.of());
+            assertThat(output.isAcknowledged(), is(false));
+        }
+    }
+
+    private static SendInform inform(EmbeddedAgent agent, int retries) {
+        return SendInform.builder()
+            .host(Property.ofValue("127.0.0.1"))
+            .port(Property.ofValue(agent.port()))
             .snmpVersion(Property.ofValue("v2c"))
             .community(Property.ofValue("public"))
             .trapOid(Property.ofValue("1.3.6.1.4.1.8072.2.3.0.1"))
+            .timeoutMs(Property.ofValue(300))
+            .retries(Property.ofValue(retries))
             .bindings(
                 Property.ofValue(
                     List.of(
@@ -34,8 +286,5 @@ class SendInformTest {
                 )
             )
             .build();
-
-        SendInform.Output output = task.run(runContextFactory.of());
-        assertThat(output.isAcknowledged(), is(true));
     }
 }
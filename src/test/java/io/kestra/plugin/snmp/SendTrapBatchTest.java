@@ -0,0 +1,72 @@
+package io.kestra.plugin.snmp;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class SendTrapBatchTest {
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void testSendToManyTargets() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            SendTrapBatch task = SendTrapBatch.builder()
+                .snmpVersion(Property.ofValue("v2c"))
+                .community(Property.ofValue("public"))
+                .trapOid(Property.ofValue("1.3.6.1.4.1.8072.2.3.0.1"))
+                .targets(
+                    Property.ofValue(
+                        List.of(
+                            AbstractSnmpBatchTask.BatchTarget.builder().host(Property.ofValue("localhost")).port(Property.ofValue(agent.port())).build(),
+                            AbstractSnmpBatchTask.BatchTarget.builder()
+                                .host(Property.ofValue("127.0.0.1"))
+                                .port(Property.ofValue(agent.port()))
+                                .bindings(Property.ofValue(List.of(
+                                    AbstractSnmpTask.VarBind.builder().oid(Property.ofValue("1.3.6.1.2.1.1.5.0")).value(Property.ofValue("kestra-agent")).build()
+                                )))
+                                .build()
+                        )
+                    )
+                )
+                .build();
+
+            AbstractSnmpBatchTask.Output output = task.run(runContextFactory.of());
+            assertThat(output.getTotal(), is(2));
+            assertThat(output.getSucceeded(), is(2));
+            assertThat(output.getResults(), hasSize(2));
+            assertThat(agent.notification(5, TimeUnit.SECONDS), notNullValue());
+            assertThat(agent.notification(5, TimeUnit.SECONDS), notNullValue());
+        }
+    }
+
+    @Test
+    void failTargetWithoutHost() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            SendTrapBatch task = SendTrapBatch.builder()
+                .trapOid(Property.ofValue("1.3.6.1.4.1.8072.2.3.0.1"))
+                .targets(Property.ofValue(List.of(
+                    AbstractSnmpBatchTask.BatchTarget.builder().port(Property.ofValue(agent.port())).build(),
+                    AbstractSnmpBatchTask.BatchTarget.builder().host(Property.ofValue("127.0.0.1")).port(Property.ofValue(agent.port())).build()
+                )))
+                .build();
+
+            AbstractSnmpBatchTask.Output output = task.run(runContextFactory.of());
+            assertThat(output.getTotal(), is(2));
+            assertThat(output.getSucceeded(), is(1));
+            assertThat(output.getResults().getFirst().getError(), is("Target without `host`"));
+            assertThat(agent.notification(5, TimeUnit.SECONDS), notNullValue());
+        }
+    }
+}
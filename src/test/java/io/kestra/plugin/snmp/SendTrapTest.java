@@ -1,16 +1,24 @@
 package io.kestra.plugin.snmp;
 
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
+import org.snmp4j.PDU;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.OID;
 
 import io.kestra.core.junit.annotations.KestraTest;
 import io.kestra.core.models.property.Property;
-import io.kestra.core.models.tasks.VoidOutput;
+import io.kestra.core.runners.RunContext;
 import io.kestra.core.runners.RunContextFactory;
 
 import jakarta.inject.Inject;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
 @KestraTest
@@ -20,28 +28,72 @@ class SendTrapTest {
 
     @Test
     void testSendV2Trap() throws Exception {
-        SendTrap trapTask = SendTrap.builder()
-            .host(Property.ofValue("localhost"))
-            .port(Property.ofValue(162))
-            .snmpVersion(Property.ofValue("v2c"))
-            .community(Property.ofValue("public"))
-            .trapOid(Property.ofValue("1.3.6.1.4.1.8072.2.3.0.1"))
-            .bindings(
-                Property.ofValue(
-                    List.of(
-                        SendTrap.VarBind.builder()
-                            .oid(Property.ofValue("1.3.6.1.2.1.1.3.0"))
-                            .value(Property.ofValue("12345"))
-                            .build(),
-                        SendTrap.VarBind.builder()
-                            .oid(Property.ofValue("1.3.6.1.2.1.1.5.0"))
-                            .value(Property.ofValue("kestra-agent"))
-                            .build()
+        try (var agent = new EmbeddedAgent()) {
+            SendTrap trapTask = SendTrap.builder()
+                .host(Property.ofValue("localhost"))
+                .port(Property.ofValue(agent.port()))
+                .snmpVersion(Property.ofValue("v2c"))
+                .community(Property.ofValue("public"))
+                .trapOid(Property.ofValue("1.3.6.1.4.1.8072.2.3.0.1"))
+                .bindings(
+                    Property.ofValue(
+                        List.of(
+                            SendTrap.VarBind.builder()
+                                .oid(Property.ofValue("1.3.6.1.2.1.1.3.0"))
+                                .value(Property.ofValue("12345"))
+                                .build(),
+                            SendTrap.VarBind.builder()
+                                .oid(Property.ofValue("1.3.6.1.2.1.1.5.0"))
+                                .value(Property.ofValue("kestra-agent"))
+                                .build()
+                        )
                     )
                 )
-            )
-            .build();
+                .build();
 
-        VoidOutput output = trapTask.run(runContextFactory.of());
+            SendTrap.Output output = trapTask.run(runContextFactory.of());
+            assertThat(output.getPackets(), is(1L));
+            assertThat(output.getDropped(), is(0L));
+
+            PDU received = agent.notification(5, TimeUnit.SECONDS);
+            assertThat(received, notNullValue());
+            assertThat(received.getVariable(SnmpConstants.snmpTrapOID).toString(), is("1.3.6.1.4.1.8072.2.3.0.1"));
+            assertThat(received.getVariable(new OID("1.3.6.1.2.1.1.5.0")).toString(), is("kestra-agent"));
+        }
+    }
+
+    @Test
+    void replayRawMessages() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            RunContext runContext = runContextFactory.of();
+
+            byte[] message = RawMessagesTest.message(SnmpConstants.version2c, "other", 1000);
+            File file = runContext.workingDir().createTempFile(".ber").toFile();
+            Files.write(file.toPath(), ByteBuffer.allocate(2 * (4 + message.length))
+                .putInt(message.length).put(message)
+                .putInt(message.length).put(message)
+                .array());
+
+            SendTrap trapTask = SendTrap.builder()
+                .host(Property.ofValue("localhost"))
+                .port(Property.ofValue(agent.port()))
+                .community(Property.ofValue("public"))
+                .rawFrom(Property.ofValue(runContext.storage().putFile(file).toString()))
+                .rewriteCommunity(Property.ofValue(true))
+                .rewriteRequestId(Property.ofValue(true))
+                .build();
+
+            SendTrap.Output output = trapTask.run(runContext);
+            assertThat(output.getPackets(), is(2L));
+            assertThat(output.getBytes(), greaterThan(0L));
+            assertThat(output.getPacketsPerSecond(), greaterThan(0.0));
+
+            PDU first = agent.notification(5, TimeUnit.SECONDS);
+            PDU second = agent.notification(5, TimeUnit.SECONDS);
+            assertThat(first, notNullValue());
+            assertThat(second, notNullValue());
+            assertThat(first.getVariable(new OID("1.3.6.1.2.1.1.5.0")).toString(), is("kestra"));
+            assertThat(first.getRequestID(), not(second.getRequestID()));
+        }
     }
 }
@@ -0,0 +1,205 @@
+package io.kestra.plugin.snmp;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.snmp4j.PDU;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+class SetTest {
+    private static final OID SYS_CONTACT = new OID("1.3.6.1.2.1.1.4.0");
+    private static final OID SYS_LOCATION = new OID("1.3.6.1.2.1.1.6.0");
+    private static final String IF_ADMIN_STATUS = "1.3.6.1.2.1.2.2.1.7.";
+
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void setAndVerify() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            Set task = Set.builder()
+                .host(Property.ofValue("localhost"))
+                .port(Property.ofValue(agent.port()))
+                .atomic(Property.ofValue(true))
+                .verify(Property.ofValue(true))
+                .bindings(Property.ofValue(List.of(
+                    varBind("SNMPv2-MIB::sysContact.0", "noc@example.com"),
+                    varBind("SNMPv2-MIB::sysLocation.0", "DC1, rack 12")
+                )))
+                .build();
+
+            Set.Output output = task.run(runContextFactory.of());
+
+            assertThat(output.getSize(), is(2));
+            assertThat(output.getValues().getFirst().getValue().toString(), is("noc@example.com"));
+            assertThat(agent.get(SYS_CONTACT), is(new OctetString("noc@example.com")));
+            assertThat(agent.get(SYS_LOCATION), is(new OctetString("DC1, rack 12")));
+            assertThat(agent.sets(), is(1L));
+        }
+    }
+
+    @Test
+    void splitUnlessAtomic() throws Exception {
+        List<AbstractSnmpTask.VarBind> ports = IntStream.rangeClosed(1, 48)
+            .mapToObj(i -> varBind(IF_ADMIN_STATUS + i, "2"))
+            .toList();
+
+        try (var agent = new EmbeddedAgent()) {
+            Set task = Set.builder()
+                .host(Property.ofValue("localhost"))
+                .port(Property.ofValue(agent.port()))
+                .maxVarBindsPerRequest(Property.ofValue(10))
+                .bindings(Property.ofValue(ports))
+                .build();
+
+            assertThat(task.run(runContextFactory.of()).getSize(), is(48));
+            assertThat(agent.sets(), is(5L));
+            assertThat(agent.get(new OID(IF_ADMIN_STATUS + 48)), is(new Integer32(2)));
+
+            Set atomic = Set.builder()
+                .host(Property.ofValue("localhost"))
+                .port(Property.ofValue(agent.port()))
+                .maxVarBindsPerRequest(Property.ofValue(10))
+                .atomic(Property.ofValue(true))
+                .bindings(Property.ofValue(ports))
+                .build();
+            assertThrows(IllegalArgumentException.class, () -> atomic.run(runContextFactory.of()));
+            assertThat(agent.sets(), is(5L));
+        }
+    }
+
+    @Test
+    void failOnAgentError() throws Exception {
+        try (var agent = new EmbeddedAgent().errorStatus(PDU.notWritable)) {
+            Set task = Set.builder()
+                .host(Property.ofValue("localhost"))
+                .port(Property.ofValue(agent.port()))
+                .bindings(Property.ofValue(List.of(varBind("1.3.6.1.2.1.1.4.0", "noc@example.com"))))
+                .build();
+
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> task.run(runContextFactory.of()));
+            assertThat(e.getMessage(), containsString("SNMP error"));
+            assertThat(agent.get(SYS_CONTACT), nullValue());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void applyChangeList() throws Exception {
+        try (var first = new EmbeddedAgent(); var second = new EmbeddedAgent()) {
+            RunContext runContext = runContextFactory.of();
+
+            File changes = runContext.workingDir().createTempFile(".ion").toFile();
+            try (OutputStream output = new FileOutputStream(changes)) {
+                FileSerde.write(output, Map.of("host", "127.0.0.1", "port", first.port(), "bindings", List.of(Map.of("oid", IF_ADMIN_STATUS + 3, "value", "2"))));
+                FileSerde.write(output, Map.of("host", "127.0.0.1", "port", second.port(), "bindings", List.of(Map.of("oid", IF_ADMIN_STATUS + 7, "value", "2"))));
+                FileSerde.write(output, Map.of("host", "127.0.0.1", "port", second.port(), "credentials", "unknown"));
+            }
+
+            Set task = Set.builder()
+                .from(Property.ofValue(runContext.storage().putFile(changes).toString()))
+                .bindings(Property.ofValue(List.of(varBind("SNMPv2-MIB::sysLocation.0", "DC1"))))
+                .verify(Property.ofValue(true))
+                .build();
+
+            Set.Output output = task.run(runContext);
+
+            assertThat(output.getTotal(), is(3L));
+            assertThat(output.getSucceeded(), is(2L));
+            assertThat(output.getFailed(), is(1L));
+            assertThat(output.getSize(), is(4));
+            assertThat(first.get(new OID(IF_ADMIN_STATUS + 3)), is(new Integer32(2)));
+            assertThat(second.get(new OID(IF_ADMIN_STATUS + 7)), is(new Integer32(2)));
+            assertThat(second.get(SYS_LOCATION), is(new OctetString("DC1")));
+
+            try (var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(output.getUri()), StandardCharsets.UTF_8))) {
+                List<Map<String, Object>> rows = FileSerde.readAll(reader).map(row -> (Map<String, Object>) row).collectList().block();
+                assertThat(rows, hasSize(3));
+                assertThat(rows.stream().filter(row -> Boolean.FALSE.equals(row.get("success"))).findFirst().orElseThrow().get("error"), is("Unknown credentials: unknown"));
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rejectBindingWithoutValue() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            RunContext runContext = runContextFactory.of();
+
+            File changes = runContext.workingDir().createTempFile(".ion").toFile();
+            try (OutputStream output = new FileOutputStream(changes)) {
+                FileSerde.write(output, Map.of("host", "127.0.0.1", "port", agent.port(), "bindings", List.of(Map.of("oid", SYS_CONTACT.toDottedString()))));
+            }
+
+            Set.Output output = Set.builder()
+                .from(Property.ofValue(runContext.storage().putFile(changes).toString()))
+                .build()
+                .run(runContext);
+
+            assertThat(output.getFailed(), is(1L));
+            assertThat(agent.sets(), is(0L));
+            assertThat(agent.get(SYS_CONTACT), nullValue());
+
+            try (var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(output.getUri()), StandardCharsets.UTF_8))) {
+                List<Map<String, Object>> rows = FileSerde.readAll(reader).map(row -> (Map<String, Object>) row).collectList().block();
+                assertThat(rows.getFirst().get("error"), is("Binding of " + SYS_CONTACT.toDottedString() + " without `value`"));
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rejectRowWithoutHost() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            RunContext runContext = runContextFactory.of();
+
+            File changes = runContext.workingDir().createTempFile(".ion").toFile();
+            try (OutputStream output = new FileOutputStream(changes)) {
+                FileSerde.write(output, Map.of("port", agent.port(), "bindings", List.of(Map.of("oid", SYS_CONTACT.toDottedString(), "value", "ops"))));
+            }
+
+            Set.Output output = Set.builder()
+                .from(Property.ofValue(runContext.storage().putFile(changes).toString()))
+                .build()
+                .run(runContext);
+
+            assertThat(output.getFailed(), is(1L));
+            assertThat(agent.sets(), is(0L));
+
+            try (var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(output.getUri()), StandardCharsets.UTF_8))) {
+                List<Map<String, Object>> rows = FileSerde.readAll(reader).map(row -> (Map<String, Object>) row).collectList().block();
+                assertThat(rows.getFirst().get("error"), is("Row without `host`"));
+            }
+        }
+    }
+
+    private static AbstractSnmpTask.VarBind varBind(String oid, String value) {
+        return AbstractSnmpTask.VarBind.builder()
+            .oid(Property.ofValue(oid))
+            .value(Property.ofValue(value))
+            .build();
+    }
+}
@@ -0,0 +1,91 @@
+package io.kestra.plugin.snmp;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.snmp4j.PDU;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.Counter32;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.VariableBinding;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.executions.AbstractMetricEntry;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class SnmpMetricsTest {
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void publishTaggedTotals() {
+        var metrics = new SnmpMetrics(SnmpVersion.V2C, new UdpAddress("10.0.0.1/161"));
+
+        PDU request = new PDU();
+        request.setType(PDU.GET);
+        request.add(new VariableBinding(new OID("1.3.6.1.2.1.2.2.1.10.1")));
+        request.add(new VariableBinding(new OID("1.3.6.1.2.1.2.2.1.16.1")));
+
+        PDU response = new PDU();
+        response.setType(PDU.RESPONSE);
+        response.add(new VariableBinding(new OID("1.3.6.1.2.1.2.2.1.10.1"), new Counter32(1)));
+        response.add(new VariableBinding(new OID("1.3.6.1.2.1.2.2.1.16.1"), new Counter32(2)));
+
+        metrics.sent(request);
+        // answered during the second attempt
+        metrics.answered(1000, 3, response, TimeUnit.MILLISECONDS.toNanos(1200));
+        metrics.sent(request);
+        metrics.answered(1000, 3, null, TimeUnit.MILLISECONDS.toNanos(4000));
+
+        RunContext runContext = runContextFactory.of();
+        metrics.publish(runContext);
+
+        assertThat(value(runContext, "snmp.pdus.sent"), is(2.0));
+        assertThat(value(runContext, "snmp.varbinds.sent"), is(4.0));
+        assertThat(value(runContext, "snmp.varbinds.received"), is(2.0));
+        assertThat(value(runContext, "snmp.bytes.sent"), is(2.0 * request.getBERLength()));
+        assertThat(value(runContext, "snmp.timeouts"), is(1.0));
+        assertThat(value(runContext, "snmp.retries"), is(4.0));
+
+        AbstractMetricEntry<?> sent = metric(runContext, "snmp.pdus.sent");
+        assertThat(sent.getTags(), hasEntry("version", "v2c"));
+        assertThat(sent.getTags(), hasEntry("target", "10.0.0.1/161"));
+    }
+
+    @Test
+    void countReportsByOid() {
+        var metrics = new SnmpMetrics(SnmpVersion.V3, null);
+
+        PDU report = new PDU();
+        report.setType(PDU.REPORT);
+        report.add(new VariableBinding(SnmpConstants.usmStatsUnknownUserNames, new Counter32(1)));
+        metrics.answered(1000, 0, report, TimeUnit.MILLISECONDS.toNanos(5));
+
+        RunContext runContext = runContextFactory.of();
+        metrics.publish(runContext);
+
+        AbstractMetricEntry<?> reports = metric(runContext, "snmp.reports");
+        assertThat(reports.getTags(), hasEntry("report", SnmpConstants.usmStatsUnknownUserNames.toDottedString()));
+        assertThat(reports.getTags(), not(hasKey("target")));
+        assertThat(value(runContext, "snmp.varbinds.received"), is(0.0));
+    }
+
+    private static AbstractMetricEntry<?> metric(RunContext runContext, String name) {
+        return runContext.metrics().stream()
+            .filter(m -> m.getName().equals(name))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static double value(RunContext runContext, String name) {
+        return ((Number) metric(runContext, name).getValue()).doubleValue();
+    }
+}
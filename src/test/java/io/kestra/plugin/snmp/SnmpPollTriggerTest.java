@@ -0,0 +1,94 @@
+package io.kestra.plugin.snmp;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.OID;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.triggers.Trigger;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.TestsUtils;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class SnmpPollTriggerTest {
+    private static final OID IF_OPER_STATUS = new OID("1.3.6.1.2.1.2.2.1.8");
+
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void executionOnlyOnChange() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            agent.put(new OID(IF_OPER_STATUS).append(1), new Integer32(1));
+            agent.put(new OID(IF_OPER_STATUS).append(2), new Integer32(1));
+
+            SnmpPollTrigger trigger = trigger(agent, "on-change");
+            Map.Entry<ConditionContext, Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+            // the first poll sets the baseline and saves it
+            assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(false));
+            assertThat(stored(context).isPresent(), is(true));
+            assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(false));
+
+            agent.put(new OID(IF_OPER_STATUS).append(2), new Integer32(2));
+            Optional<Execution> execution = trigger.evaluate(context.getKey(), context.getValue());
+
+            assertThat(execution.isPresent(), is(true));
+            Map<String, Object> variables = execution.get().getTrigger().getVariables();
+            assertThat(variables.get("count"), is(1));
+            @SuppressWarnings("unchecked")
+            Map<String, Object> change = ((List<Map<String, Object>>) variables.get("changes")).getFirst();
+            assertThat(change.get("oid"), is(new OID(IF_OPER_STATUS).append(2).toDottedString()));
+            assertThat(change.get("previous"), is(1.0));
+
+            assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(false));
+        }
+    }
+
+    @Test
+    void resetBaselineWhenKeyDeleted() throws Exception {
+        try (var agent = new EmbeddedAgent()) {
+            agent.put(new OID(IF_OPER_STATUS).append(1), new Integer32(1));
+
+            SnmpPollTrigger trigger = trigger(agent, "reset");
+            Map.Entry<ConditionContext, Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+            trigger.evaluate(context.getKey(), context.getValue());
+
+            context.getKey().getRunContext().namespaceKv(context.getValue().getNamespace()).delete(key(context));
+            agent.put(new OID(IF_OPER_STATUS).append(1), new Integer32(2));
+
+            // the new value is a baseline, not a change of the forgotten one
+            assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(false));
+            assertThat(stored(context).isPresent(), is(true));
+        }
+    }
+
+    private static SnmpPollTrigger trigger(EmbeddedAgent agent, String id) {
+        return SnmpPollTrigger.builder()
+            .id(id)
+            .type(SnmpPollTrigger.class.getName())
+            .devices(Property.ofValue(List.of(new SnmpPollTrigger.Device("127.0.0.1", agent.port()))))
+            .walk(Property.ofValue(List.of(IF_OPER_STATUS.toDottedString())))
+            .build();
+    }
+
+    private static Optional<?> stored(Map.Entry<ConditionContext, Trigger> context) throws Exception {
+        return context.getKey().getRunContext().namespaceKv(context.getValue().getNamespace()).getValue(key(context));
+    }
+
+    private static String key(Map.Entry<ConditionContext, Trigger> context) {
+        return ("snmp_poll_" + context.getValue().getFlowId() + "_" + context.getValue().getTriggerId()).replaceAll("[^a-zA-Z0-9_.-]", "_");
+    }
+}
@@ -0,0 +1,124 @@
+package io.kestra.plugin.snmp;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class SnmpSessionPoolTest {
+    @Test
+    void reuseSessionForSameKey() throws Exception {
+        try (SnmpSessionPool pool = new SnmpSessionPool(4, Duration.ofMinutes(1))) {
+            SnmpSessionPool.Key key = new SnmpSessionPool.Key("udp", null, "V2C");
+
+            try (var first = pool.borrow(key)) {
+                assertThat(first.isHit(), is(false));
+            }
+
+            try (var first = pool.borrow(key); var second = pool.borrow(key)) {
+                assertThat(first.isHit(), is(true));
+                assertThat(second.isHit(), is(true));
+                assertThat(second.getSnmp(), sameInstance(first.getSnmp()));
+            }
+
+            SnmpSessionPool.Stats stats = pool.stats();
+            assertThat(stats.getSize(), is(1));
+            assertThat(stats.getHits(), is(2L));
+            assertThat(stats.getMisses(), is(1L));
+        }
+    }
+
+    @Test
+    void separateSessionPerTransport() throws Exception {
+        try (SnmpSessionPool pool = new SnmpSessionPool(4, Duration.ofMinutes(1))) {
+            try (var udp = pool.borrow(new SnmpSessionPool.Key("udp", null, "V2C"));
+                 var tcp = pool.borrow(new SnmpSessionPool.Key("tcp", null, "V2C"))) {
+                assertThat(tcp.isHit(), is(false));
+                assertThat(tcp.getSnmp(), not(sameInstance(udp.getSnmp())));
+            }
+            assertThat(pool.stats().getSize(), is(2));
+        }
+    }
+
+    @Test
+    void separateSessionPerLocalAddress() throws Exception {
+        try (SnmpSessionPool pool = new SnmpSessionPool(4, Duration.ofMinutes(1))) {
+            try (var any = pool.borrow(new SnmpSessionPool.Key("udp", null, "V2C"));
+                 var loopback = pool.borrow(new SnmpSessionPool.Key("udp", "127.0.0.1/0", "V2C"))) {
+                assertThat(loopback.isHit(), is(false));
+                assertThat(loopback.getSnmp(), not(sameInstance(any.getSnmp())));
+                assertThat(loopback.getSnmp().getMessageDispatcher().getTransportMappings().iterator().next().getListenAddress().toString(), startsWith("127.0.0.1/"));
+            }
+        }
+    }
+
+    @Test
+    void sharedLeaseKeepsSessionBorrowed() throws Exception {
+        try (SnmpSessionPool pool = new SnmpSessionPool(1, Duration.ofMinutes(1))) {
+            SnmpSessionPool.Lease lease = pool.borrow(new SnmpSessionPool.Key("udp", null, "a"));
+            try (var shared = lease.share()) {
+                lease.close();
+
+                // only the shared lease still holds the session, which must survive a new key
+                try (var b = pool.borrow(new SnmpSessionPool.Key("udp", null, "b"))) {
+                    assertThat(pool.stats().getEvictions(), is(0L));
+                    assertThat(b.getSnmp(), not(sameInstance(shared.getSnmp())));
+                }
+            }
+        }
+    }
+
+    @Test
+    void evictLeastRecentlyUsedWhenFull() throws Exception {
+        try (SnmpSessionPool pool = new SnmpSessionPool(2, Duration.ofMinutes(1))) {
+            SnmpSessionPool.Lease evicted = pool.borrow(new SnmpSessionPool.Key("udp", null, "a"));
+            evicted.close();
+
+            for (String security : new String[] { "b", "c" }) {
+                try (var ignored = pool.borrow(new SnmpSessionPool.Key("udp", null, security))) {
+                    // just open it
+                }
+            }
+
+            SnmpSessionPool.Stats stats = pool.stats();
+            assertThat(stats.getSize(), is(2));
+            assertThat(stats.getEvictions(), is(1L));
+            assertThat(evicted.getSnmp().getMessageDispatcher().getTransportMappings().iterator().next().isListening(), is(false));
+
+            try (var lease = pool.borrow(new SnmpSessionPool.Key("udp", null, "a"))) {
+                assertThat(lease.isHit(), is(false));
+            }
+        }
+    }
+
+    @Test
+    void closeSessionsWithThePool() throws Exception {
+        SnmpSessionPool pool = new SnmpSessionPool(4, Duration.ofMinutes(1));
+
+        SnmpSessionPool.Lease idle = pool.borrow(new SnmpSessionPool.Key("udp", null, "a"));
+        idle.close();
+        SnmpSessionPool.Lease borrowed = pool.borrow(new SnmpSessionPool.Key("udp", null, "b"));
+        pool.close();
+
+        assertThat(pool.stats().getSize(), is(0));
+        assertThat(idle.getSnmp().getMessageDispatcher().getTransportMappings().iterator().next().isListening(), is(false));
+        assertThat(borrowed.getSnmp().getMessageDispatcher().getTransportMappings().iterator().next().isListening(), is(true));
+
+        borrowed.close();
+        assertThat(borrowed.getSnmp().getMessageDispatcher().getTransportMappings().iterator().next().isListening(), is(false));
+    }
+
+    @Test
+    void borrowedSessionsAreNeverEvicted() throws Exception {
+        try (SnmpSessionPool pool = new SnmpSessionPool(1, Duration.ofMinutes(1))) {
+            try (var a = pool.borrow(new SnmpSessionPool.Key("udp", null, "a"));
+                 var b = pool.borrow(new SnmpSessionPool.Key("udp", null, "b"))) {
+                assertThat(b.isHit(), is(false));
+                assertThat(pool.stats().getEvictions(), is(0L));
+                assertThat(pool.stats().getSize(), is(1));
+            }
+        }
+    }
+}
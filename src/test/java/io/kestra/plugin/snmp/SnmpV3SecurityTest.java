@@ -0,0 +1,108 @@
+package io.kestra.plugin.snmp;
+
+import org.junit.jupiter.api.Test;
+import org.snmp4j.Snmp;
+import org.snmp4j.UserTarget;
+import org.snmp4j.mp.MPv3;
+import org.snmp4j.security.AuthSHA;
+import org.snmp4j.security.PrivAES128;
+import org.snmp4j.security.UsmTimeEntry;
+import org.snmp4j.security.UsmUserEntry;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.transport.DefaultUdpTransportMapping;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class SnmpV3SecurityTest {
+    private static final OctetString ENGINE = OctetString.fromHexString("80:00:1f:88:80:11:22:33:44:55:66:77:88");
+    private static final OctetString OTHER_ENGINE = OctetString.fromHexString("80:00:1f:88:80:99:88:77:66:55:44:33:22");
+
+    @Test
+    void reuseCachedEngineInNewSession() throws Exception {
+        UdpAddress address = new UdpAddress("127.0.0.1/16161");
+        AbstractSnmpTask.V3Security sec = user("ops", "authpass1", "privpass1");
+
+        Snmp discovered = session();
+        try {
+            // as if the engine had been discovered by a first send
+            ((MPv3) discovered.getMessageProcessingModel(MPv3.ID)).addEngineID(address, ENGINE);
+            discovered.getUSM().getTimeTable().addEntry(new UsmTimeEntry(ENGINE, 7, 1000));
+            SnmpV3Security.remember(discovered, address);
+        } finally {
+            discovered.close();
+        }
+
+        Snmp fresh = session();
+        try {
+            UserTarget<?> target = (UserTarget<?>) SnmpVersion.V3.target(address, 1000, 0, null, sec);
+            SnmpV3Security.prepareRemote(fresh, target, sec);
+
+            assertThat(target.getAuthoritativeEngineID(), is(ENGINE.getValue()));
+            assertThat(((MPv3) fresh.getMessageProcessingModel(MPv3.ID)).getEngineID(address), is(ENGINE));
+            assertThat(fresh.getUSM().getTimeTable().getEntry(ENGINE).getEngineBoots(), is(7));
+            assertThat(fresh.getUSM().getUser(ENGINE, new OctetString("ops")), notNullValue());
+        } finally {
+            fresh.close();
+        }
+
+        SnmpV3Security.forget(address);
+        Snmp forgotten = session();
+        try {
+            UserTarget<?> target = (UserTarget<?>) SnmpVersion.V3.target(address, 1000, 0, null, sec);
+            SnmpV3Security.prepareRemote(forgotten, target, sec);
+
+            // left to snmp4j to discover
+            assertThat(target.getAuthoritativeEngineID(), anyOf(nullValue(), is(new byte[0])));
+        } finally {
+            forgotten.close();
+        }
+    }
+
+    @Test
+    void reuseLocalizedKeyPerEngineAndUser() {
+        byte[] key = SnmpV3Security.localizedKey(ENGINE, "ops", AuthSHA.ID, null, "authpass1");
+
+        assertThat(SnmpV3Security.localizedKey(ENGINE, "ops", AuthSHA.ID, null, "authpass1"), sameInstance(key));
+        assertThat(SnmpV3Security.localizedKey(OTHER_ENGINE, "ops", AuthSHA.ID, null, "authpass1"), not(is(key)));
+        assertThat(SnmpV3Security.localizedKey(ENGINE, "audit", AuthSHA.ID, null, "authpass1"), not(sameInstance(key)));
+        assertThat(SnmpV3Security.localizedKey(ENGINE, "ops", AuthSHA.ID, null, "authpass2"), not(is(key)));
+        assertThat(SnmpV3Security.localizedKey(ENGINE, "ops", AuthSHA.ID, PrivAES128.ID, "authpass1"), not(sameInstance(key)));
+    }
+
+    @Test
+    void isolateUsersBetweenSessions() throws Exception {
+        Snmp first = session();
+        Snmp second = session();
+        try {
+            SnmpV3Security.addLocalizedUser(first, user("ops", "authpass1", "privpass1"), ENGINE);
+            SnmpV3Security.addLocalizedUser(second, user("ops", "authpass2", "privpass2"), ENGINE);
+            SnmpV3Security.addLocalizedUser(second, user("audit", "authpass3", "privpass3"), ENGINE);
+
+            UsmUserEntry firstOps = first.getUSM().getUser(ENGINE, new OctetString("ops"));
+            UsmUserEntry secondOps = second.getUSM().getUser(ENGINE, new OctetString("ops"));
+
+            assertThat(first.getUSM().getUser(ENGINE, new OctetString("audit")), nullValue());
+            assertThat(firstOps.getAuthenticationKey(), not(is(secondOps.getAuthenticationKey())));
+            assertThat(firstOps.getPrivacyKey(), not(is(secondOps.getPrivacyKey())));
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+
+    private static Snmp session() throws Exception {
+        return SnmpV3Security.newSession(new DefaultUdpTransportMapping());
+    }
+
+    private static AbstractSnmpTask.V3Security user(String username, String authPassword, String privPassword) {
+        return AbstractSnmpTask.V3Security.builder()
+            .username(username)
+            .authProtocol("SHA256")
+            .authPassword(authPassword)
+            .privProtocol("AES128")
+            .privPassword(privPassword)
+            .build();
+    }
+}
@@ -0,0 +1,195 @@
+package io.kestra.plugin.snmp;
+
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.snmp4j.PDU;
+import org.snmp4j.Target;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.TimeTicks;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.VariableBinding;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.models.triggers.Trigger;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.TestsUtils;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@KestraTest
+class TrapCollectorTest {
+    private static final OID LINK_DOWN = new OID("1.3.6.1.6.3.1.1.5.3");
+
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void emitBatchOnceWindowElapsed() throws Exception {
+        int port = freePort();
+        TrapCollector trigger = TrapCollector.builder()
+            .id("traps")
+            .type(TrapCollector.class.getName())
+            .bindAddress(Property.ofValue("127.0.0.1"))
+            .port(Property.ofValue(port))
+            .window(Property.ofValue(Duration.ofMillis(200)))
+            .build();
+        Map.Entry<ConditionContext, Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+        // the first evaluation starts listening, nothing was received yet
+        assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(false));
+
+        try (var lease = SnmpSessionPool.getInstance().borrow(new SnmpSessionPool.Key("udp", null, "V2C"))) {
+            Target<?> target = SnmpVersion.V2C.target(new UdpAddress("127.0.0.1/" + port), 1000, 0, "public", null);
+            for (int i = 0; i < 3; i++) {
+                lease.getSnmp().send(notification(), target);
+            }
+        }
+
+        long count = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (count < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            Optional<Execution> execution = trigger.evaluate(context.getKey(), context.getValue());
+            if (execution.isPresent()) {
+                Map<String, Object> variables = execution.get().getTrigger().getVariables();
+                assertThat(variables.get("uri"), notNullValue());
+                count += ((Number) variables.get("count")).longValue();
+            }
+        }
+
+        assertThat(count, is(3L));
+        assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(false));
+    }
+
+    @Test
+    void openWindowOnFirstNotificationAfterIdling() throws Exception {
+        int port = freePort();
+        TrapCollector trigger = TrapCollector.builder()
+            .id("idle")
+            .type(TrapCollector.class.getName())
+            .bindAddress(Property.ofValue("127.0.0.1"))
+            .port(Property.ofValue(port))
+            .window(Property.ofValue(Duration.ofSeconds(1)))
+            .build();
+        Map.Entry<ConditionContext, Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+        assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(false));
+
+        // quiet for longer than the window before the storm starts
+        Thread.sleep(1500);
+        assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(false));
+
+        try (var lease = SnmpSessionPool.getInstance().borrow(new SnmpSessionPool.Key("udp", null, "V2C"))) {
+            Target<?> target = SnmpVersion.V2C.target(new UdpAddress("127.0.0.1/" + port), 1000, 0, "public", null);
+            lease.getSnmp().send(notification(), target);
+
+            // the first notification opens the window instead of being flushed on its own
+            Thread.sleep(300);
+            assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(false));
+
+            for (int i = 0; i < 2; i++) {
+                lease.getSnmp().send(notification(), target);
+            }
+        }
+
+        List<Long> batches = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (batches.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            trigger.evaluate(context.getKey(), context.getValue())
+                .ifPresent(execution -> batches.add(((Number) execution.getTrigger().getVariables().get("count")).longValue()));
+        }
+
+        assertThat(batches, contains(3L));
+    }
+
+    @Test
+    void rebuildListenerWhenCommunitiesChange() throws Exception {
+        int port = freePort();
+        TrapCollector.TrapCollectorBuilder<?, ?> builder = TrapCollector.builder()
+            .id("reconfigured")
+            .type(TrapCollector.class.getName())
+            .bindAddress(Property.ofValue("127.0.0.1"))
+            .port(Property.ofValue(port))
+            .window(Property.ofValue(Duration.ofMillis(200)));
+        TrapCollector trigger = builder.communities(Property.ofValue(List.of("public"))).build();
+        Map.Entry<ConditionContext, Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+        trigger.evaluate(context.getKey(), context.getValue());
+
+        // same trigger, public no longer allowed
+        TrapCollector reconfigured = builder.communities(Property.ofValue(List.of("private"))).build();
+        reconfigured.evaluate(context.getKey(), context.getValue());
+
+        try (var lease = SnmpSessionPool.getInstance().borrow(new SnmpSessionPool.Key("udp", null, "V2C"))) {
+            Target<?> target = SnmpVersion.V2C.target(new UdpAddress("127.0.0.1/" + port), 1000, 0, "public", null);
+            lease.getSnmp().send(notification(), target);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            assertThat(reconfigured.evaluate(context.getKey(), context.getValue()).isPresent(), is(false));
+        }
+    }
+
+    @Test
+    void releasePortOfTriggerNoLongerEvaluated() throws Exception {
+        int port = freePort();
+        TrapCollector trigger = TrapCollector.builder()
+            .id("removed")
+            .type(TrapCollector.class.getName())
+            .bindAddress(Property.ofValue("127.0.0.1"))
+            .port(Property.ofValue(port))
+            .interval(Duration.ofMillis(100))
+            .window(Property.ofValue(Duration.ofMillis(100)))
+            .build();
+        Map.Entry<ConditionContext, Trigger> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+        trigger.evaluate(context.getKey(), context.getValue());
+        assertThat(bindable(port), is(false));
+
+        // no other collector is evaluated, the listener is still closed after 10 windows
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!bindable(port) && System.nanoTime() < deadline) {
+            Thread.sleep(200);
+        }
+        assertThat(bindable(port), is(true));
+    }
+
+    private static PDU notification() {
+        PDU pdu = SnmpVersion.V2C.pdu(PDU.TRAP);
+        pdu.add(new VariableBinding(SnmpConstants.sysUpTime, new TimeTicks(4200)));
+        pdu.add(new VariableBinding(SnmpConstants.snmpTrapOID, LINK_DOWN));
+        return pdu;
+    }
+
+    private static int freePort() throws SocketException {
+        try (DatagramSocket socket = new DatagramSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static boolean bindable(int port) {
+        try (DatagramSocket ignored = new DatagramSocket(new InetSocketAddress("127.0.0.1", port))) {
+            return true;
+        } catch (SocketException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.kestra.plugin.snmp;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class TrapDeduplicatorTest {
+    private static final long WINDOW = Duration.ofSeconds(10).toNanos();
+
+    @Test
+    void suppressDuplicatesWithinWindow() {
+        var deduplicator = new TrapDeduplicator(List.of("1.3.6.1.2.1.2.2.1.1"), Duration.ofNanos(WINDOW), 100, AbstractTrapTrigger.DeduplicationMode.DROP);
+
+        assertThat(deduplicator.accept(linkDown("10.0.0.1", 3), 0), is(true));
+        assertThat(deduplicator.accept(linkDown("10.0.0.1", 3), 1), is(false));
+        assertThat(deduplicator.accept(linkDown("10.0.0.1", 4), 2), is(true));
+        assertThat(deduplicator.accept(linkDown("10.0.0.2", 3), 3), is(true));
+        assertThat(deduplicator.accept(linkDown("10.0.0.1", 3), WINDOW + 1), is(true));
+
+        TrapDeduplicator.Stats stats = deduplicator.stats();
+        assertThat(stats.getHits(), is(1L));
+        assertThat(stats.getMisses(), is(4L));
+    }
+
+    @Test
+    void summarizeWhenWindowCloses() {
+        var deduplicator = new TrapDeduplicator(List.of(), Duration.ofNanos(WINDOW), 100, AbstractTrapTrigger.DeduplicationMode.SUMMARY);
+
+        deduplicator.accept(linkDown("10.0.0.1", 3), 0);
+        deduplicator.accept(linkDown("10.0.0.1", 4), 1);
+        deduplicator.accept(linkDown("10.0.0.1", 5), 2);
+        deduplicator.accept(linkDown("10.0.0.2", 3), 3);
+
+        assertThat(deduplicator.expired(WINDOW - 1), empty());
+
+        List<Trap> summaries = deduplicator.expired(WINDOW + 10);
+        assertThat(summaries, hasSize(1));
+        assertThat(summaries.getFirst().getAgentAddress(), is("10.0.0.1"));
+        assertThat(summaries.getFirst().getDuplicates(), is(2L));
+    }
+
+    @Test
+    void evictOldestWhenFull() {
+        var deduplicator = new TrapDeduplicator(List.of("1.3.6.1.2.1.2.2.1.1"), Duration.ofNanos(WINDOW), 2, AbstractTrapTrigger.DeduplicationMode.DROP);
+
+        deduplicator.accept(linkDown("10.0.0.1", 1), 0);
+        deduplicator.accept(linkDown("10.0.0.1", 2), 1);
+        deduplicator.accept(linkDown("10.0.0.1", 3), 2);
+
+        assertThat(deduplicator.stats().getEvictions(), is(1L));
+        assertThat(deduplicator.accept(linkDown("10.0.0.1", 1), 3), is(true));
+    }
+
+    private static Trap linkDown(String agent, int ifIndex) {
+        return Trap.builder()
+            .receivedAt(Instant.now())
+            .agentAddress(agent)
+            .trapOid("1.3.6.1.6.3.1.1.5.3")
+            .variables(List.of(new SnmpValue("1.3.6.1.2.1.2.2.1.1." + ifIndex, "Integer32", ifIndex)))
+            .build();
+    }
+}
@@ -0,0 +1,159 @@
+package io.kestra.plugin.snmp;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+import org.snmp4j.PDU;
+import org.snmp4j.Target;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.TimeTicks;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.VariableBinding;
+
+import io.kestra.core.serializers.FileSerde;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class TrapReceiverTest {
+    private static final OID LINK_DOWN = new OID("1.3.6.1.6.3.1.1.5.3");
+
+    @Test
+    void receiveTrap() throws Exception {
+        try (var receiver = receiver(List.of()); var lease = SnmpSessionPool.getInstance().borrow(new SnmpSessionPool.Key("udp", null, "V2C"))) {
+            lease.getSnmp().send(notification(PDU.TRAP), target(receiver, "public"));
+
+            Trap trap = receiver.poll(5, TimeUnit.SECONDS);
+            assertThat(trap, notNullValue());
+            assertThat(trap.getVersion(), is("v2c"));
+            assertThat(trap.getPduType(), is("TRAP"));
+            assertThat(trap.getTrapOid(), is(LINK_DOWN.toDottedString()));
+            assertThat(trap.getUptime(), is(4200L));
+            assertThat(trap.getAgentAddress(), is("127.0.0.1"));
+            assertThat(trap.getVariables(), hasSize(1));
+            assertThat(trap.getVariables().getFirst().getValue(), is("eth0"));
+        }
+    }
+
+    @Test
+    void acknowledgeInform() throws Exception {
+        try (var receiver = receiver(List.of()); var lease = SnmpSessionPool.getInstance().borrow(new SnmpSessionPool.Key("udp", null, "V2C"))) {
+            AsyncNotifier.Result result = new AsyncNotifier(lease.getSnmp(), 1)
+                .send(notification(PDU.INFORM), target(receiver, "public"))
+                .get(10, TimeUnit.SECONDS);
+
+            assertThat(result.error(), result.acknowledged(), is(true));
+            assertThat(receiver.poll(5, TimeUnit.SECONDS).getPduType(), is("INFORM"));
+        }
+    }
+
+    @Test
+    void rejectUnknownCommunity() throws Exception {
+        try (var receiver = receiver(List.of("secret")); var lease = SnmpSessionPool.getInstance().borrow(new SnmpSessionPool.Key("udp", null, "V2C"))) {
+            lease.getSnmp().send(notification(PDU.TRAP), target(receiver, "public"));
+            lease.getSnmp().send(notification(PDU.TRAP), target(receiver, "secret"));
+
+            assertThat(receiver.poll(5, TimeUnit.SECONDS), notNullValue());
+            assertThat(receiver.poll(500, TimeUnit.MILLISECONDS), nullValue());
+            assertThat(receiver.stats().getRejected(), is(1L));
+        }
+    }
+
+    @Test
+    void spillBatchBeyondMemoryThreshold(@TempDir Path spillDirectory) throws Exception {
+        try (var buffer = new TrapBuffer(receiver(List.of()), 2, spillDirectory, LoggerFactory.getLogger(TrapReceiverTest.class))) {
+            for (int i = 0; i < 5; i++) {
+                buffer.add(Trap.builder().trapOid(LINK_DOWN.toDottedString()).uptime((long) i).build());
+            }
+
+            TrapBuffer.Batch batch = buffer.take();
+            assertThat(batch.count(), is(5L));
+            assertThat(buffer.size(), is(0L));
+
+            try (var files = Files.list(spillDirectory)) {
+                assertThat(files.toList(), hasSize(1));
+            }
+
+            var output = new ByteArrayOutputStream();
+            batch.writeTo(output);
+            batch.delete();
+
+            List<Object> rows = FileSerde.readAll(new BufferedReader(new StringReader(output.toString(StandardCharsets.UTF_8)))).collectList().block();
+            assertThat(rows, hasSize(5));
+            assertThat(((Number) ((Map<?, ?>) rows.getLast()).get("uptime")).longValue(), is(4L));
+        }
+    }
+
+    @Test
+    void summarizeOpenWindowsOnShutdown() throws Exception {
+        var deduplicator = new TrapDeduplicator(List.of(), Duration.ofMinutes(1), 100, AbstractTrapTrigger.DeduplicationMode.SUMMARY);
+        try (var receiver = receiver(List.of(), deduplicator); var lease = SnmpSessionPool.getInstance().borrow(new SnmpSessionPool.Key("udp", null, "V2C"))) {
+            lease.getSnmp().send(notification(PDU.TRAP), target(receiver, "public"));
+            assertThat(receiver.poll(5, TimeUnit.SECONDS), notNullValue());
+
+            lease.getSnmp().send(notification(PDU.TRAP), target(receiver, "public"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (receiver.stats().getSuppressed() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+
+            receiver.shutdown();
+            Trap summary = receiver.poll(0, TimeUnit.MILLISECONDS);
+            assertThat(summary, notNullValue());
+            assertThat(summary.getDuplicates(), is(1L));
+        }
+    }
+
+    @Test
+    void translateV1GenericTrap() {
+        assertThat(Trap.v1TrapOid(new OID("1.3.6.1.4.1.9"), 2, 0), is(LINK_DOWN));
+        assertThat(Trap.v1TrapOid(new OID("1.3.6.1.4.1.9"), 6, 17), is(new OID("1.3.6.1.4.1.9.0.17")));
+    }
+
+    private static TrapReceiver receiver(List<String> communities) throws Exception {
+        return receiver(communities, null);
+    }
+
+    private static TrapReceiver receiver(List<String> communities, TrapDeduplicator deduplicator) throws Exception {
+        TrapReceiver receiver = new TrapReceiver(
+            TrapReceiver.Settings.builder()
+                .bindAddress("127.0.0.1")
+                .port(0)
+                .receiveBufferSize(1024 * 1024)
+                .decodeThreads(2)
+                .queueSize(100)
+                .communities(communities)
+                .users(List.of())
+                .build(),
+            deduplicator,
+            LoggerFactory.getLogger(TrapReceiverTest.class)
+        );
+        receiver.start();
+        return receiver;
+    }
+
+    private static Target<?> target(TrapReceiver receiver, String community) {
+        return SnmpVersion.V2C.target(new UdpAddress("127.0.0.1/" + receiver.port()), 1000, 0, community, null);
+    }
+
+    private static PDU notification(int type) {
+        PDU pdu = SnmpVersion.V2C.pdu(type);
+        pdu.add(new VariableBinding(SnmpConstants.sysUpTime, new TimeTicks(4200)));
+        pdu.add(new VariableBinding(SnmpConstants.snmpTrapOID, LINK_DOWN));
+        pdu.add(new VariableBinding(new OID("1.3.6.1.2.1.2.2.1.2.3"), new OctetString("eth0")));
+        return pdu;
+    }
+}
@@ -0,0 +1,80 @@
+package io.kestra.plugin.snmp;
+
+import org.junit.jupiter.api.Test;
+import org.snmp4j.smi.Counter32;
+import org.snmp4j.smi.Counter64;
+import org.snmp4j.smi.Gauge32;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.IpAddress;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.Opaque;
+import org.snmp4j.smi.TimeTicks;
+import org.snmp4j.smi.Variable;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VarBindEncoderTest {
+    @Test
+    void classifyIntegers() {
+        assertEncoded(VarBindEncoder.classify("12345"), new Integer32(12345));
+        assertEncoded(VarBindEncoder.classify("-42"), new Integer32(-42));
+        assertEncoded(VarBindEncoder.classify("-2147483648"), new Integer32(Integer.MIN_VALUE));
+        assertEncoded(VarBindEncoder.classify("2147483648"), new Gauge32(2147483648L));
+        assertEncoded(VarBindEncoder.classify("4294967295"), new Gauge32(4294967295L));
+        assertEncoded(VarBindEncoder.classify("4294967296"), new Counter64(4294967296L));
+        assertEncoded(VarBindEncoder.classify("18446744073709551615"), new Counter64(-1L));
+    }
+
+    @Test
+    void classifyOutOfRangeAsString() {
+        assertEncoded(VarBindEncoder.classify("18446744073709551616"), new OctetString("18446744073709551616"));
+        assertEncoded(VarBindEncoder.classify("-2147483649"), new OctetString("-2147483649"));
+    }
+
+    @Test
+    void classifyOids() {
+        assertEncoded(VarBindEncoder.classify("1.3.6.1.2.1.1.5.0"), new OID("1.3.6.1.2.1.1.5.0"));
+        assertEncoded(VarBindEncoder.classify("1.3."), new OctetString("1.3."));
+        assertEncoded(VarBindEncoder.classify(".1.3"), new OctetString(".1.3"));
+        assertEncoded(VarBindEncoder.classify("-1.3"), new OctetString("-1.3"));
+    }
+
+    @Test
+    void classifyStrings() {
+        assertEncoded(VarBindEncoder.classify(""), new OctetString(""));
+        assertEncoded(VarBindEncoder.classify("-"), new OctetString("-"));
+        assertEncoded(VarBindEncoder.classify("kestra-agent"), new OctetString("kestra-agent"));
+        assertEncoded(VarBindEncoder.classify("12a"), new OctetString("12a"));
+    }
+
+    @Test
+    void encodeExplicitTypes() {
+        assertEncoded(VarBindEncoder.encode("100", AbstractSnmpTask.VariableType.COUNTER32), new Counter32(100));
+        assertEncoded(VarBindEncoder.encode("100", AbstractSnmpTask.VariableType.TIMETICKS), new TimeTicks(100));
+        assertEncoded(VarBindEncoder.encode("100", AbstractSnmpTask.VariableType.OCTETSTRING), new OctetString("100"));
+        assertEncoded(VarBindEncoder.encode("10.0.0.1", AbstractSnmpTask.VariableType.IPADDRESS), new IpAddress("10.0.0.1"));
+        assertEncoded(VarBindEncoder.encode("0a:ff", AbstractSnmpTask.VariableType.OPAQUE), new Opaque(new byte[] { 0x0a, (byte) 0xff }));
+        assertThat(VarBindEncoder.encode(null, AbstractSnmpTask.VariableType.INTEGER32), nullValue());
+    }
+
+    @Test
+    void rejectInvalidTypedValues() {
+        assertThrows(IllegalArgumentException.class, () -> VarBindEncoder.encode("-1", AbstractSnmpTask.VariableType.GAUGE32));
+        assertThrows(IllegalArgumentException.class, () -> VarBindEncoder.encode("abc", AbstractSnmpTask.VariableType.INTEGER32));
+        assertThrows(IllegalArgumentException.class, () -> AbstractSnmpTask.VariableType.fromString("Float"));
+    }
+
+    @Test
+    void parseTypeNamesCaseInsensitively() {
+        assertThat(AbstractSnmpTask.VariableType.fromString("IpAddress"), is(AbstractSnmpTask.VariableType.IPADDRESS));
+        assertThat(AbstractSnmpTask.VariableType.fromString(null), nullValue());
+    }
+
+    private static void assertEncoded(Variable actual, Variable expected) {
+        assertThat(actual, is(expected));
+        assertThat(actual.getClass().getName(), is(expected.getClass().getName()));
+    }
+}
@@ -0,0 +1,133 @@
+package io.kestra.plugin.snmp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.OID;
+
+import io.kestra.core.junit.annotations.KestraTest;
+import io.kestra.core.models.property.Property;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+
+import jakarta.inject.Inject;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@KestraTest
+class WalkTest {
+    private static final OID IF_ENTRY = new OID("1.3.6.1.2.1.2.2.1");
+
+    @Inject
+    RunContextFactory runContextFactory;
+
+    @Test
+    void rowsAreHandedOverInOrder() throws Exception {
+        var queue = new AbstractSnmpStreamTask.RowQueue(2);
+        CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 10; i++) {
+                queue.put(Map.of("oid", "1.3.6.1.2.1.1." + i));
+            }
+            queue.finish(null);
+        });
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(queue.take().get("oid"), is("1.3.6.1.2.1.1." + i));
+        }
+        assertThat(queue.take(), nullValue());
+    }
+
+    @Test
+    void failedRetrievalIsRaised() {
+        var queue = new AbstractSnmpStreamTask.RowQueue(2);
+        IOException cause = new IOException("Request timed out.");
+        queue.finish(cause);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, queue::take);
+        assertThat(e.getMessage(), is("Request timed out."));
+        assertThat(e.getCause(), sameInstance(cause));
+    }
+
+    @Test
+    void failedRetrievalErrorIsRethrown() {
+        var queue = new AbstractSnmpStreamTask.RowQueue(2);
+        OutOfMemoryError error = new OutOfMemoryError("Java heap space");
+        queue.finish(error);
+
+        assertThat(assertThrows(OutOfMemoryError.class, queue::take), sameInstance(error));
+    }
+
+    @Test
+    void closeReleasesBlockedProducer() throws Exception {
+        var queue = new AbstractSnmpStreamTask.RowQueue(1);
+        queue.put(Map.of("oid", "1.3.6.1.2.1.1.1.0"));
+
+        AtomicReference<Boolean> accepted = new AtomicReference<>();
+        Thread producer = Thread.ofVirtual().start(() -> accepted.set(queue.put(Map.of("oid", "1.3.6.1.2.1.1.2.0"))));
+        queue.close();
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertThat(producer.isAlive(), is(false));
+        assertThat(accepted.get(), is(false));
+    }
+
+    @Test
+    void walkSubtreeThroughSmallBuffer() throws Exception {
+        try (var agent = new EmbeddedAgent().table(IF_ENTRY, 3, 100).put(new OID("1.3.6.1.2.1.3.1.0"), new Integer32(1))) {
+            AbstractSnmpStreamTask.Output output = Walk.builder()
+                .host(Property.ofValue("127.0.0.1"))
+                .port(Property.ofValue(agent.port()))
+                .oids(Property.ofValue(List.of(IF_ENTRY.toDottedString())))
+                .maxRepetitions(Property.ofValue(10))
+                .bufferSize(Property.ofValue(4))
+                .build()
+                .run(runContextFactory.of());
+
+            // the OID after the table is not part of the subtree
+            assertThat(output.getRowCount(), is(300L));
+        }
+    }
+
+    @Test
+    void tableRowsWithinBounds() throws Exception {
+        try (var agent = new EmbeddedAgent().table(IF_ENTRY, 4, 50)) {
+            RunContext runContext = runContextFactory.of();
+            AbstractSnmpStreamTask.Output output = Table.builder()
+                .host(Property.ofValue("127.0.0.1"))
+                .port(Property.ofValue(agent.port()))
+                .columns(Property.ofValue(List.of(IF_ENTRY + ".1", IF_ENTRY + ".2")))
+                .lowerBoundIndex(Property.ofValue("10"))
+                .upperBoundIndex(Property.ofValue("20"))
+                .maxRepetitions(Property.ofValue(3))
+                .bufferSize(Property.ofValue(2))
+                .build()
+                .run(runContext);
+
+            assertThat(output.getRowCount(), is(10L));
+            List<Map<String, Object>> rows = rows(runContext, output.getUri());
+            assertThat(rows.getFirst().get("index"), is("11"));
+            assertThat(rows.getLast().get("index"), is("20"));
+            assertThat(rows.getFirst().get(IF_ENTRY + ".2"), is("row-11"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> rows(RunContext runContext, URI uri) throws Exception {
+        try (var reader = new BufferedReader(new InputStreamReader(runContext.storage().getFile(uri), StandardCharsets.UTF_8))) {
+            return FileSerde.readAll(reader).map(row -> (Map<String, Object>) row).collectList().block();
+        }
+    }
+}